@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+#
+# Launcher for the dependencies tool CLI using the AppCDS archive trained at build time (//:cli_cds_archive).
+#
+# Usage: cli_launcher.sh <java> <deploy jar> <cds archive> [tool arguments...]
+#
+# All paths are runfiles paths (relative to the working directory set by 'bazel run'). The archive is only usable
+# with the JVM and the class path it was trained with. Therefore the JVM is the Java runtime the archive was trained
+# with (passed by //:cli_fast) and the deploy jar is put on the class path using the same string as during training.
+# The JVM falls back to starting without the archive if it doesn't match (-Xshare:auto), which is reported by the
+# JVM's CDS warnings.
+#
+set -euo pipefail
+
+java="$1"
+deploy_jar="$2"
+cds_archive="$3"
+shift 3
+
+jvm_flags=()
+if [[ -f "${cds_archive}" ]]; then
+  jvm_flags+=(-XX:SharedArchiveFile="${cds_archive}" -Xshare:auto)
+fi
+
+exec "${java}" ${jvm_flags[@]+"${jvm_flags[@]}"} ${JAVA_OPTS:-} \
+  -cp "${deploy_jar}" com.salesforce.tools.bazel.mavendependencies.tool.cli.DependenciesToolCli "$@"
@@ -0,0 +1,78 @@
+"""
+Module extension defining the repositories of a pinned catalog from its JSON lockfile.
+
+The lockfile (`catalog.json`) is written next to the generated `*.bzl` files when running
+`pin-dependencies --json-lockfile`. Reading it as data avoids loading and executing the generated
+`*.bzl` files, which is noticeably faster for large catalogs.
+
+To use this add the following to your MODULE.bazel:
+
+    maven_dependencies = use_extension("@bazel_maven_deps//bazel:lockfile.bzl", "maven_dependencies")
+    maven_dependencies.lockfile(path = "//third_party/dependencies/pinned_catalog:catalog.json")
+"""
+
+load(":jvm.bzl", "jvm_maven_import_external")
+
+_SUPPORTED_VERSION = 1
+
+def setup_maven_dependencies_from_lockfile(lockfile_content, maven_servers = None):
+    """Defines repositories for all Maven dependencies in a JSON lockfile.
+
+    Args:
+        lockfile_content: the content of the lockfile
+        maven_servers: the Maven servers to use (defaults to the servers in the lockfile)
+
+    Returns:
+        the list of repository names
+    """
+
+    lockfile = json.decode(lockfile_content)
+    if lockfile.get("version") != _SUPPORTED_VERSION:
+        fail("Unsupported lockfile version '%s' (expected %s). Please update bazel_maven_deps." % (lockfile.get("version"), _SUPPORTED_VERSION))
+
+    if not maven_servers:
+        maven_servers = lockfile["maven_servers"]
+
+    names = []
+    for entry in lockfile["imports"]:
+        kwargs = dict(entry)
+        srcjar_path = kwargs.pop("srcjar_path", None)
+        if srcjar_path:
+            kwargs["srcjar_urls"] = [server + srcjar_path for server in maven_servers]
+        jvm_maven_import_external(server_urls = maven_servers, **kwargs)
+        names.append(entry["name"])
+    return names
+
+def _maven_dependencies_impl(module_ctx):
+    root_module_names = []
+    for mod in module_ctx.modules:
+        for lockfile in mod.tags.lockfile:
+            names = setup_maven_dependencies_from_lockfile(
+                module_ctx.read(module_ctx.path(lockfile.path)),
+                lockfile.maven_servers,
+            )
+            if mod.is_root:
+                root_module_names += names
+
+    return module_ctx.extension_metadata(
+        root_module_direct_deps = root_module_names,
+        root_module_direct_dev_deps = [],
+    )
+
+maven_dependencies = module_extension(
+    implementation = _maven_dependencies_impl,
+    tag_classes = {
+        "lockfile": tag_class(
+            attrs = {
+                "path": attr.label(
+                    doc = "Label of the JSON lockfile (eg., //third_party/dependencies/pinned_catalog:catalog.json)",
+                    mandatory = True,
+                    allow_single_file = [".json"],
+                ),
+                "maven_servers": attr.string_list(
+                    doc = "Maven servers to use instead of the ones in the lockfile",
+                ),
+            },
+        ),
+    },
+)
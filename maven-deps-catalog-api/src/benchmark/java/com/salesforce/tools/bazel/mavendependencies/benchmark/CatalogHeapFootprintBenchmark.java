@@ -0,0 +1,128 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static java.lang.String.format;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.BazelJavaDependencyImportBuilder;
+
+/**
+ * Measures the heap retained by a large number of catalog entries.
+ * <p>
+ * A synthetic catalog is generated. Every string is a new instance, the same way the parser creates them. The
+ * benchmark compares the heap retained by the {@link BazelJavaDependencyImportBuilder builders} (which use the
+ * previous representation of imports, i.e. <code>TreeSet</code> and <code>String</code> fields) with the heap retained
+ * by the {@link BazelJavaDependencyImport imports} built from them.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-catalog-api:heap_footprint_benchmark -- [entries]
+ * </pre>
+ * </p>
+ */
+public class CatalogHeapFootprintBenchmark {
+
+    private static final String HEX = "0123456789abcdef";
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static List<BazelJavaDependencyImport> build(List<BazelJavaDependencyImportBuilder> builders) {
+        // in a separate method so that no stack slot keeps the builders reachable
+        List<BazelJavaDependencyImport> imports = new ArrayList<>(builders.size());
+        for (BazelJavaDependencyImportBuilder builder : builders) {
+            imports.add(builder.build());
+        }
+        return imports;
+    }
+
+    private static List<BazelJavaDependencyImportBuilder> generate(int entries) {
+        var random = new Random(42);
+        List<String> names = new ArrayList<>(entries);
+        List<MavenArtifact> artifacts = new ArrayList<>(entries);
+        for (var i = 0; i < entries; i++) {
+            var artifact = new MavenArtifact(
+                    "org.example.group" + (i / 20),
+                    "artifact-" + i,
+                    "1." + random.nextInt(20) + ".0",
+                    "jar",
+                    null);
+            artifacts.add(artifact);
+            names.add(createForArtifact(artifact).getName());
+        }
+
+        List<BazelJavaDependencyImportBuilder> builders = new ArrayList<>(entries);
+        for (var i = 0; i < entries; i++) {
+            var builder = createForArtifact(artifacts.get(i));
+            builder.setArtifactSha256(hex(random, 64))
+                    .setArtifactSha1(hex(random, 40))
+                    .setSourcesArtifact(true)
+                    .setSourcesArtifactSha256(hex(random, 64))
+                    .setSourcesArtifactSha1(hex(random, 40))
+                    .setLicenses(List.of(copy("notice")))
+                    .setDeps(labels(random, names, 8))
+                    .setRuntimeDeps(labels(random, names, 3));
+            if (random.nextInt(3) == 0) {
+                builder.setTags(List.of(copy(BazelJavaDependencyImport.TAG_NOT_IN_COLLECTION)));
+            }
+            builders.add(builder);
+        }
+        return builders;
+    }
+
+    private static String hex(Random random, int length) {
+        var hex = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            hex.append(HEX.charAt(random.nextInt(HEX.length())));
+        }
+        return hex.toString();
+    }
+
+    private static List<String> labels(Random random, List<String> names, int max) {
+        List<String> labels = new ArrayList<>();
+        for (var i = random.nextInt(max + 1); i > 0; i--) {
+            labels.add("@" + names.get(random.nextInt(names.size())));
+        }
+        return labels;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var entries = args.length > 0 ? Integer.parseInt(args[0]) : 15000;
+
+        final var baseline = usedHeapAfterGc();
+        var builders = generate(entries);
+        final var withBuilders = usedHeapAfterGc();
+
+        var imports = build(builders);
+        builders = null;
+        final var withImports = usedHeapAfterGc();
+
+        report("tree sets and strings (builders)", withBuilders - baseline, entries);
+        report("compact imports", withImports - baseline, entries);
+        System.out.println(format("%d imports retained", new TreeSet<>(imports).size()));
+    }
+
+    private static void report(String label, long bytes, int entries) {
+        System.out.println(
+            format("%-36s %10.1f MB %8d bytes/entry", label, bytes / (1024.0 * 1024.0), bytes / entries));
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        final var memory = ManagementFactory.getMemoryMXBean();
+        for (var i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,181 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+
+/**
+ * Generates two Bazel workspaces with the same synthetic pinned catalog for comparing the evaluation time of the
+ * module extension reading the generated <code>*.bzl</code> files with the one reading the JSON lockfile.
+ * <p>
+ * Evaluating the module extensions must happen with Bazel. The benchmark therefore only generates the workspaces,
+ * reports the size of the generated files and prints the commands to run. Both workspaces use
+ * <code>bazel_maven_deps</code> from the given path via <code>local_path_override</code>. The extensions are evaluated
+ * with <code>bazel mod show_extension</code>, which does not download any artifacts.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-catalog-api:lockfile_benchmark -- &lt;output directory&gt; &lt;bazel_maven_deps checkout&gt; [entries]
+ * </pre>
+ * </p>
+ */
+public class CatalogLockfileBenchmark {
+
+    private static final String HEX = "0123456789abcdef";
+
+    private static final String MAVEN_CENTRAL = "https://repo1.maven.org/maven2/";
+
+    private static Stream<BazelJavaDependencyImport> generate(int entries) {
+        var random = new Random(42);
+        List<MavenArtifact> artifacts = new ArrayList<>(entries);
+        for (var i = 0; i < entries; i++) {
+            // 100 artifacts per group file
+            artifacts.add(
+                new MavenArtifact(
+                        "org.example" + (i / 100) + ".lib",
+                        "artifact-" + i,
+                        "1." + random.nextInt(20) + ".0",
+                        "jar",
+                        null));
+        }
+
+        List<BazelJavaDependencyImport> imports = new ArrayList<>(entries);
+        for (MavenArtifact artifact : artifacts) {
+            var builder = createForArtifact(artifact).setArtifactSha256(hex(random, 64))
+                    .setArtifactSha1(hex(random, 40))
+                    .setSourcesArtifact(true)
+                    .setSourcesArtifactSha256(hex(random, 64))
+                    .setSourcesArtifactSha1(hex(random, 40))
+                    .setLicenses(List.of("notice"));
+            List<String> deps = new ArrayList<>();
+            for (var d = random.nextInt(6); d > 0; d--) {
+                deps.add("@" + createForArtifact(artifacts.get(random.nextInt(entries))).getName());
+            }
+            builder.setDeps(deps);
+            imports.add(builder.build());
+        }
+        return imports.stream();
+    }
+
+    private static String hex(Random random, int length) {
+        var hex = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            hex.append(HEX.charAt(random.nextInt(HEX.length())));
+        }
+        return hex.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogLockfileBenchmark <output directory> <bazel_maven_deps checkout> [entries]");
+            System.exit(1);
+        }
+        final var outputDirectory = Path.of(args[0]).toAbsolutePath();
+        final var bazelMavenDeps = Path.of(args[1]).toAbsolutePath();
+        final var entries = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+
+        final var starlarkWorkspace = outputDirectory.resolve("starlark");
+        final var lockfileWorkspace = outputDirectory.resolve("lockfile");
+        writeWorkspace(
+            starlarkWorkspace,
+            bazelMavenDeps,
+            entries,
+            "//third_party/dependencies/pinned_catalog:extension.bzl",
+            "");
+        writeWorkspace(
+            lockfileWorkspace,
+            bazelMavenDeps,
+            entries,
+            "@bazel_maven_deps//bazel:lockfile.bzl",
+            "maven_dependencies.lockfile(path = \"//third_party/dependencies/pinned_catalog:catalog.json\")\n");
+
+        final var catalogDirectory = Path.of("third_party", "dependencies", "pinned_catalog");
+        long bzlBytes;
+        try (var files = Files.list(starlarkWorkspace.resolve(catalogDirectory))) {
+            bzlBytes = files.filter(p -> p.toString().endsWith(".bzl")).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        }
+        final var jsonBytes = Files.size(lockfileWorkspace.resolve(catalogDirectory).resolve("catalog.json"));
+
+        System.out.println(format("%d entries", entries));
+        System.out.println(format("generated *.bzl files  %,12d bytes", bzlBytes));
+        System.out.println(format("JSON lockfile          %,12d bytes", jsonBytes));
+        System.out.println();
+        System.out.println("Compare the module extension evaluation with (each run starts a fresh Bazel server):");
+        System.out.println();
+        System.out.println(
+            format(
+                "hyperfine --warmup 1 --prepare 'cd %1$s && bazel shutdown' 'cd %1$s && %3$s //third_party/dependencies/pinned_catalog:extension.bzl%%maven_dependencies' \\%n"
+                        + "  --prepare 'cd %2$s && bazel shutdown' 'cd %2$s && %3$s @bazel_maven_deps//bazel:lockfile.bzl%%maven_dependencies'",
+                starlarkWorkspace,
+                lockfileWorkspace,
+                "bazel mod show_extension --lockfile_mode=off"));
+    }
+
+    private static void writeWorkspace(
+            Path workspace,
+            Path bazelMavenDeps,
+            int entries,
+            String extensionLabel,
+            String extensionTags) throws IOException {
+        Files.createDirectories(workspace);
+        Files.writeString(
+            workspace.resolve("MODULE.bazel"),
+            format(
+                "module(name = \"lockfile_benchmark\")%n%n" + "bazel_dep(name = \"bazel_maven_deps\")%n"
+                        + "local_path_override(module_name = \"bazel_maven_deps\", path = \"%s\")%n%n"
+                        + "maven_dependencies = use_extension(\"%s\", \"maven_dependencies\")%n%s",
+                bazelMavenDeps,
+                extensionLabel,
+                extensionTags),
+            UTF_8);
+        Files.writeString(workspace.resolve("BUILD.bazel"), "", UTF_8);
+
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.load();
+        catalog.replaceContent(generate(entries), false);
+        catalog.setJsonLockfileEnabled(true);
+        catalog.save(
+            new TreeSet<>(List.of(MAVEN_CENTRAL)),
+            "@bazel_maven_deps//bazel:jvm.bzl",
+            BazelDependenciesCatalog.getRecommendedPreamble(),
+            new NullProgressMonitor(),
+            new ScmSupport() { // plain file system, the workspaces are not under version control
+
+                @Override
+                public boolean removeFile(Path obsoletePath) throws IOException {
+                    return Files.deleteIfExists(obsoletePath);
+                }
+
+                @Override
+                public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+                    Files.writeString(path, content, charset);
+                    return true;
+                }
+            });
+    }
+}
@@ -0,0 +1,220 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
+import static java.lang.String.format;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+
+/**
+ * Measures replacing the content of a large pinned catalog where only a few entries changed.
+ * <p>
+ * A synthetic catalog is generated together with a copy where 1% of the entries are modified (half of them get a new
+ * version, the other half new <code>deps</code>). Every iteration replaces the catalog content with fresh copies of
+ * the imports (i.e. no fingerprint is cached yet, as it is the case after resolving dependencies). The benchmark also
+ * compares the delta detection for all entries using rendered descriptions (<code>diff(other, true)</code>, as
+ * previously done by <code>replaceContent</code>) with the fingerprint and typed diff.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-catalog-api:replace_content_benchmark -- [entries] [iterations]
+ * </pre>
+ * </p>
+ */
+public class CatalogReplaceContentBenchmark {
+
+    private static final String HEX = "0123456789abcdef";
+
+    private static BazelJavaDependencyImport copy(BazelJavaDependencyImport i) {
+        return createWithNameAndArtifact(i.getName(), i.getArtifact()).setArtifactSha256(i.getArtifactSha256())
+                .setArtifactSha1(i.getArtifactSha1())
+                .setSourcesArtifact(i.hasSourcesArtifact())
+                .setSourcesArtifactSha256(i.getSourcesArtifactSha256())
+                .setSourcesArtifactSha1(i.getSourcesArtifactSha1())
+                .setLicenses(i.getLicenses())
+                .setDeps(i.getDeps())
+                .setRuntimeDeps(i.getRuntimeDeps())
+                .setTags(i.getTags())
+                .build();
+    }
+
+    private static List<BazelJavaDependencyImport> copyAll(List<BazelJavaDependencyImport> imports) {
+        List<BazelJavaDependencyImport> copies = new ArrayList<>(imports.size());
+        for (BazelJavaDependencyImport i : imports) {
+            copies.add(copy(i));
+        }
+        return copies;
+    }
+
+    private static List<BazelJavaDependencyImport> generate(Random random, int entries) {
+        List<BazelJavaDependencyImport> imports = new ArrayList<>(entries);
+        for (var i = 0; i < entries; i++) {
+            var artifact = new MavenArtifact(
+                    "org.example.group" + (i / 20),
+                    "artifact-" + i,
+                    "1." + random.nextInt(20) + ".0",
+                    "jar",
+                    null);
+            imports.add(
+                createWithNameAndArtifact(format("org_example_group%d_artifact_%d", i / 20, i), artifact)
+                        .setArtifactSha256(hex(random, 64))
+                        .setArtifactSha1(hex(random, 40))
+                        .setSourcesArtifact(true)
+                        .setSourcesArtifactSha256(hex(random, 64))
+                        .setSourcesArtifactSha1(hex(random, 40))
+                        .setLicenses(List.of("notice"))
+                        .setDeps(labels(random, entries, 8))
+                        .setRuntimeDeps(labels(random, entries, 3))
+                        .build());
+        }
+        return imports;
+    }
+
+    private static String hex(Random random, int length) {
+        var hex = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            hex.append(HEX.charAt(random.nextInt(HEX.length())));
+        }
+        return hex.toString();
+    }
+
+    private static List<String> labels(Random random, int entries, int max) {
+        List<String> labels = new ArrayList<>();
+        for (var i = random.nextInt(max + 1); i > 0; i--) {
+            var target = random.nextInt(entries);
+            labels.add(format("@org_example_group%d_artifact_%d", target / 20, target));
+        }
+        return labels;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var entries = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        final var iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        final var random = new Random(42);
+        final var original = generate(random, entries);
+        final var modified = modify(random, original, entries / 100);
+
+        final var workspace = Files.createTempDirectory("replace-content-benchmark");
+        final var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.load();
+        catalog.replaceContent(copyAll(original).stream(), false);
+
+        final var replaceNanos = new long[iterations];
+        final var renderedDiffNanos = new long[iterations];
+        final var typedDiffNanos = new long[iterations];
+        var changes = 0;
+        for (var i = 0; i < (iterations + 5); i++) {
+            // alternate, so every iteration changes 1% of the entries
+            var next = copyAll((i % 2) == 0 ? modified : original);
+            var start = System.nanoTime();
+            changes = catalog.replaceContent(next.stream(), false).modifications.size();
+            var replaceTime = System.nanoTime() - start;
+
+            // delta detection as done previously by replaceContent (descriptions rendered for every entry)
+            var previous = copyAll((i % 2) == 0 ? original : modified);
+            next = copyAll((i % 2) == 0 ? modified : original);
+            start = System.nanoTime();
+            var renderedDiffs = 0;
+            for (var e = 0; e < entries; e++) {
+                var oldValue = previous.get(e);
+                var newValue = next.get(e);
+                var diff = oldValue.diff(newValue, true);
+                if (!oldValue.getArtifact().getVersion().equals(newValue.getArtifact().getVersion())) {
+                    renderedDiffs += diff.isEmpty() ? 0 : 1;
+                } else if (!newValue.equals(oldValue)) {
+                    renderedDiffs += oldValue.diff(newValue, true).isEmpty() ? 0 : 1;
+                }
+            }
+            var renderedDiffTime = System.nanoTime() - start;
+
+            previous = copyAll((i % 2) == 0 ? original : modified);
+            next = copyAll((i % 2) == 0 ? modified : original);
+            start = System.nanoTime();
+            var typedDiffs = 0;
+            for (var e = 0; e < entries; e++) {
+                var oldValue = previous.get(e);
+                var newValue = next.get(e);
+                if (!oldValue.hasSameContent(newValue) && !oldValue.diffFields(newValue).isEmpty()) {
+                    // descriptions are rendered when printed
+                    typedDiffs++;
+                }
+            }
+            var typedDiffTime = System.nanoTime() - start;
+
+            if (renderedDiffs != typedDiffs) {
+                throw new IllegalStateException(format("Diff mismatch: %d <> %d", renderedDiffs, typedDiffs));
+            }
+
+            // first iterations are warm-up
+            if (i >= 5) {
+                replaceNanos[i - 5] = replaceTime;
+                renderedDiffNanos[i - 5] = renderedDiffTime;
+                typedDiffNanos[i - 5] = typedDiffTime;
+            }
+        }
+
+        System.out.println(format("%d entries, %d modifications per replace, %d iterations", entries, changes, iterations));
+        report("replaceContent", replaceNanos);
+        report("delta: diff with descriptions", renderedDiffNanos);
+        report("delta: fingerprint and typed diff", typedDiffNanos);
+    }
+
+    private static List<BazelJavaDependencyImport> modify(
+            Random random,
+            List<BazelJavaDependencyImport> imports,
+            int count) {
+        List<BazelJavaDependencyImport> modified = new ArrayList<>(imports);
+        for (var c = 0; c < count; c++) {
+            var index = random.nextInt(imports.size());
+            var i = imports.get(index);
+            if ((c % 2) == 0) {
+                var artifact = i.getArtifact();
+                modified.set(
+                    index,
+                    createWithNameAndArtifact(
+                        i.getName(),
+                        new MavenArtifact(
+                                artifact.getGroupId(),
+                                artifact.getArtifactId(),
+                                artifact.getVersion() + ".1",
+                                artifact.getPackaging(),
+                                artifact.getClassifier())).setArtifactSha256(hex(random, 64))
+                                        .setArtifactSha1(hex(random, 40))
+                                        .setLicenses(i.getLicenses())
+                                        .setDeps(i.getDeps())
+                                        .build());
+            } else {
+                modified.set(
+                    index,
+                    createWithNameAndArtifact(i.getName(), i.getArtifact()).setArtifactSha256(i.getArtifactSha256())
+                            .setArtifactSha1(i.getArtifactSha1())
+                            .setLicenses(i.getLicenses())
+                            .setDeps(labels(random, imports.size(), 8))
+                            .build());
+            }
+        }
+        return modified;
+    }
+
+    private static void report(String label, long[] nanos) {
+        var sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.println(
+            format(
+                "%-36s median %8.2f ms  min %8.2f ms",
+                label,
+                sorted[sorted.length / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                sorted[0] / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+}
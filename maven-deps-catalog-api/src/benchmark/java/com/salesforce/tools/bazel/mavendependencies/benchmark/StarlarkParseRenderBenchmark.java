@@ -0,0 +1,194 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static com.salesforce.tools.bazel.mavendependencies.benchmark.SyntheticWorkspaceGenerator.LABEL_FOR_LOADING_JVM_MAVEN_IMPORT_EXTERNAL_SYMBOL;
+import static com.salesforce.tools.bazel.mavendependencies.benchmark.SyntheticWorkspaceGenerator.LABEL_FOR_LOADING_MAVEN_SYMBOL;
+import static com.salesforce.tools.bazel.mavendependencies.benchmark.SyntheticWorkspaceGenerator.MAVEN_SERVERS;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toCollection;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.DependenciesFileBenchmarkAccess;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenConventions;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.CatalogFileBenchmarkAccess;
+
+/**
+ * Measures reading and rendering the collection and pinned catalog files of synthetic workspaces.
+ * <p>
+ * For every size a workspace is generated with {@link SyntheticWorkspaceGenerator}. Each operation runs a few warm-up
+ * iterations followed by the measured iterations. One iteration processes all files of the workspace. The benchmark
+ * reports the median time per iteration, the throughput in artifacts per second, and the bytes allocated per iteration
+ * together with the allocation rate. Allocations are summed over all live threads (loading uses the common fork-join
+ * pool).
+ * </p>
+ * <p>
+ * <code>BazelCatalogFile.read</code> uses the fast reader for generated files. Parsing with the Starlark parser is
+ * covered by <code>MavenDependenciesFile.read</code>.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-catalog-api:parse_render_benchmark -- [artifacts,...] [iterations]
+ * </pre>
+ * </p>
+ */
+public class StarlarkParseRenderBenchmark {
+
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * @return a value derived from the result (consumed to prevent dead code elimination)
+         */
+        long run() throws Exception;
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+
+    /** sink for results of operations */
+    private static volatile long sink;
+
+    private static long allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var total = 0L;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 1000, 10000, 50000 };
+        final var iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.println(
+            format(
+                "%-36s %8s %12s %14s %14s %12s",
+                "operation",
+                "size",
+                "ms/op",
+                "artifacts/s",
+                "MB alloc/op",
+                "MB/s alloc"));
+        for (int size : sizes) {
+            runAll(size, iterations);
+        }
+    }
+
+    private static void measure(String name, int size, int iterations, Operation operation) throws Exception {
+        var nanos = new long[iterations];
+        var allocated = new long[iterations];
+        for (var i = 0; i < (WARMUP_ITERATIONS + iterations); i++) {
+            var allocatedBefore = allocatedBytes();
+            var start = System.nanoTime();
+            sink += operation.run();
+            var time = System.nanoTime() - start;
+            var allocatedAfter = allocatedBytes();
+            if (i >= WARMUP_ITERATIONS) {
+                nanos[i - WARMUP_ITERATIONS] = time;
+                allocated[i - WARMUP_ITERATIONS] = allocatedAfter - allocatedBefore;
+            }
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(allocated);
+
+        var medianNanos = nanos[iterations / 2];
+        var medianAllocated = allocated[iterations / 2];
+        var seconds = medianNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.println(
+            format(
+                "%-36s %8d %12.2f %,14.0f %14.1f %12.1f",
+                name,
+                size,
+                medianNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                size / seconds,
+                medianAllocated / (1024d * 1024d),
+                (medianAllocated / (1024d * 1024d)) / seconds));
+    }
+
+    private static void runAll(int size, int iterations) throws Exception {
+        final var workspace = Files.createTempDirectory("parse-render-benchmark");
+        SyntheticWorkspaceGenerator.generate(workspace, size);
+
+        final var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        final var groups = collection.getAllArtifacts()
+                .map(MavenArtifact::getGroupId)
+                .map(MavenConventions::getFileGroup)
+                .collect(toCollection(TreeSet::new));
+        final List<Path> collectionFiles = new ArrayList<>();
+        final List<Path> catalogFiles = new ArrayList<>();
+        final var catalogDirectory = workspace.resolve(Path.of("third_party", "dependencies", "pinned_catalog"));
+        for (String group : groups) {
+            collectionFiles.add(collection.getGroupFileLocation(group));
+            catalogFiles.add(catalogDirectory.resolve(BazelDependenciesCatalog.toGroupFileName(group)));
+        }
+
+        final List<Object> dependenciesFiles = new ArrayList<>();
+        for (Path file : collectionFiles) {
+            dependenciesFiles.add(DependenciesFileBenchmarkAccess.read(file));
+        }
+        final List<Object> bazelCatalogFiles = new ArrayList<>();
+        for (Path file : catalogFiles) {
+            bazelCatalogFiles.add(CatalogFileBenchmarkAccess.read(file));
+        }
+        final var collectionPreamble = MavenDependenciesCollection.getRecommendedPreamble();
+        final var catalogPreamble = BazelDependenciesCatalog.getRecommendedPreamble();
+
+        measure("MavenDependenciesFile.read", size, iterations, () -> {
+            var result = 0L;
+            for (Path file : collectionFiles) {
+                result += DependenciesFileBenchmarkAccess.getArtifactCount(DependenciesFileBenchmarkAccess.read(file));
+            }
+            return result;
+        });
+        measure("BazelCatalogFile.read", size, iterations, () -> {
+            var result = 0L;
+            for (Path file : catalogFiles) {
+                result += CatalogFileBenchmarkAccess.getImportCount(CatalogFileBenchmarkAccess.read(file));
+            }
+            return result;
+        });
+        measure("MavenDependenciesCollection.load", size, iterations, () -> {
+            var loaded = new MavenDependenciesCollection(workspace);
+            loaded.load();
+            return loaded.getAllDependencies().size();
+        });
+        measure("BazelDependenciesCatalog.load", size, iterations, () -> {
+            var loaded = new BazelDependenciesCatalog(workspace);
+            loaded.load();
+            return loaded.getAllImports().count();
+        });
+        measure("MavenDependenciesFile.prettyPrint", size, iterations, () -> {
+            var result = 0L;
+            for (Object file : dependenciesFiles) {
+                result += DependenciesFileBenchmarkAccess
+                        .prettyPrint(file, LABEL_FOR_LOADING_MAVEN_SYMBOL, collectionPreamble, false)
+                        .length();
+            }
+            return result;
+        });
+        measure("BazelCatalogFile.prettyPrint", size, iterations, () -> {
+            var result = 0L;
+            for (Object file : bazelCatalogFiles) {
+                result += CatalogFileBenchmarkAccess
+                        .prettyPrint(file, MAVEN_SERVERS, LABEL_FOR_LOADING_JVM_MAVEN_IMPORT_EXTERNAL_SYMBOL, catalogPreamble)
+                        .length();
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+
+/**
+ * Generates a workspace with a synthetic dependency collection and pinned catalog.
+ * <p>
+ * The content is deterministic for a given number of artifacts. Every file group holds 50 artifacts in 5 Maven groups.
+ * Each Maven group has a version variable used by most of its artifacts, and each file group imports one BOM. Catalog
+ * entries carry checksums, sources, licenses and up to 5 <code>deps</code>. The files are written using the regular
+ * <code>save</code> methods, i.e. they look like the files produced by the tool.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-catalog-api:synthetic_workspace -- &lt;output directory&gt; [artifacts]
+ * </pre>
+ * </p>
+ */
+public class SyntheticWorkspaceGenerator {
+
+    static final String LABEL_FOR_LOADING_MAVEN_SYMBOL = "@bazel_maven_deps//bazel:defs.bzl";
+    static final String LABEL_FOR_LOADING_JVM_MAVEN_IMPORT_EXTERNAL_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+    static final SortedSet<String> MAVEN_SERVERS = new TreeSet<>(List.of("https://repo1.maven.org/maven2/"));
+
+    private static final int ARTIFACTS_PER_FILE_GROUP = 50;
+    private static final int ARTIFACTS_PER_MAVEN_GROUP = 10;
+
+    private static final String HEX = "0123456789abcdef";
+
+    /** plain file system, the generated workspaces are not under version control */
+    static final ScmSupport PLAIN_FILE_SYSTEM = new ScmSupport() {
+
+        @Override
+        public boolean removeFile(Path obsoletePath) throws IOException {
+            return Files.deleteIfExists(obsoletePath);
+        }
+
+        @Override
+        public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content, charset);
+            return true;
+        }
+    };
+
+    /**
+     * Generates the collection and pinned catalog into a workspace.
+     *
+     * @param workspace
+     *            the workspace directory (will be created if necessary)
+     * @param artifacts
+     *            number of artifacts
+     * @throws IOException
+     *             in case of errors writing the files
+     */
+    public static void generate(Path workspace, int artifacts) throws IOException {
+        Files.createDirectories(workspace);
+        Files.writeString(workspace.resolve("WORKSPACE"), "", UTF_8);
+
+        var random = new Random(42);
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        List<MavenArtifact> resolvedArtifacts = new ArrayList<>(artifacts);
+        for (var i = 0; i < artifacts; i++) {
+            var fileGroup = i / ARTIFACTS_PER_FILE_GROUP;
+            var groupId = format("com.example%d.lib%d", fileGroup, (i / ARTIFACTS_PER_MAVEN_GROUP) % 5);
+            var version = format("%d.%d.%d", 1 + random.nextInt(5), random.nextInt(20), random.nextInt(10));
+            var versionVariable = "_" + groupId.replace('.', '_').toUpperCase(Locale.ROOT) + "_VERSION";
+
+            if ((i % ARTIFACTS_PER_FILE_GROUP) == 0) {
+                collection.addImportedBom(
+                    new MavenArtifact(format("com.example%d", fileGroup), "example-bom", version, "pom", null));
+            }
+
+            var artifactId = "artifact-" + i;
+            if ((i % ARTIFACTS_PER_MAVEN_GROUP) < 7) {
+                if (collection.hasVersionVariable(versionVariable)) {
+                    version = collection.getVersionVariableValue(versionVariable);
+                }
+                collection.addDependencyWithManagedVersion(
+                    new MavenArtifact(groupId, artifactId, versionVariable, "jar", null),
+                    versionVariable,
+                    version);
+            } else {
+                collection.addDependency(new MavenArtifact(groupId, artifactId, version, "jar", null));
+            }
+            resolvedArtifacts.add(new MavenArtifact(groupId, artifactId, version, "jar", null));
+        }
+        collection.save(
+            LABEL_FOR_LOADING_MAVEN_SYMBOL,
+            MavenDependenciesCollection.getRecommendedPreamble(),
+            false,
+            false,
+            new NullProgressMonitor(),
+            PLAIN_FILE_SYSTEM);
+
+        List<BazelJavaDependencyImport> imports = new ArrayList<>(artifacts);
+        for (MavenArtifact artifact : resolvedArtifacts) {
+            List<String> deps = new ArrayList<>();
+            for (var d = random.nextInt(6); d > 0; d--) {
+                deps.add("@" + createForArtifact(resolvedArtifacts.get(random.nextInt(artifacts))).getName());
+            }
+            imports.add(
+                createForArtifact(artifact).setArtifactSha256(hex(random, 64))
+                        .setArtifactSha1(hex(random, 40))
+                        .setSourcesArtifact(true)
+                        .setSourcesArtifactSha256(hex(random, 64))
+                        .setSourcesArtifactSha1(hex(random, 40))
+                        .setLicenses(List.of("notice"))
+                        .setDeps(deps)
+                        .build());
+        }
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.load();
+        catalog.replaceContent(imports.stream(), false);
+        catalog.save(
+            MAVEN_SERVERS,
+            LABEL_FOR_LOADING_JVM_MAVEN_IMPORT_EXTERNAL_SYMBOL,
+            BazelDependenciesCatalog.getRecommendedPreamble(),
+            new NullProgressMonitor(),
+            PLAIN_FILE_SYSTEM);
+    }
+
+    private static String hex(Random random, int length) {
+        var hex = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            hex.append(HEX.charAt(random.nextInt(HEX.length())));
+        }
+        return hex.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticWorkspaceGenerator <output directory> [artifacts]");
+            System.exit(1);
+        }
+        final var workspace = Path.of(args[0]).toAbsolutePath();
+        final var artifacts = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        generate(workspace, artifacts);
+        System.out.println(format("Generated %d artifacts into '%s'", artifacts, workspace));
+    }
+}
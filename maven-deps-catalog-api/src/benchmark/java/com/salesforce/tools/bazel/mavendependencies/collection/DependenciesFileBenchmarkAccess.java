@@ -0,0 +1,41 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Gives benchmarks access to the package-private {@link MavenDependenciesFile}.
+ */
+public final class DependenciesFileBenchmarkAccess {
+
+    /**
+     * @return the number of dependencies and imported BOMs in a file returned by {@link #read(Path)}
+     */
+    public static int getArtifactCount(Object dependenciesFile) {
+        var file = (MavenDependenciesFile) dependenciesFile;
+        return file.getDependencies().size() + file.getImportedBoms().size();
+    }
+
+    /**
+     * @see MavenDependenciesFile#prettyPrint(String, String, boolean)
+     */
+    public static CharSequence prettyPrint(
+            Object dependenciesFile,
+            String labelForLoadingMavenSymbol,
+            String preamble,
+            boolean conciseFormat) {
+        return ((MavenDependenciesFile) dependenciesFile)
+                .prettyPrint(labelForLoadingMavenSymbol, preamble, conciseFormat);
+    }
+
+    /**
+     * @see MavenDependenciesFile#read(Path)
+     */
+    public static Object read(Path file) throws IOException {
+        return MavenDependenciesFile.read(file);
+    }
+
+    private DependenciesFileBenchmarkAccess() {
+        // empty
+    }
+}
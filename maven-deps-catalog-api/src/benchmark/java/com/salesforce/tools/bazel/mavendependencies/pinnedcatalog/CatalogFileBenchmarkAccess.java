@@ -0,0 +1,41 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SortedSet;
+
+/**
+ * Gives benchmarks access to the package-private {@link BazelCatalogFile}.
+ */
+public final class CatalogFileBenchmarkAccess {
+
+    /**
+     * @return the number of imports in a file returned by {@link #read(Path)}
+     */
+    public static int getImportCount(Object catalogFile) {
+        return ((BazelCatalogFile) catalogFile).getJavaImports().size();
+    }
+
+    /**
+     * @see BazelCatalogFile#prettyPrint(SortedSet, String, String)
+     */
+    public static CharSequence prettyPrint(
+            Object catalogFile,
+            SortedSet<String> mavenServers,
+            String labelForLoadingJvmMavenImportExternalSymbol,
+            String preamble) {
+        return ((BazelCatalogFile) catalogFile)
+                .prettyPrint(mavenServers, labelForLoadingJvmMavenImportExternalSymbol, preamble);
+    }
+
+    /**
+     * @see BazelCatalogFile#read(Path)
+     */
+    public static Object read(Path file) throws IOException {
+        return BazelCatalogFile.read(file);
+    }
+
+    private CatalogFileBenchmarkAccess() {
+        // empty
+    }
+}
@@ -5,6 +5,9 @@ import static java.util.stream.Collectors.joining;
 
 import java.util.Comparator;
 import java.util.SortedSet;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
 
 /**
  * A very simple structure to communicated content delta.
@@ -42,7 +45,30 @@ public class CollectionDelta {
                     artifactCoordinatesWithoutVersion,
                     artifactVersion,
                     null,
-                    detailedDiff);
+                    detailedDiff != null ? () -> detailedDiff : null);
+        }
+
+        /**
+         * Creates an {@link Type#OTHER_UPDATE} with a detailed diff rendered on first access.
+         *
+         * @param artifactCoordinatesWithoutVersion
+         *            the artifact coordinates
+         * @param artifactVersion
+         *            the artifact version
+         * @param detailedDiff
+         *            supplier of the detailed diff (called at most once)
+         * @return the modification
+         */
+        public static Modification otherUpdateWithDiff(
+                String artifactCoordinatesWithoutVersion,
+                String artifactVersion,
+                Supplier<SortedSet<String>> detailedDiff) {
+            return new Modification(
+                    Type.OTHER_UPDATE,
+                    artifactCoordinatesWithoutVersion,
+                    artifactVersion,
+                    null,
+                    Suppliers.memoize(requireNonNull(detailedDiff)::get));
         }
 
         public static Modification removed(String coordinatesStringWithoutVersion, String version) {
@@ -71,17 +97,44 @@ public class CollectionDelta {
                     artifactCoordinatesWithoutVersion,
                     newVersion,
                     oldVersion,
-                    diff);
+                    diff != null ? () -> diff : null);
+        }
+
+        /**
+         * Creates a {@link Type#VERSION_UPDATE} with a detailed diff rendered on first access.
+         *
+         * @param artifactCoordinatesWithoutVersion
+         *            the artifact coordinates
+         * @param newVersion
+         *            the new version
+         * @param oldVersion
+         *            the old version
+         * @param diff
+         *            supplier of the detailed diff (called at most once)
+         * @return the modification
+         */
+        public static Modification versionUpdateWithDiff(
+                String artifactCoordinatesWithoutVersion,
+                String newVersion,
+                String oldVersion,
+                Supplier<SortedSet<String>> diff) {
+            return new Modification(
+                    Type.VERSION_UPDATE,
+                    artifactCoordinatesWithoutVersion,
+                    newVersion,
+                    oldVersion,
+                    Suppliers.memoize(requireNonNull(diff)::get));
         }
 
         private final Type typeOfModification;
         private final String artifactCoordinatesWithoutVersion;
         private final String artifactVersion;
         private final String oldVersion;
-        private final SortedSet<String> detailedDiff;
+        /** detailed diff (maybe <code>null</code>), rendered on first access */
+        private final Supplier<SortedSet<String>> detailedDiff;
 
         private Modification(Type typeOfModification, String artifactCoordinatesWithoutVersion, String artifactVersion,
-                String oldVersion, SortedSet<String> detailedDiff) {
+                String oldVersion, Supplier<SortedSet<String>> detailedDiff) {
             this.typeOfModification = requireNonNull(typeOfModification);
             this.artifactCoordinatesWithoutVersion = requireNonNull(artifactCoordinatesWithoutVersion);
             this.artifactVersion = requireNonNull(artifactVersion);
@@ -112,7 +165,7 @@ public class CollectionDelta {
          * @return detailed diff (may be set of OTHER_UPDATE and VERSION_UPDATE; but can be <code>null</code>)
          */
         public SortedSet<String> getDetailedDiff() {
-            return detailedDiff;
+            return detailedDiff != null ? detailedDiff.get() : null;
         }
 
         /**
@@ -131,6 +184,7 @@ public class CollectionDelta {
 
         @Override
         public String toString() {
+            var detailedDiff = getDetailedDiff();
             switch (typeOfModification) {
                 case ADDED:
                     return String.format("+ %s:%s", artifactCoordinatesWithoutVersion, artifactVersion);
@@ -0,0 +1,96 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exclusion;
+
+/**
+ * An index of {@link Exclusion exclusions} for matching artifacts with hash lookups.
+ * <p>
+ * An exclusion either uses exact values or the <code>*</code> wildcard for its group and artifact id. Exclusions are
+ * therefore kept in four buckets (<code>group:artifact</code>, <code>group:*</code>, <code>*:artifact</code> and
+ * <code>*:*</code>). Matching an artifact takes at most four lookups regardless of the number of exclusions.
+ * </p>
+ * <p>
+ * The index is not thread safe for modifications. Concurrent lookups are fine.
+ * </p>
+ */
+final class ExclusionIndex {
+
+    private static final String WILDCARD = "*";
+
+    private static String toKey(String groupId, String artifactId) {
+        return groupId + ':' + artifactId;
+    }
+
+    /** exclusions with exact group and artifact id (as <code>group:artifact</code>) */
+    private final Set<String> exact = new HashSet<>();
+
+    /** exclusions with exact group id and <code>*</code> artifact id (as group id) */
+    private final Set<String> anyArtifactOfGroup = new HashSet<>();
+
+    /** exclusions with <code>*</code> group id and exact artifact id (as artifact id) */
+    private final Set<String> artifactOfAnyGroup = new HashSet<>();
+
+    /** <code>true</code> if the index contains <code>*:*</code> */
+    private boolean anything;
+
+    ExclusionIndex(Collection<Exclusion> exclusions) {
+        exclusions.forEach(this::add);
+    }
+
+    /**
+     * Adds an exclusion to the index.
+     *
+     * @param exclusion
+     *            the exclusion to add
+     */
+    void add(Exclusion exclusion) {
+        var groupWildcard = WILDCARD.equals(exclusion.getGroupId());
+        var artifactWildcard = WILDCARD.equals(exclusion.getArtifactId());
+        if (groupWildcard && artifactWildcard) {
+            anything = true;
+        } else if (groupWildcard) {
+            artifactOfAnyGroup.add(exclusion.getArtifactId());
+        } else if (artifactWildcard) {
+            anyArtifactOfGroup.add(exclusion.getGroupId());
+        } else {
+            exact.add(toKey(exclusion.getGroupId(), exclusion.getArtifactId()));
+        }
+    }
+
+    /**
+     * @param groupId
+     *            the group id of the artifact
+     * @param artifactId
+     *            the artifact id of the artifact
+     * @return <code>true</code> if any exclusion in the index matches the artifact (as per
+     *         {@link Exclusion#matches(String, String)}), <code>false</code> otherwise
+     */
+    boolean matches(String groupId, String artifactId) {
+        return anything || anyArtifactOfGroup.contains(groupId) || artifactOfAnyGroup.contains(artifactId)
+                || exact.contains(toKey(groupId, artifactId));
+    }
+
+    /**
+     * Removes an exclusion from the index.
+     *
+     * @param exclusion
+     *            the exclusion to remove
+     */
+    void remove(Exclusion exclusion) {
+        var groupWildcard = WILDCARD.equals(exclusion.getGroupId());
+        var artifactWildcard = WILDCARD.equals(exclusion.getArtifactId());
+        if (groupWildcard && artifactWildcard) {
+            anything = false;
+        } else if (groupWildcard) {
+            artifactOfAnyGroup.remove(exclusion.getArtifactId());
+        } else if (artifactWildcard) {
+            anyArtifactOfGroup.remove(exclusion.getGroupId());
+        } else {
+            exact.remove(toKey(exclusion.getGroupId(), exclusion.getArtifactId()));
+        }
+    }
+}
@@ -15,11 +15,14 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -50,6 +53,18 @@ import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exc
  * <p>
  * Clients should use this collection for modifying any dependencies.
  * </p>
+ * <p>
+ * The collection can be {@link #load() loaded} completely or {@link #loadLazily(Path) lazily}. When loaded lazily
+ * group files are parsed on demand. Operations scoped to a single artifact or version variable only parse the
+ * affected group files. Operations relying on invariants of the whole collection (eg., global exclusions, listing all
+ * artifacts) load the remaining group files first.
+ * </p>
+ * <p>
+ * Modifications of single entries (eg., adding a dependency or updating a version variable) update the indices
+ * incrementally and only validate the invariants affected by the modified entry. Many modifications can be applied as a
+ * {@link #beginBatchModification() batch}. Indices are then rebuilt and the collection is validated only once at the
+ * end of the batch instead of after every modification.
+ * </p>
  */
 public class MavenDependenciesCollection {
 
@@ -98,7 +113,12 @@ public class MavenDependenciesCollection {
     private volatile SortedSet<String> obsoleteGroups;
     private volatile ConcurrentMap<String, String> versionVariableIndex;
     private volatile SortedSet<Exclusion> globalExclusions;
+    private volatile ExclusionIndex globalExclusionIndex;
     private volatile MavenDependenciesCollectionIndexFile collectionIndexFile;
+    private volatile SortedSet<String> groupsNotLoaded;
+    private volatile VersionVariableLocationIndex versionVariableLocationIndex;
+    private volatile boolean batchModification;
+    private volatile boolean indicesOutdated;
 
     public MavenDependenciesCollection(Path workspaceDirectory) {
         this.workspaceDirectory = workspaceDirectory;
@@ -116,6 +136,8 @@ public class MavenDependenciesCollection {
     }
 
     private void addDependency(MavenArtifact artifact, String versionName, String versionValue) {
+        ensureFullyLoaded();
+
         if (isExcludedByGlobalExclusions(artifact)) {
             throw new IllegalArgumentException(
                     format(
@@ -126,7 +148,8 @@ public class MavenDependenciesCollection {
         var group = getGroup(artifact);
         initializeFileGroup(group);
 
-        if ((versionName != null) && (versionValue != null)) {
+        var managedVersion = (versionName != null) && (versionValue != null);
+        if (managedVersion) {
             if (!Objects.equals(versionName, artifact.getVersion())) {
                 throw new IllegalArgumentException(
                         format(
@@ -135,11 +158,30 @@ public class MavenDependenciesCollection {
                             versionName,
                             artifact.getVersion()));
             }
+        }
+
+        var dependencies = dependenciesFileByGroup.get(group).getDependencies();
+        var incremental = isIndexedIncrementally();
+        if (incremental) {
+            checkNotIndexed(artifact, dependencies);
+            if (managedVersion) {
+                checkVersionVariableValue(group, versionName, versionValue);
+            }
+        }
+
+        if (managedVersion) {
             dependenciesFileByGroup.get(group).setVersion(versionName, versionValue);
         }
-        dependenciesFileByGroup.get(group).getDependencies().add(artifact);
+        dependencies.add(artifact);
 
-        rebuildIndices();
+        if (incremental) {
+            indexByCoordinatesWithoutVersion.putIfAbsent(artifact.toCoordinatesStringWithoutVersion(), artifact);
+            if (managedVersion) {
+                versionVariableIndex.put(versionName, versionValue);
+            }
+        } else {
+            onModification();
+        }
     }
 
     /**
@@ -159,18 +201,26 @@ public class MavenDependenciesCollection {
 
     /**
      * Creates a new global exclusions.
+     * <p>
+     * Only the group file of the exclusion's group id is checked for matching artifacts (exclusions require a full
+     * group id). During a {@link #beginBatchModification() batch modification} this neither rebuilds the indices nor
+     * validates the rest of the collection.
+     * </p>
      *
      * @param exclusion
      */
     public void addExclusion(Exclusion exclusion) {
         requireNonNull(exclusion, "exclusion must not be null");
+        ensureFullyLoaded();
 
         // check that this does not affect the collection
-        List<MavenArtifact> excludedArtifacts = indexByCoordinatesWithoutVersion.values()
-                .parallelStream()
-                .filter(a -> exclusion.matches(a.getGroupId(), a.getArtifactId()))
-                .sorted()
-                .collect(toList());
+        var group = getGroup(exclusion);
+        var file = dependenciesFileByGroup.get(group);
+        List<MavenArtifact> excludedArtifacts = file == null ? List.of()
+                : Stream.concat(file.getDependencies().stream(), file.getImportedBoms().stream())
+                        .filter(a -> exclusion.matches(a.getGroupId(), a.getArtifactId()))
+                        .sorted()
+                        .collect(toList());
         if (!excludedArtifacts.isEmpty()) {
             throw new IllegalStateException(
                     format(
@@ -181,21 +231,208 @@ public class MavenDependenciesCollection {
                                 .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
         }
 
-        var group = getGroup(exclusion);
         initializeFileGroup(group);
 
         dependenciesFileByGroup.get(group).getExclusions().add(exclusion);
 
-        rebuildIndices();
+        if (isIndexedIncrementally()) {
+            globalExclusions.add(exclusion);
+            globalExclusionIndex.add(exclusion);
+        } else {
+            onModification();
+        }
     }
 
     public void addImportedBom(MavenArtifact artifact) {
+        ensureFullyLoaded();
+
         var group = getGroup(artifact);
         initializeFileGroup(group);
 
-        dependenciesFileByGroup.get(group).getImportedBoms().add(artifact);
+        var importedBoms = dependenciesFileByGroup.get(group).getImportedBoms();
+        var incremental = isIndexedIncrementally();
+        if (incremental) {
+            checkNotIndexed(artifact, importedBoms);
+            checkNotExcluded(List.of(artifact));
+        }
 
-        rebuildIndices();
+        importedBoms.add(artifact);
+
+        if (incremental) {
+            indexByCoordinatesWithoutVersion.putIfAbsent(artifact.toCoordinatesStringWithoutVersion(), artifact);
+        } else {
+            onModification();
+        }
+    }
+
+    /**
+     * Starts a batch of modifications.
+     * <p>
+     * Until {@link #endBatchModification()} is called indices are not rebuilt after modifications. Lookups of single
+     * artifacts and version variables are answered from the group files directly. Validation of the whole collection
+     * (eg., duplicate artifacts, conflicting version variables) is deferred to the end of the batch. Any operation
+     * requiring the whole collection rebuilds the indices on demand.
+     * </p>
+     */
+    public void beginBatchModification() {
+        batchModification = true;
+    }
+
+    /**
+     * Ends a batch of modifications started with {@link #beginBatchModification()}.
+     *
+     * @throws IllegalStateException
+     *             if the collection is not valid after the modifications
+     */
+    public void endBatchModification() throws IllegalStateException {
+        batchModification = false;
+        ensureIndicesUpToDate();
+    }
+
+    /**
+     * Ensures that adding the artifact to the given set does not introduce a duplicate entry.
+     *
+     * @param artifact
+     *            the artifact to add
+     * @param artifacts
+     *            the set of the group file the artifact will be added to
+     * @throws IllegalStateException
+     *             if the collection already contains a different artifact with the same coordinates
+     */
+    private void checkNotIndexed(MavenArtifact artifact, SortedSet<MavenArtifact> artifacts)
+            throws IllegalStateException {
+        var existing = indexByCoordinatesWithoutVersion.get(artifact.toCoordinatesStringWithoutVersion());
+        if ((existing != null) && !artifacts.contains(artifact)) {
+            throw newDuplicateDependencyException(existing);
+        }
+    }
+
+    /**
+     * Ensures that none of the artifacts is excluded by a global exclusion.
+     *
+     * @param artifacts
+     *            the artifacts to check
+     * @throws IllegalStateException
+     *             if an artifact is excluded
+     */
+    private void checkNotExcluded(Collection<MavenArtifact> artifacts) throws IllegalStateException {
+        List<MavenArtifact> excludedArtifacts = artifacts.stream()
+                .filter(this::isExcludedByLoadedGlobalExclusions)
+                .sorted()
+                .collect(toList());
+        if (!excludedArtifacts.isEmpty()) {
+            throw new IllegalStateException(
+                    format(
+                        "Conflicting information found in the dependencies collection.%nThe following artifacts are both - excluded and listed. Only one is allowed!%n%n%s",
+                        excludedArtifacts.stream()
+                                .map(MavenArtifact::toCoordinatesStringWithoutVersion)
+                                .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+    }
+
+    /**
+     * Ensures that setting a version variable in a group file does not conflict with the value in other group files.
+     * <p>
+     * Only when the index has a different value the group files are searched for the variable.
+     * </p>
+     *
+     * @param group
+     *            the group file the variable will be set in
+     * @param versionVariableName
+     *            the variable name
+     * @param value
+     *            the new value
+     * @throws IllegalStateException
+     *             if another group file defines the variable with a different value
+     */
+    private void checkVersionVariableValue(String group, String versionVariableName, String value)
+            throws IllegalStateException {
+        var indexedValue = versionVariableIndex.get(versionVariableName);
+        if ((indexedValue == null) || indexedValue.equals(value)) {
+            return;
+        }
+
+        for (MavenDependenciesFile file : dependenciesFileByGroup.values()) {
+            if (!file.getGroup().equals(group) && file.getVersionVariables().containsKey(versionVariableName)) {
+                throw newDuplicateVersionVariableException(versionVariableName, indexedValue, value);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the indices if they are outdated because of a batch modification.
+     */
+    private void ensureIndicesUpToDate() {
+        if (indicesOutdated) {
+            rebuildIndices();
+        }
+    }
+
+    /**
+     * Loads all group files not loaded yet when the collection was {@link #loadLazily(Path) loaded lazily}.
+     */
+    private void ensureFullyLoaded() {
+        var notLoaded = groupsNotLoaded;
+        if (notLoaded != null) {
+            ensureGroupsLoaded(new TreeSet<>(notLoaded));
+        }
+    }
+
+    /**
+     * Loads the specified group files if they exist and were not loaded yet.
+     *
+     * @param groups
+     *            the groups to load
+     */
+    private synchronized void ensureGroupsLoaded(Collection<String> groups) {
+        var notLoaded = groupsNotLoaded;
+        if (notLoaded == null) {
+            return;
+        }
+
+        List<String> groupsToLoad = groups.stream().filter(notLoaded::contains).collect(toList());
+        if (groupsToLoad.isEmpty()) {
+            return;
+        }
+
+        groupsToLoad.parallelStream()
+                .map(this::getGroupFileLocation)
+                .map(MavenDependenciesCollection::readGroupFile)
+                .forEach(f -> dependenciesFileByGroup.put(f.getGroup(), f));
+        notLoaded.removeAll(groupsToLoad);
+        if (notLoaded.isEmpty()) {
+            groupsNotLoaded = null;
+        }
+
+        onModification();
+    }
+
+    /**
+     * Loads the group files defining the specified version variable when the collection was
+     * {@link #loadLazily(Path) loaded lazily}.
+     *
+     * @param versionVariableName
+     *            the version variable name
+     */
+    private void ensureVersionVariableLoaded(String versionVariableName) {
+        if (groupsNotLoaded != null) {
+            ensureGroupsLoaded(versionVariableLocationIndex.getGroupsDefining(versionVariableName));
+        }
+    }
+
+    /**
+     * Loads the group files defining or using the specified version variable when the collection was
+     * {@link #loadLazily(Path) loaded lazily}.
+     *
+     * @param versionVariableName
+     *            the version variable name
+     */
+    private void ensureVersionVariableUsagesLoaded(String versionVariableName) {
+        if (groupsNotLoaded != null) {
+            var groups = versionVariableLocationIndex.getGroupsDefining(versionVariableName);
+            groups.addAll(versionVariableLocationIndex.getGroupsUsing(versionVariableName));
+            ensureGroupsLoaded(groups);
+        }
     }
 
     /**
@@ -205,6 +442,31 @@ public class MavenDependenciesCollection {
      * @return A {@link BazelJavaDependencyImport} matching the coordinates
      */
     public MavenArtifact findArtifact(String coordinatesWithoutVersion) {
+        var separator = coordinatesWithoutVersion.indexOf(':');
+        if (groupsNotLoaded != null) {
+            if (separator > 0) {
+                ensureGroupsLoaded(
+                    Set.of(MavenConventions.getFileGroup(coordinatesWithoutVersion.substring(0, separator))));
+            } else {
+                ensureFullyLoaded();
+            }
+        }
+        if (indicesOutdated) {
+            if (separator <= 0) {
+                ensureIndicesUpToDate();
+            } else {
+                // search the group file directly
+                var file = dependenciesFileByGroup
+                        .get(MavenConventions.getFileGroup(coordinatesWithoutVersion.substring(0, separator)));
+                if (file == null) {
+                    return null;
+                }
+                return Stream.concat(file.getDependencies().stream(), file.getImportedBoms().stream())
+                        .filter(a -> a.toCoordinatesStringWithoutVersion().equals(coordinatesWithoutVersion))
+                        .findFirst()
+                        .orElse(null);
+            }
+        }
         return requireNonNull(indexByCoordinatesWithoutVersion, "not loaded").get(coordinatesWithoutVersion);
     }
 
@@ -212,6 +474,8 @@ public class MavenDependenciesCollection {
      * @return stream of all {@link MavenArtifact artifacts} in this collection
      */
     public Stream<MavenArtifact> getAllArtifacts() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return indexByCoordinatesWithoutVersion.values().stream();
     }
 
@@ -219,9 +483,12 @@ public class MavenDependenciesCollection {
      * @param versionVariableName
      *            the variable name to search for
      * @return sorted collection of all {@link MavenArtifact artifacts} using the specified version variable name of
-     *         this collection
+     *         this collection (when {@link #loadLazily(Path) loaded lazily} the group files defining or using the
+     *         variable are loaded)
      */
     public SortedSet<MavenArtifact> getAllArtifactsUsingVersionVariable(String versionVariableName) {
+        ensureVersionVariableUsagesLoaded(versionVariableName);
+        ensureIndicesUpToDate();
         return indexByCoordinatesWithoutVersion.values()
                 .stream()
                 .filter(a -> a.getVersion().equals(versionVariableName))
@@ -232,6 +499,8 @@ public class MavenDependenciesCollection {
      * @return sorted collection of all {@link MavenArtifact artifacts excluding poms} in this collection
      */
     public SortedSet<MavenArtifact> getAllDependencies() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return indexByCoordinatesWithoutVersion.values()
                 .stream()
                 .filter(Predicate.not(MavenArtifact::isPomPackaging))
@@ -248,6 +517,8 @@ public class MavenDependenciesCollection {
      * @return stream of global exclusions
      */
     public Stream<Exclusion> getGlobalExclusions() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return globalExclusions.stream();
     }
 
@@ -296,6 +567,8 @@ public class MavenDependenciesCollection {
     }
 
     public SortedSet<MavenArtifact> getImportedBoms() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return indexByCoordinatesWithoutVersion.values()
                 .stream()
                 .filter(MavenArtifact::isPomPackaging)
@@ -303,10 +576,21 @@ public class MavenDependenciesCollection {
     }
 
     public Stream<String> getVersionVariableNames() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return versionVariableIndex.keySet().stream();
     }
 
     public String getVersionVariableValue(String versionVariableName) {
+        ensureVersionVariableLoaded(versionVariableName);
+        if (indicesOutdated) {
+            return dependenciesFileByGroup.values()
+                    .stream()
+                    .map(f -> f.getVersion(versionVariableName))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+        }
         return versionVariableIndex.get(versionVariableName);
     }
 
@@ -315,6 +599,12 @@ public class MavenDependenciesCollection {
     }
 
     public boolean hasVersionVariable(String versionVariableName) {
+        ensureVersionVariableLoaded(versionVariableName);
+        if (indicesOutdated) {
+            return dependenciesFileByGroup.values()
+                    .stream()
+                    .anyMatch(f -> f.getVersionVariables().containsKey(versionVariableName));
+        }
         return versionVariableIndex.containsKey(versionVariableName);
     }
 
@@ -337,7 +627,17 @@ public class MavenDependenciesCollection {
         }
     }
 
+    /**
+     * @return <code>true</code> if all group files are loaded, <code>false</code> if some group files are still to be
+     *         loaded on demand
+     */
+    public boolean isCompletelyLoaded() {
+        return groupsNotLoaded == null;
+    }
+
     public boolean isEmpty() {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
         return indexByCoordinatesWithoutVersion.isEmpty();
     }
 
@@ -349,30 +649,45 @@ public class MavenDependenciesCollection {
      * @return <code>true</code> if a global exclusion exist matching the artifact, <code>false</code> otherwise
      */
     public boolean isExcludedByGlobalExclusions(MavenArtifact artifact) {
-        return globalExclusions.parallelStream()
-                .anyMatch(e -> e.matches(artifact.getGroupId(), artifact.getArtifactId()));
+        ensureFullyLoaded();
+        if (indicesOutdated) {
+            return dependenciesFileByGroup.values()
+                    .stream()
+                    .flatMap(f -> f.getExclusions().stream())
+                    .anyMatch(e -> e.matches(artifact.getGroupId(), artifact.getArtifactId()));
+        }
+        return isExcludedByLoadedGlobalExclusions(artifact);
+    }
+
+    private boolean isExcludedByLoadedGlobalExclusions(MavenArtifact artifact) {
+        return globalExclusionIndex.matches(artifact.getGroupId(), artifact.getArtifactId());
+    }
+
+    /**
+     * @return the group files found in the collection directory (index by group)
+     */
+    private SortedMap<String, Path> listGroupFiles() throws IOException {
+        SortedMap<String, Path> groupFiles = new TreeMap<>();
+        try (var fileStream = Files.list(getDirectory())) {
+            fileStream.filter(
+                p -> isRegularFile(p) && p.getFileName().toString().endsWith(".bzl")
+                        && !INDEX_BZL.equals(p.getFileName().toString()))
+                    .forEach(p -> {
+                        var fileName = p.getFileName().toString();
+                        groupFiles.put(fileName.substring(0, fileName.length() - 4), p);
+                    });
+        }
+        return groupFiles;
     }
 
     public void load() throws IOException {
         var collectionDirectory = getDirectory();
         if (isDirectory(collectionDirectory)) {
             // read all except index.bzl files
-            try (var fileStream = Files.list(collectionDirectory)) {
-                dependenciesFileByGroup = fileStream.parallel()
-                        .filter(
-                            p -> isRegularFile(p) && p.getFileName().toString().endsWith(".bzl")
-                                    && !INDEX_BZL.equals(p.getFileName().toString()))
-                        .map(p -> {
-                            try {
-                                return MavenDependenciesFile.read(p);
-                            } catch (IOException e) {
-                                throw new IllegalStateException(
-                                        format("Error reading file '%s': %s", p.getFileName(), e.getMessage()),
-                                        e);
-                            }
-                        })
-                        .collect(toConcurrentMap(MavenDependenciesFile::getGroup, f -> f));
-            }
+            dependenciesFileByGroup = listGroupFiles().values()
+                    .parallelStream()
+                    .map(MavenDependenciesCollection::readGroupFile)
+                    .collect(toConcurrentMap(MavenDependenciesFile::getGroup, f -> f));
             var indexFile = collectionDirectory.resolve(INDEX_BZL);
             if (isRegularFile(indexFile)) {
                 collectionIndexFile = MavenDependenciesCollectionIndexFile.read(indexFile);
@@ -383,21 +698,129 @@ public class MavenDependenciesCollection {
             dependenciesFileByGroup = new ConcurrentHashMap<>();
             collectionIndexFile = new MavenDependenciesCollectionIndexFile();
         }
+        groupsNotLoaded = null;
+        versionVariableLocationIndex = null;
+
+        rebuildIndices();
+    }
+
+    /**
+     * Loads the collection lazily.
+     * <p>
+     * Only group files are parsed which are not (or no longer) covered by the persisted version variable index. Any
+     * other group file is parsed on demand, i.e. when an artifact or version variable of the group is accessed or when
+     * an operation requires the whole collection.
+     * </p>
+     * <p>
+     * The version variable index is a cache, which is created/updated as necessary. It should be stored outside the
+     * workspace.
+     * </p>
+     *
+     * @param versionVariableIndexFile
+     *            location of the version variable index file
+     * @throws IOException
+     */
+    public void loadLazily(Path versionVariableIndexFile) throws IOException {
+        requireNonNull(versionVariableIndexFile, "versionVariableIndexFile must not be null");
+        if (!isDirectory(getDirectory())) {
+            load();
+            return;
+        }
+
+        var groupFiles = listGroupFiles();
+        var index = VersionVariableLocationIndex.read(versionVariableIndexFile);
+        index.retainGroups(groupFiles.keySet());
+
+        // parse all files the index does not know about (or which were modified)
+        Map<Path, String> staleFiles = new HashMap<>();
+        for (Entry<String, Path> groupFile : groupFiles.entrySet()) {
+            var stamp = VersionVariableLocationIndex.stamp(groupFile.getValue());
+            if (!index.isUpToDate(groupFile.getKey(), stamp)) {
+                staleFiles.put(groupFile.getValue(), stamp);
+            }
+        }
+        dependenciesFileByGroup = staleFiles.keySet()
+                .parallelStream()
+                .map(MavenDependenciesCollection::readGroupFile)
+                .collect(toConcurrentMap(MavenDependenciesFile::getGroup, f -> f));
+        for (MavenDependenciesFile file : dependenciesFileByGroup.values()) {
+            index.update(
+                file.getGroup(),
+                staleFiles.get(file.getFile()),
+                file.getVersionVariables().keySet(),
+                file.getUsedVersionVariables());
+        }
+        index.writeIfModified();
+
+        // index.bzl content is not used
+        collectionIndexFile = new MavenDependenciesCollectionIndexFile();
+
+        SortedSet<String> notLoaded = new TreeSet<>(groupFiles.keySet());
+        notLoaded.removeAll(dependenciesFileByGroup.keySet());
+        groupsNotLoaded = notLoaded.isEmpty() ? null : notLoaded;
+        versionVariableLocationIndex = index;
 
         rebuildIndices();
     }
 
+    private static MavenDependenciesFile readGroupFile(Path file) {
+        try {
+            return MavenDependenciesFile.read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    format("Error reading file '%s': %s", file.getFileName(), e.getMessage()),
+                    e);
+        }
+    }
+
+    /**
+     * Indicates if a modification of a single entry should update the indices incrementally.
+     * <p>
+     * This is the case when the indices are up to date and no batch modification is in progress. Invariants affected
+     * by the modification must be checked before the collection is modified. Otherwise the modification must be
+     * followed by a call to {@link #onModification()}.
+     * </p>
+     *
+     * @return <code>true</code> if the indices should be updated incrementally, <code>false</code> otherwise
+     */
+    private boolean isIndexedIncrementally() {
+        return !batchModification && !indicesOutdated;
+    }
+
+    private IllegalStateException newDuplicateDependencyException(MavenArtifact artifact) {
+        return new IllegalStateException(
+                format(
+                    "Duplicate dependency entries in '%s': '%s'%n%nThis is not allowed! Please ensure there is only one version and no duplicate entries.",
+                    getDirectory(),
+                    artifact.toCoordinatesStringWithoutVersion()));
+    }
+
+    private IllegalStateException newDuplicateVersionVariableException(String versionVariableName, String value,
+            String otherValue) {
+        return new IllegalStateException(
+                format(
+                    "Duplicate variable in '%s': '%s' with '%s' <> '%s'%nThis is not allowed! Please ensure all version variables have the same value.%n%n",
+                    getDirectory(),
+                    versionVariableName,
+                    value,
+                    otherValue));
+    }
+
+    private void onModification() {
+        if (batchModification) {
+            indicesOutdated = true;
+        } else {
+            rebuildIndices();
+        }
+    }
+
     private void rebuildIndices() {
         indexByCoordinatesWithoutVersion = dependenciesFileByGroup.values()
                 .parallelStream()
                 .flatMap(f -> Stream.concat(f.getDependencies().stream(), f.getImportedBoms().stream()))
                 .collect(
                     toConcurrentMap(MavenArtifact::toCoordinatesStringWithoutVersion, Function.identity(), (a1, a2) -> {
-                        throw new IllegalStateException(
-                                format(
-                                    "Duplicate dependency entries in '%s': '%s'%n%nThis is not allowed! Please ensure there is only one version and no duplicate entries.",
-                                    getDirectory(),
-                                    a1.toCoordinatesStringWithoutVersion()));
+                        throw newDuplicateDependencyException(a1);
                     }));
 
         versionVariableIndex = dependenciesFileByGroup.values()
@@ -405,13 +828,7 @@ public class MavenDependenciesCollection {
                 .flatMap(f -> f.getVersionVariables().entrySet().stream())
                 .collect(toConcurrentMap(Entry::getKey, Function.identity(), (e1, e2) -> {
                     if (!Objects.equals(e1.getValue(), e2.getValue())) {
-                        throw new IllegalStateException(
-                                format(
-                                    "Duplicate variable in '%s': '%s' with '%s' <> '%s'%nThis is not allowed! Please ensure all version variables have the same value.%n%n",
-                                    getDirectory(),
-                                    e1.getKey(),
-                                    e1.getValue(),
-                                    e2.getValue()));
+                        throw newDuplicateVersionVariableException(e1.getKey(), e1.getValue(), e2.getValue());
                     }
                     return e1;
                 }))
@@ -423,25 +840,17 @@ public class MavenDependenciesCollection {
                 .parallelStream()
                 .flatMap(f -> f.getExclusions().stream())
                 .collect(toCollection(TreeSet::new));
+        globalExclusionIndex = new ExclusionIndex(globalExclusions);
 
         // ensure no exclusion is also listed as a dependency
-        List<MavenArtifact> excludedArtifacts = indexByCoordinatesWithoutVersion.values()
-                .parallelStream()
-                .filter(this::isExcludedByGlobalExclusions)
-                .sorted()
-                .collect(toList());
-        if (!excludedArtifacts.isEmpty()) {
-            throw new IllegalStateException(
-                    format(
-                        "Conflicting information found in the dependencies collection.%nThe following artifacts are both - excluded and listed. Only one is allowed!%n%n%s",
-                        excludedArtifacts.stream()
-                                .map(MavenArtifact::toCoordinatesStringWithoutVersion)
-                                .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
-        }
+        checkNotExcluded(indexByCoordinatesWithoutVersion.values());
+
+        indicesOutdated = false;
     }
 
     public boolean removeDependency(MavenArtifact artifact) {
         var group = getGroup(artifact);
+        ensureGroupsLoaded(Set.of(group));
 
         if (!dependenciesFileByGroup.containsKey(group)) {
             return false;
@@ -449,7 +858,11 @@ public class MavenDependenciesCollection {
 
         var removed = dependenciesFileByGroup.get(group).getDependencies().remove(artifact);
 
-        rebuildIndices();
+        if (!isIndexedIncrementally()) {
+            onModification();
+        } else if (removed) {
+            indexByCoordinatesWithoutVersion.remove(artifact.toCoordinatesStringWithoutVersion());
+        }
 
         return removed;
     }
@@ -458,19 +871,26 @@ public class MavenDependenciesCollection {
         requireNonNull(exclusion, "exclusion must not be null");
 
         var group = getGroup(exclusion);
+        ensureGroupsLoaded(Set.of(group));
         if (!dependenciesFileByGroup.containsKey(group)) {
             return false;
         }
 
         var removed = dependenciesFileByGroup.get(group).getExclusions().remove(exclusion);
 
-        rebuildIndices();
+        if (!isIndexedIncrementally()) {
+            onModification();
+        } else if (removed) {
+            globalExclusions.remove(exclusion);
+            globalExclusionIndex.remove(exclusion);
+        }
 
         return removed;
     }
 
     public boolean removeImportedBom(MavenArtifact artifact) {
         var group = getGroup(artifact);
+        ensureGroupsLoaded(Set.of(group));
 
         if (!dependenciesFileByGroup.containsKey(group)) {
             return false;
@@ -478,12 +898,18 @@ public class MavenDependenciesCollection {
 
         var removed = dependenciesFileByGroup.get(group).getImportedBoms().remove(artifact);
 
-        rebuildIndices();
+        if (!isIndexedIncrementally()) {
+            onModification();
+        } else if (removed) {
+            indexByCoordinatesWithoutVersion.remove(artifact.toCoordinatesStringWithoutVersion());
+        }
 
         return removed;
     }
 
     public void removeVersionVariable(String versionVariableName) {
+        ensureVersionVariableLoaded(versionVariableName);
+
         // need to update all catalogs the version is present in
         for (MavenDependenciesFile dependenciesFile : dependenciesFileByGroup.values()) {
             if (dependenciesFile.getVersionVariables().containsKey(versionVariableName)) {
@@ -491,7 +917,11 @@ public class MavenDependenciesCollection {
             }
         }
 
-        rebuildIndices();
+        if (isIndexedIncrementally()) {
+            versionVariableIndex.remove(versionVariableName);
+        } else {
+            onModification();
+        }
     }
 
     public CollectionDelta replaceContent(
@@ -499,6 +929,9 @@ public class MavenDependenciesCollection {
             SortedSet<MavenArtifact> newImportedBoms,
             SortedSet<MavenArtifact> newDependencies,
             SortedSet<Exclusion> newExclusions) {
+        ensureFullyLoaded();
+        ensureIndicesUpToDate();
+
         var oldCollection = dependenciesFileByGroup;
         Map<String, MavenArtifact> oldIndex = new HashMap<>(indexByCoordinatesWithoutVersion);
         Map<String, String> oldVersionVariables = new HashMap<>(versionVariableIndex);
@@ -635,66 +1068,98 @@ public class MavenDependenciesCollection {
             boolean skipIndexFile,
             ProgressMonitor monitor,
             ScmSupport scmSupport) throws IOException {
+        // never save an invalid collection
+        ensureIndicesUpToDate();
+
         var collectionDirectory = getDirectory();
         createDirectories(collectionDirectory);
 
         monitor.maxHint(2 + dependenciesFileByGroup.size() + (obsoleteGroups != null ? obsoleteGroups.size() : 0));
 
         SortedSet<Path> modifiedFiles = new TreeSet<>();
-        for (MavenDependenciesFile file : dependenciesFileByGroup.values()) {
-            var catalogFile = collectionDirectory.resolve(toGroupFileName(file.getGroup()));
-            monitor.additionalMessage(catalogFile.getFileName().toString());
-            if (scmSupport.writeFile(
-                catalogFile,
-                file.prettyPrint(labelForLoadingMavenSymbol, preamble, conciseFormat),
-                StandardCharsets.UTF_8)) {
-                modifiedFiles.add(catalogFile);
-            }
-            monitor.progressBy(1);
-        }
+        SortedSet<Path> deletedFiles = new TreeSet<>();
+        SortedSet<Path> obsoleteFiles = new TreeSet<>();
 
-        if (!skipIndexFile) {
-            var mainFile = collectionDirectory.resolve(INDEX_BZL);
-            monitor.additionalMessage(INDEX_BZL);
-            if (scmSupport.writeFile(
-                mainFile,
-                collectionIndexFile.prettyPrint(
-                    new TreeSet<>(dependenciesFileByGroup.keySet()),
-                    STANDARDIZED_COLLECTION_DIRECTORY.toString()),
-                UTF_8)) {
-                modifiedFiles.add(mainFile);
+        // queue SCM operations and execute them together at the end
+        scmSupport.beginBatch();
+        try {
+            // render in parallel but write in group order (SCM operations are not thread safe)
+            ParallelFileRenderer.render(
+                new TreeMap<>(dependenciesFileByGroup).values(),
+                file -> collectionDirectory.resolve(toGroupFileName(file.getGroup())),
+                file -> file.prettyPrint(labelForLoadingMavenSymbol, preamble, conciseFormat),
+                StandardCharsets.UTF_8,
+                renderedFile -> {
+                    var file = renderedFile.getSource();
+                    var catalogFile = renderedFile.getLocation();
+                    monitor.additionalMessage(catalogFile.getFileName().toString());
+                    if (renderedFile.writeTo(scmSupport)) {
+                        modifiedFiles.add(catalogFile);
+                    }
+                    if ((versionVariableLocationIndex != null) && isRegularFile(catalogFile)) {
+                        versionVariableLocationIndex.update(
+                            file.getGroup(),
+                            VersionVariableLocationIndex.stamp(catalogFile),
+                            file.getVersionVariables().keySet(),
+                            file.getUsedVersionVariables());
+                    }
+                    monitor.progressBy(1);
+                });
+            if (versionVariableLocationIndex != null) {
+                versionVariableLocationIndex.writeIfModified();
             }
-        }
-        monitor.progressBy(1);
 
-        var buildFile = collectionDirectory.resolve(BUILD_BAZEL);
-        if (!isRegularFile(buildFile)) {
-            monitor.additionalMessage(BUILD_BAZEL);
-            if (scmSupport.writeFile(buildFile, "", UTF_8)) {
-                modifiedFiles.add(buildFile);
+            if (!skipIndexFile) {
+                var mainFile = collectionDirectory.resolve(INDEX_BZL);
+                monitor.additionalMessage(INDEX_BZL);
+                SortedSet<String> fileGroups = new TreeSet<>(dependenciesFileByGroup.keySet());
+                if (groupsNotLoaded != null) {
+                    // not loaded groups are unmodified but still part of the collection
+                    fileGroups.addAll(groupsNotLoaded);
+                }
+                if (scmSupport.writeFile(
+                    mainFile,
+                    collectionIndexFile.prettyPrint(fileGroups, STANDARDIZED_COLLECTION_DIRECTORY.toString()),
+                    UTF_8)) {
+                    modifiedFiles.add(mainFile);
+                }
             }
-        }
-        monitor.progressBy(1);
+            monitor.progressBy(1);
 
-        SortedSet<Path> deletedFiles = new TreeSet<>();
-        SortedSet<Path> obsoleteFiles = new TreeSet<>();
-        if (obsoleteGroups != null) {
-            for (String obsoleteGroup : obsoleteGroups) {
-                // delete or clear out any obsolete files
-                var obsoleteCatalogFile = collectionDirectory.resolve(toGroupFileName(obsoleteGroup));
-                monitor.additionalMessage(obsoleteCatalogFile.getFileName().toString());
-                if (scmSupport.removeFile(obsoleteCatalogFile)) {
-                    deletedFiles.add(obsoleteCatalogFile);
-                } else {
-                    obsoleteFiles.add(obsoleteCatalogFile);
+            var buildFile = collectionDirectory.resolve(BUILD_BAZEL);
+            if (!isRegularFile(buildFile)) {
+                monitor.additionalMessage(BUILD_BAZEL);
+                if (scmSupport.writeFile(buildFile, "", UTF_8)) {
+                    modifiedFiles.add(buildFile);
                 }
-                monitor.progressBy(1);
             }
+            monitor.progressBy(1);
 
-            // reset modifications
-            obsoleteGroups = null;
+            if (obsoleteGroups != null) {
+                for (String obsoleteGroup : obsoleteGroups) {
+                    // delete or clear out any obsolete files
+                    var obsoleteCatalogFile = collectionDirectory.resolve(toGroupFileName(obsoleteGroup));
+                    monitor.additionalMessage(obsoleteCatalogFile.getFileName().toString());
+                    if (scmSupport.removeFile(obsoleteCatalogFile)) {
+                        deletedFiles.add(obsoleteCatalogFile);
+                    } else {
+                        obsoleteFiles.add(obsoleteCatalogFile);
+                    }
+                    monitor.progressBy(1);
+                }
+
+                // reset modifications
+                obsoleteGroups = null;
+            }
+        } finally {
+            scmSupport.endBatch();
         }
 
+        // removals may have been queued in the batch, check what actually got deleted
+        var notDeletedFiles = deletedFiles.stream().filter(Files::exists).collect(toList());
+        deletedFiles.removeAll(notDeletedFiles);
+        obsoleteFiles.addAll(notDeletedFiles);
+
         return new CollectionSaveResult(modifiedFiles, deletedFiles, obsoleteFiles);
     }
 
@@ -706,6 +1171,8 @@ public class MavenDependenciesCollection {
      * @return the previous value of the version variable (or null)
      */
     public String updateVersionVariable(String versionVariableName, String value) {
+        ensureVersionVariableLoaded(versionVariableName);
+
         // need to update all catalogs the version is present in
         String oldVersion = null;
         for (MavenDependenciesFile dependenciesFile : dependenciesFileByGroup.values()) {
@@ -714,7 +1181,11 @@ public class MavenDependenciesCollection {
             }
         }
 
-        rebuildIndices();
+        if (!isIndexedIncrementally()) {
+            onModification();
+        } else if (oldVersion != null) {
+            versionVariableIndex.put(versionVariableName, value);
+        }
 
         return oldVersion;
     }
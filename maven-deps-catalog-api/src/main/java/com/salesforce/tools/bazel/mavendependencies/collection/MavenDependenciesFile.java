@@ -464,6 +464,9 @@ class MavenDependenciesFile {
     private static final String CONST_MAVEN_DEPENDENCIES = "MAVEN_DEPENDENCIES";
     private static final String CONST_MAVEN_EXCLUSIONS = "MAVEN_EXCLUSIONS";
 
+    /** rough number of characters rendered per entry (used for sizing the output upfront) */
+    private static final int EXPECTED_CHARACTERS_PER_ENTRY = 128;
+
     public static MavenDependenciesFile read(Path existingFile) throws IOException {
         return new Reader(existingFile).read();
     }
@@ -566,8 +569,33 @@ class MavenDependenciesFile {
         return versionVariables;
     }
 
+    /**
+     * @return the version variables used as version by the imported BOMs and dependencies of this file
+     */
+    SortedSet<String> getUsedVersionVariables() {
+        SortedSet<String> result = new TreeSet<>();
+        for (MavenArtifact artifact : importedBoms) {
+            if (isVersionVariable(artifact.getVersion())) {
+                result.add(artifact.getVersion());
+            }
+        }
+        for (MavenArtifact artifact : dependencies) {
+            if (isVersionVariable(artifact.getVersion())) {
+                result.add(artifact.getVersion());
+            }
+        }
+        return result;
+    }
+
+    private boolean isVersionVariable(String version) {
+        return versionVariables.containsKey(version) || (version.startsWith("_") && version.endsWith("_VERSION"));
+    }
+
     public CharSequence prettyPrint(String labelForLoadingMavenSymbol, String preamble, boolean conciseFormat) {
-        var output = new StarlarkStringBuilder(4);
+        var output = new StarlarkStringBuilder(
+                4,
+                EXPECTED_CHARACTERS_PER_ENTRY
+                        * (versionVariables.size() + importedBoms.size() + dependencies.size() + exclusions.size() + 8));
 
         output.append("load(\"")
                 .append(requireNonNull(labelForLoadingMavenSymbol, "missing label for loading maven symbol"))
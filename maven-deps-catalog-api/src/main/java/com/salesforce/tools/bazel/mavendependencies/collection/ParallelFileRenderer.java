@@ -0,0 +1,274 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.isRegularFile;
+import static java.nio.file.Files.readString;
+import static java.nio.file.Files.size;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.cli.helper.Utf8Buffer;
+
+/**
+ * Renders files of a collection/catalog in parallel and hands them over for writing in deterministic order.
+ * <p>
+ * Rendering a file and comparing it with the existing file on disk is independent per file and runs on a bounded
+ * thread pool. The rendered files are handed over to a {@link RenderedFileConsumer} on the calling thread strictly in
+ * the order of the input collection. Thus, all {@link com.salesforce.tools.bazel.cli.helper.ScmSupport} calls and
+ * progress reporting remain serialized. Only a limited number of files is rendered ahead of the consumer to bound the
+ * memory held by rendered content.
+ * </p>
+ */
+public final class ParallelFileRenderer {
+
+    /**
+     * A rendered file
+     */
+    public static final class RenderedFile<T> {
+
+        private final T source;
+        private final Path location;
+        private final CharSequence content;
+        private final Charset charset;
+        private final Utf8Buffer encodedContent;
+        private final boolean unchanged;
+
+        RenderedFile(
+                T source,
+                Path location,
+                CharSequence content,
+                Charset charset,
+                Utf8Buffer encodedContent,
+                boolean unchanged) {
+            this.source = source;
+            this.location = location;
+            this.content = content;
+            this.charset = charset;
+            this.encodedContent = encodedContent;
+            this.unchanged = unchanged;
+        }
+
+        /**
+         * @return the rendered content
+         */
+        public CharSequence getContent() {
+            return content;
+        }
+
+        /**
+         * @return the file location
+         */
+        public Path getLocation() {
+            return location;
+        }
+
+        /**
+         * @return the object the file was rendered from
+         */
+        public T getSource() {
+            return source;
+        }
+
+        /**
+         * @return <code>true</code> if the file exists on disk with exactly the rendered content
+         */
+        public boolean isUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Writes the rendered content to its location unless it is {@link #isUnchanged() unchanged}.
+         * <p>
+         * UTF-8 content is written from the bytes already encoded while rendering, i.e. it is neither encoded nor
+         * compared with the file on disk a second time.
+         * </p>
+         *
+         * @param scmSupport
+         *            the SCM support for writing the file
+         * @return <code>true</code> if the file was written, <code>false</code> if it was already up to date
+         * @throws IOException
+         *             in case of errors writing the file
+         */
+        public boolean writeTo(ScmSupport scmSupport) throws IOException {
+            if (unchanged) {
+                return false;
+            }
+            if (encodedContent != null) {
+                return scmSupport.writeChangedFile(location, encodedContent);
+            }
+            return scmSupport.writeFile(location, content, charset);
+        }
+    }
+
+    /**
+     * Consumer of rendered files (called on the thread invoking {@link ParallelFileRenderer#render})
+     */
+    @FunctionalInterface
+    public interface RenderedFileConsumer<T> {
+        void accept(RenderedFile<T> renderedFile) throws IOException;
+    }
+
+    /** maximum number of threads used for rendering */
+    private static final int MAX_THREADS = 8;
+
+    /** number of files rendered ahead of the consumer per thread */
+    private static final int FILES_AHEAD_PER_THREAD = 4;
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * @param file
+     *            the file
+     * @param content
+     *            the expected content
+     * @param charset
+     *            the charset of the file
+     * @return <code>true</code> if the file exists and has exactly the expected content
+     * @throws IOException
+     *             in case of errors reading the file
+     */
+    public static boolean hasContent(Path file, CharSequence content, Charset charset) throws IOException {
+        if (!isRegularFile(file)) {
+            return false;
+        }
+
+        if (UTF_8.equals(charset)) {
+            // compare bytes (no decoding of the existing file)
+            return new Utf8Buffer().encode(content).contentEquals(file);
+        }
+
+        // cheap check first (a file never has fewer bytes than characters)
+        if (size(file) < content.length()) {
+            return false;
+        }
+
+        return readString(file, charset).contentEquals(content);
+    }
+
+    private static <T> RenderedFile<T> renderFile(
+            T source,
+            Function<T, Path> locationFunction,
+            Function<T, CharSequence> renderFunction,
+            Charset charset) throws IOException {
+        var location = locationFunction.apply(source);
+        var content = renderFunction.apply(source);
+        if (UTF_8.equals(charset)) {
+            // encode once; the bytes are used for comparing as well as for writing
+            var encodedContent = new Utf8Buffer().encode(content);
+            if (isRegularFile(location) && encodedContent.contentEquals(location)) {
+                return new RenderedFile<>(source, location, content, charset, null, true);
+            }
+            return new RenderedFile<>(source, location, content, charset, encodedContent, false);
+        }
+        return new RenderedFile<>(source, location, content, charset, null, hasContent(location, content, charset));
+    }
+
+    /**
+     * Renders all files and passes them to the consumer in order.
+     * <p>
+     * The location and render functions must be thread safe. They are called concurrently for different sources. The
+     * consumer is only called on the calling thread. If rendering or consuming a file fails, no further files are
+     * passed to the consumer and the failure is re-thrown.
+     * </p>
+     *
+     * @param sources
+     *            the objects to render files from (files are passed to the consumer in iteration order)
+     * @param locationFunction
+     *            function computing the file location of a source
+     * @param renderFunction
+     *            function computing the file content of a source
+     * @param charset
+     *            the charset of the files on disk (used for detecting unchanged files)
+     * @param consumer
+     *            the consumer for writing the files
+     * @throws IOException
+     *             in case of errors rendering, reading or writing a file
+     */
+    public static <T> void render(
+            Collection<T> sources,
+            Function<T, Path> locationFunction,
+            Function<T, CharSequence> renderFunction,
+            Charset charset,
+            RenderedFileConsumer<T> consumer) throws IOException {
+        var threads = Math.min(Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()), sources.size());
+        if (threads <= 1) {
+            for (T source : sources) {
+                consumer.accept(renderFile(source, locationFunction, renderFunction, charset));
+            }
+            return;
+        }
+
+        var executor = Executors.newFixedThreadPool(threads, r -> {
+            var thread = new Thread(r, "file-renderer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Iterator<T> remaining = sources.iterator();
+            var pending = new ArrayDeque<Future<RenderedFile<T>>>();
+            var filesAhead = threads * FILES_AHEAD_PER_THREAD;
+            while (remaining.hasNext() && (pending.size() < filesAhead)) {
+                pending.add(submit(executor, remaining.next(), locationFunction, renderFunction, charset));
+            }
+            while (!pending.isEmpty()) {
+                var renderedFile = await(pending.removeFirst());
+                if (remaining.hasNext()) {
+                    pending.add(submit(executor, remaining.next(), locationFunction, renderFunction, charset));
+                }
+                consumer.accept(renderedFile);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> RenderedFile<T> await(Future<RenderedFile<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for file rendering");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(format("Error rendering file: %s", cause.getMessage()), cause);
+        }
+    }
+
+    private static <T> Future<RenderedFile<T>> submit(
+            ExecutorService executor,
+            T source,
+            Function<T, Path> locationFunction,
+            Function<T, CharSequence> renderFunction,
+            Charset charset) {
+        Callable<RenderedFile<T>> task = () -> renderFile(source, locationFunction, renderFunction, charset);
+        return executor.submit(task);
+    }
+
+    private ParallelFileRenderer() {
+        // empty
+    }
+}
@@ -0,0 +1,215 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A persisted index of the groups (files) of a {@link MavenDependenciesCollection} defining or using a version
+ * variable.
+ * <p>
+ * The index allows to find the files to parse for a version variable without parsing the whole collection. For every
+ * group the size and last modified time of the file is recorded. A group is only trusted as long as its file stamp
+ * is unchanged. The index is a cache. It is rebuilt from the files whenever it is missing or cannot be read.
+ * </p>
+ * <p>
+ * This file is intentionally package private, it should not be used/modified outside of
+ * {@link MavenDependenciesCollection}.
+ * </p>
+ */
+class VersionVariableLocationIndex {
+
+    private static final String HEADER = "# bazel-maven-deps version variable index v2";
+    private static final String FILE_ENTRY = "F";
+    private static final String VARIABLE_ENTRY = "V";
+    private static final String USAGE_ENTRY = "U";
+
+    /**
+     * Reads an index file.
+     *
+     * @param indexFile
+     *            the index file location
+     * @return the index (empty if the file does not exist or cannot be read)
+     */
+    static VersionVariableLocationIndex read(Path indexFile) {
+        var index = new VersionVariableLocationIndex(indexFile);
+        if (!Files.isRegularFile(indexFile)) {
+            return index;
+        }
+
+        try {
+            var lines = Files.readAllLines(indexFile, UTF_8);
+            if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+                return new VersionVariableLocationIndex(indexFile);
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                var tokens = line.split(" ");
+                if ((tokens.length == 3) && FILE_ENTRY.equals(tokens[0])) {
+                    index.stampByGroup.put(tokens[1], tokens[2]);
+                    index.variablesByGroup.putIfAbsent(tokens[1], new TreeSet<>());
+                    index.usagesByGroup.putIfAbsent(tokens[1], new TreeSet<>());
+                } else if ((tokens.length == 3) && VARIABLE_ENTRY.equals(tokens[0])
+                        && index.variablesByGroup.containsKey(tokens[1])) {
+                    index.variablesByGroup.get(tokens[1]).add(tokens[2]);
+                } else if ((tokens.length == 3) && USAGE_ENTRY.equals(tokens[0])
+                        && index.usagesByGroup.containsKey(tokens[1])) {
+                    index.usagesByGroup.get(tokens[1]).add(tokens[2]);
+                } else {
+                    throw new IOException(format("Invalid line '%s'", line));
+                }
+            }
+        } catch (IOException e) {
+            // broken cache, start over
+            return new VersionVariableLocationIndex(indexFile);
+        }
+        return index;
+    }
+
+    /**
+     * Computes the stamp of a file used for detecting modifications
+     *
+     * @param file
+     *            the file
+     * @return the stamp
+     * @throws IOException
+     */
+    static String stamp(Path file) throws IOException {
+        var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static void appendEntry(StringBuilder content, String type, String group, String value) {
+        content.append(type).append(' ').append(group).append(' ').append(value).append('\n');
+    }
+
+    private final Path indexFile;
+    private final Map<String, String> stampByGroup = new TreeMap<>();
+    private final Map<String, SortedSet<String>> variablesByGroup = new TreeMap<>();
+    private final Map<String, SortedSet<String>> usagesByGroup = new TreeMap<>();
+    private boolean modified;
+
+    VersionVariableLocationIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * @param versionVariableName
+     *            the version variable name
+     * @return the groups defining the specified version variable
+     */
+    SortedSet<String> getGroupsDefining(String versionVariableName) {
+        return findGroups(variablesByGroup, versionVariableName);
+    }
+
+    /**
+     * @param versionVariableName
+     *            the version variable name
+     * @return the groups with artifacts using the specified version variable as version
+     */
+    SortedSet<String> getGroupsUsing(String versionVariableName) {
+        return findGroups(usagesByGroup, versionVariableName);
+    }
+
+    private static SortedSet<String> findGroups(Map<String, SortedSet<String>> namesByGroup, String name) {
+        SortedSet<String> result = new TreeSet<>();
+        for (Entry<String, SortedSet<String>> entry : namesByGroup.entrySet()) {
+            if (entry.getValue().contains(name)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param group
+     *            the group
+     * @param stamp
+     *            the current stamp of the group's file
+     * @return <code>true</code> if the index has information about the group matching the given stamp
+     */
+    boolean isUpToDate(String group, String stamp) {
+        return stamp.equals(stampByGroup.get(group));
+    }
+
+    /**
+     * Removes all groups not in the given collection.
+     *
+     * @param existingGroups
+     *            the groups to keep
+     */
+    void retainGroups(Collection<String> existingGroups) {
+        modified |= stampByGroup.keySet().retainAll(existingGroups);
+        variablesByGroup.keySet().retainAll(existingGroups);
+        usagesByGroup.keySet().retainAll(existingGroups);
+    }
+
+    /**
+     * Records the version variables of a group.
+     *
+     * @param group
+     *            the group
+     * @param stamp
+     *            the stamp of the group's file
+     * @param versionVariableNames
+     *            the version variables defined in the group's file
+     * @param usedVersionVariableNames
+     *            the version variables used by artifacts in the group's file
+     */
+    void update(String group, String stamp, Collection<String> versionVariableNames,
+            Collection<String> usedVersionVariableNames) {
+        stampByGroup.put(group, stamp);
+        variablesByGroup.put(group, new TreeSet<>(versionVariableNames));
+        usagesByGroup.put(group, new TreeSet<>(usedVersionVariableNames));
+        modified = true;
+    }
+
+    /**
+     * Writes the index if it was modified.
+     * <p>
+     * Errors are ignored because the index is only a cache.
+     * </p>
+     */
+    void writeIfModified() {
+        if (!modified) {
+            return;
+        }
+
+        var content = new StringBuilder();
+        content.append(HEADER).append('\n');
+        for (Entry<String, String> entry : stampByGroup.entrySet()) {
+            appendEntry(content, FILE_ENTRY, entry.getKey(), entry.getValue());
+            for (String variable : variablesByGroup.get(entry.getKey())) {
+                appendEntry(content, VARIABLE_ENTRY, entry.getKey(), variable);
+            }
+            for (String variable : usagesByGroup.get(entry.getKey())) {
+                appendEntry(content, USAGE_ENTRY, entry.getKey(), variable);
+            }
+        }
+
+        try {
+            Files.createDirectories(indexFile.getParent());
+            var tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(tempFile, content, UTF_8);
+                Files.move(tempFile, indexFile, REPLACE_EXISTING, ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            modified = false;
+        } catch (IOException e) {
+            // ignore, the index will be re-created next time
+        }
+    }
+}
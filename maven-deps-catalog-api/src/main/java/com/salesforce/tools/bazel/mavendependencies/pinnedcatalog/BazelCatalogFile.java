@@ -2,6 +2,7 @@ package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
 
 import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
 import static java.lang.String.format;
+import static java.nio.file.Files.readAllBytes;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -216,7 +217,32 @@ class BazelCatalogFile {
     private static final String KEYWORD_NAME = "name";
     private static final String KEYWORD_TAGS = "tags";
 
+    /** rough number of characters rendered per import (used for sizing the output upfront) */
+    private static final int EXPECTED_CHARACTERS_PER_IMPORT = 1024;
+
     public static BazelCatalogFile read(Path existingFile) throws IOException {
+        return read(existingFile, readAllBytes(existingFile));
+    }
+
+    /**
+     * Reads a catalog file from already loaded content.
+     * <p>
+     * Files in the layout produced by {@link #prettyPrint(SortedSet, String, String)} are read using the
+     * {@link BazelCatalogFileFastReader}. Anything else falls back to the full Starlark {@link Reader}.
+     * </p>
+     *
+     * @param existingFile
+     *            the file
+     * @param content
+     *            the file content
+     * @return the read file
+     * @throws IOException
+     */
+    static BazelCatalogFile read(Path existingFile, byte[] content) throws IOException {
+        var catalogFile = BazelCatalogFileFastReader.read(existingFile, content);
+        if (catalogFile != null) {
+            return catalogFile;
+        }
         return new Reader(existingFile).read();
     }
 
@@ -255,7 +281,7 @@ class BazelCatalogFile {
             SortedSet<String> mavenServers,
             String labelForLoadingJvmMavenImportExternalSymbol,
             String preamble) {
-        var output = new StarlarkStringBuilder(4);
+        var output = new StarlarkStringBuilder(4, EXPECTED_CHARACTERS_PER_IMPORT * (javaImports.size() + 1));
 
         output.append("load(\"")
                 .append(
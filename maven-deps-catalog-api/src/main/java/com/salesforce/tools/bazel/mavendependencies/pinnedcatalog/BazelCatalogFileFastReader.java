@@ -0,0 +1,528 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.starlark.BazelConventions;
+
+/**
+ * A reader for {@link BazelCatalogFile catalog files} which recognizes the exact layout produced by
+ * {@link BazelCatalogFile#prettyPrint(SortedSet, String, String)} directly from the file bytes.
+ * <p>
+ * The reader does not build a Starlark syntax tree. It walks the file line by line and only accepts what the generator
+ * writes: comment lines in the preamble, one <code>jvm_maven_import_external(...)</code> block per import with one
+ * keyword argument per line, string literals using no escape sequence other than <code>\"</code>, etc. On any
+ * deviation (hand edits, comments within the setup macro, unknown attributes, ...) the reader gives up and returns
+ * <code>null</code>. The caller must then use the full {@link BazelCatalogFile.Reader}, which remains the reference
+ * for the syntax and for reporting errors.
+ * </p>
+ */
+final class BazelCatalogFileFastReader {
+
+    /**
+     * Signals that the content deviates from the generated layout
+     */
+    private static final class NotRecognizedException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        NotRecognizedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final NotRecognizedException NOT_RECOGNIZED = new NotRecognizedException();
+
+    private static final byte[] LOAD_PREFIX = ascii("load(\"");
+    private static final byte[] LOAD_SUFFIX = ascii("\", \"jvm_maven_import_external\")");
+    private static final String SETUP_DEF_PREFIX = "def setup_maven_dependencies_";
+    private static final String REPO_NAMES_DEF_PREFIX = "def maven_repo_names_";
+    private static final byte[] MAVEN_SERVERS = ascii("maven_servers = ");
+    private static final byte[] BODY_DOCSTRING = ascii("    \"\"\"");
+    private static final byte[] DOCSTRING_END = ascii("\"\"\"");
+    private static final byte[] BODY_IMPORT = ascii("    jvm_maven_import_external(");
+    private static final byte[] BODY_RETURN = ascii("    return ");
+    private static final byte[] ATTRIBUTE_ASSIGNMENT = ascii(" = ");
+    private static final byte[] MAVEN_SERVERS_REFERENCE = ascii("maven_servers,");
+    private static final byte[] MULTILINE_STRING_START = ascii("\"\\n\".join([");
+    private static final byte[] MULTILINE_STRING_END = ascii("]),");
+    private static final byte[] SRCJAR_URLS_PREFIX = ascii("[server + ");
+    private static final byte[] SRCJAR_URLS_SUFFIX = ascii(" for server in maven_servers],");
+    private static final byte[] TRUE = ascii("True,");
+    private static final byte[] FALSE = ascii("False,");
+    private static final byte[] COMMA = ascii(",");
+    private static final byte[] NO_SUFFIX = new byte[0];
+    private static final byte[] DEF_SUFFIX = ascii("):");
+    private static final byte[] CALL_END = ascii(")");
+
+    private static final String KEYWORD_NAME = "name";
+    private static final String KEYWORD_ARTIFACT = "artifact";
+    private static final String KEYWORD_ARTIFACT_SHA256 = "artifact_sha256";
+    private static final String KEYWORD_ARTIFACT_SHA1 = "artifact_sha1";
+    private static final String KEYWORD_SERVER_URLS = "server_urls";
+    private static final String KEYWORD_DEFAULT_VISIBILITY = "default_visibility";
+    private static final String KEYWORD_EXTRA_BUILD_FILE_CONTENT = "extra_build_file_content";
+    private static final String KEYWORD_NEVERLINK = "neverlink";
+    private static final String KEYWORD_TESTONLY = "testonly_";
+    private static final String KEYWORD_EXPORTS = "exports";
+    private static final String KEYWORD_DEPS = "deps";
+    private static final String KEYWORD_RUNTIME_DEPS = "runtime_deps";
+    private static final String KEYWORD_SRCJAR_SHA256 = "srcjar_sha256";
+    private static final String KEYWORD_SRCJAR_SHA1 = "srcjar_sha1";
+    private static final String KEYWORD_FETCH_SOURCES = "fetch_sources";
+    private static final String KEYWORD_SRCJAR_URLS = "srcjar_urls";
+    private static final String KEYWORD_LICENSES = "licenses";
+    private static final String KEYWORD_TAGS = "tags";
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(US_ASCII);
+    }
+
+    /**
+     * Reads a catalog file from its content.
+     *
+     * @param catalogFile
+     *            the catalog file (used for computing the group)
+     * @param content
+     *            the file content
+     * @return the read catalog file or <code>null</code> if the content is not in the generated layout and must be
+     *         read using the {@link BazelCatalogFile.Reader}
+     */
+    static BazelCatalogFile read(Path catalogFile, byte[] content) {
+        var fileName = catalogFile.getFileName().toString();
+        if (!fileName.endsWith(".bzl")) {
+            return null;
+        }
+        var group = fileName.substring(0, fileName.length() - 4);
+        if (group.isBlank() || !BazelConventions.toTargetName(group).equals(group)) {
+            return null;
+        }
+
+        try {
+            return new BazelCatalogFileFastReader(group, content).read();
+        } catch (NotRecognizedException | RuntimeException e) {
+            // runtime exceptions (eg., invalid coordinates) are reported by the full reader
+            return null;
+        }
+    }
+
+    private final String group;
+    private final byte[] content;
+
+    /** position of the next line to read */
+    private int position;
+
+    /** start of the current line */
+    private int lineStart;
+
+    /** end of the current line (excluding line terminator) */
+    private int lineEnd;
+
+    private BazelCatalogFileFastReader(String group, byte[] content) {
+        this.group = group;
+        this.content = content;
+    }
+
+    private boolean currentLineEquals(byte[] expected) {
+        return ((lineEnd - lineStart) == expected.length) && regionMatches(lineStart, expected);
+    }
+
+    private boolean currentLineIsBlank() {
+        return skipSpaces(lineStart) == lineEnd;
+    }
+
+    private boolean currentLineIsComment() {
+        var start = skipSpaces(lineStart);
+        return (start < lineEnd) && (content[start] == '#');
+    }
+
+    private boolean currentLineStartsWith(byte[] prefix) {
+        return ((lineEnd - lineStart) >= prefix.length) && regionMatches(lineStart, prefix);
+    }
+
+    private void expect(int offset, byte[] expected) throws NotRecognizedException {
+        if (((lineEnd - offset) < expected.length) || !regionMatches(offset, expected)) {
+            throw NOT_RECOGNIZED;
+        }
+    }
+
+    private void expectEndOfLine(int offset, byte[] suffix) throws NotRecognizedException {
+        if (((lineEnd - offset) != suffix.length) || !regionMatches(offset, suffix)) {
+            throw NOT_RECOGNIZED;
+        }
+    }
+
+    private void expectNextLine() throws NotRecognizedException {
+        if (!nextLine()) {
+            throw NOT_RECOGNIZED;
+        }
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return <code>false</code> if the end of the content was reached
+     * @throws NotRecognizedException
+     *             if the line contains a carriage return which does not belong to the line terminator
+     */
+    private boolean nextLine() throws NotRecognizedException {
+        if (position >= content.length) {
+            return false;
+        }
+
+        lineStart = position;
+        var end = lineStart;
+        while ((end < content.length) && (content[end] != '\n')) {
+            end++;
+        }
+        position = end + 1;
+
+        if ((end > lineStart) && (content[end - 1] == '\r')) {
+            end--;
+        }
+        for (var i = lineStart; i < end; i++) {
+            if (content[i] == '\r') {
+                throw NOT_RECOGNIZED;
+            }
+        }
+        lineEnd = end;
+        return true;
+    }
+
+    private BazelJavaDependencyImport parseImport() throws NotRecognizedException {
+        Map<String, Object> attributes = new HashMap<>();
+        while (true) {
+            expectNextLine();
+            var offset = skipSpaces(lineStart);
+            if ((offset == lineStart) || (offset == lineEnd)) {
+                throw NOT_RECOGNIZED;
+            }
+            if (((lineEnd - offset) == CALL_END.length) && regionMatches(offset, CALL_END)) {
+                break;
+            }
+
+            var keywordEnd = offset;
+            while ((keywordEnd < lineEnd) && isKeywordCharacter(content[keywordEnd])) {
+                keywordEnd++;
+            }
+            if (keywordEnd == offset) {
+                throw NOT_RECOGNIZED;
+            }
+            var keyword = new String(content, offset, keywordEnd - offset, US_ASCII);
+            expect(keywordEnd, ATTRIBUTE_ASSIGNMENT);
+            var valueStart = keywordEnd + ATTRIBUTE_ASSIGNMENT.length;
+
+            Object value;
+            switch (keyword) {
+                case KEYWORD_NAME:
+                case KEYWORD_ARTIFACT:
+                case KEYWORD_ARTIFACT_SHA256:
+                case KEYWORD_ARTIFACT_SHA1:
+                case KEYWORD_SRCJAR_SHA256:
+                case KEYWORD_SRCJAR_SHA1:
+                case KEYWORD_EXTRA_BUILD_FILE_CONTENT:
+                    value = parseStringValue(valueStart);
+                    break;
+
+                case KEYWORD_DEFAULT_VISIBILITY:
+                case KEYWORD_EXPORTS:
+                case KEYWORD_DEPS:
+                case KEYWORD_RUNTIME_DEPS:
+                case KEYWORD_LICENSES:
+                case KEYWORD_TAGS:
+                    value = parseStringList(valueStart, COMMA);
+                    break;
+
+                case KEYWORD_NEVERLINK:
+                case KEYWORD_TESTONLY:
+                case KEYWORD_FETCH_SOURCES:
+                    if (((lineEnd - valueStart) == TRUE.length) && regionMatches(valueStart, TRUE)) {
+                        value = Boolean.TRUE;
+                    } else {
+                        expectEndOfLine(valueStart, FALSE);
+                        value = Boolean.FALSE;
+                    }
+                    break;
+
+                case KEYWORD_SERVER_URLS:
+                    expectEndOfLine(valueStart, MAVEN_SERVERS_REFERENCE);
+                    value = Boolean.TRUE;
+                    break;
+
+                case KEYWORD_SRCJAR_URLS:
+                    expect(valueStart, SRCJAR_URLS_PREFIX);
+                    var pathEnd = skipStringLiteral(valueStart + SRCJAR_URLS_PREFIX.length);
+                    expectEndOfLine(pathEnd, SRCJAR_URLS_SUFFIX);
+                    value = Boolean.TRUE;
+                    break;
+
+                default:
+                    throw NOT_RECOGNIZED;
+            }
+
+            if (attributes.put(keyword, value) != null) {
+                // the full reader fails on duplicate keyword arguments
+                throw NOT_RECOGNIZED;
+            }
+        }
+
+        var name = (String) attributes.get(KEYWORD_NAME);
+        var coordinates = (String) attributes.get(KEYWORD_ARTIFACT);
+        if ((name == null) || (coordinates == null)) {
+            throw NOT_RECOGNIZED;
+        }
+
+        var fetchSources = Boolean.TRUE.equals(attributes.get(KEYWORD_FETCH_SOURCES));
+        var hasSrcJarUrls = attributes.containsKey(KEYWORD_SRCJAR_URLS);
+        if (hasSrcJarUrls && fetchSources) {
+            throw NOT_RECOGNIZED;
+        }
+
+        // same order as in BazelCatalogFile.Reader
+        var entryBuilder = createWithNameAndArtifact(name, MavenArtifact.fromCoordinatesString(coordinates));
+        entryBuilder.setArtifactSha256((String) attributes.get(KEYWORD_ARTIFACT_SHA256));
+        entryBuilder.setArtifactSha1((String) attributes.get(KEYWORD_ARTIFACT_SHA1));
+        entryBuilder.setLicenses(stringList(attributes, KEYWORD_LICENSES));
+        entryBuilder.setSourcesArtifact(hasSrcJarUrls || fetchSources);
+        entryBuilder.setSourcesArtifactSha256((String) attributes.get(KEYWORD_SRCJAR_SHA256));
+        entryBuilder.setSourcesArtifactSha1((String) attributes.get(KEYWORD_SRCJAR_SHA1));
+        entryBuilder.setDeps(stringList(attributes, KEYWORD_DEPS));
+        entryBuilder.setRuntimeDeps(stringList(attributes, KEYWORD_RUNTIME_DEPS));
+        entryBuilder.setExports(stringList(attributes, KEYWORD_EXPORTS));
+        entryBuilder.setTestonly(Boolean.TRUE.equals(attributes.get(KEYWORD_TESTONLY)));
+        entryBuilder.setNeverlink(Boolean.TRUE.equals(attributes.get(KEYWORD_NEVERLINK)));
+        entryBuilder.setExtraBuildFileContent((String) attributes.get(KEYWORD_EXTRA_BUILD_FILE_CONTENT));
+        entryBuilder.setDefaultVisibility(stringList(attributes, KEYWORD_DEFAULT_VISIBILITY));
+        entryBuilder.setTags(stringList(attributes, KEYWORD_TAGS));
+        return entryBuilder.build();
+    }
+
+    /**
+     * Parses a string literal, which must be followed by the end of the line.
+     *
+     * @return the end of the literal (position after the closing quote)
+     */
+    private int parseStringLiteral(int offset, List<String> values) throws NotRecognizedException {
+        var end = skipStringLiteral(offset);
+        var value = new String(content, offset + 1, end - offset - 2, UTF_8);
+        if (value.indexOf('\\') != -1) {
+            value = value.replace("\\\"", "\"");
+        }
+        values.add(value);
+        return end;
+    }
+
+    /**
+     * Parses a list of string literals, either <code>[]</code>, <code>["value"]</code> or one value per line, followed
+     * by the given suffix and the end of the line.
+     */
+    private List<String> parseStringList(int offset, byte[] suffix) throws NotRecognizedException {
+        if ((offset >= lineEnd) || (content[offset] != '[')) {
+            throw NOT_RECOGNIZED;
+        }
+
+        List<String> values = new ArrayList<>();
+        offset++;
+        if (offset == lineEnd) {
+            // one value per line
+            while (true) {
+                expectNextLine();
+                offset = skipSpaces(lineStart);
+                if ((offset < lineEnd) && (content[offset] == ']')) {
+                    expectEndOfLine(offset + 1, suffix);
+                    return values;
+                }
+                offset = parseStringLiteral(offset, values);
+                expectEndOfLine(offset, COMMA);
+            }
+        }
+
+        if (content[offset] != ']') {
+            offset = parseStringLiteral(offset, values);
+        }
+        if ((offset >= lineEnd) || (content[offset] != ']')) {
+            throw NOT_RECOGNIZED;
+        }
+        expectEndOfLine(offset + 1, suffix);
+        return values;
+    }
+
+    /**
+     * Parses a string value (either a literal or a multi-line <code>"\n".join([...])</code> expression) followed by a
+     * comma and the end of the line.
+     */
+    private String parseStringValue(int offset) throws NotRecognizedException {
+        List<String> values = new ArrayList<>(1);
+        if (((lineEnd - offset) == MULTILINE_STRING_START.length) && regionMatches(offset, MULTILINE_STRING_START)) {
+            while (true) {
+                expectNextLine();
+                offset = skipSpaces(lineStart);
+                if (((lineEnd - offset) == MULTILINE_STRING_END.length) && regionMatches(offset, MULTILINE_STRING_END)) {
+                    // last entry also gets a newline
+                    return String.join("\n", values) + "\n";
+                }
+                offset = parseStringLiteral(offset, values);
+                expectEndOfLine(offset, COMMA);
+            }
+        }
+
+        offset = parseStringLiteral(offset, values);
+        expectEndOfLine(offset, COMMA);
+        return values.get(0);
+    }
+
+    private BazelCatalogFile read() throws NotRecognizedException {
+        // load statement followed by an empty line
+        expectNextLine();
+        if (!currentLineStartsWith(LOAD_PREFIX)) {
+            throw NOT_RECOGNIZED;
+        }
+        var labelEnd = skipStringLiteral(lineStart + LOAD_PREFIX.length - 1) - 1;
+        expectEndOfLine(labelEnd, LOAD_SUFFIX);
+
+        // preamble (comments only)
+        var setupDef = ascii(SETUP_DEF_PREFIX + group + "(");
+        do {
+            expectNextLine();
+        } while (!currentLineEquals(setupDef) && (currentLineIsBlank() || currentLineIsComment()));
+        if (!currentLineEquals(setupDef)) {
+            throw NOT_RECOGNIZED;
+        }
+
+        // maven_servers parameter
+        expectNextLine();
+        var offset = skipSpaces(lineStart);
+        expect(offset, MAVEN_SERVERS);
+        parseStringList(offset + MAVEN_SERVERS.length, DEF_SUFFIX);
+
+        // body: docstring and jvm_maven_import_external calls
+        SortedSet<BazelJavaDependencyImport> javaImports = new TreeSet<>();
+        var hasStatements = false;
+        var hasMoreLines = nextLine();
+        if (hasMoreLines && currentLineStartsWith(BODY_DOCSTRING)) {
+            skipDocstring();
+            hasStatements = true;
+            hasMoreLines = nextLine();
+        }
+        while (hasMoreLines) {
+            if (currentLineEquals(BODY_IMPORT)) {
+                javaImports.add(parseImport());
+                hasStatements = true;
+            } else if (!currentLineIsBlank()) {
+                break;
+            }
+            hasMoreLines = nextLine();
+        }
+        if (!hasStatements) {
+            throw NOT_RECOGNIZED;
+        }
+
+        // optional repository names function
+        if (hasMoreLines) {
+            if (!currentLineEquals(ascii(REPO_NAMES_DEF_PREFIX + group + "():"))) {
+                throw NOT_RECOGNIZED;
+            }
+            expectNextLine();
+            if (currentLineStartsWith(BODY_DOCSTRING)) {
+                skipDocstring();
+                do {
+                    expectNextLine();
+                } while (currentLineIsBlank());
+            }
+            if (!currentLineStartsWith(BODY_RETURN)) {
+                throw NOT_RECOGNIZED;
+            }
+            parseStringList(lineStart + BODY_RETURN.length, NO_SUFFIX);
+
+            while (nextLine()) {
+                if (!currentLineIsBlank()) {
+                    throw NOT_RECOGNIZED;
+                }
+            }
+        }
+
+        return new BazelCatalogFile(group, javaImports);
+    }
+
+    private boolean isKeywordCharacter(byte b) {
+        return ((b >= 'a') && (b <= 'z')) || ((b >= '0') && (b <= '9')) || (b == '_');
+    }
+
+    private boolean regionMatches(int offset, byte[] expected) {
+        for (var i = 0; i < expected.length; i++) {
+            if (content[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips a single line docstring (<code>"""text"""</code>) in the current line. The text must not contain quotes or
+     * backslashes.
+     */
+    private void skipDocstring() throws NotRecognizedException {
+        var textStart = lineStart + BODY_DOCSTRING.length;
+        var textEnd = lineEnd - 3;
+        if (textEnd < textStart) {
+            throw NOT_RECOGNIZED;
+        }
+        for (var i = textStart; i < textEnd; i++) {
+            if ((content[i] == '"') || (content[i] == '\\')) {
+                throw NOT_RECOGNIZED;
+            }
+        }
+        expectEndOfLine(textEnd, DOCSTRING_END);
+    }
+
+    private int skipSpaces(int offset) {
+        while ((offset < lineEnd) && (content[offset] == ' ')) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Skips a string literal starting at the given offset in the current line.
+     * <p>
+     * Only <code>\"</code> is accepted as escape sequence. Any other backslash would be interpreted by the Starlark
+     * lexer and is left to the full reader.
+     * </p>
+     *
+     * @return the position after the closing quote
+     */
+    private int skipStringLiteral(int offset) throws NotRecognizedException {
+        if ((offset >= lineEnd) || (content[offset] != '"')) {
+            throw NOT_RECOGNIZED;
+        }
+        for (var i = offset + 1; i < lineEnd; i++) {
+            var b = content[i];
+            if (b == '"') {
+                return i + 1;
+            }
+            if (b == '\\') {
+                if (((i + 1) >= lineEnd) || (content[i + 1] != '"')) {
+                    throw NOT_RECOGNIZED;
+                }
+                i++;
+            }
+        }
+        throw NOT_RECOGNIZED;
+    }
+
+    private static List<String> stringList(Map<String, Object> attributes, String keyword) {
+        @SuppressWarnings("unchecked")
+        var values = (List<String>) attributes.get(keyword);
+        return values;
+    }
+}
@@ -0,0 +1,426 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.common.hash.Hashing;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+
+/**
+ * A persisted binary index of the imports of all {@link BazelCatalogFile catalog files}.
+ * <p>
+ * The index allows to load the catalog without parsing every <code>.bzl</code> file. For every group the SHA-256 of
+ * the file content is recorded. A group is only taken from the index as long as the hash of its file is unchanged.
+ * The index is a cache. It is rebuilt from the files whenever it is missing or cannot be read.
+ * </p>
+ * <p>
+ * The layout is compact and read from a memory mapped file. All strings are stored once in a string table and
+ * referenced by position. Strings are decoded on first use, which also shares repeated strings (eg., labels in deps)
+ * between imports.
+ *
+ * <pre>
+ * int magic, int version
+ * int stringCount, { int byteLength, byte[] utf8 } * stringCount
+ * int groupCount, { int group, byte[32] sha256, int importCount, import * importCount } * groupCount
+ *
+ * import:
+ *   int name, int artifactCoordinates, int artifactSha256, int artifactSha1,
+ *   byte flags (sources, testonly, neverlink), int sourcesSha256, int sourcesSha1, int extraBuildFileContent,
+ *   { int count, int * count } for licenses, deps, runtimeDeps, exports, defaultVisibility and tags
+ * </pre>
+ *
+ * String references are <code>-1</code> for <code>null</code>.
+ * </p>
+ * <p>
+ * This file is intentionally package private, it should not be used/modified outside of
+ * {@link BazelDependenciesCatalog}.
+ * </p>
+ */
+class BazelCatalogImportIndex {
+
+    /**
+     * Index entry of a group
+     */
+    private static final class Entry {
+
+        final byte[] hash;
+        final StringTable stringTable;
+        final ByteBuffer importsBuffer;
+        final BazelCatalogFile file;
+
+        Entry(byte[] hash, BazelCatalogFile file) {
+            this.hash = hash;
+            this.stringTable = null;
+            this.importsBuffer = null;
+            this.file = file;
+        }
+
+        Entry(byte[] hash, StringTable stringTable, ByteBuffer importsBuffer) {
+            this.hash = hash;
+            this.stringTable = stringTable;
+            this.importsBuffer = importsBuffer;
+            this.file = null;
+        }
+
+        SortedSet<BazelJavaDependencyImport> getJavaImports() throws IOException {
+            if (file != null) {
+                return file.getJavaImports();
+            }
+            // the string table only uses absolute reads, the duplicate keeps this method thread safe
+            return readImports(stringTable, importsBuffer.duplicate());
+        }
+    }
+
+    /**
+     * Decodes strings of the string table on demand
+     */
+    private static final class StringTable {
+
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final String[] strings;
+
+        StringTable(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            var count = readCount(buffer);
+            offsets = new int[count];
+            strings = new String[count];
+            for (var i = 0; i < count; i++) {
+                offsets[i] = buffer.position();
+                var length = readCount(buffer);
+                buffer.position(buffer.position() + length);
+            }
+        }
+
+        /**
+         * Decodes a string (thread safe, concurrent decoding of the same string is harmless)
+         */
+        String get(int index) throws IOException {
+            if (index == NULL_REFERENCE) {
+                return null;
+            }
+            if ((index < 0) || (index >= strings.length)) {
+                throw new IOException(format("Invalid string reference %d", index));
+            }
+            var string = strings[index];
+            if (string == null) {
+                var length = buffer.getInt(offsets[index]);
+                var bytes = new byte[length];
+                buffer.get(offsets[index] + Integer.BYTES, bytes);
+                strings[index] = string = new String(bytes, UTF_8);
+            }
+            return string;
+        }
+
+        SortedSet<String> getSet(ByteBuffer groupBuffer) throws IOException {
+            var count = readCount(groupBuffer);
+            if (count == 0) {
+                return null;
+            }
+            SortedSet<String> result = new TreeSet<>();
+            for (var i = 0; i < count; i++) {
+                result.add(get(groupBuffer.getInt()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Collects strings for writing the string table
+     */
+    private static final class StringTableBuilder {
+
+        private final Map<String, Integer> indexByString = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int add(String string) {
+            if (string == null) {
+                return NULL_REFERENCE;
+            }
+            return indexByString.computeIfAbsent(string, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+        }
+
+        void addSet(DataOutputStream out, SortedSet<String> set) throws IOException {
+            if (set == null) {
+                out.writeInt(0);
+                return;
+            }
+            out.writeInt(set.size());
+            for (String string : set) {
+                out.writeInt(add(string));
+            }
+        }
+    }
+
+    private static final int MAGIC = 0x424d4358; // BMCX
+    private static final int VERSION = 1;
+    private static final int NULL_REFERENCE = -1;
+    private static final int HASH_LENGTH = 32;
+
+    private static final int FLAG_SOURCES = 1;
+    private static final int FLAG_TESTONLY = 2;
+    private static final int FLAG_NEVERLINK = 4;
+
+    /**
+     * Computes the hash of a catalog file used for detecting modifications
+     *
+     * @param fileContent
+     *            the file content
+     * @return the hash
+     */
+    static byte[] hash(byte[] fileContent) {
+        return Hashing.sha256().hashBytes(fileContent).asBytes();
+    }
+
+    /**
+     * Reads an index file.
+     *
+     * @param indexFile
+     *            the index file location
+     * @return the index (empty if the file does not exist or cannot be read)
+     */
+    static BazelCatalogImportIndex read(Path indexFile) {
+        var index = new BazelCatalogImportIndex(indexFile);
+        if (!Files.isRegularFile(indexFile)) {
+            return index;
+        }
+
+        try (var channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            var buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+                return new BazelCatalogImportIndex(indexFile);
+            }
+
+            var stringTable = new StringTable(buffer);
+            var groupCount = readCount(buffer);
+            for (var i = 0; i < groupCount; i++) {
+                var group = stringTable.get(buffer.getInt());
+                var hash = new byte[HASH_LENGTH];
+                buffer.get(hash);
+
+                // imports are decoded when requested
+                index.entryByGroup.put(group, new Entry(hash, stringTable, buffer.slice()));
+
+                skipImports(buffer);
+            }
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            // broken cache, start over
+            return new BazelCatalogImportIndex(indexFile);
+        }
+        return index;
+    }
+
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        var count = buffer.getInt();
+        if ((count < 0) || (count > buffer.remaining())) {
+            throw new IOException(format("Invalid count %d", count));
+        }
+        return count;
+    }
+
+    private static SortedSet<BazelJavaDependencyImport> readImports(StringTable stringTable, ByteBuffer buffer)
+            throws IOException {
+        SortedSet<BazelJavaDependencyImport> javaImports = new TreeSet<>();
+        var importCount = readCount(buffer);
+        for (var i = 0; i < importCount; i++) {
+            var name = stringTable.get(buffer.getInt());
+            var artifact = MavenArtifact.fromCoordinatesString(stringTable.get(buffer.getInt()));
+            var builder = createWithNameAndArtifact(name, artifact);
+            builder.setArtifactSha256(stringTable.get(buffer.getInt()));
+            builder.setArtifactSha1(stringTable.get(buffer.getInt()));
+            var flags = buffer.get();
+            builder.setSourcesArtifact((flags & FLAG_SOURCES) != 0);
+            builder.setTestonly((flags & FLAG_TESTONLY) != 0);
+            builder.setNeverlink((flags & FLAG_NEVERLINK) != 0);
+            builder.setSourcesArtifactSha256(stringTable.get(buffer.getInt()));
+            builder.setSourcesArtifactSha1(stringTable.get(buffer.getInt()));
+            builder.setExtraBuildFileContent(stringTable.get(buffer.getInt()));
+            builder.setLicenses(stringTable.getSet(buffer));
+            builder.setDeps(stringTable.getSet(buffer));
+            builder.setRuntimeDeps(stringTable.getSet(buffer));
+            builder.setExports(stringTable.getSet(buffer));
+            builder.setDefaultVisibility(stringTable.getSet(buffer));
+            builder.setTags(stringTable.getSet(buffer));
+            javaImports.add(builder.build());
+        }
+        return javaImports;
+    }
+
+    private static void skipImports(ByteBuffer buffer) throws IOException {
+        var importCount = readCount(buffer);
+        for (var i = 0; i < importCount; i++) {
+            // name, artifact, artifactSha256, artifactSha1, flags, sourcesSha256, sourcesSha1, extraBuildFileContent
+            buffer.position(buffer.position() + (7 * Integer.BYTES) + 1);
+            // six string sets
+            for (var j = 0; j < 6; j++) {
+                var count = readCount(buffer);
+                buffer.position(buffer.position() + (count * Integer.BYTES));
+            }
+        }
+    }
+
+    private static void writeImports(
+            DataOutputStream out,
+            StringTableBuilder strings,
+            Collection<BazelJavaDependencyImport> javaImports) throws IOException {
+        out.writeInt(javaImports.size());
+        for (BazelJavaDependencyImport javaImport : javaImports) {
+            out.writeInt(strings.add(javaImport.getName()));
+            out.writeInt(strings.add(javaImport.getArtifact().toCoordinatesString()));
+            out.writeInt(strings.add(javaImport.getArtifactSha256()));
+            out.writeInt(strings.add(javaImport.getArtifactSha1()));
+            var flags = 0;
+            if (javaImport.getSourcesArtifact() != null) {
+                flags |= FLAG_SOURCES;
+            }
+            if (javaImport.isTestonly()) {
+                flags |= FLAG_TESTONLY;
+            }
+            if (javaImport.isNeverlink()) {
+                flags |= FLAG_NEVERLINK;
+            }
+            out.writeByte(flags);
+            out.writeInt(strings.add(javaImport.getSourcesArtifactSha256()));
+            out.writeInt(strings.add(javaImport.getSourcesArtifactSha1()));
+            out.writeInt(strings.add(javaImport.getExtraBuildFileContent()));
+            strings.addSet(out, javaImport.getLicenses());
+            strings.addSet(out, javaImport.getDeps());
+            strings.addSet(out, javaImport.getRuntimeDeps());
+            strings.addSet(out, javaImport.getExports());
+            strings.addSet(out, javaImport.getDefaultVisibility());
+            strings.addSet(out, javaImport.getTags());
+        }
+    }
+
+    private final Path indexFile;
+    private final Map<String, Entry> entryByGroup = new TreeMap<>();
+    private boolean modified;
+
+    BazelCatalogImportIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Returns a catalog file from the index.
+     * <p>
+     * This method is thread safe.
+     * </p>
+     *
+     * @param group
+     *            the group
+     * @param hash
+     *            the current {@link #hash(byte[]) hash} of the group's file
+     * @return the catalog file (<code>null</code> if the index has no information about the group matching the hash)
+     */
+    BazelCatalogFile get(String group, byte[] hash) {
+        var entry = entryByGroup.get(group);
+        if ((entry == null) || !Arrays.equals(entry.hash, hash)) {
+            return null;
+        }
+
+        try {
+            return new BazelCatalogFile(group, entry.getJavaImports());
+        } catch (IOException | RuntimeException e) {
+            // broken entry, parse the file
+            return null;
+        }
+    }
+
+    /**
+     * Removes all groups not in the given collection.
+     *
+     * @param existingGroups
+     *            the groups to keep
+     */
+    void retainGroups(Collection<String> existingGroups) {
+        modified |= entryByGroup.keySet().retainAll(existingGroups);
+    }
+
+    /**
+     * Records the imports of a group.
+     *
+     * @param hash
+     *            the {@link #hash(byte[]) hash} of the group's file
+     * @param file
+     *            the parsed file
+     */
+    void update(byte[] hash, BazelCatalogFile file) {
+        entryByGroup.put(file.getGroup(), new Entry(hash, file));
+        modified = true;
+    }
+
+    /**
+     * Writes the index if it was modified.
+     * <p>
+     * Errors are ignored because the index is only a cache.
+     * </p>
+     */
+    void writeIfModified() {
+        if (!modified) {
+            return;
+        }
+
+        try {
+            // the string table must be written first, so render groups into a separate buffer
+            var strings = new StringTableBuilder();
+            var groups = new ByteArrayOutputStream();
+            try (var out = new DataOutputStream(groups)) {
+                out.writeInt(entryByGroup.size());
+                for (Map.Entry<String, Entry> groupEntry : entryByGroup.entrySet()) {
+                    out.writeInt(strings.add(groupEntry.getKey()));
+                    out.write(groupEntry.getValue().hash);
+                    writeImports(out, strings, groupEntry.getValue().getJavaImports());
+                }
+            }
+
+            Files.createDirectories(indexFile.getParent());
+            var tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            try {
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(strings.strings.size());
+                    for (String string : strings.strings) {
+                        var bytes = string.getBytes(UTF_8);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                    groups.writeTo(out);
+                }
+                Files.move(tempFile, indexFile, REPLACE_EXISTING, ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            modified = false;
+        } catch (IOException | RuntimeException e) {
+            // ignore, the index will be re-created next time
+        }
+    }
+}
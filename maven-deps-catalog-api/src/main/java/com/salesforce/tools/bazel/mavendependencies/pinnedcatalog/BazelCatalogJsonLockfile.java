@@ -0,0 +1,157 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static java.lang.String.format;
+
+import java.util.Collection;
+import java.util.SortedSet;
+
+/**
+ * The JSON lockfile of the {@link BazelDependenciesCatalog}.
+ * <p>
+ * The lockfile contains the same information as the group files but as data. It's read by the generic module
+ * extension in <code>@bazel_maven_deps//bazel:lockfile.bzl</code> using <code>json.decode</code>, which avoids loading
+ * and executing one Starlark function per group and one macro call per import during module extension evaluation.
+ * </p>
+ * <p>
+ * The keys of an import are the keyword arguments of <code>jvm_maven_import_external</code> as written into the group
+ * files. The only exception is <code>srcjar_path</code>, which is the path of a sources artifact with non-standard
+ * classifier relative to a Maven server (the extension combines it with the Maven servers into
+ * <code>srcjar_urls</code>). Every import is written on a single line to keep the file compact and diffs readable.
+ * </p>
+ * <p>
+ * This class is intentionally package private, it should not be used/modified outside of
+ * {@link BazelDependenciesCatalog}.
+ * </p>
+ */
+class BazelCatalogJsonLockfile {
+
+    /** version of the file format, to be incremented on incompatible changes */
+    static final int VERSION = 1;
+
+    private static void appendBooleanIfTrue(StringBuilder output, String name, boolean value) {
+        if (value) {
+            output.append(", \"").append(name).append("\": true");
+        }
+    }
+
+    private static void appendIfNonNull(StringBuilder output, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        output.append(", \"").append(name).append("\": ");
+        appendQuoted(output, value);
+    }
+
+    private static void appendIfNotEmpty(StringBuilder output, String name, Collection<String> values) {
+        if ((values == null) || values.isEmpty()) {
+            return;
+        }
+        output.append(", \"").append(name).append("\": ");
+        appendList(output, values);
+    }
+
+    private static void appendList(StringBuilder output, Collection<String> values) {
+        output.append('[');
+        var first = true;
+        for (String value : values) {
+            if (!first) {
+                output.append(", ");
+            }
+            appendQuoted(output, value);
+            first = false;
+        }
+        output.append(']');
+    }
+
+    private static void appendQuoted(StringBuilder output, String value) {
+        output.append('"');
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    output.append("\\\"");
+                    break;
+                case '\\':
+                    output.append("\\\\");
+                    break;
+                case '\n':
+                    output.append("\\n");
+                    break;
+                case '\r':
+                    output.append("\\r");
+                    break;
+                case '\t':
+                    output.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        output.append(format("\\u%04x", (int) c));
+                    } else {
+                        output.append(c);
+                    }
+            }
+        }
+        output.append('"');
+    }
+
+    public BazelCatalogJsonLockfile() {}
+
+    /**
+     * Renders the lockfile.
+     *
+     * @param catalogFiles
+     *            the group files of the catalog (in the order to write them)
+     * @param mavenServers
+     *            the Maven servers to download artifacts from
+     * @return the lockfile content
+     */
+    public CharSequence prettyPrint(Collection<BazelCatalogFile> catalogFiles, SortedSet<String> mavenServers) {
+        var output = new StringBuilder(256 * (catalogFiles.size() + 1));
+        output.append("{\n");
+        output.append("  \"version\": ").append(VERSION).append(",\n");
+        output.append("  \"maven_servers\": ");
+        appendList(output, mavenServers);
+        output.append(",\n");
+        output.append("  \"imports\": [");
+
+        var first = true;
+        for (BazelCatalogFile catalogFile : catalogFiles) {
+            for (BazelJavaDependencyImport javaImport : catalogFile.getJavaImports()) {
+                output.append(first ? "\n    {" : ",\n    {");
+                first = false;
+
+                output.append("\"name\": ");
+                appendQuoted(output, javaImport.getName());
+                output.append(", \"artifact\": ");
+                appendQuoted(output, javaImport.getArtifact().toCoordinatesString());
+                appendIfNonNull(output, "artifact_sha256", javaImport.getArtifactSha256());
+                appendIfNonNull(output, "artifact_sha1", javaImport.getArtifactSha1());
+                appendIfNotEmpty(output, "default_visibility", javaImport.getDefaultVisibility());
+                appendIfNonNull(output, "extra_build_file_content", javaImport.getExtraBuildFileContent());
+                appendBooleanIfTrue(output, "neverlink", javaImport.isNeverlink());
+                appendBooleanIfTrue(output, "testonly_", javaImport.isTestonly());
+                appendIfNotEmpty(output, "exports", javaImport.getExports());
+                appendIfNotEmpty(output, "deps", javaImport.getDeps());
+                appendIfNotEmpty(output, "runtime_deps", javaImport.getRuntimeDeps());
+                appendIfNonNull(output, "srcjar_sha256", javaImport.getSourcesArtifactSha256());
+                appendIfNonNull(output, "srcjar_sha1", javaImport.getSourcesArtifactSha1());
+                var sourcesArtifact = javaImport.getSourcesArtifact();
+                if (sourcesArtifact != null) {
+                    // jvm_maven_import_external only supports standard "sources" qualifier
+                    if ("sources".equals(sourcesArtifact.getClassifier())) {
+                        appendBooleanIfTrue(output, "fetch_sources", true);
+                    } else {
+                        appendIfNonNull(output, "srcjar_path", sourcesArtifact.toRelativePath().toString());
+                    }
+                }
+                appendIfNotEmpty(output, "licenses", javaImport.getLicenses());
+                appendIfNotEmpty(output, "tags", javaImport.getTags());
+                output.append('}');
+            }
+        }
+
+        output.append(first ? "]\n" : "\n  ]\n");
+        output.append("}\n");
+        return output;
+    }
+}
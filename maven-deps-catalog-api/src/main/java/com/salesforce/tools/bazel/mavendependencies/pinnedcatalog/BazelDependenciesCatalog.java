@@ -9,12 +9,16 @@ import static java.util.stream.Collectors.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -27,6 +31,7 @@ import com.salesforce.tools.bazel.mavendependencies.collection.CollectionDelta;
 import com.salesforce.tools.bazel.mavendependencies.collection.CollectionDelta.Modification;
 import com.salesforce.tools.bazel.mavendependencies.collection.CollectionSaveResult;
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenConventions;
+import com.salesforce.tools.bazel.mavendependencies.collection.ParallelFileRenderer;
 
 /**
  * The Bazel dependency catalog is a set of *.bzl files within the
@@ -41,14 +46,64 @@ import com.salesforce.tools.bazel.mavendependencies.collection.MavenConventions;
  * <li>Provide common structure to the *.bzl files for easy consumption</li>
  * </ul>
  * </p>
+ * <p>
+ * The catalog can be {@link #load() loaded} completely or {@link #loadLazily(Path) lazily}. When loaded lazily group
+ * files are parsed on demand. Lookups by Maven coordinates only parse the group file derived from the Maven group id.
+ * Operations requiring the whole catalog load the remaining group files first.
+ * </p>
+ * <p>
+ * Optionally, the catalog is also written as a {@link #setJsonLockfileEnabled(boolean) JSON lockfile}, which allows
+ * Bazel to instantiate the repositories from data instead of executing the generated *.bzl files.
+ * </p>
  */
 public class BazelDependenciesCatalog {
 
     private static final String INDEX_BZL = "index.bzl";
     private static final String EXTENSION_BZL = "extension.bzl";
+    private static final String CATALOG_JSON = "catalog.json";
     private static final String BUILD_BAZEL = "BUILD.bazel";
     private static final Path STANDARDIZED_CATALOG_DIRECTORY = Path.of("third_party", "dependencies", "pinned_catalog");
 
+    /**
+     * The parameters of {@link BazelDependenciesCatalog#save} which affect the content of every catalog file
+     */
+    private static final class RenderingParameters {
+
+        private final SortedSet<String> defaultMavenServers;
+        private final String labelForLoadingJvmMavenImportExternalSymbol;
+        private final String preamble;
+
+        RenderingParameters(
+                SortedSet<String> defaultMavenServers,
+                String labelForLoadingJvmMavenImportExternalSymbol,
+                String preamble) {
+            this.defaultMavenServers = new TreeSet<>(defaultMavenServers);
+            this.labelForLoadingJvmMavenImportExternalSymbol = labelForLoadingJvmMavenImportExternalSymbol;
+            this.preamble = preamble;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if ((obj == null) || (getClass() != obj.getClass())) {
+                return false;
+            }
+            var other = (RenderingParameters) obj;
+            return Objects.equals(defaultMavenServers, other.defaultMavenServers)
+                    && Objects.equals(
+                        labelForLoadingJvmMavenImportExternalSymbol,
+                        other.labelForLoadingJvmMavenImportExternalSymbol)
+                    && Objects.equals(preamble, other.preamble);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(defaultMavenServers, labelForLoadingJvmMavenImportExternalSymbol, preamble);
+        }
+    }
+
     /**
      * @param additionalLines
      *            additional lines to append to the preamble
@@ -92,6 +147,23 @@ public class BazelDependenciesCatalog {
         return catalog;
     }
 
+    /**
+     * Compares the imports of two files element by element (the natural order of imports only considers the name).
+     */
+    private static boolean hasEqualImports(BazelCatalogFile file, BazelCatalogFile other) {
+        if (file.getJavaImports().size() != other.getJavaImports().size()) {
+            return false;
+        }
+        var imports = file.getJavaImports().iterator();
+        var otherImports = other.getJavaImports().iterator();
+        while (imports.hasNext()) {
+            if (!imports.next().hasSameContent(otherImports.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static String toGroupFileName(String group) {
         return group.concat(".bzl");
     }
@@ -99,6 +171,10 @@ public class BazelDependenciesCatalog {
     private final Path workspaceDirectory;
 
     private volatile ConcurrentMap<String, BazelCatalogFile> catalogFileByGroup;
+
+    /** groups not loaded yet when loaded lazily (<code>null</code> if fully loaded) */
+    private volatile SortedSet<String> groupsNotLoaded;
+    private volatile BazelCatalogImportIndex lazyLoadingImportIndex;
     private volatile ConcurrentMap<String, BazelJavaDependencyImport> indexByCoordinatesWithoutVersions;
 
     private volatile ConcurrentMap<String, BazelJavaDependencyImport> indexByTargetName;
@@ -106,17 +182,49 @@ public class BazelDependenciesCatalog {
 
     private volatile BazelCatalogIndexFile catalogIndexFile;
     private volatile BazelCatalogModuleExtensionFile catalogModuleExtensionFile;
+    private volatile boolean jsonLockfileEnabled;
+
+    /** groups modified since load/save (<code>null</code> if all groups need to be written) */
+    private volatile SortedSet<String> dirtyGroups;
+    private volatile boolean groupMembershipChanged;
+
+    /** parameters the files on disk are known to be rendered with (<code>null</code> if unknown) */
+    private volatile RenderingParameters savedRenderingParameters;
 
     public BazelDependenciesCatalog(Path workspaceDirectory) {
         this.workspaceDirectory = workspaceDirectory;
     }
 
+    /**
+     * Enables writing of the JSON lockfile (<code>catalog.json</code>) when {@link #save saving} the catalog.
+     * <p>
+     * The lockfile is read by the module extension in <code>@bazel_maven_deps//bazel:lockfile.bzl</code>. An existing
+     * lockfile is always kept up to date, i.e. once written it's sufficient to delete it to disable the lockfile.
+     * </p>
+     *
+     * @param jsonLockfileEnabled
+     *            <code>true</code> to write the lockfile, <code>false</code> to only update an existing one
+     */
+    public void setJsonLockfileEnabled(boolean jsonLockfileEnabled) {
+        this.jsonLockfileEnabled = jsonLockfileEnabled;
+    }
+
     /**
      * @param coordinatesWithoutVersion
      *            the Maven coordinates as specified by {@link MavenArtifact#toCoordinatesStringWithoutVersion()}
      * @return A {@link BazelJavaDependencyImport} matching the coordinates (maybe <code>null</code>)
      */
     public BazelJavaDependencyImport findImportByCoordinatesWithoutVersion(String coordinatesWithoutVersion) {
+        if (groupsNotLoaded != null) {
+            // only the group file the coordinates belong to is needed
+            var separator = coordinatesWithoutVersion.indexOf(':');
+            if (separator > 0) {
+                ensureGroupsLoaded(
+                    Set.of(MavenConventions.getFileGroup(coordinatesWithoutVersion.substring(0, separator))));
+            } else {
+                ensureFullyLoaded();
+            }
+        }
         return requireNonNull(indexByCoordinatesWithoutVersions, "not loaded").get(coordinatesWithoutVersion);
     }
 
@@ -126,6 +234,7 @@ public class BazelDependenciesCatalog {
      * @return A {@link BazelJavaDependencyImport} matching the coordinates (maybe <code>null</code>)
      */
     public BazelJavaDependencyImport findImportByTargetName(String targetName) {
+        ensureFullyLoaded();
         return requireNonNull(indexByTargetName, "not loaded").get(targetName);
     }
 
@@ -137,6 +246,7 @@ public class BazelDependenciesCatalog {
      */
     public List<BazelJavaDependencyImport> findImportsByCoordinatesWithoutVersion(
             Predicate<String> coordinatesWithoutVersionFilter) {
+        ensureFullyLoaded();
         return requireNonNull(indexByCoordinatesWithoutVersions, "not loaded").entrySet()
                 .stream()
                 .filter(e -> coordinatesWithoutVersionFilter.test(e.getKey()))
@@ -146,6 +256,7 @@ public class BazelDependenciesCatalog {
     }
 
     public Stream<BazelJavaDependencyImport> getAllImports() {
+        ensureFullyLoaded();
         return indexByCoordinatesWithoutVersions.values().stream();
     }
 
@@ -174,48 +285,256 @@ public class BazelDependenciesCatalog {
         return workspaceDirectory;
     }
 
+    /**
+     * @return <code>true</code> if the JSON lockfile exists in the workspace, <code>false</code> otherwise
+     * @see #setJsonLockfileEnabled(boolean)
+     */
+    public boolean hasJsonLockfile() {
+        return isRegularFile(workspaceDirectory.resolve(STANDARDIZED_CATALOG_DIRECTORY).resolve(CATALOG_JSON));
+    }
+
+    /**
+     * @return <code>true</code> if all group files are loaded, <code>false</code> if some group files are still to be
+     *         loaded on demand
+     */
+    public boolean isCompletelyLoaded() {
+        return groupsNotLoaded == null;
+    }
+
     public void load() throws IOException {
+        doLoad(null);
+    }
+
+    private void doLoad(BazelCatalogImportIndex importIndex) throws IOException {
         var catalogDirectory = workspaceDirectory.resolve(STANDARDIZED_CATALOG_DIRECTORY);
+        groupsNotLoaded = null;
+        lazyLoadingImportIndex = null;
         if (isDirectory(catalogDirectory)) {
-            // read all except index.bzl files
-            try (var fileStream = Files.list(catalogDirectory)) {
-                catalogFileByGroup = fileStream.parallel()
-                        .filter(
-                            p -> isRegularFile(p) && p.getFileName().toString().endsWith(".bzl")
-                                    && !INDEX_BZL.equals(p.getFileName().toString())
-                                    && !EXTENSION_BZL.equals(p.getFileName().toString()))
-                        .map(p -> {
-                            try {
-                                return BazelCatalogFile.read(p);
-                            } catch (IOException e) {
-                                throw new IllegalStateException(format("Error reading file '%s'", p.getFileName()), e);
-                            }
-                        })
-                        .collect(toConcurrentMap(BazelCatalogFile::getGroup, f -> f));
-            }
+            var groupFiles = listGroupFiles(catalogDirectory);
+            catalogFileByGroup = readGroupFiles(groupFiles.values(), importIndex);
 
-            var indexFile = catalogDirectory.resolve(INDEX_BZL);
-            if (isRegularFile(indexFile)) {
-                catalogIndexFile = BazelCatalogIndexFile.read(indexFile);
-            } else {
-                catalogIndexFile = new BazelCatalogIndexFile();
+            if (importIndex != null) {
+                importIndex.retainGroups(groupFiles.keySet());
+                importIndex.writeIfModified();
             }
 
-            var bzlmodFile = catalogDirectory.resolve(EXTENSION_BZL);
-            if (isRegularFile(bzlmodFile)) {
-                catalogModuleExtensionFile = BazelCatalogModuleExtensionFile.read(bzlmodFile);
-            } else {
-                catalogModuleExtensionFile = new BazelCatalogModuleExtensionFile();
-            }
+            readIndexFiles(catalogDirectory);
         } else {
             catalogFileByGroup = new ConcurrentHashMap<>();
             catalogIndexFile = new BazelCatalogIndexFile();
             catalogModuleExtensionFile = new BazelCatalogModuleExtensionFile();
         }
 
+        // the files on disk are what we loaded
+        dirtyGroups = new TreeSet<>();
+        groupMembershipChanged = false;
+        savedRenderingParameters = null;
+
+        rebuildIndexes();
+    }
+
+    /**
+     * Loads all group files not loaded yet when the catalog was {@link #loadLazily(Path) loaded lazily}.
+     */
+    private void ensureFullyLoaded() {
+        var notLoaded = groupsNotLoaded;
+        if (notLoaded != null) {
+            ensureGroupsLoaded(new TreeSet<>(notLoaded));
+        }
+    }
+
+    /**
+     * Loads the specified group files if they exist and were not loaded yet.
+     * <p>
+     * When the last group file is loaded the <code>index.bzl</code> and <code>extension.bzl</code> files are read and
+     * the import index is written.
+     * </p>
+     *
+     * @param groups
+     *            the groups to load
+     */
+    private synchronized void ensureGroupsLoaded(Collection<String> groups) {
+        var notLoaded = groupsNotLoaded;
+        if (notLoaded == null) {
+            return;
+        }
+
+        List<String> groupsToLoad = groups.stream().filter(notLoaded::contains).collect(toList());
+        if (groupsToLoad.isEmpty()) {
+            return;
+        }
+
+        var importIndex = lazyLoadingImportIndex;
+        var groupFiles = groupsToLoad.stream().map(this::getGroupFileLocation).collect(toList());
+        catalogFileByGroup.putAll(readGroupFiles(groupFiles, importIndex));
+        notLoaded.removeAll(groupsToLoad);
+        if (notLoaded.isEmpty()) {
+            var catalogDirectory = workspaceDirectory.resolve(STANDARDIZED_CATALOG_DIRECTORY);
+            try {
+                readIndexFiles(catalogDirectory);
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                        format("Error reading catalog index files in '%s': %s", catalogDirectory, e.getMessage()),
+                        e);
+            }
+
+            importIndex.retainGroups(catalogFileByGroup.keySet());
+            importIndex.writeIfModified();
+
+            groupsNotLoaded = null;
+            lazyLoadingImportIndex = null;
+        }
+
+        rebuildIndexes();
+    }
+
+    /**
+     * Lists all group files in the catalog directory (excluding <code>index.bzl</code> and <code>extension.bzl</code>).
+     *
+     * @return map of group files by group
+     */
+    private SortedMap<String, Path> listGroupFiles(Path catalogDirectory) throws IOException {
+        try (var fileStream = Files.list(catalogDirectory)) {
+            return fileStream.filter(
+                p -> isRegularFile(p) && p.getFileName().toString().endsWith(".bzl")
+                        && !INDEX_BZL.equals(p.getFileName().toString())
+                        && !EXTENSION_BZL.equals(p.getFileName().toString()))
+                    .collect(toMap(p -> {
+                        var fileName = p.getFileName().toString();
+                        return fileName.substring(0, fileName.length() - 4);
+                    }, p -> p, (p1, p2) -> p1, TreeMap::new));
+        }
+    }
+
+    /**
+     * Loads the catalog lazily.
+     * <p>
+     * Group files are parsed on demand. Lookups of a single import by Maven coordinates only parse the group file the
+     * coordinates belong to. Any operation requiring the whole catalog (eg., {@link #getAllImports()},
+     * {@link #findImportByTargetName(String)}, {@link #replaceContent(Stream, boolean)} or {@link #save}) loads the
+     * remaining group files first. Consistency checks across groups (eg., duplicate target names) are therefore only
+     * performed once the catalog is fully loaded.
+     * </p>
+     * <p>
+     * The import index is used the same way as in {@link #loadUsingIndex(Path)}. It's written once the catalog is fully
+     * loaded.
+     * </p>
+     *
+     * @param importIndexFile
+     *            the location of the index file (does not need to exist)
+     * @throws IOException
+     *             in case of problems loading the catalog
+     */
+    public void loadLazily(Path importIndexFile) throws IOException {
+        requireNonNull(importIndexFile, "importIndexFile must not be null");
+        var catalogDirectory = workspaceDirectory.resolve(STANDARDIZED_CATALOG_DIRECTORY);
+        var groupFiles = isDirectory(catalogDirectory) ? listGroupFiles(catalogDirectory) : null;
+        if ((groupFiles == null) || groupFiles.isEmpty()) {
+            loadUsingIndex(importIndexFile);
+            return;
+        }
+
+        catalogFileByGroup = new ConcurrentHashMap<>();
+        catalogIndexFile = null;
+        catalogModuleExtensionFile = null;
+        lazyLoadingImportIndex = BazelCatalogImportIndex.read(importIndexFile);
+        groupsNotLoaded = new TreeSet<>(groupFiles.keySet());
+
+        // the files on disk are what we loaded
+        dirtyGroups = new TreeSet<>();
+        groupMembershipChanged = false;
+        savedRenderingParameters = null;
+
         rebuildIndexes();
     }
 
+    /**
+     * Loads the catalog using an index of previously parsed catalog files.
+     * <p>
+     * Only catalog files not matching the index are parsed. The index is updated afterwards. The index is a cache. It
+     * should be stored outside the workspace (or ignored by SCM). It's safe to delete it at any time.
+     * </p>
+     *
+     * @param importIndexFile
+     *            the location of the index file (does not need to exist)
+     * @throws IOException
+     *             in case of problems loading the catalog
+     */
+    public void loadUsingIndex(Path importIndexFile) throws IOException {
+        doLoad(BazelCatalogImportIndex.read(importIndexFile));
+    }
+
+    /**
+     * Forces the next {@link #save} to render and write all catalog files.
+     * <p>
+     * By default only groups modified by {@link #replaceContent(Stream, boolean)} are written. This method is useful
+     * for repairing catalog files modified outside of the tool.
+     * </p>
+     */
+    public void markAllGroupsDirty() {
+        dirtyGroups = null;
+        groupMembershipChanged = true;
+        savedRenderingParameters = null;
+    }
+
+    private void readIndexFiles(Path catalogDirectory) throws IOException {
+        var indexFile = catalogDirectory.resolve(INDEX_BZL);
+        if (isRegularFile(indexFile)) {
+            catalogIndexFile = BazelCatalogIndexFile.read(indexFile);
+        } else {
+            catalogIndexFile = new BazelCatalogIndexFile();
+        }
+
+        var bzlmodFile = catalogDirectory.resolve(EXTENSION_BZL);
+        if (isRegularFile(bzlmodFile)) {
+            catalogModuleExtensionFile = BazelCatalogModuleExtensionFile.read(bzlmodFile);
+        } else {
+            catalogModuleExtensionFile = new BazelCatalogModuleExtensionFile();
+        }
+    }
+
+    /**
+     * Reads the given group files in parallel.
+     * <p>
+     * If an import index is given, files matching the index are not parsed and the index is updated with all parsed
+     * files.
+     * </p>
+     */
+    private ConcurrentMap<String, BazelCatalogFile> readGroupFiles(
+            Collection<Path> groupFiles,
+            BazelCatalogImportIndex importIndex) {
+        var parsedFiles = new ConcurrentHashMap<String, byte[]>();
+        ConcurrentMap<String, BazelCatalogFile> files = groupFiles.parallelStream().map(p -> {
+            try {
+                if (importIndex == null) {
+                    return BazelCatalogFile.read(p);
+                }
+
+                var fileName = p.getFileName().toString();
+                var group = fileName.substring(0, fileName.length() - 4);
+                var content = readAllBytes(p);
+                var hash = BazelCatalogImportIndex.hash(content);
+                var indexedFile = importIndex.get(group, hash);
+                if (indexedFile != null) {
+                    return indexedFile;
+                }
+
+                var file = BazelCatalogFile.read(p, content);
+                parsedFiles.put(file.getGroup(), hash);
+                return file;
+            } catch (IOException e) {
+                throw new IllegalStateException(format("Error reading file '%s'", p.getFileName()), e);
+            }
+        }).collect(toConcurrentMap(BazelCatalogFile::getGroup, f -> f));
+
+        if (importIndex != null) {
+            for (Entry<String, byte[]> parsedFile : parsedFiles.entrySet()) {
+                importIndex.update(parsedFile.getValue(), files.get(parsedFile.getKey()));
+            }
+        }
+        return files;
+    }
+
     private void rebuildIndexes() {
         try {
             indexByTargetName = catalogFileByGroup.values()
@@ -259,19 +578,27 @@ public class BazelDependenciesCatalog {
      * @return
      */
     public CollectionDelta replaceContent(Stream<BazelJavaDependencyImport> newContent, boolean diffsWithFieldContent) {
+        ensureFullyLoaded();
+
         var oldCatalog = catalogFileByGroup;
         Map<String, BazelJavaDependencyImport> oldIndex = new HashMap<>(indexByCoordinatesWithoutVersions);
         SortedSet<String> obsoleteGroups = new TreeSet<>(oldCatalog.keySet());
 
         SortedSet<Modification> modifications = new TreeSet<>();
         var catalogFileByGroup = new ConcurrentHashMap<String, BazelCatalogFile>();
+        SortedSet<String> modifiedGroups = new TreeSet<>();
 
         Map<String, List<BazelJavaDependencyImport>> newContentByGroup = newContent.collect(groupingBy(this::getGroup));
         for (Entry<String, List<BazelJavaDependencyImport>> newGroupEntry : newContentByGroup.entrySet()) {
             // wrap into new file
-            catalogFileByGroup.put(
-                newGroupEntry.getKey(),
-                new BazelCatalogFile(newGroupEntry.getKey(), new TreeSet<>(newGroupEntry.getValue())));
+            var newFile = new BazelCatalogFile(newGroupEntry.getKey(), new TreeSet<>(newGroupEntry.getValue()));
+            catalogFileByGroup.put(newGroupEntry.getKey(), newFile);
+
+            // track modified groups for save
+            var oldFile = oldCatalog.get(newGroupEntry.getKey());
+            if ((oldFile == null) || !hasEqualImports(oldFile, newFile)) {
+                modifiedGroups.add(newGroupEntry.getKey());
+            }
 
             // detect delta
             for (BazelJavaDependencyImport newValue : newGroupEntry.getValue()) {
@@ -282,25 +609,25 @@ public class BazelDependenciesCatalog {
                         Modification.added(
                             newValue.getArtifact().toCoordinatesStringWithoutVersion(),
                             newValue.getArtifact().getVersion()));
-                } else {
+                } else if (!oldValue.hasSameContent(newValue)) {
+                    // descriptions are only rendered when the modification is printed
+                    var diff = oldValue.diffFields(newValue);
                     var oldVersion = oldValue.getArtifact().getVersion();
                     var newVersion = newValue.getArtifact().getVersion();
-                    var diff = oldValue.diff(newValue, diffsWithFieldContent);
                     if (!Objects.equals(oldVersion, newVersion)) {
                         modifications.add(
                             Modification.versionUpdateWithDiff(
                                 newValue.getArtifact().toCoordinatesStringWithoutVersion(),
                                 newVersion,
                                 oldVersion,
-                                diff));
-                    } else if (!newValue.equals(oldValue)) {
+                                () -> diff.toDescriptions(diffsWithFieldContent)));
+                    } else {
                         modifications.add(
-                            Modification.otherUpdate(
+                            Modification.otherUpdateWithDiff(
                                 newValue.getArtifact().toCoordinatesStringWithoutVersion(),
-                                newValue.getArtifact().getVersion(),
-                                oldValue.diff(newValue, diffsWithFieldContent)));
+                                newVersion,
+                                () -> diff.toDescriptions(diffsWithFieldContent)));
                     }
-
                 }
             }
 
@@ -318,6 +645,12 @@ public class BazelDependenciesCatalog {
 
         this.catalogFileByGroup = catalogFileByGroup;
         this.obsoleteGroups = obsoleteGroups;
+        if (dirtyGroups != null) {
+            dirtyGroups.addAll(modifiedGroups);
+        }
+        if (!obsoleteGroups.isEmpty() || !oldCatalog.keySet().containsAll(catalogFileByGroup.keySet())) {
+            groupMembershipChanged = true;
+        }
         rebuildIndexes();
 
         return new CollectionDelta(modifications, obsoleteGroups);
@@ -346,76 +679,204 @@ public class BazelDependenciesCatalog {
             String preamble,
             ProgressMonitor monitor,
             ScmSupport scmSupport) throws IOException {
+        ensureFullyLoaded();
+
         var catalogDirectory = workspaceDirectory.resolve(STANDARDIZED_CATALOG_DIRECTORY);
         createDirectories(catalogDirectory);
 
-        monitor.maxHint(3 + catalogFileByGroup.size() + (obsoleteGroups != null ? obsoleteGroups.size() : 0));
+        // only render what changed unless the parameters affecting all files changed
+        var renderingParameters =
+                new RenderingParameters(defaultMavenServers, labelForLoadingJvmMavenImportExternalSymbol, preamble);
+        var renderAll = !renderingParameters.equals(savedRenderingParameters)
+                && !isRenderedWith(renderingParameters, catalogDirectory);
+        var dirtyGroups = this.dirtyGroups;
+        SortedMap<String, BazelCatalogFile> filesToRender = new TreeMap<>();
+        for (BazelCatalogFile file : catalogFileByGroup.values()) {
+            if (renderAll || (dirtyGroups == null) || dirtyGroups.contains(file.getGroup())
+                    || !isRegularFile(catalogDirectory.resolve(toGroupFileName(file.getGroup())))) {
+                filesToRender.put(file.getGroup(), file);
+            }
+        }
+
+        monitor.maxHint(4 + filesToRender.size() + (obsoleteGroups != null ? obsoleteGroups.size() : 0));
 
         SortedSet<Path> modifiedFiles = new TreeSet<>();
-        for (BazelCatalogFile file : catalogFileByGroup.values()) {
-            var catalogFile = catalogDirectory.resolve(toGroupFileName(file.getGroup()));
-            monitor.additionalMessage(catalogFile.getFileName().toString());
-            if (scmSupport.writeFile(
-                catalogFile,
-                file.prettyPrint(defaultMavenServers, labelForLoadingJvmMavenImportExternalSymbol, preamble),
-                UTF_8)) {
-                modifiedFiles.add(catalogFile);
+        SortedSet<Path> deletedFiles = new TreeSet<>();
+        SortedSet<Path> obsoleteFiles = new TreeSet<>();
+
+        // queue SCM operations and execute them together at the end
+        scmSupport.beginBatch();
+        try {
+            // render in parallel but write in group order (SCM operations are not thread safe)
+            ParallelFileRenderer.render(
+                filesToRender.values(),
+                file -> catalogDirectory.resolve(toGroupFileName(file.getGroup())),
+                file -> file.prettyPrint(defaultMavenServers, labelForLoadingJvmMavenImportExternalSymbol, preamble),
+                UTF_8,
+                renderedFile -> {
+                    var catalogFile = renderedFile.getLocation();
+                    monitor.additionalMessage(catalogFile.getFileName().toString());
+                    var event = new CatalogFileWriteEvent();
+                    event.begin();
+                    var modified = renderedFile.writeTo(scmSupport);
+                    if (modified) {
+                        modifiedFiles.add(catalogFile);
+                    }
+                    commitCatalogFileWriteEvent(event, catalogFile, renderedFile.getContent(), modified);
+                    monitor.progressBy(1);
+                });
+
+            var mainFile = catalogDirectory.resolve(INDEX_BZL);
+            if (renderAll || groupMembershipChanged || !isRegularFile(mainFile)) {
+                monitor.additionalMessage(INDEX_BZL);
+                var mainFileEvent = new CatalogFileWriteEvent();
+                mainFileEvent.begin();
+                writeCatalogFile(
+                    mainFile,
+                    catalogIndexFile.prettyPrint(
+                        new TreeSet<>(catalogFileByGroup.keySet()),
+                        STANDARDIZED_CATALOG_DIRECTORY.toString(),
+                        defaultMavenServers,
+                        preamble),
+                    mainFileEvent,
+                    scmSupport,
+                    modifiedFiles);
             }
             monitor.progressBy(1);
-        }
 
-        var mainFile = catalogDirectory.resolve(INDEX_BZL);
-        monitor.additionalMessage(INDEX_BZL);
-        if (scmSupport.writeFile(
-            mainFile,
-            catalogIndexFile.prettyPrint(
-                new TreeSet<>(catalogFileByGroup.keySet()),
-                STANDARDIZED_CATALOG_DIRECTORY.toString(),
-                defaultMavenServers,
-                preamble),
-            UTF_8)) {
-            modifiedFiles.add(mainFile);
-        }
-        monitor.progressBy(1);
+            var bzlmodFile = catalogDirectory.resolve(EXTENSION_BZL);
+            if (renderAll || groupMembershipChanged || !isRegularFile(bzlmodFile)) {
+                monitor.additionalMessage(EXTENSION_BZL);
+                var bzlmodFileEvent = new CatalogFileWriteEvent();
+                bzlmodFileEvent.begin();
+                writeCatalogFile(
+                    bzlmodFile,
+                    catalogModuleExtensionFile.prettyPrint(STANDARDIZED_CATALOG_DIRECTORY.toString(), preamble),
+                    bzlmodFileEvent,
+                    scmSupport,
+                    modifiedFiles);
+            }
+            monitor.progressBy(1);
 
-        var bzlmodFile = catalogDirectory.resolve(EXTENSION_BZL);
-        monitor.additionalMessage(EXTENSION_BZL);
-        if (scmSupport.writeFile(
-            bzlmodFile,
-            catalogModuleExtensionFile.prettyPrint(STANDARDIZED_CATALOG_DIRECTORY.toString(), preamble),
-            UTF_8)) {
-            modifiedFiles.add(bzlmodFile);
-        }
-        monitor.progressBy(1);
+            var lockfile = catalogDirectory.resolve(CATALOG_JSON);
+            var lockfileExists = isRegularFile(lockfile);
+            if ((jsonLockfileEnabled || lockfileExists)
+                    && (renderAll || groupMembershipChanged || !filesToRender.isEmpty() || !lockfileExists)) {
+                monitor.additionalMessage(CATALOG_JSON);
+                var lockfileEvent = new CatalogFileWriteEvent();
+                lockfileEvent.begin();
+                writeCatalogFile(
+                    lockfile,
+                    new BazelCatalogJsonLockfile()
+                            .prettyPrint(new TreeMap<>(catalogFileByGroup).values(), defaultMavenServers),
+                    lockfileEvent,
+                    scmSupport,
+                    modifiedFiles);
+            }
+            monitor.progressBy(1);
 
-        var buildFile = catalogDirectory.resolve(BUILD_BAZEL);
-        if (!isRegularFile(buildFile)) {
-            monitor.additionalMessage(BUILD_BAZEL);
-            if (scmSupport.writeFile(buildFile, "", UTF_8)) {
-                modifiedFiles.add(buildFile);
+            var buildFile = catalogDirectory.resolve(BUILD_BAZEL);
+            if (!isRegularFile(buildFile)) {
+                monitor.additionalMessage(BUILD_BAZEL);
+                var buildFileEvent = new CatalogFileWriteEvent();
+                buildFileEvent.begin();
+                writeCatalogFile(buildFile, "", buildFileEvent, scmSupport, modifiedFiles);
             }
-        }
-        monitor.progressBy(1);
+            monitor.progressBy(1);
 
-        SortedSet<Path> deletedFiles = new TreeSet<>();
-        SortedSet<Path> obsoleteFiles = new TreeSet<>();
-        if (obsoleteGroups != null) {
-            for (String obsoleteGroup : obsoleteGroups) {
-                // delete or clear out any obsolete files
-                var obsoleteCatalogFile = catalogDirectory.resolve(toGroupFileName(obsoleteGroup));
-                monitor.additionalMessage(obsoleteCatalogFile.getFileName().toString());
-                if (scmSupport.removeFile(obsoleteCatalogFile)) {
-                    deletedFiles.add(obsoleteCatalogFile);
-                } else {
-                    obsoleteFiles.add(obsoleteCatalogFile);
+            if (obsoleteGroups != null) {
+                for (String obsoleteGroup : obsoleteGroups) {
+                    // delete or clear out any obsolete files
+                    var obsoleteCatalogFile = catalogDirectory.resolve(toGroupFileName(obsoleteGroup));
+                    monitor.additionalMessage(obsoleteCatalogFile.getFileName().toString());
+                    if (scmSupport.removeFile(obsoleteCatalogFile)) {
+                        deletedFiles.add(obsoleteCatalogFile);
+                    } else {
+                        obsoleteFiles.add(obsoleteCatalogFile);
+                    }
+                    monitor.progressBy(1);
                 }
-                monitor.progressBy(1);
-            }
 
-            // reset modifications
-            obsoleteGroups = null;
+                // reset modifications
+                obsoleteGroups = null;
+            }
+        } finally {
+            scmSupport.endBatch();
         }
 
+        // removals may have been queued in the batch, check what actually got deleted
+        var notDeletedFiles = deletedFiles.stream().filter(Files::exists).collect(toList());
+        deletedFiles.removeAll(notDeletedFiles);
+        obsoleteFiles.addAll(notDeletedFiles);
+
+        // files on disk are in sync now
+        this.dirtyGroups = new TreeSet<>();
+        groupMembershipChanged = false;
+        savedRenderingParameters = renderingParameters;
+
         return new CollectionSaveResult(modifiedFiles, deletedFiles, obsoleteFiles);
     }
+
+    /**
+     * Checks whether the catalog files on disk were rendered with the given parameters.
+     * <p>
+     * The parameters affect every group file in the same way. Thus, it is sufficient to render a single unmodified
+     * group and compare it with its file.
+     * </p>
+     *
+     * @return <code>true</code> if an unmodified group file on disk matches the rendered content, <code>false</code>
+     *         otherwise (including when there is no unmodified group file)
+     */
+    private boolean isRenderedWith(RenderingParameters renderingParameters, Path catalogDirectory)
+            throws IOException {
+        var dirtyGroups = this.dirtyGroups;
+        if (dirtyGroups == null) {
+            return false;
+        }
+        for (BazelCatalogFile file : new TreeMap<>(catalogFileByGroup).values()) {
+            var catalogFile = catalogDirectory.resolve(toGroupFileName(file.getGroup()));
+            if (!dirtyGroups.contains(file.getGroup()) && isRegularFile(catalogFile)) {
+                return ParallelFileRenderer.hasContent(
+                    catalogFile,
+                    file.prettyPrint(
+                        renderingParameters.defaultMavenServers,
+                        renderingParameters.labelForLoadingJvmMavenImportExternalSymbol,
+                        renderingParameters.preamble),
+                    UTF_8);
+            }
+        }
+        return false;
+    }
+
+    private void commitCatalogFileWriteEvent(
+            CatalogFileWriteEvent event,
+            Path file,
+            CharSequence content,
+            boolean modified) {
+        if (event.shouldCommit()) {
+            event.file = file.getFileName().toString();
+            event.characters = content.length();
+            event.modified = modified;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes a catalog file and commits the given JFR event (which must be started before rendering the content so that
+     * rendering is included in the recorded duration). Group files are rendered in parallel upfront, their events only
+     * cover writing.
+     */
+    private void writeCatalogFile(
+            Path file,
+            CharSequence content,
+            CatalogFileWriteEvent event,
+            ScmSupport scmSupport,
+            SortedSet<Path> modifiedFiles) throws IOException {
+        var modified = scmSupport.writeFile(file, content, UTF_8);
+        if (modified) {
+            modifiedFiles.add(file);
+        }
+
+        commitCatalogFileWriteEvent(event, file, content, modified);
+    }
 }
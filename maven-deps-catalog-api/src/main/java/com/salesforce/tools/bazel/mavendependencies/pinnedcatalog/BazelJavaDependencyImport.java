@@ -3,12 +3,17 @@ package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Objects;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Longs;
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImportDiff.Field;
 import com.salesforce.tools.bazel.mavendependencies.starlark.BazelConventions;
 
 /**
@@ -21,18 +26,16 @@ import com.salesforce.tools.bazel.mavendependencies.starlark.BazelConventions;
  * A {@link BazelJavaDependencyImport} is immutable. The {@link #createForArtifact(MavenArtifact) builder} should be
  * used to create new objects.
  * </p>
+ * <p>
+ * Catalogs can be large. The representation is therefore kept compact. All sets returned are immutable and shared
+ * between imports with identical values (see {@link ImportValuePool}). Checksums are stored as bytes and converted to
+ * hex strings on access.
+ * </p>
  */
 public final class BazelJavaDependencyImport implements Comparable<BazelJavaDependencyImport> {
 
     public static final class BazelJavaDependencyImportBuilder {
 
-        private static SortedSet<String> emptyToNull(SortedSet<String> set) {
-            if ((set == null) || set.isEmpty()) {
-                return null;
-            }
-            return set;
-        }
-
         private static SortedSet<String> toSortedModifiableCopyOrNull(Collection<String> input) {
             return input != null ? new TreeSet<>(input) : null;
         }
@@ -69,21 +72,21 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
 
         public BazelJavaDependencyImport build() {
             return new BazelJavaDependencyImport(
-                    name,
+                    ImportValuePool.intern(name),
                     artifact,
-                    artifactSha256,
-                    artifactSha1,
-                    sourcesArtifact,
-                    sourcesArtifactSha256,
-                    sourcesArtifactSha1,
-                    emptyToNull(licenses),
-                    emptyToNull(deps),
-                    emptyToNull(runtimeDeps),
-                    emptyToNull(exports),
+                    toCompactChecksum(artifactSha256),
+                    toCompactChecksum(artifactSha1),
+                    sourcesArtifact != null,
+                    toCompactChecksum(sourcesArtifactSha256),
+                    toCompactChecksum(sourcesArtifactSha1),
+                    ImportValuePool.internSet(licenses),
+                    ImportValuePool.internSet(deps),
+                    ImportValuePool.internSet(runtimeDeps),
+                    ImportValuePool.internSet(exports),
                     testonly,
                     neverlink,
-                    emptyToNull(defaultVisibility),
-                    emptyToNull(tags),
+                    ImportValuePool.internSet(defaultVisibility),
+                    ImportValuePool.internSet(tags),
                     extraBuildFileContent);
         }
 
@@ -268,12 +271,63 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
         return new BazelJavaDependencyImportBuilder(name, artifact);
     }
 
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+    private static boolean checksumEquals(Object checksum, Object otherChecksum) {
+        if ((checksum instanceof byte[]) && (otherChecksum instanceof byte[])) {
+            return Arrays.equals((byte[]) checksum, (byte[]) otherChecksum);
+        }
+        return Objects.equals(checksum, otherChecksum);
+    }
+
+    private static int checksumHashCode(Object checksum) {
+        if (checksum instanceof byte[]) {
+            return Arrays.hashCode((byte[]) checksum);
+        }
+        return Objects.hashCode(checksum);
+    }
+
+    /**
+     * Checksums are random, so the first bytes are a good fingerprint of the checksum.
+     */
+    private static long checksumFingerprint(Object checksum) {
+        if ((checksum instanceof byte[]) && (((byte[]) checksum).length >= Long.BYTES)) {
+            return Longs.fromByteArray((byte[]) checksum);
+        }
+        return checksumHashCode(checksum);
+    }
+
+    private static String checksumToString(Object checksum) {
+        if (checksum instanceof byte[]) {
+            return HEX.encode((byte[]) checksum);
+        }
+        return (String) checksum;
+    }
+
+    private static long mix(long fingerprint, long value) {
+        return Long.rotateLeft(fingerprint ^ (value * 0x9E3779B97F4A7C15L), 31) * 0xBF58476D1CE4E5B9L;
+    }
+
+    /**
+     * Lower case hex strings (the format of all checksums written by the tool) are stored as bytes, which takes less
+     * than a quarter of the memory. Anything else is kept as is.
+     */
+    private static Object toCompactChecksum(String checksum) {
+        if ((checksum != null) && !checksum.isEmpty() && HEX.canDecode(checksum)) {
+            return HEX.decode(checksum);
+        }
+        return checksum;
+    }
+
     private final String name;
     private final MavenArtifact artifact;
-    private final String artifactSha256, artifactSha1;
 
-    private final MavenArtifact sourcesArtifact;
-    private final String sourcesArtifactSha256, sourcesArtifactSha1;
+    /** checksums are either <code>byte[]</code> (decoded hex string) or <code>String</code> */
+    private final Object artifactSha256, artifactSha1;
+
+    /** the sources artifact is derived from the artifact (see {@link MavenArtifact#toSourcesArtifact()}) */
+    private final boolean sourcesArtifact;
+    private final Object sourcesArtifactSha256, sourcesArtifactSha1;
 
     private final SortedSet<String> licenses;
     private final SortedSet<String> deps, runtimeDeps, exports;
@@ -284,8 +338,11 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
 
     private final String extraBuildFileContent;
 
-    BazelJavaDependencyImport(String name, MavenArtifact artifact, String artifactSha256, String artifactSha1,
-            MavenArtifact sourcesArtifact, String sourcesArtifactSha256, String sourcesArtifactSha1,
+    /** lazily computed (<code>0</code> if not computed yet) */
+    private volatile long fingerprint;
+
+    BazelJavaDependencyImport(String name, MavenArtifact artifact, Object artifactSha256, Object artifactSha1,
+            boolean sourcesArtifact, Object sourcesArtifactSha256, Object sourcesArtifactSha1,
             SortedSet<String> licenses, SortedSet<String> deps, SortedSet<String> runtimeDeps,
             SortedSet<String> exports, boolean testonly, boolean neverlink, SortedSet<String> defaultVisibility,
             SortedSet<String> tags, String extraBuildFileContent) {
@@ -313,133 +370,87 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
         return name.compareTo(o.name);
     }
 
+    /**
+     * Describes the differences to another import.
+     *
+     * @param other
+     *            the other import
+     * @param includeContent
+     *            <code>true</code> to include the values in the descriptions, <code>false</code> for the field keywords
+     *            only
+     * @return the descriptions of the differences (see {@link BazelJavaDependencyImportDiff#toDescriptions(boolean)})
+     */
     public SortedSet<String> diff(BazelJavaDependencyImport other, boolean includeContent) {
-        SortedSet<String> result = new TreeSet<>();
-        if (!Objects.equals(artifact, other.artifact)) {
-            if (includeContent) {
-                result.add(format("artifact: %s <> %s", artifact, other.artifact));
-            } else {
-                result.add("artifact");
-            }
+        return diffFields(other).toDescriptions(includeContent);
+    }
+
+    /**
+     * Computes the fields which differ from another import.
+     * <p>
+     * Imports with the same {@link #getFingerprint() fingerprint} are checked for equality only. Otherwise fields are
+     * compared one by one. No descriptions are rendered.
+     * </p>
+     *
+     * @param other
+     *            the other import
+     * @return the diff (never <code>null</code>)
+     */
+    public BazelJavaDependencyImportDiff diffFields(BazelJavaDependencyImport other) {
+        if (hasSameContent(other)) {
+            return BazelJavaDependencyImportDiff.NONE;
+        }
 
+        var fields = EnumSet.noneOf(Field.class);
+        if (!Objects.equals(artifact, other.artifact)) {
+            fields.add(Field.ARTIFACT);
         }
-        if (!Objects.equals(artifactSha1, other.artifactSha1)) {
-            if (includeContent) {
-                result.add(format("artifact_sha1: %s <> %s", artifactSha1, other.artifactSha1));
-            } else {
-                result.add("artifact_sha1");
-            }
+        if (!checksumEquals(artifactSha1, other.artifactSha1)) {
+            fields.add(Field.ARTIFACT_SHA1);
         }
-        if (!Objects.equals(artifactSha256, other.artifactSha256)) {
-            if (includeContent) {
-                result.add(format("artifact_sha256: %s <> %s", artifactSha256, other.artifactSha256));
-            } else {
-                result.add("artifact_sha256");
-            }
+        if (!checksumEquals(artifactSha256, other.artifactSha256)) {
+            fields.add(Field.ARTIFACT_SHA256);
         }
         if (!Objects.equals(defaultVisibility, other.defaultVisibility)) {
-            if (includeContent) {
-                result.add(format("default_visibility: %s <> %s", defaultVisibility, other.defaultVisibility));
-            } else {
-                result.add("default_visibility");
-            }
+            fields.add(Field.DEFAULT_VISIBILITY);
         }
         if (!Objects.equals(deps, other.deps)) {
-            if (includeContent) {
-                result.add(format("deps: %s <> %s", deps, other.deps));
-            } else {
-                result.add("deps");
-            }
+            fields.add(Field.DEPS);
         }
         if (!Objects.equals(exports, other.exports)) {
-            if (includeContent) {
-                result.add(format("exports: %s <> %s", exports, other.exports));
-            } else {
-                result.add("exports");
-            }
-
+            fields.add(Field.EXPORTS);
         }
         if (!Objects.equals(extraBuildFileContent, other.extraBuildFileContent)) {
-            if (includeContent) {
-                result.add(
-                    format("extra_buildfile_content: %s <> %s", extraBuildFileContent, other.extraBuildFileContent));
-            } else {
-                result.add("extra_buildfile_content");
-            }
-
+            fields.add(Field.EXTRA_BUILDFILE_CONTENT);
         }
         if (!Objects.equals(licenses, other.licenses)) {
-            if (includeContent) {
-                result.add(format("licenses: %s <> %s", licenses, other.licenses));
-            } else {
-                result.add("licenses");
-            }
-
+            fields.add(Field.LICENSES);
         }
         if (!Objects.equals(name, other.name)) {
-            if (includeContent) {
-                result.add(format("name: %s <> %s", name, other.name));
-            } else {
-                result.add("name");
-            }
-
+            fields.add(Field.NAME);
         }
-        if (!Objects.equals(neverlink, other.neverlink)) {
-            if (includeContent) {
-                result.add(format("neverlink: %s <> %s", neverlink, other.neverlink));
-            } else {
-                result.add("neverlink");
-            }
-
+        if (neverlink != other.neverlink) {
+            fields.add(Field.NEVERLINK);
         }
         if (!Objects.equals(runtimeDeps, other.runtimeDeps)) {
-            if (includeContent) {
-                result.add(format("runtime_deps: %s <> %s", runtimeDeps, other.runtimeDeps));
-            } else {
-                result.add("runtime_deps");
-            }
+            fields.add(Field.RUNTIME_DEPS);
         }
-        if (!Objects.equals(sourcesArtifact, other.sourcesArtifact)) {
-            if (includeContent) {
-                result.add(
-                    format(
-                        "sources_artifact: %s <> %s",
-                        sourcesArtifact != null ? sourcesArtifact.toCoordinatesString() : null,
-                        other.sourcesArtifact != null ? other.sourcesArtifact.toCoordinatesString() : null));
-            } else {
-                result.add("sources_artifact");
-            }
+        if ((sourcesArtifact != other.sourcesArtifact)
+                || (sourcesArtifact && !Objects.equals(getSourcesArtifact(), other.getSourcesArtifact()))) {
+            fields.add(Field.SOURCES_ARTIFACT);
         }
-        if (!Objects.equals(sourcesArtifactSha1, other.sourcesArtifactSha1)) {
-            if (includeContent) {
-                result.add(format("sources_sha1: %s <> %s", sourcesArtifactSha1, other.sourcesArtifactSha1));
-            } else {
-                result.add("sources_sha1");
-            }
+        if (!checksumEquals(sourcesArtifactSha1, other.sourcesArtifactSha1)) {
+            fields.add(Field.SOURCES_SHA1);
         }
-        if (!Objects.equals(sourcesArtifactSha256, other.sourcesArtifactSha256)) {
-            if (includeContent) {
-                result.add(format("sources_sha256: %s <> %s", sourcesArtifactSha256, other.sourcesArtifactSha256));
-            } else {
-                result.add("sources_sha256");
-            }
+        if (!checksumEquals(sourcesArtifactSha256, other.sourcesArtifactSha256)) {
+            fields.add(Field.SOURCES_SHA256);
         }
         if (!Objects.equals(tags, other.tags)) {
-            if (includeContent) {
-                result.add(format("tags: %s <> %s", tags, other.tags));
-            } else {
-                result.add("tags");
-            }
+            fields.add(Field.TAGS);
         }
-        if (!Objects.equals(testonly, other.testonly)) {
-            if (includeContent) {
-                result.add(format("testonly: %s <> %s", testonly, other.testonly));
-            } else {
-                result.add("testonly");
-            }
-
+        if (testonly != other.testonly) {
+            fields.add(Field.TESTONLY);
         }
-        return result;
+        return new BazelJavaDependencyImportDiff(this, other, fields);
     }
 
     @Override
@@ -451,16 +462,16 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
             return false;
         }
         var other = (BazelJavaDependencyImport) obj;
-        return Objects.equals(artifact, other.artifact) && Objects.equals(artifactSha1, other.artifactSha1)
-                && Objects.equals(artifactSha256, other.artifactSha256)
+        return Objects.equals(artifact, other.artifact) && checksumEquals(artifactSha1, other.artifactSha1)
+                && checksumEquals(artifactSha256, other.artifactSha256)
                 && Objects.equals(defaultVisibility, other.defaultVisibility) && Objects.equals(deps, other.deps)
                 && Objects.equals(exports, other.exports)
                 && Objects.equals(extraBuildFileContent, other.extraBuildFileContent)
                 && Objects.equals(licenses, other.licenses) && Objects.equals(name, other.name)
                 && (neverlink == other.neverlink) && Objects.equals(runtimeDeps, other.runtimeDeps)
-                && Objects.equals(sourcesArtifact, other.sourcesArtifact)
-                && Objects.equals(sourcesArtifactSha1, other.sourcesArtifactSha1)
-                && Objects.equals(sourcesArtifactSha256, other.sourcesArtifactSha256)
+                && (sourcesArtifact == other.sourcesArtifact)
+                && checksumEquals(sourcesArtifactSha1, other.sourcesArtifactSha1)
+                && checksumEquals(sourcesArtifactSha256, other.sourcesArtifactSha256)
                 && Objects.equals(tags, other.tags) && (testonly == other.testonly);
     }
 
@@ -469,11 +480,11 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
     }
 
     public String getArtifactSha1() {
-        return artifactSha1;
+        return checksumToString(artifactSha1);
     }
 
     public String getArtifactSha256() {
-        return artifactSha256;
+        return checksumToString(artifactSha256);
     }
 
     public SortedSet<String> getDefaultVisibility() {
@@ -492,6 +503,36 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
         return extraBuildFileContent;
     }
 
+    /**
+     * Returns a fingerprint of the content of this import.
+     * <p>
+     * Equal imports have the same fingerprint. Imports with different fingerprints are not equal. Different imports
+     * may have the same fingerprint (although it's unlikely). The fingerprint is computed once and cached.
+     * </p>
+     *
+     * @return the 64 bit content fingerprint (never <code>0</code>)
+     */
+    public long getFingerprint() {
+        var fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            // combine the (cached) hash codes of the pooled values with the checksums
+            fingerprint = checksumFingerprint(artifactSha256);
+            fingerprint = mix(fingerprint, checksumFingerprint(artifactSha1));
+            fingerprint = mix(fingerprint, checksumFingerprint(sourcesArtifactSha256));
+            fingerprint = mix(fingerprint, checksumFingerprint(sourcesArtifactSha1));
+            fingerprint = mix(fingerprint, Objects.hashCode(name));
+            fingerprint = mix(fingerprint, artifact.hashCode());
+            fingerprint = mix(fingerprint, Objects.hash(licenses, deps, runtimeDeps, exports, defaultVisibility, tags));
+            fingerprint = mix(fingerprint, Objects.hashCode(extraBuildFileContent));
+            fingerprint = mix(fingerprint, (sourcesArtifact ? 1 : 0) | (testonly ? 2 : 0) | (neverlink ? 4 : 0));
+            if (fingerprint == 0) {
+                fingerprint = 1;
+            }
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
     public SortedSet<String> getLicenses() {
         return licenses;
     }
@@ -505,15 +546,15 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
     }
 
     public MavenArtifact getSourcesArtifact() {
-        return sourcesArtifact;
+        return sourcesArtifact ? artifact.toSourcesArtifact() : null;
     }
 
     public String getSourcesArtifactSha1() {
-        return sourcesArtifactSha1;
+        return checksumToString(sourcesArtifactSha1);
     }
 
     public String getSourcesArtifactSha256() {
-        return sourcesArtifactSha256;
+        return checksumToString(sourcesArtifactSha256);
     }
 
     public SortedSet<String> getTags() {
@@ -524,8 +565,8 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
     public int hashCode() {
         return Objects.hash(
             artifact,
-            artifactSha1,
-            artifactSha256,
+            checksumHashCode(artifactSha1),
+            checksumHashCode(artifactSha256),
             defaultVisibility,
             deps,
             exports,
@@ -535,14 +576,29 @@ public final class BazelJavaDependencyImport implements Comparable<BazelJavaDepe
             neverlink,
             runtimeDeps,
             sourcesArtifact,
-            sourcesArtifactSha1,
-            sourcesArtifactSha256,
+            checksumHashCode(sourcesArtifactSha1),
+            checksumHashCode(sourcesArtifactSha256),
             tags,
             testonly);
     }
 
+    /**
+     * Indicates if another import has the same content.
+     * <p>
+     * This is equivalent to {@link #equals(Object)} but rejects different imports with a single comparison of the
+     * {@link #getFingerprint() fingerprints}.
+     * </p>
+     *
+     * @param other
+     *            the other import (must not be <code>null</code>)
+     * @return <code>true</code> if both imports are equal, <code>false</code> otherwise
+     */
+    public boolean hasSameContent(BazelJavaDependencyImport other) {
+        return (this == other) || ((getFingerprint() == other.getFingerprint()) && equals(other));
+    }
+
     public boolean hasSourcesArtifact() {
-        return sourcesArtifact != null;
+        return sourcesArtifact;
     }
 
     public boolean isNeverlink() {
@@ -0,0 +1,119 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * The fields which differ between two {@link BazelJavaDependencyImport imports}.
+ * <p>
+ * Computing a diff only compares the fields. Descriptions of the differences are rendered on request using
+ * {@link #toDescriptions(boolean)}.
+ * </p>
+ */
+public final class BazelJavaDependencyImportDiff {
+
+    /**
+     * A field of a {@link BazelJavaDependencyImport}.
+     */
+    public enum Field {
+
+        ARTIFACT("artifact", BazelJavaDependencyImport::getArtifact),
+        ARTIFACT_SHA1("artifact_sha1", BazelJavaDependencyImport::getArtifactSha1),
+        ARTIFACT_SHA256("artifact_sha256", BazelJavaDependencyImport::getArtifactSha256),
+        DEFAULT_VISIBILITY("default_visibility", BazelJavaDependencyImport::getDefaultVisibility),
+        DEPS("deps", BazelJavaDependencyImport::getDeps),
+        EXPORTS("exports", BazelJavaDependencyImport::getExports),
+        EXTRA_BUILDFILE_CONTENT("extra_buildfile_content", BazelJavaDependencyImport::getExtraBuildFileContent),
+        LICENSES("licenses", BazelJavaDependencyImport::getLicenses),
+        NAME("name", BazelJavaDependencyImport::getName),
+        NEVERLINK("neverlink", BazelJavaDependencyImport::isNeverlink),
+        RUNTIME_DEPS("runtime_deps", BazelJavaDependencyImport::getRuntimeDeps),
+        SOURCES_ARTIFACT("sources_artifact", i -> {
+            var sourcesArtifact = i.getSourcesArtifact();
+            return sourcesArtifact != null ? sourcesArtifact.toCoordinatesString() : null;
+        }),
+        SOURCES_SHA1("sources_sha1", BazelJavaDependencyImport::getSourcesArtifactSha1),
+        SOURCES_SHA256("sources_sha256", BazelJavaDependencyImport::getSourcesArtifactSha256),
+        TAGS("tags", BazelJavaDependencyImport::getTags),
+        TESTONLY("testonly", BazelJavaDependencyImport::isTestonly);
+
+        private final String keyword;
+        private final Function<BazelJavaDependencyImport, Object> value;
+
+        Field(String keyword, Function<BazelJavaDependencyImport, Object> value) {
+            this.keyword = keyword;
+            this.value = value;
+        }
+
+        /**
+         * @return the keyword used in the catalog files (and in descriptions of differences)
+         */
+        public String getKeyword() {
+            return keyword;
+        }
+    }
+
+    static final BazelJavaDependencyImportDiff NONE =
+            new BazelJavaDependencyImportDiff(null, null, EnumSet.noneOf(Field.class));
+
+    private final BazelJavaDependencyImport oldImport;
+    private final BazelJavaDependencyImport newImport;
+    private final Set<Field> fields;
+
+    BazelJavaDependencyImportDiff(BazelJavaDependencyImport oldImport, BazelJavaDependencyImport newImport,
+            EnumSet<Field> fields) {
+        this.oldImport = oldImport;
+        this.newImport = newImport;
+        this.fields = Collections.unmodifiableSet(requireNonNull(fields));
+    }
+
+    /**
+     * @return the fields which differ (never <code>null</code>)
+     */
+    public Set<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return <code>true</code> if no field differs, <code>false</code> otherwise
+     */
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * Renders descriptions of the differences.
+     *
+     * @param includeContent
+     *            <code>true</code> to include the old and new values, <code>false</code> for the field keywords only
+     * @return sorted set of descriptions (never <code>null</code>)
+     */
+    public SortedSet<String> toDescriptions(boolean includeContent) {
+        SortedSet<String> result = new TreeSet<>();
+        for (Field field : fields) {
+            if (includeContent) {
+                result.add(
+                    format(
+                        "%s: %s <> %s",
+                        field.keyword,
+                        field.value.apply(oldImport),
+                        field.value.apply(newImport)));
+            } else {
+                result.add(field.keyword);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BazelJavaDependencyImportDiff " + fields;
+    }
+}
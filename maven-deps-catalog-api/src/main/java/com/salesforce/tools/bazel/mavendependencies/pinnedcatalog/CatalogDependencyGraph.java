@@ -0,0 +1,296 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An in-memory graph of the dependencies between the imports of a {@link BazelDependenciesCatalog}.
+ * <p>
+ * The edges are taken from the <code>deps</code>, <code>runtime_deps</code> and <code>exports</code> of each import.
+ * Labels not pointing to another import of the catalog (e.g. targets defined in extra build file content) are
+ * ignored. Forward and reverse edges are kept in arrays indexed by node number, which makes traversals cheap enough to
+ * answer queries over large catalogs without any I/O.
+ * </p>
+ * <p>
+ * Results of traversals are sorted by {@link BazelJavaDependencyImport#getName() name} unless stated otherwise. The
+ * graph is immutable and thread safe.
+ * </p>
+ */
+public class CatalogDependencyGraph {
+
+    private static final int[] NO_EDGES = {};
+
+    /**
+     * Creates a graph from all imports of a catalog.
+     *
+     * @param catalog
+     *            the catalog (will be fully loaded)
+     * @return the graph
+     */
+    public static CatalogDependencyGraph create(BazelDependenciesCatalog catalog) {
+        return new CatalogDependencyGraph(catalog.getAllImports().toList());
+    }
+
+    /**
+     * Extracts the target name from a label pointing to an import.
+     *
+     * @param label
+     *            the label (eg., <code>@name</code> or <code>@name//:jar</code>)
+     * @return the target name or <code>null</code> if the label does not point to an external repository
+     */
+    static String toTargetName(String label) {
+        if (!label.startsWith("@")) {
+            return null;
+        }
+        var end = label.indexOf("//");
+        return end < 0 ? label.substring(1) : label.substring(1, end);
+    }
+
+    private final BazelJavaDependencyImport[] nodes;
+    private final Map<String, Integer> nodeByName;
+    private final int[][] forward;
+    private final int[][] reverse;
+
+    public CatalogDependencyGraph(Collection<BazelJavaDependencyImport> imports) {
+        nodes = imports.toArray(new BazelJavaDependencyImport[imports.size()]);
+        Arrays.sort(nodes, Comparator.comparing(BazelJavaDependencyImport::getName));
+
+        nodeByName = new HashMap<>(nodes.length * 2);
+        for (var i = 0; i < nodes.length; i++) {
+            if (nodeByName.put(nodes[i].getName(), i) != null) {
+                throw new IllegalArgumentException(format("Duplicate import '%s'", nodes[i].getName()));
+            }
+        }
+
+        forward = new int[nodes.length][];
+        var reverseCounts = new int[nodes.length];
+        for (var i = 0; i < nodes.length; i++) {
+            var targets = new BitSet(nodes.length);
+            addEdges(nodes[i].getDeps(), targets);
+            addEdges(nodes[i].getRuntimeDeps(), targets);
+            addEdges(nodes[i].getExports(), targets);
+            targets.clear(i); // self references are meaningless
+            forward[i] = targets.isEmpty() ? NO_EDGES : targets.stream().toArray();
+            for (int target : forward[i]) {
+                reverseCounts[target]++;
+            }
+        }
+
+        reverse = new int[nodes.length][];
+        for (var i = 0; i < nodes.length; i++) {
+            reverse[i] = reverseCounts[i] == 0 ? NO_EDGES : new int[reverseCounts[i]];
+            reverseCounts[i] = 0;
+        }
+        for (var i = 0; i < nodes.length; i++) {
+            for (int target : forward[i]) {
+                reverse[target][reverseCounts[target]++] = i;
+            }
+        }
+    }
+
+    private void addEdges(Set<String> labels, BitSet targets) {
+        if (labels == null) {
+            return;
+        }
+        for (String label : labels) {
+            var targetName = toTargetName(label);
+            var target = targetName != null ? nodeByName.get(targetName) : null;
+            if (target != null) {
+                targets.set(target);
+            }
+        }
+    }
+
+    /**
+     * Finds all paths from any of the start imports to any of the end imports.
+     *
+     * @param from
+     *            the start imports
+     * @param to
+     *            the end imports
+     * @return all imports on any path between the start and end imports (empty if there is no path)
+     */
+    public List<BazelJavaDependencyImport> allPaths(
+            Collection<BazelJavaDependencyImport> from,
+            Collection<BazelJavaDependencyImport> to) {
+        var reachable = traverse(toNodes(from), forward, -1);
+        reachable.and(traverse(toNodes(to), reverse, -1));
+        return toImports(reachable);
+    }
+
+    /**
+     * Finds imports depended on by the given imports.
+     *
+     * @param roots
+     *            the imports to start from
+     * @param depth
+     *            maximum number of edges to follow (<code>-1</code> for unlimited)
+     * @return the given imports and all imports they depend on (transitively up to the depth)
+     */
+    public List<BazelJavaDependencyImport> deps(Collection<BazelJavaDependencyImport> roots, int depth) {
+        return toImports(traverse(toNodes(roots), forward, depth));
+    }
+
+    /**
+     * @param name
+     *            the {@link BazelJavaDependencyImport#getName() name} of an import
+     * @return the import (maybe <code>null</code>)
+     */
+    public BazelJavaDependencyImport get(String name) {
+        var node = nodeByName.get(name);
+        return node != null ? nodes[node] : null;
+    }
+
+    /**
+     * @return all imports in the graph
+     */
+    public List<BazelJavaDependencyImport> getAll() {
+        return List.of(nodes);
+    }
+
+    /**
+     * @param dependencyImport
+     *            an import of the graph
+     * @return the imports the import depends on directly
+     */
+    public List<BazelJavaDependencyImport> getDirectDependencies(BazelJavaDependencyImport dependencyImport) {
+        return toImports(forward[toNode(dependencyImport)]);
+    }
+
+    /**
+     * @param dependencyImport
+     *            an import of the graph
+     * @return the imports depending directly on the import
+     */
+    public List<BazelJavaDependencyImport> getDirectReverseDependencies(BazelJavaDependencyImport dependencyImport) {
+        return toImports(reverse[toNode(dependencyImport)]);
+    }
+
+    /**
+     * Finds imports depending on the given imports.
+     *
+     * @param roots
+     *            the imports to start from
+     * @param depth
+     *            maximum number of edges to follow (<code>-1</code> for unlimited)
+     * @return the given imports and all imports depending on them (transitively up to the depth)
+     */
+    public List<BazelJavaDependencyImport> rdeps(Collection<BazelJavaDependencyImport> roots, int depth) {
+        return toImports(traverse(toNodes(roots), reverse, depth));
+    }
+
+    /**
+     * Finds a shortest path from any of the start imports to any of the end imports.
+     *
+     * @param from
+     *            the start imports
+     * @param to
+     *            the end imports
+     * @return the imports on the path in order of the path (empty if there is no path)
+     */
+    public List<BazelJavaDependencyImport> somePath(
+            Collection<BazelJavaDependencyImport> from,
+            Collection<BazelJavaDependencyImport> to) {
+        var starts = toNodes(from);
+        var targets = toNodes(to);
+        var previous = new int[nodes.length];
+        Arrays.fill(previous, -2); // -2 = not visited, -1 = start
+        var queue = new int[nodes.length];
+        var head = 0;
+        var tail = 0;
+        for (int start = starts.nextSetBit(0); start >= 0; start = starts.nextSetBit(start + 1)) {
+            previous[start] = -1;
+            queue[tail++] = start;
+        }
+
+        while (head < tail) {
+            var node = queue[head++];
+            if (targets.get(node)) {
+                List<BazelJavaDependencyImport> path = new ArrayList<>();
+                for (var n = node; n >= 0; n = previous[n]) {
+                    path.add(nodes[n]);
+                }
+                return reversed(path);
+            }
+            for (int next : forward[node]) {
+                if (previous[next] == -2) {
+                    previous[next] = node;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private List<BazelJavaDependencyImport> reversed(List<BazelJavaDependencyImport> path) {
+        List<BazelJavaDependencyImport> result = new ArrayList<>(path.size());
+        for (var i = path.size() - 1; i >= 0; i--) {
+            result.add(path.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return number of imports in the graph
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    private List<BazelJavaDependencyImport> toImports(BitSet nodeSet) {
+        return toImports(nodeSet.stream().toArray());
+    }
+
+    private List<BazelJavaDependencyImport> toImports(int[] nodeList) {
+        // nodes are sorted by name, so ascending node numbers give imports sorted by name
+        List<BazelJavaDependencyImport> result = new ArrayList<>(nodeList.length);
+        for (int node : nodeList) {
+            result.add(nodes[node]);
+        }
+        return result;
+    }
+
+    private int toNode(BazelJavaDependencyImport dependencyImport) {
+        var node = nodeByName.get(requireNonNull(dependencyImport, "no import given").getName());
+        if (node == null) {
+            throw new IllegalArgumentException(format("Import '%s' is not part of the graph", dependencyImport.getName()));
+        }
+        return node;
+    }
+
+    private BitSet toNodes(Collection<BazelJavaDependencyImport> imports) {
+        var result = new BitSet(nodes.length);
+        for (BazelJavaDependencyImport dependencyImport : imports) {
+            result.set(toNode(dependencyImport));
+        }
+        return result;
+    }
+
+    private BitSet traverse(BitSet roots, int[][] edges, int depth) {
+        var visited = (BitSet) roots.clone();
+        var frontier = roots;
+        for (var level = 0; ((depth < 0) || (level < depth)) && !frontier.isEmpty(); level++) {
+            var next = new BitSet(nodes.length);
+            for (int node = frontier.nextSetBit(0); node >= 0; node = frontier.nextSetBit(node + 1)) {
+                for (int target : edges[node]) {
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        next.set(target);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,28 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for rendering and writing a single catalog file in {@link BazelDependenciesCatalog#save}.
+ */
+@Name(CatalogFileWriteEvent.NAME)
+@Label("Catalog File Write")
+@Description("Rendering and writing of a pinned catalog file")
+@Category({ "Bazel Maven Dependencies", "Catalog" })
+public final class CatalogFileWriteEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.salesforce.tools.bazel.mavendependencies.CatalogFileWrite";
+
+    @Label("File")
+    public String file;
+
+    @Label("Characters")
+    public long characters;
+
+    @Label("Modified")
+    @Description("true if the file content changed")
+    public boolean modified;
+}
@@ -0,0 +1,275 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates query expressions against a {@link CatalogDependencyGraph}.
+ * <p>
+ * The syntax is inspired by <code>bazel query</code>:
+ * <ul>
+ * <li><code>name</code>, <code>@name</code> or <code>groupId:artifactId</code> - a single import (by target name or
+ * Maven coordinates, see below)</li>
+ * <li><code>all</code> - all imports of the catalog</li>
+ * <li><code>deps(x)</code>, <code>deps(x, depth)</code> - <code>x</code> and the imports it depends on</li>
+ * <li><code>rdeps(x)</code>, <code>rdeps(x, depth)</code> - <code>x</code> and the imports depending on it</li>
+ * <li><code>somepath(a, b)</code> - a shortest path from <code>a</code> to <code>b</code> (in path order)</li>
+ * <li><code>allpaths(a, b)</code> - all imports on any path from <code>a</code> to <code>b</code></li>
+ * <li><code>tagged(tag, x)</code> - imports in <code>x</code> having the tag (eg., <code>not_in_collection</code>)</li>
+ * <li><code>testonly(x)</code>, <code>neverlink(x)</code> - imports in <code>x</code> with the attribute set</li>
+ * <li><code>x + y</code>, <code>x - y</code>, <code>x ^ y</code> - union, difference and intersection</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Maven coordinates are matched by group id, artifact id and classifier. Supported forms are
+ * <code>groupId:artifactId[:version]</code>, <code>groupId:artifactId:packaging:classifier</code> and
+ * <code>groupId:artifactId:packaging[:classifier]:version</code>. A version is ignored, except for
+ * <code>groupId:artifactId:packaging:version</code>, which is only told apart from a classifier by matching the version
+ * in the catalog.
+ * </p>
+ * <p>
+ * Results are sorted by {@link BazelJavaDependencyImport#getName() name}, except for <code>somepath</code>, which
+ * returns the path in order.
+ * </p>
+ */
+public class CatalogQuery {
+
+    private static final Comparator<BazelJavaDependencyImport> BY_NAME =
+            Comparator.comparing(BazelJavaDependencyImport::getName);
+
+    /**
+     * Parses and evaluates a single expression.
+     */
+    private final class Evaluation {
+
+        private final String expression;
+        private int position;
+
+        Evaluation(String expression) {
+            this.expression = expression;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(
+                    format("%s at position %d in query '%s'", message, position + 1, expression));
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            if ((position >= expression.length()) || (expression.charAt(position) != c)) {
+                throw error(format("Expected '%s'", c));
+            }
+            position++;
+        }
+
+        private List<BazelJavaDependencyImport> filter(
+                List<BazelJavaDependencyImport> imports,
+                Predicate<BazelJavaDependencyImport> predicate) {
+            List<BazelJavaDependencyImport> result = new ArrayList<>(imports.size());
+            for (BazelJavaDependencyImport dependencyImport : imports) {
+                if (predicate.test(dependencyImport)) {
+                    result.add(dependencyImport);
+                }
+            }
+            return result;
+        }
+
+        private List<BazelJavaDependencyImport> parseExpression() {
+            var result = parseTerm();
+            while (true) {
+                skipWhitespace();
+                if (position >= expression.length()) {
+                    return result;
+                }
+                var operator = expression.charAt(position);
+                if ((operator != '+') && (operator != '-') && (operator != '^')) {
+                    return result;
+                }
+                position++;
+                var other = parseTerm();
+                var combined = new LinkedHashSet<>(result);
+                if (operator == '+') {
+                    combined.addAll(other);
+                } else if (operator == '-') {
+                    combined.removeAll(other);
+                } else {
+                    combined.retainAll(other);
+                }
+                result = sorted(combined);
+            }
+        }
+
+        private List<BazelJavaDependencyImport> parseFunction(String function) {
+            switch (function) {
+                case "deps":
+                case "rdeps": {
+                    var roots = parseExpression();
+                    var depth = -1;
+                    skipWhitespace();
+                    if ((position < expression.length()) && (expression.charAt(position) == ',')) {
+                        position++;
+                        var word = parseWord();
+                        try {
+                            depth = Integer.parseInt(word);
+                        } catch (NumberFormatException e) {
+                            throw error(format("Invalid depth '%s'", word));
+                        }
+                        if (depth < 0) {
+                            throw error(format("Invalid depth '%s'", word));
+                        }
+                    }
+                    return "deps".equals(function) ? graph.deps(roots, depth) : graph.rdeps(roots, depth);
+                }
+                case "somepath":
+                case "allpaths": {
+                    var from = parseExpression();
+                    expect(',');
+                    var to = parseExpression();
+                    return "somepath".equals(function) ? graph.somePath(from, to) : graph.allPaths(from, to);
+                }
+                case "tagged": {
+                    var tag = parseWord();
+                    expect(',');
+                    return filter(parseExpression(), i -> (i.getTags() != null) && i.getTags().contains(tag));
+                }
+                case "testonly":
+                    return filter(parseExpression(), BazelJavaDependencyImport::isTestonly);
+                case "neverlink":
+                    return filter(parseExpression(), BazelJavaDependencyImport::isNeverlink);
+                default:
+                    throw error(format("Unknown function '%s'", function));
+            }
+        }
+
+        private List<BazelJavaDependencyImport> parseTerm() {
+            skipWhitespace();
+            if ((position < expression.length()) && (expression.charAt(position) == '(')) {
+                position++;
+                var result = parseExpression();
+                expect(')');
+                return result;
+            }
+
+            var word = parseWord();
+            skipWhitespace();
+            if ((position < expression.length()) && (expression.charAt(position) == '(')) {
+                position++;
+                var result = parseFunction(word);
+                expect(')');
+                return result;
+            }
+            if ("all".equals(word)) {
+                return graph.getAll();
+            }
+            return List.of(resolve(word));
+        }
+
+        private String parseWord() {
+            skipWhitespace();
+            var start = position;
+            // a '-' only starts the difference operator outside of words (eg., "a - b" but not "guava-testlib")
+            while ((position < expression.length()) && isWordCharacter(expression.charAt(position))
+                    && ((position > start) || (expression.charAt(position) != '-'))) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected a name");
+            }
+            return expression.substring(start, position);
+        }
+
+        private BazelJavaDependencyImport resolve(String word) {
+            var name = word.startsWith("@") ? CatalogDependencyGraph.toTargetName(word) : word;
+            var dependencyImport = graph.get(name);
+            if (dependencyImport != null) {
+                return dependencyImport;
+            }
+
+            var segments = word.split(":", -1);
+            if ((segments.length >= 2) && (segments.length <= 5)) {
+                var groupAndArtifactId = segments[0] + ':' + segments[1];
+                var plainImport = importsByCoordinates.get(groupAndArtifactId);
+                if (segments.length <= 3) {
+                    // groupId:artifactId[:version]
+                    dependencyImport = plainImport;
+                } else {
+                    // groupId:artifactId:packaging:(classifier|version) or with classifier and version
+                    dependencyImport = importsByCoordinates.get(groupAndArtifactId + ':' + segments[3]);
+                    if ((dependencyImport == null) && (segments.length == 4) && (plainImport != null)
+                            && plainImport.getArtifact().getVersion().equals(segments[3])) {
+                        dependencyImport = plainImport;
+                    }
+                }
+                if (dependencyImport != null) {
+                    return dependencyImport;
+                }
+            }
+            throw error(format("No import found for '%s'", word));
+        }
+
+        List<BazelJavaDependencyImport> run() {
+            var result = parseExpression();
+            skipWhitespace();
+            if (position < expression.length()) {
+                throw error("Unexpected input");
+            }
+            return result;
+        }
+
+        private void skipWhitespace() {
+            while ((position < expression.length()) && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || (c == '_') || (c == '.') || (c == ':') || (c == '@') || (c == '/')
+                || (c == '-');
+    }
+
+    private static List<BazelJavaDependencyImport> sorted(Collection<BazelJavaDependencyImport> imports) {
+        List<BazelJavaDependencyImport> result = new ArrayList<>(imports);
+        result.sort(BY_NAME);
+        return result;
+    }
+
+    private final CatalogDependencyGraph graph;
+    /** imports by <code>groupId:artifactId[:classifier]</code> */
+    private final Map<String, BazelJavaDependencyImport> importsByCoordinates;
+
+    public CatalogQuery(CatalogDependencyGraph graph) {
+        this.graph = requireNonNull(graph);
+        importsByCoordinates = new HashMap<>(graph.size() * 2);
+        for (BazelJavaDependencyImport dependencyImport : graph.getAll()) {
+            var artifact = dependencyImport.getArtifact();
+            var classifier = artifact.getClassifier();
+            importsByCoordinates.putIfAbsent(
+                artifact.getGroupId() + ':' + artifact.getArtifactId()
+                        + ((classifier != null) && !classifier.isBlank() ? ':' + classifier : ""),
+                dependencyImport);
+        }
+    }
+
+    /**
+     * Evaluates a query expression.
+     *
+     * @param expression
+     *            the expression
+     * @return the result
+     * @throws IllegalArgumentException
+     *             if the expression is invalid or references unknown imports
+     */
+    public List<BazelJavaDependencyImport> evaluate(String expression) throws IllegalArgumentException {
+        return new Evaluation(requireNonNull(expression, "no expression given")).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import java.util.Collection;
+import java.util.SortedSet;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * A pool of values shared by all {@link BazelJavaDependencyImport imports}.
+ * <p>
+ * A catalog contains the same target names, labels, licenses and tags over and over again (eg., a target name is
+ * referenced in the <code>deps</code> of all its consumers). Parsing creates a new string for every occurrence. The
+ * pool de-duplicates strings and whole sets, so identical values share one instance. The pool holds its values weakly;
+ * values no longer referenced by any import are garbage collected.
+ * </p>
+ * <p>
+ * Sets are stored as {@link ImmutableSortedSet}, which is backed by a sorted array instead of a tree of nodes.
+ * </p>
+ */
+final class ImportValuePool {
+
+    private static final Interner<String> strings = Interners.newWeakInterner();
+    private static final Interner<ImmutableSortedSet<String>> sets = Interners.newWeakInterner();
+
+    /**
+     * @param value
+     *            the value (maybe <code>null</code>)
+     * @return the pooled value (<code>null</code> if the value is <code>null</code>)
+     */
+    static String intern(String value) {
+        return value != null ? strings.intern(value) : null;
+    }
+
+    /**
+     * @param values
+     *            the values (maybe <code>null</code>)
+     * @return the pooled immutable sorted set of pooled values (<code>null</code> if the values are <code>null</code>
+     *         or empty)
+     */
+    static SortedSet<String> internSet(Collection<String> values) {
+        if ((values == null) || values.isEmpty()) {
+            return null;
+        }
+
+        var builder = ImmutableSortedSet.<String> naturalOrder();
+        for (String value : values) {
+            builder.add(strings.intern(value));
+        }
+        return sets.intern(builder.build());
+    }
+
+    private ImportValuePool() {
+    }
+}
@@ -0,0 +1,67 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exclusion;
+
+public class ExclusionIndexTest {
+
+    private static final List<String> GROUP_IDS = List.of("com.example", "org.other", "net.third", "*");
+
+    private static final List<String> ARTIFACT_IDS = List.of("example", "other", "example-extra", "*");
+
+    @Test
+    void matches_like_exclusions() {
+        var random = new Random(4711);
+        for (var i = 0; i < 200; i++) {
+            List<Exclusion> exclusions = new ArrayList<>();
+            for (var j = random.nextInt(5); j > 0; j--) {
+                exclusions.add(
+                    new Exclusion(
+                            GROUP_IDS.get(random.nextInt(GROUP_IDS.size())),
+                            ARTIFACT_IDS.get(random.nextInt(ARTIFACT_IDS.size()))));
+            }
+            var index = new ExclusionIndex(exclusions);
+
+            for (String groupId : GROUP_IDS.subList(0, 3)) {
+                for (String artifactId : ARTIFACT_IDS.subList(0, 3)) {
+                    assertEquals(
+                        exclusions.stream().anyMatch(e -> e.matches(groupId, artifactId)),
+                        index.matches(groupId, artifactId),
+                        () -> groupId + ":" + artifactId + " " + exclusions);
+                }
+            }
+        }
+    }
+
+    @Test
+    void removed_exclusions_no_longer_match() {
+        var index = new ExclusionIndex(Set.of());
+        assertFalse(index.matches("com.example", "example"));
+
+        for (Exclusion exclusion : List.of(
+            new Exclusion("com.example", "example"),
+            new Exclusion("com.example", "*"),
+            new Exclusion("*", "example"),
+            new Exclusion("*", "*"))) {
+            index.add(exclusion);
+            assertTrue(index.matches("com.example", "example"), exclusion::toString);
+            assertEquals(
+                exclusion.matches("com.example.other", "example.other"),
+                index.matches("com.example.other", "example.other"),
+                exclusion::toString);
+
+            index.remove(exclusion);
+            assertFalse(index.matches("com.example", "example"), exclusion::toString);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exclusion;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class MavenDependenciesCollectionIncrementalIndexTest {
+
+    private static final String LOAD = "@bazel_maven_deps//bazel:defs.bzl";
+
+    private static final List<String> GROUP_IDS = List.of("com.example", "org.other");
+
+    private static final String SHARED_VERSION = "_SHARED_VERSION";
+
+    private static void assertSameIndices(MavenDependenciesCollection expected, MavenDependenciesCollection actual) {
+        assertEquals(artifacts(expected), artifacts(actual));
+        assertEquals(versionVariables(expected), versionVariables(actual));
+        assertEquals(expected.getGlobalExclusions().collect(toSet()), actual.getGlobalExclusions().collect(toSet()));
+        for (MavenArtifact artifact : expected.getAllArtifacts().collect(toSet())) {
+            var coordinates = artifact.toCoordinatesStringWithoutVersion();
+            assertEquals(expected.findArtifact(coordinates), actual.findArtifact(coordinates));
+            assertTrue(actual.getAllArtifactsUsingVersionVariable(artifact.getVersion()).contains(artifact));
+        }
+    }
+
+    private static Set<MavenArtifact> artifacts(MavenDependenciesCollection collection) {
+        return collection.getAllArtifacts().collect(toSet());
+    }
+
+    private static Map<String, String> versionVariables(MavenDependenciesCollection collection) {
+        return collection.getVersionVariableNames()
+                .collect(toMap(Function.identity(), collection::getVersionVariableValue));
+    }
+
+    @TempDir
+    Path workspace;
+
+    private final Random random = new Random(4711);
+
+    private MavenDependenciesCollection load() throws IOException {
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        return collection;
+    }
+
+    private void modifyRandomly(MavenDependenciesCollection collection) {
+        var groupId = GROUP_IDS.get(random.nextInt(GROUP_IDS.size()));
+        var artifactId = "artifact" + random.nextInt(4);
+        var packaging = random.nextInt(4) == 0 ? "pom" : "jar";
+        var version = "1." + random.nextInt(3);
+        switch (random.nextInt(9)) {
+            case 0:
+                collection.addDependency(new MavenArtifact(groupId, artifactId, version, packaging, null));
+                break;
+            case 1:
+                collection.addDependencyWithManagedVersion(
+                    new MavenArtifact(groupId, artifactId, SHARED_VERSION, packaging, null),
+                    SHARED_VERSION,
+                    version);
+                break;
+            case 2:
+                collection.removeDependency(new MavenArtifact(groupId, artifactId, version, packaging, null));
+                break;
+            case 3:
+                collection.addImportedBom(new MavenArtifact(groupId, artifactId, version, "pom", null));
+                break;
+            case 4:
+                collection.removeImportedBom(new MavenArtifact(groupId, artifactId, version, "pom", null));
+                break;
+            case 5:
+                collection.addExclusion(new Exclusion(groupId, random.nextBoolean() ? artifactId : "*"));
+                break;
+            case 6:
+                collection.removeExclusion(new Exclusion(groupId, random.nextBoolean() ? artifactId : "*"));
+                break;
+            case 7:
+                collection.updateVersionVariable(SHARED_VERSION, version);
+                break;
+            default:
+                collection.removeVersionVariable(SHARED_VERSION);
+                break;
+        }
+    }
+
+    private void save(MavenDependenciesCollection collection) throws IOException {
+        collection.save(LOAD, null, false, false, new NullProgressMonitor(), new NoScmWritableFilesystem());
+    }
+
+    @Test
+    void conflicting_modifications_are_rejected_without_modifying_collection() throws IOException {
+        var collection = load();
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("com.example", "example", SHARED_VERSION, "jar", null),
+            SHARED_VERSION,
+            "1.0.0");
+        collection.addImportedBom(new MavenArtifact("com.example", "bom", "1.0.0", "pom", null));
+        collection.addExclusion(new Exclusion("org.other", "excluded"));
+        save(collection);
+
+        // different version of existing artifact
+        assertThrows(
+            IllegalStateException.class,
+            () -> collection.addDependency(new MavenArtifact("com.example", "example", "2.0.0", "jar", null)));
+        // different version of existing BOM
+        assertThrows(
+            IllegalStateException.class,
+            () -> collection.addImportedBom(new MavenArtifact("com.example", "bom", "2.0.0", "pom", null)));
+        // excluded BOM
+        assertThrows(
+            IllegalStateException.class,
+            () -> collection.addImportedBom(new MavenArtifact("org.other", "excluded", "1.0.0", "pom", null)));
+        // conflicting version variable value in a different group
+        assertThrows(
+            IllegalStateException.class,
+            () -> collection.addDependencyWithManagedVersion(
+                new MavenArtifact("org.other", "other", SHARED_VERSION, "jar", null),
+                SHARED_VERSION,
+                "2.0.0"));
+
+        assertSameIndices(load(), collection);
+
+        // changing the value within the defining group is allowed
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("com.example", "example-extra", SHARED_VERSION, "jar", null),
+            SHARED_VERSION,
+            "2.0.0");
+        assertEquals("2.0.0", collection.getVersionVariableValue(SHARED_VERSION));
+        save(collection);
+        assertSameIndices(load(), collection);
+    }
+
+    @Test
+    void exclusions_in_batch_only_check_their_group() throws IOException {
+        var collection = load();
+        collection.beginBatchModification();
+        // conflicting values are only detected at the end of the batch
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("com.example", "example", SHARED_VERSION, "jar", null),
+            SHARED_VERSION,
+            "1.0.0");
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("org.other", "other", SHARED_VERSION, "jar", null),
+            SHARED_VERSION,
+            "2.0.0");
+
+        collection.addExclusion(new Exclusion("org.excluded", "excluded"));
+        var e = assertThrows(
+            IllegalStateException.class,
+            () -> collection.addExclusion(new Exclusion("com.example", "example")));
+        assertTrue(e.getMessage().contains("matches existing artifacts"), e.getMessage());
+
+        e = assertThrows(IllegalStateException.class, () -> collection.endBatchModification());
+        assertTrue(e.getMessage().contains("Duplicate variable"), e.getMessage());
+    }
+
+    @Test
+    void incremental_indices_match_rebuilt_indices() throws IOException {
+        var collection = load();
+        var rejected = 0;
+        for (var i = 1; i <= 300; i++) {
+            try {
+                modifyRandomly(collection);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                rejected++;
+            }
+
+            if ((i % 25) == 0) {
+                save(collection);
+                assertSameIndices(load(), collection);
+            }
+        }
+
+        // ensure the property is not satisfied trivially
+        assertTrue(rejected > 10, "only " + rejected + " modifications rejected");
+        assertTrue(collection.getAllArtifacts().count() > 3);
+    }
+}
@@ -0,0 +1,149 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exclusion;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class MavenDependenciesCollectionLazyLoadingTest {
+
+    private static final String LOAD = "@bazel_maven_deps//bazel:defs.bzl";
+
+    @TempDir
+    Path workspace;
+
+    @TempDir
+    Path cacheDir;
+
+    private Path indexFile;
+
+    private MavenDependenciesCollection loadLazily() throws IOException {
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.loadLazily(indexFile);
+        return collection;
+    }
+
+    private void save(MavenDependenciesCollection collection) throws IOException {
+        collection.save(LOAD, null, false, false, new NullProgressMonitor(), new NoScmWritableFilesystem());
+    }
+
+    @BeforeEach
+    void createCollection() throws IOException {
+        indexFile = cacheDir.resolve("version-variables.idx");
+
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("com.example", "example", "_EXAMPLE_VERSION", "jar", null),
+            "_EXAMPLE_VERSION",
+            "1.0.0");
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("org.other", "other", "_OTHER_VERSION", "jar", null),
+            "_OTHER_VERSION",
+            "2.0.0");
+        collection.addExclusion(new Exclusion("net.excluded", "excluded"));
+        save(collection);
+    }
+
+    @Test
+    void first_lazy_load_parses_everything_and_creates_index() throws Exception {
+        var collection = loadLazily();
+        assertTrue(collection.isCompletelyLoaded());
+        assertTrue(Files.isRegularFile(indexFile));
+        assertEquals("1.0.0", collection.getVersionVariableValue("_EXAMPLE_VERSION"));
+    }
+
+    @Test
+    void full_load_for_global_operations() throws Exception {
+        loadLazily();
+
+        var collection = loadLazily();
+        assertFalse(collection.isCompletelyLoaded());
+        assertEquals(1, collection.getGlobalExclusions().count());
+        assertTrue(collection.isCompletelyLoaded());
+        assertEquals(2, collection.getAllDependencies().size());
+    }
+
+    @Test
+    void artifacts_using_version_variable_from_all_groups() throws Exception {
+        // use the variable in a second group (modified outside of the lazy collection)
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("org.other", "shared", "_EXAMPLE_VERSION", "jar", null),
+            "_EXAMPLE_VERSION",
+            "1.0.0");
+        save(collection);
+        loadLazily();
+
+        collection = loadLazily();
+        assertFalse(collection.isCompletelyLoaded());
+        assertEquals(
+            Set.of("com.example:example:jar", "org.other:shared:jar"),
+            collection.getAllArtifactsUsingVersionVariable("_EXAMPLE_VERSION")
+                    .stream()
+                    .map(MavenArtifact::toCoordinatesStringWithoutVersion)
+                    .collect(toSet()));
+        assertFalse(collection.isCompletelyLoaded());
+    }
+
+    @Test
+    void modified_file_is_reindexed() throws Exception {
+        loadLazily();
+
+        // modify outside of the lazy collection
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        collection.updateVersionVariable("_OTHER_VERSION", "2.0.1-with-longer-value");
+        save(collection);
+
+        collection = loadLazily();
+        assertFalse(collection.isCompletelyLoaded());
+        assertEquals("2.0.1-with-longer-value", collection.getVersionVariableValue("_OTHER_VERSION"));
+    }
+
+    @Test
+    void single_version_variable_update_only_touches_its_group() throws Exception {
+        loadLazily();
+
+        var collection = loadLazily();
+        assertFalse(collection.isCompletelyLoaded());
+        assertTrue(collection.hasVersionVariable("_EXAMPLE_VERSION"));
+        assertFalse(collection.hasVersionVariable("_UNKNOWN_VERSION"));
+        assertNotNull(collection.findArtifact("com.example:example:jar"));
+
+        assertEquals("1.0.0", collection.updateVersionVariable("_EXAMPLE_VERSION", "1.1.0"));
+        var result =
+                collection.save(LOAD, null, false, false, new NullProgressMonitor(), new NoScmWritableFilesystem());
+        assertFalse(collection.isCompletelyLoaded());
+        assertEquals(Set.of(collection.getGroupFileLocation("com_example")), result.writtenFiles);
+
+        // the index file still references all groups
+        var reloaded = new MavenDependenciesCollection(workspace);
+        reloaded.load();
+        assertEquals("1.1.0", reloaded.getVersionVariableValue("_EXAMPLE_VERSION"));
+        assertEquals("2.0.0", reloaded.getVersionVariableValue("_OTHER_VERSION"));
+        var index = Files.readString(reloaded.getDirectory().resolve(MavenDependenciesCollection.INDEX_BZL));
+        assertTrue(index.contains("org_other.bzl"), index);
+        assertTrue(index.contains("net_excluded.bzl"), index);
+
+        // the index was updated by save
+        collection = loadLazily();
+        assertFalse(collection.isCompletelyLoaded());
+        assertEquals("1.1.0", collection.getVersionVariableValue("_EXAMPLE_VERSION"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.salesforce.tools.bazel.mavendependencies.collection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.cli.helper.Utf8Buffer;
+
+public class ParallelFileRendererTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void render_detects_unchanged_files() throws IOException {
+        Files.writeString(directory.resolve("same.bzl"), "content of same", UTF_8);
+        Files.writeString(directory.resolve("other.bzl"), "old content", UTF_8);
+
+        List<ParallelFileRenderer.RenderedFile<String>> renderedFiles = new ArrayList<>();
+        ParallelFileRenderer.render(
+            List.of("new", "other", "same"),
+            name -> directory.resolve(name + ".bzl"),
+            name -> "content of " + name,
+            UTF_8,
+            renderedFiles::add);
+
+        assertEquals(3, renderedFiles.size());
+        assertFalse(renderedFiles.get(0).isUnchanged());
+        assertFalse(renderedFiles.get(1).isUnchanged());
+        assertTrue(renderedFiles.get(2).isUnchanged());
+        assertEquals("content of other", renderedFiles.get(1).getContent());
+    }
+
+    @Test
+    void writeTo_passes_encoded_content_of_changed_files() throws IOException {
+        Files.writeString(directory.resolve("same.bzl"), "content of same", UTF_8);
+
+        List<String> written = new ArrayList<>();
+        var scmSupport = new ScmSupport() {
+            @Override
+            public boolean removeFile(Path obsoletePath) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean writeChangedFile(Path path, Utf8Buffer content) {
+                written.add(path.getFileName() + "=" + content.decode());
+                return true;
+            }
+
+            @Override
+            public boolean writeFile(Path path, CharSequence content, Charset charset) {
+                throw new AssertionError("content must not be passed for encoding again: " + path);
+            }
+        };
+
+        List<Boolean> modified = new ArrayList<>();
+        ParallelFileRenderer.render(
+            List.of("new ✓", "same"),
+            name -> directory.resolve(name.replace(" ✓", "") + ".bzl"),
+            name -> "content of " + name,
+            UTF_8,
+            renderedFile -> modified.add(renderedFile.writeTo(scmSupport)));
+
+        assertEquals(List.of(true, false), modified);
+        assertEquals(List.of("new.bzl=content of new ✓"), written);
+    }
+
+    @Test
+    void render_fails_with_first_error() {
+        var e = assertThrows(
+            IllegalStateException.class,
+            () -> ParallelFileRenderer.render(List.of("a", "b", "c"), directory::resolve, name -> {
+                throw new IllegalStateException("broken " + name);
+            }, UTF_8, renderedFile -> {}));
+        assertEquals("broken a", e.getMessage());
+    }
+
+    @Test
+    void render_passes_files_in_order() throws IOException {
+        var names = IntStream.range(0, 500).mapToObj(i -> "group" + i).collect(Collectors.toList());
+
+        List<String> consumed = new ArrayList<>();
+        var consumerThread = Thread.currentThread();
+        ParallelFileRenderer
+                .render(names, name -> directory.resolve(name + ".bzl"), name -> name, UTF_8, renderedFile -> {
+                    assertEquals(consumerThread, Thread.currentThread());
+                    consumed.add(renderedFile.getSource());
+                });
+
+        assertEquals(names, consumed);
+    }
+}
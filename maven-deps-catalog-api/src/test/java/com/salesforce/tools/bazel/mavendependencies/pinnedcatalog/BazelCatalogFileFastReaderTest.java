@@ -0,0 +1,192 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog.getRecommendedPreamble;
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+
+public class BazelCatalogFileFastReaderTest {
+
+    private static final String LOAD_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+
+    private static final String CATALOG_ROUNDTRIP_TEST_BZL = "catalog_roundtrip_test.bzl";
+
+    /** characters used for generating values, including some which are not ASCII */
+    private static final String VALUE_CHARACTERS = "abcxyz019_-.:/@ #'\tä€";
+
+    private static void assertSameImports(BazelCatalogFile expected, BazelCatalogFile actual) {
+        assertEquals(expected.getGroup(), actual.getGroup());
+        assertEquals(new ArrayList<>(expected.getJavaImports()), new ArrayList<>(actual.getJavaImports()));
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(4711);
+
+    private BazelCatalogFile fastRead(Path file) throws IOException {
+        return BazelCatalogFileFastReader.read(file, Files.readAllBytes(file));
+    }
+
+    private BazelCatalogFile fullRead(Path file) throws IOException {
+        return new BazelCatalogFile.Reader(file).read();
+    }
+
+    private List<String> randomList(int maxSize) {
+        List<String> values = new ArrayList<>();
+        for (int i = random.nextInt(maxSize + 1); i > 0; i--) {
+            values.add(randomValue(false));
+        }
+        return values;
+    }
+
+    private String randomValue(boolean multiline) {
+        var value = new StringBuilder();
+        var length = random.nextInt(12);
+        for (var i = 0; i < length; i++) {
+            if (multiline && (random.nextInt(6) == 0)) {
+                value.append('\n');
+            } else {
+                value.append(VALUE_CHARACTERS.charAt(random.nextInt(VALUE_CHARACTERS.length())));
+            }
+        }
+
+        var special = random.nextInt(1000);
+        if (special < 10) {
+            // needs escaping (and breaks single item lists)
+            value.insert(random.nextInt(value.length() + 1), '"');
+        } else if (special < 12) {
+            // escape sequences are left to the full reader
+            value.insert(random.nextInt(value.length() + 1), '\\');
+        }
+        return value.toString();
+    }
+
+    private String randomValueOrNull(boolean multiline) {
+        return random.nextBoolean() ? randomValue(multiline) : null;
+    }
+
+    private BazelCatalogFile randomCatalogFile(String group) {
+        SortedSet<BazelJavaDependencyImport> imports = new TreeSet<>();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            var classifier = random.nextInt(4) == 0 ? "tests" : null;
+            var artifact = new MavenArtifact("com.example", "artifact" + i, "1." + random.nextInt(10), "jar", classifier);
+            imports.add(
+                createWithNameAndArtifact("com_example_artifact" + i, artifact)
+                        .setArtifactSha256(randomValueOrNull(false))
+                        .setArtifactSha1(randomValueOrNull(false))
+                        .setLicenses(randomList(2))
+                        .setSourcesArtifact(random.nextBoolean())
+                        .setSourcesArtifactSha256(randomValueOrNull(false))
+                        .setSourcesArtifactSha1(randomValueOrNull(false))
+                        .setDeps(randomList(3))
+                        .setRuntimeDeps(randomList(3))
+                        .setExports(randomList(3))
+                        .setTestonly(random.nextBoolean())
+                        .setNeverlink(random.nextBoolean())
+                        .setExtraBuildFileContent(randomValueOrNull(true))
+                        .setDefaultVisibility(randomList(2))
+                        .setTags(randomList(2))
+                        .build());
+        }
+        return new BazelCatalogFile(group, imports);
+    }
+
+    private Path write(String group, CharSequence content) throws IOException {
+        return Files.writeString(tempDir.resolve(group + ".bzl"), content, UTF_8);
+    }
+
+    @Test
+    void deviations_from_generated_layout_fall_back_to_full_reader() throws IOException {
+        var group = CATALOG_ROUNDTRIP_TEST_BZL.replace(".bzl", "");
+        var generated = readFixture();
+
+        var modifications = List.of(
+            generated.replace("        server_urls = maven_servers,", "        # comment\n        server_urls = maven_servers,"),
+            generated.replace("name = \"some_other_name\"", "name=\"some_other_name\""),
+            generated.replace("neverlink = True,", "neverlink = True,\n        visibility = [\"//visibility:public\"],"),
+            generated.replace("\"hello\",", "\"hel\\\\lo\","),
+            generated.replace("licenses = [\"notice\"],", "licenses = [\"notice\", \"reciprocal\"],"),
+            generated + "\nprint(\"hello\")\n");
+        for (String modification : modifications) {
+            var file = write(group, modification);
+            assertNull(fastRead(file), modification);
+            assertSameImports(fullRead(file), BazelCatalogFile.read(file));
+        }
+
+        // invalid content is reported by the full reader
+        var file = write(group, generated.replace("fetch_sources = True,", "fetch_sources = True,\n        srcjar_urls = [],"));
+        assertNull(fastRead(file));
+        assertThrows(Exception.class, () -> BazelCatalogFile.read(file));
+    }
+
+    @Test
+    void fixtures_are_read_identical_to_full_reader() throws IOException {
+        var group = CATALOG_ROUNDTRIP_TEST_BZL.replace(".bzl", "");
+        var file = write(group, readFixture());
+
+        var catalogFile = fastRead(file);
+        assertNotNull(catalogFile);
+        assertEquals(2, catalogFile.getJavaImports().size());
+        assertSameImports(fullRead(file), catalogFile);
+
+        // Windows line endings
+        file = write(group, readFixture().replace("\n", "\r\n"));
+        assertSameImports(fullRead(file), fastRead(file));
+    }
+
+    @Test
+    void random_catalogs_are_read_identical_to_full_reader() throws IOException {
+        var recognized = 0;
+        for (var i = 0; i < 300; i++) {
+            var group = "group" + i;
+            var catalogFile = randomCatalogFile(group);
+            var preamble = random.nextBoolean() ? getRecommendedPreamble() : null;
+            var mavenServers = new TreeSet<>(randomList(3));
+            var file = write(group, catalogFile.prettyPrint(mavenServers, LOAD_SYMBOL, preamble));
+
+            var fastReadFile = fastRead(file);
+            BazelCatalogFile fullReadFile;
+            try {
+                fullReadFile = fullRead(file);
+            } catch (Exception e) {
+                // some random values (eg., quotes in single item lists) produce broken files
+                assertNull(fastReadFile, () -> "broken file recognized: " + file);
+                continue;
+            }
+
+            if (fastReadFile != null) {
+                recognized++;
+                assertSameImports(fullReadFile, fastReadFile);
+            }
+            assertSameImports(fullReadFile, BazelCatalogFile.read(file));
+        }
+
+        // ensure the property is not satisfied trivially
+        assertTrue(recognized > 100, "only " + recognized + " files recognized");
+    }
+
+    private String readFixture() throws IOException {
+        try (var in = getClass().getResourceAsStream("/" + CATALOG_ROUNDTRIP_TEST_BZL)) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog.getRecommendedPreamble;
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class BazelCatalogImportIndexTest {
+
+    private static final String LOAD_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+
+    @TempDir
+    Path workspace;
+
+    @TempDir
+    Path cacheDir;
+
+    private Path indexFile;
+
+    private Path groupFile(String group) {
+        return workspace.resolve("third_party/dependencies/pinned_catalog").resolve(group + ".bzl");
+    }
+
+    private BazelDependenciesCatalog loadUsingIndex() throws IOException {
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.loadUsingIndex(indexFile);
+        return catalog;
+    }
+
+    @BeforeEach
+    void createCatalog() throws IOException {
+        indexFile = cacheDir.resolve("pinned-catalog.idx");
+
+        var example = createForArtifact(new MavenArtifact("com.example", "example", "1.0.0", "jar", null))
+                .setArtifactSha256("abc")
+                .setDeps(List.of("@com_example_dep", "@org_other_other"))
+                .setTestonly(true)
+                .setLicenses(List.of("notice"))
+                .setExtraBuildFileContent("# extra\n")
+                .setSourcesArtifact(true)
+                .setSourcesArtifactSha256("def")
+                .build();
+        var other = createForArtifact(new MavenArtifact("org.other", "other", "2.0.0", "jar", null))
+                .setNeverlink(true)
+                .setDefaultVisibility(List.of("//visibility:public"))
+                .setTags(List.of("not_in_collection"))
+                .build();
+
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.load();
+        catalog.replaceContent(Stream.of(example, other), false);
+        catalog.save(
+            Collections.emptySortedSet(),
+            LOAD_SYMBOL,
+            getRecommendedPreamble(),
+            new NullProgressMonitor(),
+            new NoScmWritableFilesystem());
+    }
+
+    @Test
+    void catalog_loaded_from_index_equals_parsed_catalog() throws IOException {
+        // first load creates the index
+        loadUsingIndex();
+        assertTrue(Files.isRegularFile(indexFile));
+
+        var parsed = new BazelDependenciesCatalog(workspace);
+        parsed.load();
+        var indexed = loadUsingIndex();
+
+        var parsedImports = parsed.getAllImports().collect(Collectors.toSet());
+        var indexedImports = indexed.getAllImports().collect(Collectors.toSet());
+        assertEquals(2, indexedImports.size());
+        assertEquals(parsedImports, indexedImports);
+        for (BazelJavaDependencyImport parsedImport : parsedImports) {
+            assertEquals(parsedImport, indexed.findImportByTargetName(parsedImport.getName()));
+        }
+    }
+
+    @Test
+    void broken_index_is_ignored() throws IOException {
+        Files.writeString(indexFile, "garbage", UTF_8);
+
+        var catalog = loadUsingIndex();
+
+        assertEquals(2, catalog.getAllImports().count());
+        assertNotNull(BazelCatalogImportIndex.read(indexFile).get("com_example", hash("com_example")));
+    }
+
+    @Test
+    void modified_and_deleted_files_are_updated_in_index() throws IOException {
+        loadUsingIndex();
+
+        var exampleFile = groupFile("com_example");
+        Files.writeString(exampleFile, Files.readString(exampleFile).replace("1.0.0", "1.0.1"));
+        Files.delete(groupFile("org_other"));
+
+        var index = BazelCatalogImportIndex.read(indexFile);
+        assertNull(index.get("com_example", hash("com_example")));
+
+        var catalog = loadUsingIndex();
+        assertEquals(
+            Set.of("com.example:example:jar:1.0.1"),
+            catalog.getAllImports().map(i -> i.getArtifact().toCoordinatesString()).collect(Collectors.toSet()));
+
+        index = BazelCatalogImportIndex.read(indexFile);
+        assertNotNull(index.get("com_example", hash("com_example")));
+        assertNull(index.get("org_other", new byte[32]));
+    }
+
+    private byte[] hash(String group) throws IOException {
+        return BazelCatalogImportIndex.hash(Files.readAllBytes(groupFile(group)));
+    }
+}
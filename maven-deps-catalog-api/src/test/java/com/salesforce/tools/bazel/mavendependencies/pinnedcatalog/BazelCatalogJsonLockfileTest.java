@@ -0,0 +1,126 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog.getRecommendedPreamble;
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class BazelCatalogJsonLockfileTest {
+
+    private static final String LOAD_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+
+    private static final String SERVER = "https://repo1.maven.org/maven2/";
+
+    @TempDir
+    Path tempDir;
+
+    private Path lockfile() {
+        return tempDir.resolve("third_party/dependencies/pinned_catalog/catalog.json");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readLockfile() throws IOException {
+        return new Gson().fromJson(Files.readString(lockfile()), Map.class);
+    }
+
+    private void save(BazelDependenciesCatalog catalog) throws IOException {
+        catalog.save(
+            new TreeSet<>(List.of(SERVER)),
+            LOAD_SYMBOL,
+            getRecommendedPreamble(),
+            new NullProgressMonitor(),
+            new NoScmWritableFilesystem());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lockfile_contains_all_imports() throws IOException {
+        var catalog = new BazelDependenciesCatalog(tempDir);
+        catalog.load();
+        catalog.replaceContent(
+            Stream.of(
+                createForArtifact(new MavenArtifact("com.example", "example", "1.0.0", "jar", null))
+                        .setArtifactSha256("abc")
+                        .setSourcesArtifact(true)
+                        .setDeps(List.of("@org_other_other"))
+                        .setTestonly(true)
+                        .setExtraBuildFileContent("# \"quoted\"\n\tline")
+                        .build(),
+                createForArtifact(new MavenArtifact("org.other", "other", "2.0.0", "jar", "tests"))
+                        .setSourcesArtifact(true)
+                        .setNeverlink(true)
+                        .setTags(List.of("not_in_collection"))
+                        .build()),
+            false);
+
+        assertFalse(catalog.hasJsonLockfile());
+        save(catalog);
+        assertFalse(catalog.hasJsonLockfile(), "lockfile must not be written by default");
+
+        catalog.setJsonLockfileEnabled(true);
+        save(catalog);
+        assertTrue(catalog.hasJsonLockfile());
+
+        var lockfile = readLockfile();
+        assertEquals(1.0, lockfile.get("version"));
+        assertEquals(List.of(SERVER), lockfile.get("maven_servers"));
+
+        var imports = (List<Map<String, Object>>) lockfile.get("imports");
+        assertEquals(2, imports.size());
+
+        var example = imports.get(0);
+        assertEquals("com_example_example", example.get("name"));
+        assertEquals("com.example:example:jar:1.0.0", example.get("artifact"));
+        assertEquals("abc", example.get("artifact_sha256"));
+        assertEquals(List.of("@org_other_other"), example.get("deps"));
+        assertEquals(true, example.get("testonly_"));
+        assertEquals(true, example.get("fetch_sources"));
+        assertEquals("# \"quoted\"\n\tline", example.get("extra_build_file_content"));
+        assertFalse(example.containsKey("neverlink"));
+
+        var other = imports.get(1);
+        assertEquals(true, other.get("neverlink"));
+        assertEquals(List.of("not_in_collection"), other.get("tags"));
+        assertEquals("org/other/other/2.0.0/other-2.0.0-test-sources.jar", other.get("srcjar_path"));
+        assertFalse(other.containsKey("fetch_sources"));
+    }
+
+    @Test
+    void existing_lockfile_is_updated() throws IOException {
+        var catalog = new BazelDependenciesCatalog(tempDir);
+        catalog.load();
+        catalog.replaceContent(
+            Stream.of(createForArtifact(new MavenArtifact("com.example", "example", "1.0.0", "jar", null)).build()),
+            false);
+        catalog.setJsonLockfileEnabled(true);
+        save(catalog);
+
+        // a freshly loaded catalog does not enable the lockfile but keeps it up to date
+        catalog = new BazelDependenciesCatalog(tempDir);
+        catalog.load();
+        assertTrue(catalog.hasJsonLockfile());
+        catalog.replaceContent(
+            Stream.of(createForArtifact(new MavenArtifact("com.example", "example", "2.0.0", "jar", null)).build()),
+            false);
+        save(catalog);
+
+        assertTrue(Files.readString(lockfile()).contains("\"com.example:example:jar:2.0.0\""));
+    }
+}
@@ -0,0 +1,138 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog.getRecommendedPreamble;
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class BazelDependenciesCatalogDirtyTrackingTest {
+
+    /**
+     * Records the names of all files passed to {@link #writeFile(Path, CharSequence, Charset)}
+     */
+    private static final class RecordingScmSupport implements ScmSupport {
+
+        private final ScmSupport delegate = new NoScmWritableFilesystem();
+        final SortedSet<String> writtenFiles = new TreeSet<>();
+
+        @Override
+        public boolean removeFile(Path obsoletePath) throws IOException {
+            return delegate.removeFile(obsoletePath);
+        }
+
+        @Override
+        public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+            writtenFiles.add(path.getFileName().toString());
+            return delegate.writeFile(path, content, charset);
+        }
+    }
+
+    private static final String LOAD_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+
+    private static Stream<BazelJavaDependencyImport> imports(String exampleVersion, String... additionalGroupIds) {
+        var imports = Stream.<BazelJavaDependencyImport> builder();
+        imports.add(createForArtifact(new MavenArtifact("com.example", "example", exampleVersion, "jar", null)).build());
+        imports.add(createForArtifact(new MavenArtifact("org.other", "other", "2.0.0", "jar", null)).build());
+        for (String groupId : additionalGroupIds) {
+            imports.add(createForArtifact(new MavenArtifact(groupId, "additional", "3.0.0", "jar", null)).build());
+        }
+        return imports.build();
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private BazelDependenciesCatalog loadCatalog() throws IOException {
+        var catalog = new BazelDependenciesCatalog(tempDir);
+        catalog.load();
+        return catalog;
+    }
+
+    private SortedSet<String> save(BazelDependenciesCatalog catalog, String preamble) throws IOException {
+        var scmSupport = new RecordingScmSupport();
+        catalog.save(Collections.emptySortedSet(), LOAD_SYMBOL, preamble, new NullProgressMonitor(), scmSupport);
+        return scmSupport.writtenFiles;
+    }
+
+    @BeforeEach
+    void createCatalog() throws IOException {
+        var catalog = loadCatalog();
+        catalog.replaceContent(imports("1.0.0"), false);
+        save(catalog, getRecommendedPreamble());
+    }
+
+    @Test
+    void changed_preamble_writes_all_files() throws IOException {
+        var catalog = loadCatalog();
+        catalog.replaceContent(imports("1.0.0"), false);
+
+        var writtenFiles = save(catalog, getRecommendedPreamble("# another preamble"));
+
+        assertEquals(Set.of("com_example.bzl", "org_other.bzl", "index.bzl", "extension.bzl"), writtenFiles);
+    }
+
+    @Test
+    void force_repairs_files_edited_by_hand() throws IOException {
+        var groupFile = tempDir.resolve("third_party/dependencies/pinned_catalog/org_other.bzl");
+        var expectedContent = Files.readString(groupFile);
+        Files.writeString(groupFile, expectedContent + "# edited by hand\n");
+
+        var catalog = loadCatalog();
+        catalog.replaceContent(imports("1.0.0"), false);
+        catalog.markAllGroupsDirty();
+
+        var writtenFiles = save(catalog, getRecommendedPreamble());
+
+        // com_example.bzl is rendered but unchanged
+        assertEquals(Set.of("org_other.bzl", "index.bzl", "extension.bzl"), writtenFiles);
+        assertEquals(expectedContent, Files.readString(groupFile));
+    }
+
+    @Test
+    void new_group_writes_group_and_index_files() throws IOException {
+        var catalog = loadCatalog();
+        catalog.replaceContent(imports("1.0.0", "net.additional"), false);
+
+        var writtenFiles = save(catalog, getRecommendedPreamble());
+
+        assertEquals(Set.of("net_additional.bzl", "index.bzl", "extension.bzl"), writtenFiles);
+        assertTrue(
+            Files.readString(tempDir.resolve("third_party/dependencies/pinned_catalog/index.bzl"))
+                    .contains("net_additional"));
+    }
+
+    @Test
+    void version_update_writes_only_modified_group() throws IOException {
+        var catalog = loadCatalog();
+        catalog.replaceContent(imports("1.0.1"), false);
+
+        var writtenFiles = save(catalog, getRecommendedPreamble());
+
+        assertEquals(Set.of("com_example.bzl"), writtenFiles);
+        assertTrue(
+            Files.readString(tempDir.resolve("third_party/dependencies/pinned_catalog/com_example.bzl"))
+                    .contains("1.0.1"));
+
+        // nothing to write when saving again
+        assertEquals(Set.of(), save(catalog, getRecommendedPreamble()));
+    }
+}
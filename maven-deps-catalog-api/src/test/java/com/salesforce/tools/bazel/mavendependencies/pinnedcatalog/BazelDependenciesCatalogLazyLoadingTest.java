@@ -0,0 +1,119 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog.getRecommendedPreamble;
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.helper.NoScmWritableFilesystem;
+
+public class BazelDependenciesCatalogLazyLoadingTest {
+
+    private static final String LOAD_SYMBOL = "@bazel_maven_deps//bazel:jvm.bzl";
+
+    private static Stream<BazelJavaDependencyImport> imports(String exampleVersion) {
+        return Stream.of(
+            createForArtifact(new MavenArtifact("com.example", "example", exampleVersion, "jar", null)).build(),
+            createForArtifact(new MavenArtifact("org.other", "other", "2.0.0", "jar", null)).build());
+    }
+
+    @TempDir
+    Path workspace;
+
+    @TempDir
+    Path cacheDir;
+
+    private Path indexFile;
+
+    private BazelDependenciesCatalog loadLazily() throws IOException {
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.loadLazily(indexFile);
+        return catalog;
+    }
+
+    private void save(BazelDependenciesCatalog catalog) throws IOException {
+        catalog.save(
+            Collections.emptySortedSet(),
+            LOAD_SYMBOL,
+            getRecommendedPreamble(),
+            new NullProgressMonitor(),
+            new NoScmWritableFilesystem());
+    }
+
+    @BeforeEach
+    void createCatalog() throws IOException {
+        indexFile = cacheDir.resolve("pinned-catalog.idx");
+
+        var catalog = new BazelDependenciesCatalog(workspace);
+        catalog.load();
+        catalog.replaceContent(imports("1.0.0"), false);
+        save(catalog);
+    }
+
+    @Test
+    void full_load_for_global_operations() throws IOException {
+        var catalog = loadLazily();
+        assertFalse(catalog.isCompletelyLoaded());
+        assertNotNull(catalog.findImportByTargetName("org_other_other"));
+        assertTrue(catalog.isCompletelyLoaded());
+        assertEquals(2, catalog.getAllImports().count());
+
+        // the import index is written after the full load
+        assertTrue(Files.isRegularFile(indexFile));
+    }
+
+    @Test
+    void lookup_by_coordinates_only_loads_its_group() throws IOException {
+        // a broken file in another group must not be read
+        Files.writeString(catalogFile("org_other"), "broken(");
+
+        var catalog = loadLazily();
+        var javaImport = catalog.findImportByCoordinatesWithoutVersion("com.example:example:jar");
+        assertNotNull(javaImport);
+        assertEquals("1.0.0", javaImport.getArtifact().getVersion());
+        assertNull(catalog.findImportByCoordinatesWithoutVersion("com.example:unknown:jar"));
+        assertNull(catalog.findImportByCoordinatesWithoutVersion("net.unknown:unknown:jar"));
+        assertFalse(catalog.isCompletelyLoaded());
+    }
+
+    @Test
+    void replace_content_and_save_after_lazy_load() throws IOException {
+        var catalog = loadLazily();
+        assertNotNull(catalog.findImportByCoordinatesWithoutVersion("com.example:example:jar"));
+
+        var delta = catalog.replaceContent(imports("1.0.1"), false);
+        assertTrue(catalog.isCompletelyLoaded());
+        assertEquals(1, delta.modifications.size());
+        save(catalog);
+
+        var reloaded = new BazelDependenciesCatalog(workspace);
+        reloaded.load();
+        assertEquals(
+            Set.of("com.example:example:jar:1.0.1", "org.other:other:jar:2.0.0"),
+            reloaded.getAllImports()
+                    .map(i -> i.getArtifact().toCoordinatesString())
+                    .collect(Collectors.toSet()));
+        assertTrue(Files.readString(catalogFile("index")).contains("org_other"));
+    }
+
+    private Path catalogFile(String name) {
+        return workspace.resolve("third_party/dependencies/pinned_catalog").resolve(name + ".bzl");
+    }
+}
@@ -0,0 +1,112 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImportDiff.Field;
+
+public class BazelJavaDependencyImportTest {
+
+    private static final MavenArtifact EXAMPLE = new MavenArtifact("com.example", "example", "1.0.0", "jar", null);
+
+    private static final String SHA256 = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Test
+    void checksums_are_returned_as_given() {
+        for (String checksum : List.of(SHA256, "0123456789ABCDEF", "abc", "not hex", "")) {
+            var dependencyImport = createForArtifact(EXAMPLE).setArtifactSha256(checksum)
+                    .setSourcesArtifact(true)
+                    .setSourcesArtifactSha1(checksum)
+                    .build();
+            assertEquals(checksum, dependencyImport.getArtifactSha256());
+            assertEquals(checksum, dependencyImport.getSourcesArtifactSha1());
+            assertEquals(
+                dependencyImport,
+                createForArtifact(EXAMPLE).setArtifactSha256(new String(checksum.toCharArray()))
+                        .setSourcesArtifact(true)
+                        .setSourcesArtifactSha1(checksum)
+                        .build());
+        }
+
+        var withoutChecksum = createForArtifact(EXAMPLE).build();
+        assertNull(withoutChecksum.getArtifactSha1());
+        assertNull(withoutChecksum.getSourcesArtifactSha256());
+    }
+
+    @Test
+    void different_checksums_are_detected() {
+        var first = createForArtifact(EXAMPLE).setArtifactSha256(SHA256).build();
+        var second = createForArtifact(EXAMPLE).setArtifactSha256(SHA256.replace('f', 'e')).build();
+
+        assertTrue(!first.equals(second));
+        assertEquals(List.of("artifact_sha256"), List.copyOf(first.diff(second, false)));
+        assertEquals(first, createForArtifact(EXAMPLE).setArtifactSha256(new String(SHA256.toCharArray())).build());
+        assertEquals(first.hashCode(), createForArtifact(EXAMPLE).setArtifactSha256(SHA256).build().hashCode());
+    }
+
+    @Test
+    void sets_are_immutable_and_shared() {
+        var first = createForArtifact(EXAMPLE).setDeps(List.of("@b", "@a")).setTags(List.of("x")).build();
+        var second = createForArtifact(EXAMPLE).setDeps(List.of("@a", "@b", "@a")).setTags(List.of("x")).build();
+
+        assertEquals(new TreeSet<>(List.of("@a", "@b")), first.getDeps());
+        assertSame(first.getDeps(), second.getDeps());
+        assertSame(first.getName(), second.getName());
+        assertThrows(UnsupportedOperationException.class, () -> first.getDeps().add("@c"));
+
+        var empty = createForArtifact(EXAMPLE).setDeps(List.of()).build();
+        assertNull(empty.getDeps());
+        assertEquals(empty, createForArtifact(EXAMPLE).build());
+    }
+
+    @Test
+    void sources_artifact_is_derived_from_artifact() {
+        var withSources = createForArtifact(EXAMPLE).setSourcesArtifact(true).build();
+        assertEquals(EXAMPLE.toSourcesArtifact(), withSources.getSourcesArtifact());
+        assertNull(createForArtifact(EXAMPLE).build().getSourcesArtifact());
+        assertEquals(List.of("sources_artifact"), List.copyOf(withSources.diff(createForArtifact(EXAMPLE).build(), false)));
+    }
+
+    @Test
+    void typed_diff_matches_descriptions() {
+        var first = createForArtifact(EXAMPLE).setArtifactSha256(SHA256).setDeps(List.of("@a")).build();
+        var second = createForArtifact(new MavenArtifact("com.example", "example", "2.0.0", "jar", null))
+                .setArtifactSha256(SHA256)
+                .setDeps(List.of("@a", "@b"))
+                .setTestonly(true)
+                .build();
+
+        var diff = first.diffFields(second);
+        assertEquals(EnumSet.of(Field.ARTIFACT, Field.DEPS, Field.TESTONLY), diff.getFields());
+        assertEquals(first.diff(second, false), diff.toDescriptions(false));
+        assertEquals(first.diff(second, true), diff.toDescriptions(true));
+        assertTrue(diff.toDescriptions(true).contains("testonly: false <> true"));
+    }
+
+    @Test
+    void same_content_is_detected_by_fingerprint() {
+        var first = createForArtifact(EXAMPLE).setArtifactSha256(SHA256).setDeps(List.of("@a", "@b")).build();
+        var copy = createForArtifact(EXAMPLE).setArtifactSha256(new String(SHA256.toCharArray()))
+                .setDeps(List.of("@b", "@a"))
+                .build();
+        var other = createForArtifact(EXAMPLE).setArtifactSha256(SHA256).setDeps(List.of("@a")).build();
+
+        assertEquals(first.getFingerprint(), copy.getFingerprint());
+        assertTrue(first.hasSameContent(copy));
+        assertTrue(first.diffFields(copy).isEmpty());
+        assertFalse(first.hasSameContent(other));
+        assertEquals(EnumSet.of(Field.DEPS), first.diffFields(other).getFields());
+    }
+}
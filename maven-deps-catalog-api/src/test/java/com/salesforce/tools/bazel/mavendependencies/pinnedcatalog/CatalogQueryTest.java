@@ -0,0 +1,98 @@
+package com.salesforce.tools.bazel.mavendependencies.pinnedcatalog;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createWithNameAndArtifact;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+
+public class CatalogQueryTest {
+
+    private static BazelJavaDependencyImport.BazelJavaDependencyImportBuilder create(String name) {
+        return createWithNameAndArtifact(name, new MavenArtifact("com.example", name.replace('_', '-'), "1.0", "jar", null));
+    }
+
+    private static List<String> names(List<BazelJavaDependencyImport> imports) {
+        return imports.stream().map(BazelJavaDependencyImport::getName).collect(toList());
+    }
+
+    // app -> lib_a -> core <- lib_b (runtime) <- app, lib_b exports api, test_util (testonly) -> app
+    private final CatalogQuery query = new CatalogQuery(
+            new CatalogDependencyGraph(
+                    List.of(
+                        create("app").setDeps(List.of("@lib_a")).setRuntimeDeps(List.of("@lib_b//:jar")).build(),
+                        create("lib_a").setDeps(List.of("@core", ":local_target", "@unknown")).build(),
+                        create("lib_b").setRuntimeDeps(List.of("@core")).setExports(List.of("@api")).build(),
+                        create("core").setTags(List.of(BazelJavaDependencyImport.TAG_NOT_IN_COLLECTION)).build(),
+                        create("api").setNeverlink(true).build(),
+                        create("test_util").setDeps(List.of("@app")).setTestonly(true).build())));
+
+    private List<String> evaluate(String expression) {
+        return names(query.evaluate(expression));
+    }
+
+    @Test
+    void filters_and_set_operations() {
+        assertEquals(List.of("core"), evaluate("tagged(not_in_collection, all)"));
+        assertEquals(List.of("test_util"), evaluate("testonly(all)"));
+        assertEquals(List.of("api"), evaluate("neverlink(deps(app))"));
+        assertEquals(List.of("app", "lib_a"), evaluate("deps(app, 1) - (lib_b + neverlink(all))"));
+        assertEquals(List.of("core", "lib_a"), evaluate("deps(lib_a) ^ rdeps(core, 1)"));
+        assertEquals(List.of("core"), evaluate("com.example:core:1.0"));
+        assertEquals(List.of("core"), evaluate("@core//:jar"));
+    }
+
+    @Test
+    void coordinates_match_the_classifier() {
+        var query = new CatalogQuery(
+                new CatalogDependencyGraph(
+                        List.of(
+                            create("core").build(),
+                            createWithNameAndArtifact(
+                                "core_sources",
+                                new MavenArtifact("com.example", "core", "1.0", "jar", "sources")).build(),
+                            createWithNameAndArtifact(
+                                "natives_linux",
+                                new MavenArtifact("com.example", "natives", "1.0", "jar", "linux")).build())));
+
+        assertEquals(List.of("core"), names(query.evaluate("com.example:core")));
+        assertEquals(List.of("core"), names(query.evaluate("com.example:core:jar:1.0")));
+        assertEquals(List.of("core_sources"), names(query.evaluate("com.example:core:jar:sources")));
+        assertEquals(List.of("core_sources"), names(query.evaluate("com.example:core:jar:sources:1.0")));
+        assertEquals(List.of("natives_linux"), names(query.evaluate("com.example:natives:jar:linux")));
+
+        var e = assertThrows(IllegalArgumentException.class, () -> query.evaluate("com.example:core:jar:javadoc"));
+        assertTrue(e.getMessage().contains("No import found for 'com.example:core:jar:javadoc'"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("com.example:core:jar:javadoc:1.0"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("com.example:natives"));
+    }
+
+    @Test
+    void invalid_queries_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("foo(app)"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("deps(app"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("deps(app, -1)"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("somepath(app)"));
+        assertThrows(IllegalArgumentException.class, () -> query.evaluate("app lib_a"));
+    }
+
+    @Test
+    void traversals() {
+        assertEquals(List.of("api", "app", "core", "lib_a", "lib_b"), evaluate("deps(app)"));
+        assertEquals(List.of("app", "lib_a", "lib_b"), evaluate("deps(@app, 1)"));
+        assertEquals(List.of("app"), evaluate("deps(app, 0)"));
+        assertEquals(List.of("app", "core", "lib_a", "lib_b", "test_util"), evaluate("rdeps(core)"));
+        assertEquals(List.of("core", "lib_a", "lib_b"), evaluate("rdeps(core, 1)"));
+        assertEquals(List.of("test_util", "app", "lib_a", "core"), evaluate("somepath(test_util, core)"));
+        assertEquals(List.of(), evaluate("somepath(core, app)"));
+        assertEquals(List.of("app", "core", "lib_a", "lib_b", "test_util"), evaluate("allpaths(test_util, core)"));
+        assertEquals(List.of("api", "app", "lib_b"), evaluate("allpaths(app, api)"));
+    }
+}
@@ -86,32 +86,7 @@ public abstract class BaseCommand implements Callable<Integer> {
      */
     public static void execute(CommandLine configuredCommandLine, String[] args) {
         try {
-            final var exitCode = configuredCommandLine.setExecutionExceptionHandler((ex, commandLine, parseResult) -> {
-                Exception cause;
-                if (ex instanceof ExecutionException) {
-                    cause = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
-                } else {
-                    cause = ex;
-                }
-
-                final var err = commandLine.getErr();
-                err.println();
-                err.println(commandLine.getColorScheme().text("***********************************"));
-                err.println(commandLine.getColorScheme().text("* @|bold ERROR: Command execution failed|@ *"));
-                err.println(commandLine.getColorScheme().text("***********************************"));
-                err.println();
-                if (cause.getMessage() != null) {
-                    err.println(commandLine.getColorScheme().errorText(cause.getMessage()));
-                }
-                err.flush();
-                if (shouldAlwaysPrintDetails(cause)
-                        || Stream.of(args).anyMatch(s -> "--verbose".equals(s) || "-v".equals(s))) {
-                    err.println();
-                    err.println("Details:");
-                    err.println(commandLine.getColorScheme().richStackTraceString(cause));
-                }
-                return -1;
-            }).execute(args);
+            final var exitCode = executeWithoutExit(configuredCommandLine, args);
             System.exit(exitCode);
         } catch (final Exception e) {
             System.err.println();
@@ -125,6 +100,48 @@ public abstract class BaseCommand implements Callable<Integer> {
         }
     }
 
+    /**
+     * Executes the specified command line the same way as {@link #execute(CommandLine, String[])} but returns the exit
+     * code instead of terminating the JVM.
+     * <p>
+     * This is intended for executing multiple commands within one long running JVM.
+     * </p>
+     *
+     * @param configuredCommandLine
+     *            a picocli command line
+     * @param args
+     *            the arguments
+     * @return the exit code
+     */
+    public static int executeWithoutExit(CommandLine configuredCommandLine, String[] args) {
+        return configuredCommandLine.setExecutionExceptionHandler((ex, commandLine, parseResult) -> {
+            Exception cause;
+            if (ex instanceof ExecutionException) {
+                cause = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+            } else {
+                cause = ex;
+            }
+
+            final var err = commandLine.getErr();
+            err.println();
+            err.println(commandLine.getColorScheme().text("***********************************"));
+            err.println(commandLine.getColorScheme().text("* @|bold ERROR: Command execution failed|@ *"));
+            err.println(commandLine.getColorScheme().text("***********************************"));
+            err.println();
+            if (cause.getMessage() != null) {
+                err.println(commandLine.getColorScheme().errorText(cause.getMessage()));
+            }
+            err.flush();
+            if (shouldAlwaysPrintDetails(cause)
+                    || Stream.of(args).anyMatch(s -> "--verbose".equals(s) || "-v".equals(s))) {
+                err.println();
+                err.println("Details:");
+                err.println(commandLine.getColorScheme().richStackTraceString(cause));
+            }
+            return -1;
+        }).execute(args);
+    }
+
     private static boolean shouldAlwaysPrintDetails(Exception cause) {
         if ((cause instanceof IllegalArgumentException) || (cause instanceof IllegalStateException)) {
             return (cause.getMessage() == null) || cause.getMessage().isBlank(); // only when message is empty
@@ -0,0 +1,52 @@
+package com.salesforce.tools.bazel.cli.helper;
+
+import static java.lang.String.format;
+
+/**
+ * Helper for writing JSON output without a JSON library.
+ */
+public final class JsonStrings {
+
+    /**
+     * Escapes a value for use within a JSON string literal.
+     *
+     * @param value
+     *            the value to escape
+     * @return the escaped value (without surrounding quotes)
+     */
+    public static String escape(String value) {
+        final var result = new StringBuilder(value.length() + 2);
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        result.append(format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                    break;
+            }
+        }
+        return result.toString();
+    }
+
+    private JsonStrings() {
+        // no instances
+    }
+}
@@ -1,5 +1,7 @@
 package com.salesforce.tools.bazel.cli.helper;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
@@ -9,11 +11,41 @@ import java.nio.file.Path;
  */
 public interface ScmSupport {
 
+    /**
+     * Starts a batch of SCM operations.
+     * <p>
+     * Within a batch an implementation may queue SCM operations (eg., adding, opening or deleting files) and execute
+     * them together in {@link #endBatch()}. Batches may be nested, queued operations are executed when the outermost
+     * batch ends. The default implementation does not batch anything.
+     * </p>
+     */
+    default void beginBatch() {
+        // no-op
+    }
+
+    /**
+     * Ends a batch of SCM operations started with {@link #beginBatch()}.
+     * <p>
+     * Must be called once for every call to {@link #beginBatch()}, typically in a <code>finally</code> block.
+     * </p>
+     *
+     * @throws IOException
+     *             in case executing queued operations failed
+     */
+    default void endBatch() throws IOException {
+        // no-op
+    }
+
     /**
      * Removes a file that is now obsolete.
      * <p>
      * In case removal is not possible the file content is replaced with an obsolete marker.
      * </p>
+     * <p>
+     * Within a batch the removal may only be queued. In this case <code>true</code> is returned and the file may still
+     * exist until the batch ends. If the file cannot be removed at the end of the batch, its content is replaced with
+     * the obsolete marker.
+     * </p>
      *
      * @param obsoletePath
      *            the file path
@@ -21,8 +53,30 @@ public interface ScmSupport {
      */
     boolean removeFile(Path obsoletePath) throws IOException;
 
+    /**
+     * Writes a file with UTF-8 encoded content already known to differ from the file on disk.
+     * <p>
+     * Used when the content was already encoded and compared with the existing file (eg., when rendering files in
+     * parallel) so implementations can write the bytes without encoding and comparing again. Otherwise the same as
+     * {@link #writeFile(Path, CharSequence, Charset)}. The default implementation decodes the content and delegates to
+     * it.
+     * </p>
+     *
+     * @param path
+     *            the file path
+     * @param content
+     *            the encoded content
+     * @return <code>true</code> if the file was updated
+     */
+    default boolean writeChangedFile(Path path, Utf8Buffer content) throws IOException {
+        return writeFile(path, content.decode(), UTF_8);
+    }
+
     /**
      * Writes a file, ensures it's writable and registered with SCM.
+     * <p>
+     * Within a batch, writing a file which must be opened for edit first may be deferred until the batch ends.
+     * </p>
      *
      * @param path
      *            the file path
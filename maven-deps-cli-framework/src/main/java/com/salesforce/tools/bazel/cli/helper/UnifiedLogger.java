@@ -15,18 +15,31 @@ public class UnifiedLogger {
 
     private static final Logger LOG = LoggerFactory.getLogger("com.salesforce.tools");
 
+    /**
+     * Resets the log level to the default (info), undoing {@link #enableDebugLogging()}.
+     * <p>
+     * Only needed by long running processes executing multiple commands.
+     * </p>
+     */
+    public static void disableDebugLogging() {
+        setLogLevel(LocationAwareLogger.INFO_INT);
+    }
+
     public static void enableDebugLogging() {
+        setLogLevel(LocationAwareLogger.DEBUG_INT);
+    }
+
+    public static Logger getLogger() {
+        return LOG;
+    }
+
+    private static void setLogLevel(int level) {
         try {
             final var field = LOG.getClass().getDeclaredField("currentLogLevel");
             field.setAccessible(true);
-            field.set(LOG, LocationAwareLogger.DEBUG_INT);
+            field.set(LOG, level);
         } catch (IllegalArgumentException | IllegalAccessException | NoSuchFieldException | SecurityException e) {
             LOG.warn("Unable to configure verbose logging. {}", e.getMessage(), e);
         }
     }
-
-    public static Logger getLogger() {
-        return LOG;
-    }
-
 }
@@ -0,0 +1,178 @@
+package com.salesforce.tools.bazel.cli.helper;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A buffer holding the UTF-8 encoding of generated file content.
+ * <p>
+ * Generated files are large and almost entirely ASCII. The buffer is sized from the number of characters upfront and
+ * ASCII characters are copied without going through a {@link java.nio.charset.CharsetEncoder}. The encoded bytes can be
+ * compared with an existing file without decoding it and written to disk directly, i.e. content is encoded once per
+ * file (see {@link ScmSupport#writeChangedFile(java.nio.file.Path, Utf8Buffer)}).
+ * </p>
+ * <p>
+ * Unpaired surrogates are encoded as <code>?</code> (same as {@link String#getBytes(java.nio.charset.Charset)}).
+ * </p>
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class Utf8Buffer {
+
+    /** size of the chunks read when comparing with a file */
+    private static final int READ_CHUNK_SIZE = 65536;
+
+    private byte[] bytes = new byte[0];
+    private int length;
+
+    /**
+     * Replaces the content of this buffer with the UTF-8 encoding of the given characters.
+     *
+     * @param content
+     *            the characters to encode
+     * @return this buffer for convenience
+     */
+    public Utf8Buffer encode(CharSequence content) {
+        final var n = content.length();
+        ensureCapacity(n);
+
+        // fast path for leading ASCII (which usually is the whole content)
+        var b = bytes;
+        var pos = 0;
+        var i = 0;
+        for (; i < n; i++) {
+            final var c = content.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            b[pos++] = (byte) c;
+        }
+
+        if (i < n) {
+            // at most three bytes per remaining char (four bytes only for surrogate pairs)
+            length = pos;
+            ensureCapacity(pos + (3 * (n - i)));
+            b = bytes;
+            for (; i < n; i++) {
+                final var c = content.charAt(i);
+                if (c < 0x80) {
+                    b[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    b[pos++] = (byte) (0xc0 | (c >> 6));
+                    b[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && ((i + 1) < n)
+                            && Character.isLowSurrogate(content.charAt(i + 1))) {
+                        final var codePoint = Character.toCodePoint(c, content.charAt(++i));
+                        b[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                        b[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                        b[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                        b[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+                    } else {
+                        b[pos++] = '?';
+                    }
+                } else {
+                    b[pos++] = (byte) (0xe0 | (c >> 12));
+                    b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    b[pos++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        length = pos;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (bytes.length < capacity) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    /**
+     * Compares the content of this buffer with a file without decoding the file.
+     *
+     * @param file
+     *            the file
+     * @return <code>true</code> if the file exists and has exactly the bytes of this buffer, <code>false</code>
+     *         otherwise
+     * @throws IOException
+     *             in case of errors reading the file
+     */
+    public boolean contentEquals(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            if (channel.size() != length) {
+                return false;
+            }
+
+            final var readBuffer = new byte[Math.max(1, Math.min(READ_CHUNK_SIZE, length))];
+            final var buffer = ByteBuffer.wrap(readBuffer);
+            var offset = 0;
+            while (offset < length) {
+                buffer.clear().limit(Math.min(readBuffer.length, length - offset));
+                final var read = channel.read(buffer);
+                if (read < 0) {
+                    return false; // file truncated concurrently
+                }
+                if (!Arrays.equals(bytes, offset, offset + read, readBuffer, 0, read)) {
+                    return false;
+                }
+                offset += read;
+            }
+
+            // the file must not have grown in the meantime
+            return channel.read(buffer.clear().limit(1)) < 0;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the content of this buffer decoded as a string
+     */
+    public String decode() {
+        return new String(bytes, 0, length, UTF_8);
+    }
+
+    /**
+     * @return the number of bytes in this buffer
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return a copy of the bytes in this buffer
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Writes the content of this buffer into a file (creating or truncating the file).
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             in case of errors writing the file
+     */
+    public void writeTo(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            final var buffer = ByteBuffer.wrap(bytes, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
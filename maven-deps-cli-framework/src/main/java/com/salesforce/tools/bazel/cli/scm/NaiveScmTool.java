@@ -1,16 +1,20 @@
 package com.salesforce.tools.bazel.cli.scm;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.isDirectory;
 import static java.nio.file.Files.isWritable;
 import static java.nio.file.Files.move;
 import static java.nio.file.Files.readString;
+import static java.nio.file.Files.write;
 import static java.nio.file.Files.writeString;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.lang.ProcessBuilder.Redirect;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -18,20 +22,71 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 import org.slf4j.Logger;
 
+import com.google.common.collect.Lists;
 import com.salesforce.tools.bazel.cli.helper.ScmSupport;
 import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.cli.helper.Utf8Buffer;
 
 /**
  * A naive implementation of {@link ScmSupport} which includes some rudimentary file tracking.
  */
 public class NaiveScmTool implements ScmSupport {
 
+    static final class Git extends NaiveScmTool {
+        @Override
+        protected void add(List<Path> paths) throws IOException {
+            runGitCommandWithPaths(paths, "add", "--");
+        }
+
+        @Override
+        protected void add(Path path) throws IOException {
+            runProcess(path.getParent(), "git", "add", path.toString());
+        }
+
+        @Override
+        protected boolean delete(Path obsoletePath) throws IOException {
+            runProcess(obsoletePath.getParent(), "git", "rm", "-f", obsoletePath.toString());
+            return !exists(obsoletePath);
+        }
+
+        @Override
+        protected void delete(List<Path> obsoletePaths) throws IOException {
+            // without --ignore-unmatch a single untracked file fails the whole chunk
+            final var failedPaths = runGitCommandWithPaths(obsoletePaths, "rm", "-f", "--ignore-unmatch", "--");
+            for (Path obsoletePath : failedPaths) {
+                if (exists(obsoletePath)) {
+                    delete(obsoletePath);
+                }
+            }
+        }
+
+        /**
+         * @return paths of all chunks for which git failed
+         */
+        private List<Path> runGitCommandWithPaths(List<Path> paths, String... args) throws IOException {
+            final List<Path> failedPaths = new ArrayList<>();
+            // git accepts absolute paths from any directory within the working tree
+            for (List<Path> chunk : Lists.partition(paths, MAX_PATHS_PER_COMMAND)) {
+                final List<String> command = new ArrayList<>();
+                command.add("git");
+                Collections.addAll(command, args);
+                chunk.stream().map(Path::toString).forEach(command::add);
+                if (runProcess(chunk.get(0).getParent(), command) != 0) {
+                    failedPaths.addAll(chunk);
+                }
+            }
+            return failedPaths;
+        }
+    }
+
     static final class Perforce extends NaiveScmTool {
 
         final String clientSpec;
@@ -42,6 +97,11 @@ public class NaiveScmTool implements ScmSupport {
             this.changeList = changeList;
         }
 
+        @Override
+        protected void add(List<Path> paths) throws IOException {
+            runP4CommandWithFileList("add", paths);
+        }
+
         @Override
         protected void add(Path path) throws IOException {
             runP4Command("add", path);
@@ -50,7 +110,17 @@ public class NaiveScmTool implements ScmSupport {
         @Override
         protected boolean delete(Path obsoletePath) throws IOException {
             runP4Command("delete", obsoletePath);
-            return exists(obsoletePath);
+            return !exists(obsoletePath);
+        }
+
+        @Override
+        protected void delete(List<Path> obsoletePaths) throws IOException {
+            runP4CommandWithFileList("delete", obsoletePaths);
+        }
+
+        @Override
+        protected void makeWritable(List<Path> paths) throws IOException {
+            runP4CommandWithFileList("edit", paths.stream().filter(p -> !isWritable(p)).collect(toList()));
         }
 
         @Override
@@ -73,6 +143,24 @@ public class NaiveScmTool implements ScmSupport {
                 String subcommand,
                 Path workingDir,
                 List<String> additionalArgs) throws IOException {
+            runProcess(workingDir, p4CommandLine(subcommand, false, additionalArgs));
+        }
+
+        /**
+         * Runs a single p4 command for all paths (passed via <code>-x -</code> on stdin)
+         */
+        protected void runP4CommandWithFileList(String subcommand, List<Path> paths) throws IOException {
+            if (paths.isEmpty()) {
+                return;
+            }
+
+            runProcess(
+                paths.get(0).getParent(),
+                p4CommandLine(subcommand, true, List.of()),
+                paths.stream().map(Path::toString).collect(toList()));
+        }
+
+        private List<String> p4CommandLine(String subcommand, boolean fileListOnStdin, List<String> additionalArgs) {
             final List<String> commandLine = new ArrayList<>();
 
             commandLine.add("p4");
@@ -80,6 +168,10 @@ public class NaiveScmTool implements ScmSupport {
                 commandLine.add("-c");
                 commandLine.add(clientSpec);
             }
+            if (fileListOnStdin) {
+                commandLine.add("-x");
+                commandLine.add("-");
+            }
 
             commandLine.add(subcommand);
 
@@ -89,29 +181,36 @@ public class NaiveScmTool implements ScmSupport {
             }
 
             commandLine.addAll(additionalArgs);
+            return commandLine;
+        }
+    }
 
-            runProcess(workingDir, commandLine);
+    /**
+     * Content of a file to be written at the end of a batch
+     */
+    private static final class PendingWrite {
+
+        final byte[] content;
+
+        PendingWrite(byte[] content) {
+            this.content = content;
         }
     }
 
     private static final Logger LOG = UnifiedLogger.getLogger();
 
-    static final NaiveScmTool noop = new NaiveScmTool();
-    static final NaiveScmTool p4 = new Perforce(null, null);
-    static final NaiveScmTool git = new NaiveScmTool() {
-        @Override
-        protected void add(Path path) throws IOException {
-            runProcess(path.getParent(), "git", "add", path.toString());
-        }
+    /** maximum number of paths passed on a single command line */
+    private static final int MAX_PATHS_PER_COMMAND = 200;
 
-        @Override
-        protected boolean delete(Path obsoletePath) throws IOException {
-            runProcess(obsoletePath.getParent(), "git", "rm", "-f", obsoletePath.toString());
-            return exists(obsoletePath);
-        }
-    };
 
-    static void runProcess(Path directory, List<String> command) throws IOException {
+    static int runProcess(Path directory, List<String> command) throws IOException {
+        return runProcess(directory, command, null);
+    }
+
+    /**
+     * @return the exit code of the process (<code>-1</code> if interrupted)
+     */
+    static int runProcess(Path directory, List<String> command, List<String> inputLines) throws IOException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Running {} (in '{}'", command.stream().collect(joining(" ")), directory);
         }
@@ -123,36 +222,135 @@ public class NaiveScmTool implements ScmSupport {
         }
         processBuilder.redirectError(Redirect.INHERIT);
         final var process = processBuilder.start();
+        if (inputLines != null) {
+            try (var stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+                for (final String line : inputLines) {
+                    stdin.write(line);
+                    stdin.write('\n');
+                }
+            }
+        }
         try {
-            process.waitFor();
+            return process.waitFor();
         } catch (final InterruptedException e) {
             // ignore, just reset interrupt flag
             Thread.currentThread().interrupt();
+            return -1;
         }
     }
 
-    static void runProcess(Path directory, String... commandLine) throws IOException {
+    static int runProcess(Path directory, String... commandLine) throws IOException {
         final List<String> command = new ArrayList<>(commandLine.length);
         Collections.addAll(command, commandLine);
 
-        runProcess(directory, command);
+        return runProcess(directory, command);
     }
 
     private final SortedSet<Path> modifiedFiles = new TreeSet<>();
     private final SortedSet<Path> obsoleteFiles = new TreeSet<>();
 
-    private NaiveScmTool() {
+    private int batchDepth;
+    private final Map<Path, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private final List<Path> pendingAdds = new ArrayList<>();
+    private final List<Path> pendingDeletes = new ArrayList<>();
+
+    /**
+     * Creates a tool without SCM integration.
+     * <p>
+     * Instances track modified and obsolete files. Use a new instance for every command execution (see
+     * {@link NaiveScmToolConverter}).
+     * </p>
+     */
+    NaiveScmTool() {
         // empty
     }
 
+    /**
+     * Adds all files to SCM.
+     * <p>
+     * The default implementation calls {@link #add(Path)} for every file. Subclasses should override this to use a
+     * single SCM invocation.
+     * </p>
+     */
+    protected void add(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            add(path);
+        }
+    }
+
     protected void add(Path path) throws IOException {
         // no-op
     }
 
+    @Override
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * @return <code>true</code> if the file was deleted
+     */
     protected boolean delete(Path obsoletePath) throws IOException {
         return false; // no-op
     }
 
+    /**
+     * Deletes all files from SCM.
+     * <p>
+     * The default implementation calls {@link #delete(Path)} for every file. Subclasses should override this to use a
+     * single SCM invocation. Callers must check which files still exist afterwards.
+     * </p>
+     */
+    protected void delete(List<Path> obsoletePaths) throws IOException {
+        for (Path obsoletePath : obsoletePaths) {
+            delete(obsoletePath);
+        }
+    }
+
+    @Override
+    public void endBatch() throws IOException {
+        if (batchDepth <= 0) {
+            throw new IllegalStateException("endBatch called without beginBatch");
+        }
+        if (--batchDepth > 0) {
+            return;
+        }
+
+        // pending operations are only discarded once processed so a failure does not lose them (next batch retries)
+        if (!pendingWrites.isEmpty()) {
+            List<Path> writes = new ArrayList<>(pendingWrites.keySet());
+            makeWritable(writes);
+            for (Path path : writes) {
+                if (!isWritable(path)) {
+                    throw new IOException(
+                            format("Unable to make file '%s' writable. Please check SCM configuration!", path));
+                }
+                write(
+                    path,
+                    pendingWrites.get(path).content,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            pendingWrites.clear();
+        }
+
+        if (!pendingAdds.isEmpty()) {
+            add(new ArrayList<>(pendingAdds));
+            pendingAdds.clear();
+        }
+
+        if (!pendingDeletes.isEmpty()) {
+            List<Path> deletes = new ArrayList<>(pendingDeletes);
+            delete(deletes);
+            for (Path obsoletePath : deletes) {
+                if (exists(obsoletePath)) {
+                    markObsolete(obsoletePath);
+                }
+            }
+            pendingDeletes.clear();
+        }
+    }
+
     /**
      * @return the modifiedFiles
      */
@@ -167,12 +365,36 @@ public class NaiveScmTool implements ScmSupport {
         return obsoleteFiles;
     }
 
+    /**
+     * Makes all files writable.
+     * <p>
+     * The default implementation calls {@link #makeWritable(Path)} for every file. Subclasses should override this to
+     * use a single SCM invocation.
+     * </p>
+     */
+    protected void makeWritable(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            makeWritable(path);
+        }
+    }
+
     protected void makeWritable(Path path) throws IOException {
         if (!isWritable(path)) {
             throw new IOException(format("Cannot write to '%s'. Make the file writable!", path));
         }
     }
 
+    private void markObsolete(Path obsoletePath) throws IOException {
+        // ensure the content is removed
+        writeString(
+            obsoletePath,
+            "# obsolete (please delete)",
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        obsoleteFiles.add(obsoletePath);
+    }
+
     public void moveFile(Path from, Path to) throws IOException {
         move(from, to);
     }
@@ -180,35 +402,69 @@ public class NaiveScmTool implements ScmSupport {
     @Override
     public boolean removeFile(Path obsoletePath) throws IOException {
         if (exists(obsoletePath)) {
+            if (batchDepth > 0) {
+                pendingDeletes.add(obsoletePath);
+                return true; // file will be deleted (or marked obsolete) at end of batch
+            }
+
             if (delete(obsoletePath)) {
                 return true; // file was deleted
             }
 
-            // ensure the content is removed
-            writeString(
-                obsoletePath,
-                "# obsolete (please delete)",
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING);
-            obsoleteFiles.add(obsoletePath);
+            markObsolete(obsoletePath);
         }
         return false;
     }
 
-    @Override
-    public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+    private void checkAbsolute(Path path) {
         if (!path.isAbsolute()) {
             throw new IllegalArgumentException("path must be absolute: " + path);
         }
+    }
 
-        final var isNewFile = !exists(path);
-        if (!isNewFile) {
-            final var existingContent = readString(path, charset);
-            if (existingContent.equals(content)) {
+    @Override
+    public boolean writeChangedFile(Path path, Utf8Buffer content) throws IOException {
+        checkAbsolute(path);
+        return writeModifiedFile(path, content, null, UTF_8);
+    }
+
+    @Override
+    public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+        checkAbsolute(path);
+
+        // UTF-8 content is encoded once and compared/written as bytes (without decoding the existing file)
+        final var utf8 = UTF_8.equals(charset) ? new Utf8Buffer().encode(content) : null;
+
+        if (exists(path)) {
+            final var unchanged =
+                    utf8 != null ? utf8.contentEquals(path) : readString(path, charset).contentEquals(content);
+            if (unchanged) {
                 LOG.debug("File '{}' not modified", path);
                 return false;
             }
+        }
+
+        return writeModifiedFile(path, utf8, content, charset);
+    }
+
+    /**
+     * Writes content which differs from the file on disk.
+     *
+     * @param utf8
+     *            the UTF-8 encoded content (<code>null</code> to encode <code>content</code> using <code>charset</code>)
+     */
+    private boolean writeModifiedFile(Path path, Utf8Buffer utf8, CharSequence content, Charset charset)
+            throws IOException {
+        final var isNewFile = !exists(path);
+        if (!isNewFile) {
+            if ((batchDepth > 0) && !isWritable(path)) {
+                // open for edit together with all others at end of batch
+                pendingWrites.put(
+                    path,
+                    new PendingWrite(utf8 != null ? utf8.toByteArray() : content.toString().getBytes(charset)));
+                modifiedFiles.add(path);
+                return true;
+            }
 
             makeWritable(path);
 
@@ -222,10 +478,18 @@ public class NaiveScmTool implements ScmSupport {
             createDirectories(path.getParent());
         }
 
-        writeString(path, content, charset, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (utf8 != null) {
+            utf8.writeTo(path);
+        } else {
+            writeString(path, content, charset, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
 
         if (isNewFile) {
-            add(path);
+            if (batchDepth > 0) {
+                pendingAdds.add(path);
+            } else {
+                add(path);
+            }
         }
 
         modifiedFiles.add(path);
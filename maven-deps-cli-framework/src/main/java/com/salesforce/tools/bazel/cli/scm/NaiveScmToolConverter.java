@@ -4,25 +4,32 @@ import static java.lang.String.format;
 
 import picocli.CommandLine.ITypeConverter;
 
+/**
+ * Creates a new {@link NaiveScmTool} for every conversion.
+ * <p>
+ * Tools track the files modified by a command, so instances must not be shared across command executions (eg., in the
+ * daemon).
+ * </p>
+ */
 public class NaiveScmToolConverter implements ITypeConverter<NaiveScmTool> {
 
     @Override
     public NaiveScmTool convert(String value) throws Exception {
         if (value == null) {
-            return NaiveScmTool.noop;
+            return new NaiveScmTool();
         }
 
         switch (value) {
             case "p4":
             case "perforce":
-                return NaiveScmTool.p4;
+                return new NaiveScmTool.Perforce(null, null);
 
             case "git":
-                return NaiveScmTool.git;
+                return new NaiveScmTool.Git();
 
             case "noop":
             case "none":
-                return NaiveScmTool.noop;
+                return new NaiveScmTool();
 
             default:
                 if (value.startsWith("p4:")) {
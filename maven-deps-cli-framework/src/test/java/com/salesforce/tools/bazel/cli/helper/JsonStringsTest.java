@@ -0,0 +1,18 @@
+package com.salesforce.tools.bazel.cli.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonStringsTest {
+
+    @Test
+    public void escape_escapes_control_characters() throws Exception {
+        assertEquals("a\\\"b\\\\c\\nd\\u0001", JsonStrings.escape("a\"b\\c\nd\u0001"));
+    }
+
+    @Test
+    public void escape_keeps_other_characters() throws Exception {
+        assertEquals("com.example:lib:1.0 ä", JsonStrings.escape("com.example:lib:1.0 ä"));
+    }
+}
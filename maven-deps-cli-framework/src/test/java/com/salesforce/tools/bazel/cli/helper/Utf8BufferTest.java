@@ -0,0 +1,49 @@
+package com.salesforce.tools.bazel.cli.helper;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class Utf8BufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void contentEquals_compares_bytes_of_file() throws Exception {
+        var file = tempDir.resolve("file.bzl");
+        Files.writeString(file, "content = \"äöü\"\n", UTF_8);
+
+        var buffer = new Utf8Buffer();
+        assertTrue(buffer.encode(new StringBuilder("content = \"äöü\"\n")).contentEquals(file));
+        assertFalse(buffer.encode("content = \"aou\"\n").contentEquals(file));
+        assertFalse(buffer.encode("content = \"äöü\"\n\n").contentEquals(file));
+        assertFalse(buffer.encode("content").contentEquals(tempDir.resolve("missing.bzl")));
+    }
+
+    @Test
+    public void encode_matches_jdk_encoder() throws Exception {
+        var buffer = new Utf8Buffer();
+        for (String text : new String[] { "", "ascii only", "äöü ß", "€ 𝄞 end", "x".repeat(20000) + "€",
+                "unpaired \ud834 surrogate", "trailing \ud834" }) {
+            assertArrayEquals(text.getBytes(UTF_8), buffer.encode(text).toByteArray(), text);
+        }
+    }
+
+    @Test
+    public void writeTo_replaces_file() throws Exception {
+        var file = tempDir.resolve("file.bzl");
+        Files.writeString(file, "a much longer existing content", UTF_8);
+
+        new Utf8Buffer().encode("new € content").writeTo(file);
+
+        assertArrayEquals("new € content".getBytes(UTF_8), Files.readAllBytes(file));
+    }
+}
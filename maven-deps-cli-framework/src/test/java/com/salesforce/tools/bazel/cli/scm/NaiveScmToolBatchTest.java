@@ -0,0 +1,154 @@
+package com.salesforce.tools.bazel.cli.scm;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NaiveScmToolBatchTest {
+
+    private static String runGit(Path directory, String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        var process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+        var output = new String(process.getInputStream().readAllBytes(), UTF_8);
+        assertEquals(0, process.waitFor(), output);
+        return output;
+    }
+
+    private static boolean isGitAvailable(Path directory) {
+        try {
+            runGit(directory, "--version");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @TempDir
+    Path repository;
+
+    @Test
+    void end_without_begin_fails() {
+        assertThrows(IllegalStateException.class, () -> new NaiveScmTool().endBatch());
+    }
+
+    @Test
+    void git_batch_adds_and_removes_files_at_end() throws Exception {
+        assumeTrue(isGitAvailable(repository), "git not available");
+        runGit(repository, "init", "-q");
+
+        var obsoleteFile = repository.resolve("obsolete.bzl");
+        Files.writeString(obsoleteFile, "obsolete", UTF_8);
+        runGit(repository, "add", obsoleteFile.toString());
+
+        var tool = new NaiveScmTool.Git();
+        tool.beginBatch();
+        try {
+            tool.beginBatch();
+            try {
+                for (int i = 0; i < 5; i++) {
+                    assertTrue(tool.writeFile(repository.resolve("group" + i + ".bzl"), "content " + i, UTF_8));
+                }
+            } finally {
+                tool.endBatch();
+            }
+
+            // nested batch did not flush
+            assertTrue(runGit(repository, "status", "--porcelain", "--untracked-files=all").contains("?? group0.bzl"));
+
+            assertTrue(tool.removeFile(obsoleteFile));
+            assertTrue(Files.exists(obsoleteFile));
+        } finally {
+            tool.endBatch();
+        }
+
+        var status = runGit(repository, "status", "--porcelain", "--untracked-files=all");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(status.contains("A  group" + i + ".bzl"), status);
+        }
+        assertFalse(Files.exists(obsoleteFile));
+        assertFalse(tool.getObsoleteFiles().contains(obsoleteFile));
+    }
+
+    @Test
+    void git_batch_removes_tracked_files_together_with_untracked_files() throws Exception {
+        assumeTrue(isGitAvailable(repository), "git not available");
+        runGit(repository, "init", "-q");
+
+        var trackedFile = repository.resolve("tracked.bzl");
+        Files.writeString(trackedFile, "tracked", UTF_8);
+        runGit(repository, "add", trackedFile.toString());
+        var untrackedFile = repository.resolve("untracked.bzl");
+        Files.writeString(untrackedFile, "untracked", UTF_8);
+
+        var tool = new NaiveScmTool.Git();
+        tool.beginBatch();
+        try {
+            assertTrue(tool.removeFile(trackedFile));
+            assertTrue(tool.removeFile(untrackedFile));
+        } finally {
+            tool.endBatch();
+        }
+
+        assertFalse(Files.exists(trackedFile));
+        assertFalse(tool.getObsoleteFiles().contains(trackedFile));
+        assertEquals("# obsolete (please delete)", Files.readString(untrackedFile));
+        assertTrue(tool.getObsoleteFiles().contains(untrackedFile));
+    }
+
+    @Test
+    void failed_batch_keeps_pending_operations() throws Exception {
+        var readOnlyFile = repository.resolve("read-only.bzl");
+        Files.writeString(readOnlyFile, "old", UTF_8);
+        assumeTrue(readOnlyFile.toFile().setWritable(false));
+        assumeFalse(Files.isWritable(readOnlyFile), "file permissions are not enforced");
+        var obsoleteFile = repository.resolve("obsolete.bzl");
+        Files.writeString(obsoleteFile, "obsolete", UTF_8);
+
+        var tool = new NaiveScmTool();
+        tool.beginBatch();
+        assertTrue(tool.writeFile(readOnlyFile, "new", UTF_8));
+        assertTrue(tool.removeFile(obsoleteFile));
+        assertThrows(IOException.class, () -> tool.endBatch());
+        assertEquals("obsolete", Files.readString(obsoleteFile));
+
+        // the next batch processes the operations queued by the failed one
+        assertTrue(readOnlyFile.toFile().setWritable(true));
+        tool.beginBatch();
+        tool.endBatch();
+        assertEquals("new", Files.readString(readOnlyFile));
+        assertEquals("# obsolete (please delete)", Files.readString(obsoleteFile));
+    }
+
+    @Test
+    void noop_batch_marks_files_obsolete_at_end() throws IOException {
+        var obsoleteFile = repository.resolve("obsolete.bzl");
+        Files.writeString(obsoleteFile, "obsolete", UTF_8);
+
+        var tool = new NaiveScmTool();
+        tool.beginBatch();
+        try {
+            assertTrue(tool.removeFile(obsoleteFile));
+            assertEquals("obsolete", Files.readString(obsoleteFile));
+        } finally {
+            tool.endBatch();
+        }
+
+        assertEquals("# obsolete (please delete)", Files.readString(obsoleteFile));
+        assertTrue(tool.getObsoleteFiles().contains(obsoleteFile));
+    }
+}
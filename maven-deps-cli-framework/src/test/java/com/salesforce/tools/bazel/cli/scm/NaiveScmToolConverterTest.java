@@ -2,12 +2,26 @@ package com.salesforce.tools.bazel.cli.scm;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
 
 import com.salesforce.tools.bazel.cli.scm.NaiveScmTool.Perforce;
 
 public class NaiveScmToolConverterTest {
 
+    @Test
+    void newToolForEveryConversion() throws Exception {
+        var converter = new NaiveScmToolConverter();
+        for (String value : new String[] { "git", "p4", "none" }) {
+            var tool = converter.convert(value);
+            tool.getModifiedFiles().add(Path.of("modified"));
+
+            assertNotSame(tool, converter.convert(value));
+            assertTrue(converter.convert(value).getModifiedFiles().isEmpty());
+        }
+    }
+
     @Test
     void p4WithClientSpecAndChangelist() throws Exception {
         var tool = new NaiveScmToolConverter().convert("p4:server-whatever123:1323");
@@ -0,0 +1,138 @@
+package com.salesforce.tools.bazel.mavendependencies.benchmark;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup time of the CLI with and without the AppCDS archive.
+ * <p>
+ * Every command is launched in a fresh JVM (<code>&lt;command&gt; --help</code>) a number of times. The benchmark
+ * reports the median time until the first byte of output arrives (time-to-first-output) and until the process exits.
+ * </p>
+ * <p>
+ * The CLI is launched through the <code>//:cli_fast</code> launcher, i.e. with the same JVM and class path as users
+ * get. Without the archive, class data sharing is disabled completely (<code>-Xshare:off</code>). With the archive,
+ * it is required (<code>-Xshare:on</code>) so the benchmark fails instead of silently measuring a JVM which could not
+ * map the archive.
+ * </p>
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * bazel run //maven-deps-tool:startup_benchmark -- [iterations]
+ * </pre>
+ * </p>
+ */
+public class StartupBenchmark {
+
+    private static final class Sample {
+        final long firstOutputNanos;
+        final long totalNanos;
+
+        Sample(long firstOutputNanos, long totalNanos) {
+            this.firstOutputNanos = firstOutputNanos;
+            this.totalNanos = totalNanos;
+        }
+    }
+
+    private static final List<String> COMMANDS = List.of(
+        "get-version-variable",
+        "set-version-variable",
+        "add-dependency",
+        "print-dependency-catalog",
+        "pin-dependencies");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println(
+                "Usage: StartupBenchmark <cli launcher> <java> <cli deploy jar> <cds archive> [<iterations>]");
+            System.exit(1);
+        }
+
+        final var launcher = List.of(args[0], args[1], args[2]);
+        final var cdsArchive = Path.of(args[3]);
+        final var iterations = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        System.out.println(
+            format("%-28s %-8s %16s %16s", "command", "cds", "first output ms", "total ms"));
+        for (final String command : COMMANDS) {
+            report(command, "off", measure(launcher, null, command, iterations));
+            if (Files.isRegularFile(cdsArchive)) {
+                report(command, "on", measure(launcher, cdsArchive, command, iterations));
+            }
+        }
+    }
+
+    private static long median(long[] values) {
+        final var sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<Sample> measure(List<String> launcher, Path cdsArchive, String command, int iterations)
+            throws IOException, InterruptedException {
+        final List<String> commandLine = new ArrayList<>(launcher);
+        // the launcher only uses an existing archive
+        commandLine.add(cdsArchive != null ? cdsArchive.toString() : "");
+        commandLine.add(command);
+        commandLine.add("--help");
+        final var javaOpts = cdsArchive != null ? "-Xshare:on" : "-Xshare:off";
+
+        // one warm-up run to populate the OS file cache
+        run(commandLine, javaOpts);
+
+        final List<Sample> samples = new ArrayList<>(iterations);
+        for (var i = 0; i < iterations; i++) {
+            samples.add(run(commandLine, javaOpts));
+        }
+        return samples;
+    }
+
+    private static void report(String command, String cds, List<Sample> samples) {
+        final var firstOutput = samples.stream().mapToLong(s -> s.firstOutputNanos).toArray();
+        final var total = samples.stream().mapToLong(s -> s.totalNanos).toArray();
+        System.out.println(
+            format(
+                "%-28s %-8s %16d %16d",
+                command,
+                cds,
+                TimeUnit.NANOSECONDS.toMillis(median(firstOutput)),
+                TimeUnit.NANOSECONDS.toMillis(median(total))));
+    }
+
+    private static Sample run(List<String> commandLine, String javaOpts) throws IOException, InterruptedException {
+        final var processBuilder = new ProcessBuilder(commandLine).redirectErrorStream(true);
+        processBuilder.environment().put("JAVA_OPTS", javaOpts);
+        final var start = System.nanoTime();
+        final var process = processBuilder.start();
+        long firstOutput = -1;
+        try (InputStream in = process.getInputStream()) {
+            final var buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if ((firstOutput < 0) && (read > 0)) {
+                    firstOutput = System.nanoTime() - start;
+                }
+            }
+        }
+        final var exitCode = process.waitFor();
+        final var total = System.nanoTime() - start;
+        if (exitCode != 0) {
+            throw new IllegalStateException(
+                format(
+                    "Command '%s' (JAVA_OPTS=%s) failed with exit code %d",
+                    String.join(" ", commandLine),
+                    javaOpts,
+                    exitCode));
+        }
+        return new Sample(firstOutput < 0 ? total : firstOutput, total);
+    }
+}
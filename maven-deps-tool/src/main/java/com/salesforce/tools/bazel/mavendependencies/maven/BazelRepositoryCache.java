@@ -0,0 +1,148 @@
+package com.salesforce.tools.bazel.mavendependencies.maven;
+
+import static java.lang.String.format;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.isRegularFile;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The content addressable part of Bazel's repository cache (<code>--repository_cache</code>).
+ * <p>
+ * Bazel looks up downloads with a known SHA-256 checksum in
+ * <code>&lt;repository_cache&gt;/content_addressable/sha256/&lt;checksum&gt;/file</code> before downloading them.
+ * Files are only added after verifying their checksum. They are written to a temporary file first and then moved into
+ * place atomically, which makes adding files safe to run concurrently and to repeat.
+ * </p>
+ */
+public class BazelRepositoryCache {
+
+    /**
+     * The outcome of {@link BazelRepositoryCache#add(Path, String)}
+     */
+    public enum Outcome {
+        /** the file was added to the cache */
+        ADDED,
+        /** a file with the checksum was already present in the cache */
+        ALREADY_PRESENT,
+        /** the file does not exist */
+        MISSING,
+        /** the file does not match the expected checksum and was not added */
+        CHECKSUM_MISMATCH
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Message Digest SHA-256 not available.", e);
+        }
+
+        final var buffer = new byte[65536];
+        try (InputStream in = Files.newInputStream(file)) {
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        }
+
+        final var sb = new StringBuilder(64);
+        for (final byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private final Path contentAddressableDirectory;
+    private final boolean hardLinks;
+
+    /**
+     * @param repositoryCache
+     *            the repository cache directory (as printed by <code>bazel info repository_cache</code>)
+     * @param hardLinks
+     *            <code>true</code> to hard-link files into the cache if possible, <code>false</code> to always copy
+     */
+    public BazelRepositoryCache(Path repositoryCache, boolean hardLinks) {
+        contentAddressableDirectory =
+                requireNonNull(repositoryCache, "no repository cache given").resolve("content_addressable")
+                        .resolve("sha256");
+        this.hardLinks = hardLinks;
+    }
+
+    /**
+     * Adds a file to the cache.
+     *
+     * @param file
+     *            the file to add
+     * @param expectedSha256
+     *            the expected SHA-256 checksum of the file (hex encoded)
+     * @return the outcome
+     * @throws IOException
+     *             in case of errors reading the file or writing into the cache
+     */
+    public Outcome add(Path file, String expectedSha256) throws IOException {
+        final var checksum = requireNonNull(expectedSha256, "no checksum given").toLowerCase(Locale.ROOT);
+        if ((checksum.length() != 64) || !checksum.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException(format("Invalid SHA-256 checksum '%s' for '%s'", expectedSha256, file));
+        }
+
+        final var cacheEntry = getCacheEntry(checksum);
+        if (isRegularFile(cacheEntry)) {
+            return Outcome.ALREADY_PRESENT;
+        }
+        if (!isRegularFile(file)) {
+            return Outcome.MISSING;
+        }
+        if (!checksum.equals(sha256(file))) {
+            return Outcome.CHECKSUM_MISMATCH;
+        }
+
+        final var directory = createDirectories(cacheEntry.getParent());
+        final var temporaryFile =
+                directory.resolve(format("file.%d.tmp", ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE));
+        try {
+            if (!hardLinks || !tryCreateLink(temporaryFile, file)) {
+                Files.copy(file, temporaryFile);
+            }
+            try {
+                Files.move(temporaryFile, cacheEntry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, cacheEntry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        return Outcome.ADDED;
+    }
+
+    /**
+     * @param sha256
+     *            the SHA-256 checksum (lower case hex)
+     * @return the location of the cache entry for the checksum
+     */
+    public Path getCacheEntry(String sha256) {
+        return contentAddressableDirectory.resolve(sha256).resolve("file");
+    }
+
+    private boolean tryCreateLink(Path link, Path existing) throws IOException {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // eg., cache and Maven repository on different file systems
+            return false;
+        }
+    }
+}
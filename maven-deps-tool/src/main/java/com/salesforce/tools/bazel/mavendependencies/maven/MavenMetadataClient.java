@@ -0,0 +1,350 @@
+package com.salesforce.tools.bazel.mavendependencies.maven;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Fetches <code>maven-metadata.xml</code> of artifacts directly from remote repositories.
+ * <p>
+ * Responses are stored in a state directory together with their <code>ETag</code> and <code>Last-Modified</code>
+ * headers. Subsequent requests are conditional, i.e. repositories answer with <code>304 Not Modified</code> and the
+ * stored response is used when the metadata did not change. This keeps repeated runs cheap.
+ * </p>
+ * <p>
+ * Repositories with a <code>file:</code> URL are read from the file system directly. Other non-HTTP repositories are
+ * not supported (see {@link Repository#isSupported()}).
+ * </p>
+ * <p>
+ * The client is thread safe. Requests for different artifacts may be issued concurrently.
+ * </p>
+ */
+public class MavenMetadataClient {
+
+    /**
+     * A remote repository to fetch metadata from.
+     */
+    public static final class Repository {
+
+        private final String id;
+        private final String url;
+        private final String authorization;
+        private final InetSocketAddress proxy;
+        private final String proxyAuthorization;
+
+        /**
+         * @param id
+         *            the repository id (used for storing responses)
+         * @param url
+         *            the repository base URL
+         * @param authorization
+         *            value of the <code>Authorization</code> header (may be <code>null</code>)
+         */
+        public Repository(String id, String url, String authorization) {
+            this(id, url, authorization, null, null);
+        }
+
+        /**
+         * @param id
+         *            the repository id (used for storing responses)
+         * @param url
+         *            the repository base URL
+         * @param authorization
+         *            value of the <code>Authorization</code> header (may be <code>null</code>)
+         * @param proxy
+         *            the HTTP proxy to connect through (may be <code>null</code> to use the default proxy selector)
+         * @param proxyAuthorization
+         *            value of the <code>Proxy-Authorization</code> header (may be <code>null</code>)
+         */
+        public Repository(String id, String url, String authorization, InetSocketAddress proxy,
+                String proxyAuthorization) {
+            this.id = requireNonNull(id, "no repository id given");
+            this.url = requireNonNull(url, "no repository url given").endsWith("/") ? url : url + "/";
+            this.authorization = authorization;
+            this.proxy = proxy;
+            this.proxyAuthorization = proxyAuthorization;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return the HTTP proxy to connect through (may be <code>null</code>)
+         */
+        public InetSocketAddress getProxy() {
+            return proxy;
+        }
+
+        /**
+         * @return value of the <code>Proxy-Authorization</code> header (may be <code>null</code>)
+         */
+        public String getProxyAuthorization() {
+            return proxyAuthorization;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        private boolean isFile() {
+            return url.regionMatches(true, 0, "file:", 0, 5);
+        }
+
+        /**
+         * @return <code>true</code> if metadata can be fetched from the repository (<code>http</code>,
+         *         <code>https</code> or <code>file</code> URL), <code>false</code> otherwise
+         */
+        public boolean isSupported() {
+            try {
+                final var scheme = URI.create(url).getScheme();
+                return (scheme != null)
+                        && Set.of("http", "https", "file").contains(scheme.toLowerCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return id + " (" + url + ")";
+        }
+    }
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+
+    private static String toMetadataPath(String groupId, String artifactId) {
+        return groupId.replace('.', '/') + "/" + artifactId + "/maven-metadata.xml";
+    }
+
+    private static void writeAtomically(Path file, IOConsumer<OutputStream> writer) throws IOException {
+        Files.createDirectories(file.getParent());
+        final var temporaryFile = file.resolveSibling(
+            format("%s.%d.tmp", file.getFileName(), ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE));
+        try {
+            try (var out = Files.newOutputStream(temporaryFile)) {
+                writer.accept(out);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOConsumer<T> {
+        void accept(T t) throws IOException;
+    }
+
+    private final List<Repository> repositories;
+    private final Path stateDirectory;
+    private final Map<Repository, HttpClient> httpClientByRepository = new HashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    /**
+     * @param repositories
+     *            the repositories to query (in order)
+     * @param stateDirectory
+     *            directory for storing responses and their validators
+     * @param httpClientBuilder
+     *            builder for the HTTP clients to use (the proxy is replaced for repositories with a proxy)
+     */
+    public MavenMetadataClient(List<Repository> repositories, Path stateDirectory,
+            HttpClient.Builder httpClientBuilder) {
+        this.repositories = List.copyOf(requireNonNull(repositories, "no repositories given"));
+        this.stateDirectory = requireNonNull(stateDirectory, "no state directory given");
+        requireNonNull(httpClientBuilder, "no HTTP client builder given");
+
+        final var defaultHttpClient = httpClientBuilder.build();
+        for (Repository repository : this.repositories) {
+            if (repository.proxy == null) {
+                httpClientByRepository.put(repository, defaultHttpClient);
+                continue;
+            }
+            httpClientByRepository.put(repository, httpClientBuilder.proxy(ProxySelector.of(repository.proxy)).build());
+        }
+    }
+
+    private byte[] fetch(Repository repository, String metadataPath) throws IOException, InterruptedException {
+        final URI uri;
+        try {
+            uri = URI.create(repository.getUrl() + metadataPath);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(format("Invalid URL of repository %s: %s", repository, e.getMessage()), e);
+        }
+        if (repository.isFile()) {
+            return read(uri);
+        }
+
+        final var responseFile = stateDirectory.resolve(repository.getId()).resolve(metadataPath);
+        final var validatorsFile = responseFile.resolveSibling("maven-metadata.properties");
+
+        final var validators = new Properties();
+        if (Files.isRegularFile(responseFile) && Files.isRegularFile(validatorsFile)) {
+            try (InputStream in = Files.newInputStream(validatorsFile)) {
+                validators.load(in);
+            }
+        }
+
+        final var request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMinutes(1))
+                .GET();
+        if (repository.authorization != null) {
+            request.header("Authorization", repository.authorization);
+        }
+        if (repository.proxyAuthorization != null) {
+            request.header("Proxy-Authorization", repository.proxyAuthorization);
+        }
+        if (validators.getProperty(ETAG) != null) {
+            request.header("If-None-Match", validators.getProperty(ETAG));
+        }
+        if (validators.getProperty(LAST_MODIFIED) != null) {
+            request.header("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+        }
+
+        requests.incrementAndGet();
+        final var response =
+                httpClientByRepository.get(repository).send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        switch (response.statusCode()) {
+            case 200:
+                final var body = response.body();
+                final var newValidators = new Properties();
+                response.headers().firstValue("ETag").ifPresent(v -> newValidators.setProperty(ETAG, v));
+                response.headers()
+                        .firstValue("Last-Modified")
+                        .ifPresent(v -> newValidators.setProperty(LAST_MODIFIED, v));
+                writeAtomically(responseFile, out -> out.write(body));
+                if (newValidators.isEmpty()) {
+                    Files.deleteIfExists(validatorsFile);
+                } else {
+                    writeAtomically(validatorsFile, out -> newValidators.store(out, null));
+                }
+                return body;
+
+            case 304:
+                notModified.incrementAndGet();
+                return Files.readAllBytes(responseFile);
+
+            case 404:
+                Files.deleteIfExists(validatorsFile);
+                Files.deleteIfExists(responseFile);
+                return null;
+
+            default:
+                throw new IOException(
+                        format(
+                            "Unexpected response '%d' fetching '%s' from repository %s",
+                            response.statusCode(),
+                            metadataPath,
+                            repository));
+        }
+    }
+
+    /**
+     * Fetches the versions of an artifact available in all repositories.
+     *
+     * @param groupId
+     *            the group id
+     * @param artifactId
+     *            the artifact id
+     * @return the versions in the order listed in the metadata of all repositories (empty if no repository knows the
+     *         artifact)
+     * @throws IOException
+     *             in case of errors fetching or parsing the metadata
+     * @throws InterruptedException
+     *             if interrupted while waiting for a response
+     */
+    public Set<String> fetchVersions(String groupId, String artifactId) throws IOException, InterruptedException {
+        final var metadataPath = toMetadataPath(groupId, artifactId);
+        final Set<String> versions = new LinkedHashSet<>();
+        for (Repository repository : repositories) {
+            final var content = fetch(repository, metadataPath);
+            if (content == null) {
+                continue;
+            }
+            try {
+                final var metadata = new MetadataXpp3Reader().read(new ByteArrayInputStream(content), false);
+                if (metadata.getVersioning() != null) {
+                    versions.addAll(metadata.getVersioning().getVersions());
+                }
+            } catch (XmlPullParserException e) {
+                throw new IOException(
+                        format(
+                            "Invalid metadata '%s' in repository %s: %s",
+                            metadataPath,
+                            repository,
+                            new String(content, 0, Math.min(content.length, 200), UTF_8)),
+                        e);
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * @return number of requests answered with <code>304 Not Modified</code>
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * @return the repositories queried by this client
+     */
+    public List<Repository> getRepositories() {
+        return new ArrayList<>(repositories);
+    }
+
+    private static byte[] read(URI uri) throws IOException {
+        try {
+            return Files.readAllBytes(Path.of(uri));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(format("Unable to read '%s': %s", uri, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * @return number of requests sent
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+}
@@ -2,6 +2,7 @@ package com.salesforce.tools.bazel.mavendependencies.maven;
 
 import static java.lang.String.format;
 import static java.nio.file.Files.*;
+import static java.util.Objects.requireNonNull;
 
 import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
@@ -14,6 +15,9 @@ import java.security.NoSuchAlgorithmException;
 
 import org.eclipse.aether.artifact.Artifact;
 
+import com.salesforce.tools.bazel.mavendependencies.metrics.HashComputationEvent;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
+
 public class MavenShaComputer {
 
     public enum Algorithm {
@@ -37,12 +41,29 @@ public class MavenShaComputer {
         }
     }
 
+    private final MetricsCollector metrics;
+
+    public MavenShaComputer() {
+        this(MetricsCollector.NO_OP);
+    }
+
+    public MavenShaComputer(MetricsCollector metrics) {
+        this.metrics = requireNonNull(metrics, "metrics collector must not be null");
+    }
+
     private String checksum(Path jarFile, Algorithm algorithm) throws IOException {
+        final var event = new HashComputationEvent();
+        event.begin();
+
         final var checksumFile =
                 jarFile.resolveSibling(jarFile.getFileName().toString().concat(algorithm.getExtension()));
         if (isRegularFile(checksumFile)) {
-            return readChecksumFromFile(checksumFile);
+            metrics.recordCacheLookup("checksums", true);
+            final var checksum = readChecksumFromFile(checksumFile);
+            commit(event, jarFile, algorithm, 0L, true);
+            return checksum;
         }
+        metrics.recordCacheLookup("checksums", false);
 
         final var buffer = new byte[8192];
         int count;
@@ -52,12 +73,15 @@ public class MavenShaComputer {
         } catch (final NoSuchAlgorithmException e) {
             throw new IllegalStateException(format("Message Digest %s not available.", algorithm), e);
         }
+        var bytes = 0L;
         try (var in = newInputStream(jarFile)) {
             final var bis = new BufferedInputStream(in);
             while ((count = bis.read(buffer)) > 0) {
                 digest.update(buffer, 0, count);
+                bytes += count;
             }
         }
+        metrics.add("checksums.bytes", bytes);
 
         final var sb = new StringBuilder();
         for (final byte b : digest.digest()) {
@@ -66,9 +90,20 @@ public class MavenShaComputer {
 
         // cache checksum
         writeString(checksumFile, sb, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        commit(event, jarFile, algorithm, bytes, false);
         return sb.toString();
     }
 
+    private void commit(HashComputationEvent event, Path file, Algorithm algorithm, long bytes, boolean cached) {
+        if (event.shouldCommit()) {
+            event.file = file.getFileName().toString();
+            event.algorithm = algorithm.getAlgorithm();
+            event.bytes = bytes;
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
     public String getSha(Artifact artifact, Algorithm algorithm) throws IOException {
         final var file = artifact.getFile();
         if ((file == null) || !file.isFile()) {
@@ -1,6 +1,7 @@
 package com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 
 /*
@@ -17,12 +18,14 @@ import static java.util.stream.Collectors.toList;
  */
 
 import java.io.File;
+import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,6 +62,7 @@ import org.apache.maven.settings.building.SettingsBuildingException;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.eclipse.aether.ConfigurationProperties;
 import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
@@ -72,6 +76,7 @@ import org.eclipse.aether.internal.impl.synccontext.named.NamedLockFactoryAdapte
 import org.eclipse.aether.internal.impl.synccontext.named.NamedLockFactoryAdapterFactoryImpl;
 import org.eclipse.aether.named.NamedLockFactory;
 import org.eclipse.aether.named.providers.NoopNamedLockFactory;
+import org.eclipse.aether.repository.AuthenticationContext;
 import org.eclipse.aether.repository.AuthenticationSelector;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.LocalRepositoryManager;
@@ -101,8 +106,11 @@ import com.google.devtools.build.lib.authandtls.Netrc;
 import com.google.devtools.build.lib.authandtls.NetrcCredentials;
 import com.google.devtools.build.lib.bazel.repository.downloader.UrlRewriter;
 import com.google.devtools.build.lib.bazel.repository.downloader.UrlRewriterParseException;
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
 import com.salesforce.tools.bazel.cli.helper.ProgressMonitor;
 import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.mavendependencies.maven.MavenMetadataClient;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
 
 /**
  * A rem to use Maven's artifact resolver outside of Maven.
@@ -143,6 +151,8 @@ public class MavenDepsRepoSys {
     private boolean netrcLoaded;
     private UrlRewriter urlRewriter;
     private final Path localMavenRepository;
+    private volatile MetricsCollector metricsCollector = MetricsCollector.NO_OP;
+    private volatile RepositoryCache sharedRepositoryCache;
 
     public MavenDepsRepoSys(Path downloaderConfig, String mavenCenteralUrl, SortedSet<String> mavenRepositories,
             Path localMavenRepository) {
@@ -292,6 +302,13 @@ public class MavenDepsRepoSys {
         return Collections.unmodifiableMap(headers);
     }
 
+    /**
+     * @return the directory of the local Maven repository (as configured in the Maven settings or the default)
+     */
+    public Path getLocalRepository() {
+        return getLocalRepoDir().toPath();
+    }
+
     private File getLocalRepoDir() {
         final var settings = getSettings();
         if (settings.getLocalRepository() != null) {
@@ -307,6 +324,79 @@ public class MavenDepsRepoSys {
         return getSystem().newLocalRepositoryManager(session, repo);
     }
 
+    /**
+     * Returns the remote repositories used for resolution as endpoints for fetching Maven metadata directly.
+     * <p>
+     * Mirrors and proxies are applied and credentials from the Maven settings (or <code>.netrc</code>) are converted
+     * into basic authentication.
+     * </p>
+     *
+     * @return the list of repositories (in resolution order)
+     */
+    public List<MavenMetadataClient.Repository> getMetadataRepositories() {
+        final var session = newSession(new NullProgressMonitor());
+        final List<MavenMetadataClient.Repository> result = new ArrayList<>();
+        for (final RemoteRepository repository : getRemoteRepositories(session)) {
+            result.add(toMetadataRepository(session, repository));
+        }
+        return result;
+    }
+
+    /**
+     * Converts a remote repository (with mirrors, proxies and authentication already applied) into an endpoint for
+     * fetching Maven metadata.
+     *
+     * @param session
+     *            the session the repository was created for
+     * @param repository
+     *            the remote repository
+     * @return the metadata repository
+     */
+    static MavenMetadataClient.Repository toMetadataRepository(RepositorySystemSession session,
+            RemoteRepository repository) {
+        String authorization;
+        try (var authentication = AuthenticationContext.forRepository(session, repository)) {
+            authorization = toBasicAuthorization(authentication);
+        }
+
+        InetSocketAddress proxy = null;
+        String proxyAuthorization = null;
+        final var repositoryProxy = repository.getProxy();
+        if (repositoryProxy != null) {
+            proxy = InetSocketAddress.createUnresolved(repositoryProxy.getHost(), repositoryProxy.getPort());
+            try (var authentication = AuthenticationContext.forProxy(session, repository)) {
+                proxyAuthorization = toBasicAuthorization(authentication);
+            }
+        }
+
+        return new MavenMetadataClient.Repository(
+                repository.getId(),
+                repository.getUrl(),
+                authorization,
+                proxy,
+                proxyAuthorization);
+    }
+
+    private static String toBasicAuthorization(AuthenticationContext authentication) {
+        if (authentication == null) {
+            return null;
+        }
+        final var username = authentication.get(AuthenticationContext.USERNAME);
+        if (username == null) {
+            return null;
+        }
+        final var password = authentication.get(AuthenticationContext.PASSWORD);
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + (password != null ? password : "")).getBytes(UTF_8));
+    }
+
+    /**
+     * @return the metrics collector used for sessions created by this instance (never <code>null</code>)
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
     private MirrorSelector getMirrorSelector() {
         final var selector = new DefaultMirrorSelector();
 
@@ -599,10 +689,11 @@ public class MavenDepsRepoSys {
         session.setMirrorSelector(getMirrorSelector());
         session.setAuthenticationSelector(getAuthSelector());
 
-        session.setCache(new DefaultRepositoryCache());
+        final var repositoryCache = sharedRepositoryCache;
+        session.setCache(repositoryCache != null ? repositoryCache : new DefaultRepositoryCache());
 
-        session.setRepositoryListener(new MavenDepsRepositoryListener(monitor));
-        session.setTransferListener(new MavenDepsTransferListener(monitor));
+        session.setRepositoryListener(new MavenDepsRepositoryListener(monitor, metricsCollector));
+        session.setTransferListener(new MavenDepsTransferListener(monitor, metricsCollector));
 
         session.setLocalRepositoryManager(getLocalRepoMan(session));
 
@@ -654,7 +745,11 @@ public class MavenDepsRepoSys {
     private void populateSettingsWithCredentials(Settings settings, String id, String url) {
         try {
             final var host = new URI(url).getHost();
-            final var credential = getNetrc().getCredential(host);
+            final var netrc = getNetrc();
+            if ((netrc == null) || (host == null)) {
+                return; // no .netrc or no host (eg., file:// URL)
+            }
+            final var credential = netrc.getCredential(host);
             if (credential != null) {
                 final var server = new Server();
                 server.setId(id);
@@ -880,4 +975,32 @@ public class MavenDepsRepoSys {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the metrics collector for recording descriptor reads, artifact resolutions and transfers.
+     * <p>
+     * The collector will be used for all sessions created after this call.
+     * </p>
+     *
+     * @param metricsCollector
+     *            the metrics collector (must not be <code>null</code>)
+     */
+    public void setMetricsCollector(MetricsCollector metricsCollector) {
+        this.metricsCollector = Objects.requireNonNull(metricsCollector, "metrics collector must not be null");
+    }
+
+    /**
+     * Enables or disables sharing of the repository cache (descriptors, metadata, models) between sessions.
+     * <p>
+     * By default every operation uses a new, empty cache. Long running processes executing multiple operations can
+     * enable sharing to keep parsed descriptors warm. Disabling sharing drops the shared cache.
+     * </p>
+     *
+     * @param share
+     *            <code>true</code> to share one cache for all sessions created after this call, <code>false</code>
+     *            otherwise
+     */
+    public void setShareRepositoryCache(boolean share) {
+        sharedRepositoryCache = share ? new DefaultRepositoryCache() : null;
+    }
+}
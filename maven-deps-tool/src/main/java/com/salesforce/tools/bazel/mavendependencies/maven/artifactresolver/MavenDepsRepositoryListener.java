@@ -14,14 +14,20 @@ package com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver;
  */
 
 import java.io.FileNotFoundException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.aether.AbstractRepositoryListener;
 import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.slf4j.Logger;
 
 import com.salesforce.tools.bazel.cli.helper.ProgressMonitor;
 import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.mavendependencies.metrics.DescriptorReadEvent;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
 
 /**
  * Logs repository events like installed and unresolved artifacts and metadata.
@@ -30,13 +36,17 @@ class MavenDepsRepositoryListener extends AbstractRepositoryListener {
 
     private static final Logger LOG = UnifiedLogger.getLogger();
     private final ProgressMonitor monitor;
+    private final MetricsCollector metrics;
+    private final ConcurrentMap<String, DescriptorReadEvent> runningDescriptorReads = new ConcurrentHashMap<>();
 
-    MavenDepsRepositoryListener(ProgressMonitor monitor) {
+    MavenDepsRepositoryListener(ProgressMonitor monitor, MetricsCollector metrics) {
         this.monitor = monitor;
+        this.metrics = metrics;
     }
 
     @Override
     public void artifactDescriptorInvalid(final RepositoryEvent event) {
+        metrics.increment("descriptors.invalid");
         LOG.debug(
             "The POM for " + event.getArtifact() + " is invalid"
                     + ", transitive dependencies (if any) will not be available: " + event.getException().getMessage(),
@@ -45,6 +55,7 @@ class MavenDepsRepositoryListener extends AbstractRepositoryListener {
 
     @Override
     public void artifactDescriptorMissing(final RepositoryEvent event) {
+        metrics.increment("descriptors.missing");
         LOG.debug("The POM for " + event.getArtifact() + " is missing, no dependency information available");
     }
 
@@ -72,16 +83,52 @@ class MavenDepsRepositoryListener extends AbstractRepositoryListener {
         if (monitor != null) {
             monitor.progressBy(1);
         }
+
+        if ((event.getArtifact() != null) && isDescriptor(event)) {
+            final var descriptorRead = runningDescriptorReads.remove(ArtifactIdUtils.toId(event.getArtifact()));
+            if ((descriptorRead != null) && descriptorRead.shouldCommit()) {
+                descriptorRead.coordinates = ArtifactIdUtils.toId(event.getArtifact());
+                descriptorRead.repository = event.getRepository() != null ? event.getRepository().getId() : null;
+                descriptorRead.cached = event.getRepository() instanceof LocalRepository;
+                descriptorRead.failed = event.getException() != null;
+                descriptorRead.commit();
+            }
+        }
+
+        // a local repository means it was found in the local cache
+        if ((event.getArtifact() != null) && (event.getException() == null)) {
+            final var cacheHit = event.getRepository() instanceof LocalRepository;
+            if (isDescriptor(event)) {
+                metrics.increment("descriptors.resolved");
+                metrics.recordCacheLookup("descriptors", cacheHit);
+            } else {
+                metrics.increment("artifacts.resolved");
+                metrics.recordCacheLookup("artifacts", cacheHit);
+            }
+        }
     }
 
     @Override
     public void artifactResolving(RepositoryEvent event) {
+        if ((event.getArtifact() != null) && isDescriptor(event)) {
+            final var descriptorRead = new DescriptorReadEvent();
+            if (descriptorRead.isEnabled()) {
+                // concurrent reads of the same descriptor are recorded only once
+                descriptorRead.begin();
+                runningDescriptorReads.putIfAbsent(ArtifactIdUtils.toId(event.getArtifact()), descriptorRead);
+            }
+        }
+
         if ((monitor != null) && (event.getArtifact() != null)) {
             monitor.additionalMessage(
                 "♲ " + event.getArtifact().getGroupId() + ":" + event.getArtifact().getArtifactId());
         }
     }
 
+    private boolean isDescriptor(RepositoryEvent event) {
+        return "pom".equals(event.getArtifact().getExtension());
+    }
+
     @Override
     public void metadataDownloaded(RepositoryEvent event) {
         if (monitor != null) {
@@ -129,6 +176,10 @@ class MavenDepsRepositoryListener extends AbstractRepositoryListener {
 
     @Override
     public void metadataResolved(final RepositoryEvent event) {
+        if (event.getMetadata() != null) {
+            metrics.recordCacheLookup("metadata", event.getRepository() instanceof LocalRepository);
+        }
+
         final var e = event.getException();
         if (e != null) {
             if (e instanceof MetadataNotFoundException) {
@@ -19,15 +19,20 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.aether.transfer.AbstractTransferListener;
 import org.eclipse.aether.transfer.TransferCancelledException;
 import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
 import org.slf4j.Logger;
 
 import com.salesforce.tools.bazel.cli.helper.ProgressMonitor;
 import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.mavendependencies.metrics.ArtifactTransferEvent;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
 
 /**
  * Logs up- and downloads.
@@ -36,10 +41,25 @@ class MavenDepsTransferListener extends AbstractTransferListener {
 
     private static final Logger LOG = UnifiedLogger.getLogger();
     private final ProgressMonitor monitor;
+    private final MetricsCollector metrics;
     private final List<TransferEvent> failures = new CopyOnWriteArrayList<>();
+    private final Map<TransferResource, ArtifactTransferEvent> runningTransfers = new ConcurrentHashMap<>();
 
-    MavenDepsTransferListener(ProgressMonitor monitor) {
+    MavenDepsTransferListener(ProgressMonitor monitor, MetricsCollector metrics) {
         this.monitor = monitor;
+        this.metrics = metrics;
+    }
+
+    private void commitTransferEvent(TransferEvent event, String status) {
+        final var transfer = runningTransfers.remove(event.getResource());
+        if ((transfer != null) && transfer.shouldCommit()) {
+            final var resource = event.getResource();
+            transfer.repository = resource.getRepositoryId();
+            transfer.url = resource.getRepositoryUrl() + resource.getResourceName();
+            transfer.bytes = event.getTransferredBytes();
+            transfer.status = status;
+            transfer.commit();
+        }
     }
 
     /**
@@ -52,6 +72,8 @@ class MavenDepsTransferListener extends AbstractTransferListener {
     @Override
     public void transferCorrupted(final TransferEvent event) throws TransferCancelledException {
         failures.add(event);
+        metrics.increment("transfers.corrupted");
+        commitTransferEvent(event, "corrupted");
 
         final var resource = event.getResource();
 
@@ -62,10 +84,18 @@ class MavenDepsTransferListener extends AbstractTransferListener {
     @Override
     public void transferFailed(TransferEvent event) {
         failures.add(event);
+        metrics.increment("transfers.failed");
+        commitTransferEvent(event, "failed");
     }
 
     @Override
     public void transferInitiated(final TransferEvent event) throws TransferCancelledException {
+        final var transfer = new ArtifactTransferEvent();
+        if (transfer.isEnabled()) {
+            transfer.begin();
+            runningTransfers.put(event.getResource(), transfer);
+        }
+
         final var msg = event.getRequestType() == TransferEvent.RequestType.PUT ? "Uploading" : "Downloading";
         if (monitor != null) {
             monitor.additionalMessage("↕ " + Path.of(event.getResource().getResourceName()).getFileName().toString());
@@ -82,6 +112,11 @@ class MavenDepsTransferListener extends AbstractTransferListener {
         msg.append(" ").append(event.getResource().getRepositoryUrl()).append(event.getResource().getResourceName());
 
         final var contentLength = event.getTransferredBytes();
+        metrics.increment("transfers.succeeded");
+        commitTransferEvent(event, "succeeded");
+        if (contentLength > 0) {
+            metrics.add("transfers.bytes", contentLength);
+        }
         if (contentLength >= 0) {
             final var len = contentLength >= 1024 ? ((contentLength + 1023) / 1024) + " KB" : contentLength + " B";
 
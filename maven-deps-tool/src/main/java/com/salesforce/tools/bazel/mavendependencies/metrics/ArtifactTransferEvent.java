@@ -0,0 +1,33 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for an up- or download of a resource from a remote repository.
+ */
+@Name(ArtifactTransferEvent.NAME)
+@Label("Artifact Transfer")
+@Description("Up- or download of a resource from a remote repository")
+@Category({ "Bazel Maven Dependencies", "Transfer" })
+public final class ArtifactTransferEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.salesforce.tools.bazel.mavendependencies.ArtifactTransfer";
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Status")
+    @Description("succeeded, corrupted or failed")
+    public String status;
+}
@@ -0,0 +1,211 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.salesforce.tools.bazel.cli.helper.JsonStrings;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.CatalogFileWriteEvent;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Records the custom JFR events of this tool in-process and converts them into the
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace event
+ * format</a>, which can be viewed in Perfetto or <code>chrome://tracing</code>.
+ * <p>
+ * The events are regular JFR events. They can also be captured with <code>-XX:StartFlightRecording</code> and
+ * analyzed with JDK Mission Control without using this class.
+ * </p>
+ */
+public class ChromeTraceRecorder implements AutoCloseable {
+
+    /** names of all events recorded for a trace */
+    static final Set<String> EVENT_NAMES = Set.of(
+        DescriptorReadEvent.NAME,
+        ArtifactTransferEvent.NAME,
+        RootResolutionEvent.NAME,
+        HashComputationEvent.NAME,
+        CatalogFileWriteEvent.NAME);
+
+    /** fields of a recorded event which are part of every event and not reported as arguments */
+    private static final Set<String> IMPLICIT_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+    private static long toMicros(Instant instant) {
+        return (instant.getEpochSecond() * 1_000_000L) + (instant.getNano() / 1_000L);
+    }
+
+    private static long toMicros(Duration duration) {
+        return duration.toNanos() / 1_000L;
+    }
+
+    /**
+     * Converts a JFR recording file into Chrome trace JSON.
+     * <p>
+     * Only events of this tool are converted. Every event becomes a complete event (<code>"ph": "X"</code>) on the
+     * thread that emitted it. Event fields are added as arguments.
+     * </p>
+     *
+     * @param recordingFile
+     *            the JFR file to read
+     * @param traceFile
+     *            the JSON file to write
+     * @return number of converted events
+     * @throws IOException
+     *             in case of errors reading or writing files
+     */
+    public static int convert(Path recordingFile, Path traceFile) throws IOException {
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile)
+                .stream()
+                .filter(e -> EVENT_NAMES.contains(e.getEventType().getName()))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+
+        final var parent = traceFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Map<Long, String> threadNames = new HashMap<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(traceFile, UTF_8)) {
+            writer.write("{\n  \"displayTimeUnit\": \"ms\",\n  \"traceEvents\": [");
+            var first = true;
+            for (final RecordedEvent event : events) {
+                final var thread = event.getThread();
+                final var tid = thread != null ? thread.getJavaThreadId() : 0L;
+                if ((thread != null) && !threadNames.containsKey(tid)) {
+                    threadNames.put(tid, thread.getJavaName() != null ? thread.getJavaName() : thread.getOSName());
+                }
+
+                writer.write(first ? "\n" : ",\n");
+                first = false;
+                writer.write("    { \"name\": \"");
+                writer.write(JsonStrings.escape(getTraceName(event)));
+                writer.write("\", \"cat\": \"");
+                writer.write(JsonStrings.escape(event.getEventType().getLabel()));
+                writer.write("\", \"ph\": \"X\", \"ts\": ");
+                writer.write(Long.toString(toMicros(event.getStartTime())));
+                writer.write(", \"dur\": ");
+                writer.write(Long.toString(toMicros(event.getDuration())));
+                writer.write(", \"pid\": 1, \"tid\": ");
+                writer.write(Long.toString(tid));
+                writer.write(", \"args\": {");
+                var firstArg = true;
+                for (final var field : event.getFields()) {
+                    if (IMPLICIT_FIELDS.contains(field.getName())) {
+                        continue;
+                    }
+                    final var value = event.getValue(field.getName());
+                    if (value == null) {
+                        continue;
+                    }
+                    writer.write(firstArg ? " \"" : ", \"");
+                    firstArg = false;
+                    writer.write(JsonStrings.escape(field.getName()));
+                    writer.write("\": ");
+                    if ((value instanceof Number) || (value instanceof Boolean)) {
+                        writer.write(value.toString());
+                    } else {
+                        writer.write("\"");
+                        writer.write(JsonStrings.escape(value.toString()));
+                        writer.write("\"");
+                    }
+                }
+                writer.write(firstArg ? "} }" : " } }");
+            }
+
+            // thread names for a readable timeline
+            for (final Map.Entry<Long, String> threadName : threadNames.entrySet()) {
+                writer.write(first ? "\n" : ",\n");
+                first = false;
+                writer.write("    { \"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": ");
+                writer.write(Long.toString(threadName.getKey()));
+                writer.write(", \"args\": { \"name\": \"");
+                writer.write(JsonStrings.escape(String.valueOf(threadName.getValue())));
+                writer.write("\" } }");
+            }
+            writer.write(first ? "]\n}\n" : "\n  ]\n}\n");
+        }
+
+        return events.size();
+    }
+
+    private static String getTraceName(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case DescriptorReadEvent.NAME:
+            case RootResolutionEvent.NAME:
+                return event.getString("coordinates");
+            case ArtifactTransferEvent.NAME:
+                final var url = event.getString("url");
+                return url != null ? url.substring(url.lastIndexOf('/') + 1) : event.getEventType().getLabel();
+            case HashComputationEvent.NAME:
+            case CatalogFileWriteEvent.NAME:
+                return event.getString("file");
+            default:
+                return event.getEventType().getLabel();
+        }
+    }
+
+    /**
+     * Starts a new in-process recording of all events of this tool.
+     *
+     * @return the started recorder (must be closed)
+     */
+    public static ChromeTraceRecorder start() {
+        final var recording = new Recording();
+        recording.setName("bazel-maven-deps-trace");
+        recording.setToDisk(true);
+        for (final String eventName : EVENT_NAMES) {
+            recording.enable(eventName).withoutStackTrace().withThreshold(Duration.ZERO);
+        }
+        recording.start();
+        return new ChromeTraceRecorder(recording);
+    }
+
+    private final Recording recording;
+
+    private ChromeTraceRecorder(Recording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Closes the underlying recording (discarding any recorded data when {@link #stopAndWrite(Path)} was not called)
+     */
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    /**
+     * Stops the recording and writes all recorded events as Chrome trace JSON.
+     *
+     * @param traceFile
+     *            the JSON file to write
+     * @return number of written events
+     * @throws IOException
+     *             in case of errors writing the file
+     */
+    public int stopAndWrite(Path traceFile) throws IOException {
+        recording.stop();
+        final var recordingFile = Files.createTempFile("bazel-maven-deps-trace", ".jfr");
+        try {
+            recording.dump(recordingFile);
+            return convert(recordingFile, traceFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for resolving the descriptor (<code>.pom</code>) of an artifact.
+ */
+@Name(DescriptorReadEvent.NAME)
+@Label("Descriptor Read")
+@Description("Resolution of an artifact descriptor (POM) from the local or a remote repository")
+@Category({ "Bazel Maven Dependencies", "Resolution" })
+public final class DescriptorReadEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.salesforce.tools.bazel.mavendependencies.DescriptorRead";
+
+    @Label("Coordinates")
+    public String coordinates;
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Cached")
+    @Description("true if the descriptor was found in the local repository")
+    public boolean cached;
+
+    @Label("Failed")
+    public boolean failed;
+}
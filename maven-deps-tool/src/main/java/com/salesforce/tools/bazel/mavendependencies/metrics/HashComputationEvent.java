@@ -0,0 +1,33 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for computing (or reading a cached) checksum of an artifact file.
+ */
+@Name(HashComputationEvent.NAME)
+@Label("Hash Computation")
+@Description("Computation of an artifact checksum")
+@Category({ "Bazel Maven Dependencies", "Hashing" })
+public final class HashComputationEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.salesforce.tools.bazel.mavendependencies.HashComputation";
+
+    @Label("File")
+    public String file;
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Cached")
+    @Description("true if the checksum was read from a sidecar file")
+    public boolean cached;
+}
@@ -0,0 +1,360 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.salesforce.tools.bazel.cli.helper.JsonStrings;
+
+/**
+ * Collects performance metrics of a command execution.
+ * <p>
+ * The collector records wall and CPU time of named phases, arbitrary counters, cache hits/misses and the resolution
+ * time of individual roots. Everything is thread-safe and cheap enough to be always on. The result can be written as
+ * JSON using {@link #writeJson(Path, String, int)} for trending in CI.
+ * </p>
+ * <p>
+ * Note, phase CPU time is measured for the whole process so that work done by resolver threads is included. Phases
+ * running concurrently will therefore report overlapping CPU time. In a long running process (eg., the daemon) it also
+ * includes any other activity of the process during the phase, such as background tasks, JIT and GC. The CPU time of
+ * the thread executing the command is reported separately.
+ * </p>
+ * <p>
+ * The peak heap usage is sampled whenever a phase starts or ends and when writing the metrics. It's a lower bound of
+ * the real peak, which may occur between samples.
+ * </p>
+ */
+public class MetricsCollector {
+
+    /**
+     * A running phase. Must be closed to record its time. Closing is idempotent and can happen on a different thread.
+     */
+    public final class Phase implements AutoCloseable {
+
+        private final String name;
+        private final long startNanos;
+        private final long startCpuNanos;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Phase(String name, boolean record) {
+            this.name = name;
+            startNanos = record ? System.nanoTime() : 0L;
+            startCpuNanos = record ? getProcessCpuTime() : -1L;
+            closed.set(!record);
+            if (record) {
+                sampleHeapUsage();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+
+            final var wallNanos = System.nanoTime() - startNanos;
+            final var cpuNanos = startCpuNanos >= 0 ? getProcessCpuTime() - startCpuNanos : -1L;
+            sampleHeapUsage();
+            final var stats = phases.computeIfAbsent(name, n -> new PhaseStats());
+            stats.count.increment();
+            stats.wallNanos.add(wallNanos);
+            if (cpuNanos >= 0) {
+                stats.cpuNanos.add(cpuNanos);
+            }
+        }
+    }
+
+    static final class PhaseStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder wallNanos = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+    }
+
+    /** a collector which does not record anything */
+    public static final MetricsCollector NO_OP = new MetricsCollector(false);
+
+    private static final String CACHE_HIT = ".cache.hit";
+    private static final String CACHE_MISS = ".cache.miss";
+
+    private static long cpuTimeSince(long startNanos, long endNanos) {
+        return (startNanos >= 0) && (endNanos >= 0) ? toMillis(endNanos - startNanos) : -1L;
+    }
+
+    private static long getProcessCpuTime() {
+        final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuTime();
+        }
+        return -1L;
+    }
+
+    private static long getThreadCpuTime(Thread thread) {
+        final var threadBean = ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadCpuTimeSupported() || !threadBean.isThreadCpuTimeEnabled()) {
+            return -1L;
+        }
+        return threadBean.getThreadCpuTime(thread.getId());
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    private final boolean enabled;
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final long startCpuNanos;
+    private final Thread commandThread = Thread.currentThread();
+    private final long startCommandThreadCpuNanos;
+    private final LongAccumulator peakHeapBytes = new LongAccumulator(Math::max, 0L);
+    private final ConcurrentMap<String, PhaseStats> phases = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> rootResolutionNanos = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new, enabled collector
+     * <p>
+     * The calling thread is considered the thread executing the command.
+     * </p>
+     */
+    public MetricsCollector() {
+        this(true);
+    }
+
+    private MetricsCollector(boolean enabled) {
+        this.enabled = enabled;
+        startCpuNanos = enabled ? getProcessCpuTime() : -1L;
+        startCommandThreadCpuNanos = enabled ? getThreadCpuTime(commandThread) : -1L;
+        if (enabled) {
+            sampleHeapUsage();
+        }
+    }
+
+    /**
+     * @return the highest heap usage sampled so far (in bytes)
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    /**
+     * Adds a delta to a counter.
+     *
+     * @param counter
+     *            name of the counter
+     * @param delta
+     *            the delta to add
+     */
+    public void add(String counter, long delta) {
+        if (!enabled) {
+            return;
+        }
+        counters.computeIfAbsent(counter, c -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * @return a snapshot of all counters sorted by name
+     */
+    public SortedMap<String, Long> getCounters() {
+        final SortedMap<String, Long> result = new TreeMap<>();
+        counters.forEach((name, value) -> result.put(name, value.sum()));
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the resolution time (in nanoseconds) of all individually resolved roots
+     */
+    public Map<String, Long> getRootResolutionNanos() {
+        return Map.copyOf(rootResolutionNanos);
+    }
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param counter
+     *            name of the counter
+     */
+    public void increment(String counter) {
+        add(counter, 1L);
+    }
+
+    /**
+     * @return <code>true</code> if this collector records metrics
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a new phase.
+     * <p>
+     * Phases with the same name are accumulated.
+     * </p>
+     *
+     * @param name
+     *            name of the phase
+     * @return the running phase (must be closed)
+     */
+    public Phase phase(String name) {
+        return new Phase(name, enabled);
+    }
+
+    /**
+     * Records a cache lookup
+     *
+     * @param cache
+     *            name of the cache
+     * @param hit
+     *            <code>true</code> if the lookup was a hit, <code>false</code> otherwise
+     */
+    public void recordCacheLookup(String cache, boolean hit) {
+        increment(cache + (hit ? CACHE_HIT : CACHE_MISS));
+    }
+
+    /**
+     * Records the time it took to resolve an individual root.
+     *
+     * @param coordinates
+     *            coordinates of the root
+     * @param nanos
+     *            time in nanoseconds
+     */
+    public void recordRootResolution(String coordinates, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        rootResolutionNanos.merge(coordinates, nanos, Math::max);
+    }
+
+    private void sampleHeapUsage() {
+        peakHeapBytes.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Writes all collected metrics as JSON into the specified file.
+     *
+     * @param file
+     *            the file to write
+     * @param command
+     *            name of the command (informational)
+     * @param topSlowestRoots
+     *            number of slowest roots to include
+     * @throws IOException
+     *             in case of errors writing the file
+     */
+    public void writeJson(Path file, String command, int topSlowestRoots) throws IOException {
+        final var json = new StringBuilder(4096);
+        json.append("{\n");
+        json.append("  \"command\": \"").append(JsonStrings.escape(command)).append("\",\n");
+        json.append("  \"startTime\": \"").append(startTime).append("\",\n");
+        json.append("  \"wallTimeMillis\": ").append(toMillis(System.nanoTime() - startNanos)).append(",\n");
+        json.append("  \"processCpuTimeMillis\": ")
+                .append(cpuTimeSince(startCpuNanos, getProcessCpuTime()))
+                .append(",\n");
+        json.append("  \"commandThreadCpuTimeMillis\": ")
+                .append(cpuTimeSince(startCommandThreadCpuNanos, getThreadCpuTime(commandThread)))
+                .append(",\n");
+        json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+
+        // memory
+        sampleHeapUsage();
+        json.append("  \"memory\": {\n");
+        json.append("    \"sampledPeakHeapBytes\": ").append(getPeakHeapBytes()).append(",\n");
+        json.append("    \"maxHeapBytes\": ").append(Runtime.getRuntime().maxMemory()).append("\n");
+        json.append("  },\n");
+
+        // phases
+        json.append("  \"phases\": {");
+        final SortedMap<String, PhaseStats> sortedPhases = new TreeMap<>(phases);
+        var first = true;
+        for (final Entry<String, PhaseStats> phase : sortedPhases.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            json.append("    \"").append(JsonStrings.escape(phase.getKey())).append("\": { ");
+            json.append("\"count\": ").append(phase.getValue().count.sum()).append(", ");
+            json.append("\"wallMillis\": ").append(toMillis(phase.getValue().wallNanos.sum())).append(", ");
+            json.append("\"cpuMillis\": ").append(toMillis(phase.getValue().cpuNanos.sum())).append(" }");
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        // counters
+        final var counterSnapshot = getCounters();
+        json.append("  \"counters\": {");
+        first = true;
+        for (final Entry<String, Long> counter : counterSnapshot.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            json.append("    \"").append(JsonStrings.escape(counter.getKey())).append("\": ").append(counter.getValue());
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        // cache hit ratios
+        final SortedMap<String, Double> hitRatios = new TreeMap<>();
+        for (final Entry<String, Long> counter : counterSnapshot.entrySet()) {
+            final var name = counter.getKey();
+            if (name.endsWith(CACHE_HIT) || name.endsWith(CACHE_MISS)) {
+                final var cache = name.substring(0, name.lastIndexOf(".cache."));
+                final long hits = counterSnapshot.getOrDefault(cache + CACHE_HIT, 0L);
+                final long misses = counterSnapshot.getOrDefault(cache + CACHE_MISS, 0L);
+                if ((hits + misses) > 0) {
+                    hitRatios.put(cache, (double) hits / (hits + misses));
+                }
+            }
+        }
+        json.append("  \"cacheHitRatios\": {");
+        first = true;
+        for (final Entry<String, Double> ratio : hitRatios.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            json.append("    \"")
+                    .append(JsonStrings.escape(ratio.getKey()))
+                    .append("\": ")
+                    .append(format(Locale.ROOT, "%.4f", ratio.getValue()));
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        // slowest roots
+        final var slowestRoots = rootResolutionNanos.entrySet()
+                .stream()
+                .sorted(Entry.<String, Long> comparingByValue().reversed().thenComparing(Entry.comparingByKey()))
+                .limit(topSlowestRoots)
+                .collect(toList());
+        json.append("  \"resolvedRoots\": ").append(rootResolutionNanos.size()).append(",\n");
+        json.append("  \"slowestRoots\": [");
+        first = true;
+        for (final Entry<String, Long> root : slowestRoots) {
+            json.append(first ? "\n" : ",\n");
+            first = false;
+            json.append("    { \"coordinates\": \"")
+                    .append(JsonStrings.escape(root.getKey()))
+                    .append("\", \"millis\": ")
+                    .append(toMillis(root.getValue()))
+                    .append(" }");
+        }
+        json.append(first ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, json, UTF_8);
+    }
+}
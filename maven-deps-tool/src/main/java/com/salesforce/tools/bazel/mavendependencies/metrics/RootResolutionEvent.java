@@ -0,0 +1,24 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for the individual resolution of a root dependency (including its transitive closure).
+ */
+@Name(RootResolutionEvent.NAME)
+@Label("Root Resolution")
+@Description("Individual resolution of a root dependency from the collection")
+@Category({ "Bazel Maven Dependencies", "Resolution" })
+public final class RootResolutionEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.salesforce.tools.bazel.mavendependencies.RootResolution";
+
+    @Label("Coordinates")
+    public String coordinates;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,422 @@
+package com.salesforce.tools.bazel.mavendependencies.resolver;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newBufferedReader;
+import static java.nio.file.Files.newBufferedWriter;
+import static java.util.stream.Collectors.toList;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+/**
+ * Compact exchange format for the result of resolving a shard of the individual dependency roots in a separate JVM.
+ * <p>
+ * The file is line based. Every dependency tree is written in pre-order with its depth so it can be rebuilt without any
+ * references. Only the information needed by the pinning logic (artifact, scope, optional flag, resolved file, conflict
+ * winner and premanaged version/scope) is preserved. Transfer failures and resolution problems are recorded as
+ * messages. Resolution timings and metric counters of the worker are included for reporting.
+ * </p>
+ * <p>
+ * Selection of roots for a shard is deterministic, i.e. every root is sorted by its
+ * {@link ArtifactIdUtils#toId(Artifact) artifact id} and then distributed round-robin. This
+ * ensures that the coordinator and all workers agree on the slices without having to exchange them.
+ * </p>
+ */
+final class ResolutionShardFile {
+
+    private static final String HEADER = "# bazel-maven-deps resolution shard";
+    private static final String ROOTS = "roots ";
+    private static final String NODE = "node ";
+    private static final String FAILURE = "failure ";
+    private static final String PROBLEM = "problem ";
+    private static final String TIMING = "timing ";
+    private static final String COUNTER = "counter ";
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        final var result = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                default:
+                    result.append(c);
+                    break;
+            }
+        }
+        return result.toString();
+    }
+
+    private static String nullIfEmpty(String value) {
+        return (value == null) || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads a shard result file.
+     *
+     * @param file
+     *            the file to read
+     * @return the read shard
+     * @throws IOException
+     *             in case of errors reading the file
+     * @throws IllegalArgumentException
+     *             if the file is not a valid shard result file
+     */
+    public static ResolutionShardFile read(Path file) throws IOException {
+        final var result = new ResolutionShardFile();
+        final List<DependencyNode> path = new ArrayList<>();
+        try (var reader = newBufferedReader(file, UTF_8)) {
+            final var header = reader.readLine();
+            if ((header == null) || !header.startsWith(HEADER)) {
+                throw new IllegalArgumentException(format("File '%s' is not a resolution shard result file!", file));
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(NODE)) {
+                    final var fields = split(line.substring(NODE.length()), 8, file);
+                    final var depth = Integer.parseInt(fields[0]);
+                    if (depth > path.size()) {
+                        throw new IllegalArgumentException(
+                                format("Invalid depth %d in shard result file '%s': %s", depth, file, line));
+                    }
+
+                    final var node = toNode(fields);
+                    while (path.size() > depth) {
+                        path.remove(path.size() - 1);
+                    }
+                    if (depth == 0) {
+                        result.dependencyNodeByResolvedCoordinates.put(ArtifactIdUtils.toId(node.getArtifact()), node);
+                    } else {
+                        path.get(depth - 1).getChildren().add(node);
+                    }
+                    path.add(node);
+                } else if (line.startsWith(FAILURE)) {
+                    final var fields = split(line.substring(FAILURE.length()), 4, file);
+                    result.transferFailures.add(toTransferFailure(fields));
+                } else if (line.startsWith(PROBLEM)) {
+                    result.problems.add(split(line.substring(PROBLEM.length()), 1, file)[0]);
+                } else if (line.startsWith(TIMING)) {
+                    final var fields = split(line.substring(TIMING.length()), 2, file);
+                    result.rootResolutionNanos.put(fields[0], Long.parseLong(fields[1]));
+                } else if (line.startsWith(COUNTER)) {
+                    final var fields = split(line.substring(COUNTER.length()), 2, file);
+                    result.counters.put(fields[0], Long.parseLong(fields[1]));
+                } else if (line.startsWith(ROOTS)) {
+                    result.numberOfRoots = Integer.parseInt(line.substring(ROOTS.length()).trim());
+                } else if (!line.isBlank()) {
+                    throw new IllegalArgumentException(format("Unexpected line in shard result file '%s': %s", file, line));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the roots to be resolved by a particular shard.
+     *
+     * @param roots
+     *            all roots
+     * @param shardIndex
+     *            the shard index (zero based)
+     * @param shardCount
+     *            the total number of shards
+     * @return the roots of the shard
+     */
+    public static List<Dependency> selectRoots(Collection<Dependency> roots, int shardIndex, int shardCount) {
+        if ((shardCount < 1) || (shardIndex < 0) || (shardIndex >= shardCount)) {
+            throw new IllegalArgumentException(format("Invalid shard %d of %d", shardIndex, shardCount));
+        }
+
+        final var sortedRoots = roots.stream()
+                .sorted(Comparator.comparing((Dependency d) -> ArtifactIdUtils.toId(d.getArtifact())))
+                .collect(toList());
+        final List<Dependency> result = new ArrayList<>((sortedRoots.size() / shardCount) + 1);
+        for (var i = shardIndex; i < sortedRoots.size(); i += shardCount) {
+            result.add(sortedRoots.get(i));
+        }
+        return result;
+    }
+
+    private static String[] split(String line, int expectedFields, Path file) {
+        final var fields = new String[expectedFields];
+        var field = 0;
+        final var value = new StringBuilder();
+        for (var i = 0; i < line.length(); i++) {
+            final var c = line.charAt(i);
+            if (c == '\\') {
+                if (++i >= line.length()) {
+                    throw new IllegalArgumentException(format("Invalid escape in shard result file '%s': %s", file, line));
+                }
+                final var escaped = line.charAt(i);
+                switch (escaped) {
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    default:
+                        value.append(escaped);
+                        break;
+                }
+            } else if ((c == '\t') && (field < (expectedFields - 1))) {
+                fields[field++] = value.toString();
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        fields[field++] = value.toString();
+        if (field != expectedFields) {
+            throw new IllegalArgumentException(
+                    format("Expected %d fields in shard result file '%s': %s", expectedFields, file, line));
+        }
+        return fields;
+    }
+
+    private static DependencyNode toNode(String[] fields) {
+        Artifact artifact = new DefaultArtifact(fields[1]);
+        if (!fields[4].isEmpty()) {
+            artifact = artifact.setFile(new File(fields[4]));
+        }
+
+        final var node = new DefaultDependencyNode(new Dependency(artifact, fields[2], Boolean.valueOf(fields[3])));
+        node.setChildren(new ArrayList<>());
+        if (!fields[5].isEmpty()) {
+            node.setData(ConflictResolver.NODE_DATA_WINNER, new DefaultDependencyNode(new DefaultArtifact(fields[5])));
+        }
+        var managedBits = 0;
+        if (!fields[6].isEmpty()) {
+            node.setData(DependencyManagerUtils.NODE_DATA_PREMANAGED_VERSION, fields[6]);
+            managedBits |= DependencyNode.MANAGED_VERSION;
+        }
+        if (!fields[7].isEmpty()) {
+            node.setData(DependencyManagerUtils.NODE_DATA_PREMANAGED_SCOPE, fields[7]);
+            managedBits |= DependencyNode.MANAGED_SCOPE;
+        }
+        node.setManagedBits(managedBits);
+        return node;
+    }
+
+    private static TransferEvent toTransferFailure(String[] fields) {
+        final var resource = new TransferResource(nullIfEmpty(fields[0]), fields[1], fields[2], null, null);
+        return new TransferEvent.Builder(new DefaultRepositorySystemSession(), resource)
+                .setType(TransferEvent.EventType.FAILED)
+                .setException(new IOException(fields[3]))
+                .build();
+    }
+
+    /**
+     * Writes a shard result file.
+     *
+     * @param file
+     *            the file to write
+     * @param shardIndex
+     *            the shard index (informational only)
+     * @param shardCount
+     *            the total number of shards (informational only)
+     * @param numberOfRoots
+     *            the number of roots the shard was supposed to resolve
+     * @param dependencyNodeByResolvedCoordinates
+     *            the resolved trees
+     * @param transferFailures
+     *            transfer failures
+     * @param problems
+     *            resolution problems
+     * @param rootResolutionNanos
+     *            time it took to resolve each root (in nanoseconds)
+     * @param counters
+     *            metric counters of the shard
+     * @throws IOException
+     *             in case of errors writing the file
+     */
+    public static void write(
+            Path file,
+            int shardIndex,
+            int shardCount,
+            int numberOfRoots,
+            Map<String, DependencyNode> dependencyNodeByResolvedCoordinates,
+            Collection<TransferEvent> transferFailures,
+            Collection<String> problems,
+            Map<String, Long> rootResolutionNanos,
+            Map<String, Long> counters) throws IOException {
+        try (var writer = newBufferedWriter(file, UTF_8)) {
+            writer.write(format("%s %d/%d", HEADER, shardIndex + 1, shardCount));
+            writer.newLine();
+            writer.write(ROOTS + numberOfRoots);
+            writer.newLine();
+
+            final var sortedCoordinates =
+                    dependencyNodeByResolvedCoordinates.keySet().stream().sorted().collect(toList());
+            for (final String coordinates : sortedCoordinates) {
+                writeNode(writer, dependencyNodeByResolvedCoordinates.get(coordinates), 0, new IdentityHashMap<>());
+            }
+
+            for (final TransferEvent failure : transferFailures) {
+                final var resource = failure.getResource();
+                writer.write(FAILURE);
+                writer.write(escape(resource.getRepositoryId()));
+                writer.write('\t');
+                writer.write(escape(resource.getRepositoryUrl()));
+                writer.write('\t');
+                writer.write(escape(resource.getResourceName()));
+                writer.write('\t');
+                writer.write(escape(failure.getException() != null ? failure.getException().getMessage() : null));
+                writer.newLine();
+            }
+
+            for (final String problem : problems) {
+                writer.write(PROBLEM);
+                writer.write(escape(problem));
+                writer.newLine();
+            }
+
+            for (final Entry<String, Long> timing : new TreeMap<>(rootResolutionNanos).entrySet()) {
+                writer.write(TIMING);
+                writer.write(escape(timing.getKey()));
+                writer.write('\t');
+                writer.write(Long.toString(timing.getValue()));
+                writer.newLine();
+            }
+
+            for (final Entry<String, Long> counter : new TreeMap<>(counters).entrySet()) {
+                writer.write(COUNTER);
+                writer.write(escape(counter.getKey()));
+                writer.write('\t');
+                writer.write(Long.toString(counter.getValue()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void writeNode(
+            BufferedWriter writer,
+            DependencyNode node,
+            int depth,
+            Map<DependencyNode, Object> currentPath) throws IOException {
+        final var dependency = node.getDependency();
+        final var artifact = node.getArtifact();
+        final var winner = (DependencyNode) node.getData().get(ConflictResolver.NODE_DATA_WINNER);
+
+        writer.write(NODE);
+        writer.write(Integer.toString(depth));
+        writer.write('\t');
+        writer.write(escape(ArtifactIdUtils.toId(artifact)));
+        writer.write('\t');
+        writer.write(escape(dependency != null ? dependency.getScope() : null));
+        writer.write('\t');
+        writer.write((dependency != null) && dependency.isOptional() ? "true" : "false");
+        writer.write('\t');
+        writer.write(escape(artifact.getFile() != null ? artifact.getFile().getAbsolutePath() : null));
+        writer.write('\t');
+        writer.write(escape((winner != null) ? ArtifactIdUtils.toId(winner.getArtifact()) : null));
+        writer.write('\t');
+        writer.write(escape(DependencyManagerUtils.getPremanagedVersion(node)));
+        writer.write('\t');
+        writer.write(escape(DependencyManagerUtils.getPremanagedScope(node)));
+        writer.newLine();
+
+        // guard against cycles; a node already on the path is written without its children
+        if (currentPath.put(node, Boolean.TRUE) == null) {
+            for (final DependencyNode child : node.getChildren()) {
+                writeNode(writer, child, depth + 1, currentPath);
+            }
+            currentPath.remove(node);
+        }
+    }
+
+    private final Map<String, DependencyNode> dependencyNodeByResolvedCoordinates = new LinkedHashMap<>();
+    private final List<TransferEvent> transferFailures = new ArrayList<>();
+    private final List<String> problems = new ArrayList<>();
+    private final Map<String, Long> rootResolutionNanos = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private int numberOfRoots = -1;
+
+    private ResolutionShardFile() {
+    }
+
+    /**
+     * @return metric counters reported by the shard
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * @return the resolved trees by their {@link ArtifactIdUtils#toId(Artifact) root
+     *         artifact id}
+     */
+    public Map<String, DependencyNode> getDependencyNodeByResolvedCoordinates() {
+        return dependencyNodeByResolvedCoordinates;
+    }
+
+    /**
+     * @return the number of roots the shard was supposed to resolve (<code>-1</code> if unknown)
+     */
+    public int getNumberOfRoots() {
+        return numberOfRoots;
+    }
+
+    /**
+     * @return resolution problems reported by the shard
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    /**
+     * @return time it took to resolve each root (in nanoseconds) reported by the shard
+     */
+    public Map<String, Long> getRootResolutionNanos() {
+        return rootResolutionNanos;
+    }
+
+    /**
+     * @return transfer failures reported by the shard
+     */
+    public List<TransferEvent> getTransferFailures() {
+        return transferFailures;
+    }
+}
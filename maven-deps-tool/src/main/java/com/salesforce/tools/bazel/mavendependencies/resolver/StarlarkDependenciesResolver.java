@@ -3,16 +3,24 @@ package com.salesforce.tools.bazel.mavendependencies.resolver;
 import static com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.DependencyResultWithTransferInfo.toSortedStreamOfMessages;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.isRegularFile;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,6 +28,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -43,6 +52,7 @@ import org.slf4j.Logger;
 
 import com.google.common.base.Suppliers;
 import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.cli.helper.ProgressMonitor;
 import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenConventions;
@@ -50,6 +60,8 @@ import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependencies
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.DependencyResultWithTransferInfo;
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsNodeListGenerator;
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsRepoSys;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
+import com.salesforce.tools.bazel.mavendependencies.metrics.RootResolutionEvent;
 
 /**
  * This dependencies resolver using Maven Dependency Resolver (Aether).
@@ -296,6 +308,243 @@ public class StarlarkDependenciesResolver {
         }
     }
 
+    /**
+     * The roots and managed dependencies of a collection (including the content of imported BOMs).
+     */
+    public static class ResolutionScope {
+
+        private final List<Dependency> dependencies;
+        private final List<Dependency> managedDependencies;
+
+        ResolutionScope(List<Dependency> dependencies, List<Dependency> managedDependencies) {
+            this.dependencies = Collections.unmodifiableList(dependencies);
+            this.managedDependencies = Collections.unmodifiableList(managedDependencies);
+        }
+
+        /**
+         * @return the roots to resolve
+         */
+        public List<Dependency> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return the managed dependencies
+         */
+        public List<Dependency> getManagedDependencies() {
+            return managedDependencies;
+        }
+
+        /**
+         * Returns the effective managed versions.
+         * <p>
+         * As in Maven's dependency management, the first declaration of a dependency wins.
+         * </p>
+         *
+         * @return map of managed versions by {@link ArtifactIdUtils#toVersionlessId(Artifact) versionless id}
+         */
+        public Map<String, String> getManagedVersions() {
+            final Map<String, String> result = new HashMap<>();
+            for (final Dependency dependency : managedDependencies) {
+                result.putIfAbsent(
+                    ArtifactIdUtils.toVersionlessId(dependency.getArtifact()),
+                    dependency.getArtifact().getVersion());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Launcher for worker processes resolving a shard of the individual roots.
+     */
+    @FunctionalInterface
+    public interface ShardWorkerLauncher {
+
+        /**
+         * Creates a process builder for a worker process.
+         * <p>
+         * The worker is expected to call {@link StarlarkDependenciesResolver#resolveShard(MessagePrinter, int, int, Path)}
+         * with the given arguments using the same dependency collection and Maven repository configuration. Output of
+         * the process will be redirected into a log file by the caller.
+         * </p>
+         *
+         * @param shardIndex
+         *            the shard index (zero based)
+         * @param shardCount
+         *            the total number of shards
+         * @param resultFile
+         *            the file the worker must write its result to
+         * @return the process builder (never <code>null</code>)
+         */
+        ProcessBuilder newWorkerProcess(int shardIndex, int shardCount, Path resultFile);
+    }
+
+    /**
+     * Book keeping of running worker processes
+     */
+    private static class ShardWorkers {
+
+        /** maximum time to wait for all workers together */
+        private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+        private static class ShardWorker {
+            final int shardIndex;
+            final int expectedRoots;
+            final Path resultFile;
+            final Path logFile;
+            final Process process;
+
+            ShardWorker(int shardIndex, int expectedRoots, Path resultFile, Path logFile, Process process) {
+                this.shardIndex = shardIndex;
+                this.expectedRoots = expectedRoots;
+                this.resultFile = resultFile;
+                this.logFile = logFile;
+                this.process = process;
+            }
+        }
+
+        private final Path workDirectory;
+        private final List<ShardWorker> workers = new ArrayList<>();
+
+        ShardWorkers(Path workDirectory) {
+            this.workDirectory = workDirectory;
+        }
+
+        void add(int shardIndex, int expectedRoots, Path resultFile, Path logFile, Process process) {
+            workers.add(new ShardWorker(shardIndex, expectedRoots, resultFile, logFile, process));
+        }
+
+        /**
+         * Waits for all workers to finish and merges their results in shard order.
+         * <p>
+         * All workers share a single deadline, i.e. the total wait is limited by {@link #TIMEOUT} regardless of the
+         * number of workers.
+         * </p>
+         */
+        void awaitAndMerge(
+                ProgressMonitor monitor,
+                MetricsCollector metrics,
+                Map<String, DependencyNode> resolveResultByCoordinates,
+                List<TransferEvent> transferFailures,
+                List<Exception> collectedExceptions) throws IOException, InterruptedException {
+            final var deadline = System.nanoTime() + TIMEOUT.toNanos();
+            for (final ShardWorker worker : workers) {
+                monitor.additionalMessage(format("waiting for shard %d of %d", worker.shardIndex + 1, workers.size()));
+                final var remainingNanos = Math.max(0L, deadline - System.nanoTime());
+                if (!worker.process.waitFor(remainingNanos, TimeUnit.NANOSECONDS)) {
+                    worker.process.destroyForcibly();
+                    collectedExceptions.add(
+                        new IllegalStateException(
+                                format(
+                                    "Timeout waiting for shard %d to finish. Please check '%s' for details.",
+                                    worker.shardIndex + 1,
+                                    worker.logFile)));
+                    continue;
+                }
+
+                final var exitValue = worker.process.exitValue();
+                if ((exitValue != 0) || !isRegularFile(worker.resultFile)) {
+                    collectedExceptions.add(
+                        new IllegalStateException(
+                                format(
+                                    "Shard %d failed with exit code %d. Please check '%s' for details.",
+                                    worker.shardIndex + 1,
+                                    exitValue,
+                                    worker.logFile)));
+                    continue;
+                }
+
+                final var shard = ResolutionShardFile.read(worker.resultFile);
+                if (shard.getNumberOfRoots() != worker.expectedRoots) {
+                    collectedExceptions.add(
+                        new IllegalStateException(
+                                format(
+                                    "Shard %d resolved %d roots but %d were expected. Did the dependency collection change while resolving?",
+                                    worker.shardIndex + 1,
+                                    shard.getNumberOfRoots(),
+                                    worker.expectedRoots)));
+                }
+                resolveResultByCoordinates.putAll(shard.getDependencyNodeByResolvedCoordinates());
+                transferFailures.addAll(shard.getTransferFailures());
+                shard.getRootResolutionNanos().forEach(metrics::recordRootResolution);
+                shard.getCounters().forEach((counter, value) -> metrics.add("shards." + counter, value));
+                for (final String problem : shard.getProblems()) {
+                    collectedExceptions.add(
+                        new IllegalStateException(format("Shard %d: %s", worker.shardIndex + 1, problem)));
+                }
+                monitor.progressBy(1);
+            }
+        }
+
+        /**
+         * Forcibly terminates all workers which are still running.
+         */
+        void destroyAll() {
+            for (final ShardWorker worker : workers) {
+                worker.process.destroyForcibly();
+            }
+        }
+
+        /**
+         * Deletes all files written by workers. Should only be called on success so logs are kept for analysis in
+         * case of errors.
+         */
+        void cleanup() throws IOException {
+            for (final ShardWorker worker : workers) {
+                deleteIfExists(worker.resultFile);
+                deleteIfExists(worker.logFile);
+            }
+            deleteIfExists(workDirectory);
+        }
+    }
+
+    /**
+     * Creates {@link Dependency dependencies} sharing their exclusions.
+     * <p>
+     * Every dependency carries the global exclusions of the collection (plus its own exclusions). Instead of converting
+     * the global exclusions for every dependency, the exclusions are converted once per distinct set of artifact
+     * exclusions (most artifacts have none). All dependencies created for the same artifact exclusions share one
+     * exclusions set.
+     * </p>
+     */
+    private static final class SharedExclusions {
+
+        private final Set<MavenArtifact.Exclusion> globalExclusions;
+
+        /** dependencies which provide the shared exclusions (by artifact exclusions) */
+        private final ConcurrentMap<Set<MavenArtifact.Exclusion>, Dependency> templates = new ConcurrentHashMap<>();
+
+        SharedExclusions(Stream<MavenArtifact.Exclusion> globalExclusions) {
+            this.globalExclusions = globalExclusions.collect(toCollection(LinkedHashSet::new));
+        }
+
+        /**
+         * @param artifact
+         *            the artifact
+         * @param scope
+         *            the scope (maybe <code>null</code>)
+         * @param artifactExclusions
+         *            the exclusions of the artifact (maybe <code>null</code>)
+         * @return a new dependency
+         */
+        Dependency newDependency(Artifact artifact, String scope, Set<MavenArtifact.Exclusion> artifactExclusions) {
+            var key = artifactExclusions != null ? artifactExclusions : Collections.<MavenArtifact.Exclusion> emptySet();
+
+            // setArtifact and setScope keep the exclusions of the template
+            return templates.computeIfAbsent(key, k -> new Dependency(artifact, scope, null, toAetherExclusions(k)))
+                    .setArtifact(artifact)
+                    .setScope(scope);
+        }
+
+        private Set<Exclusion> toAetherExclusions(Set<MavenArtifact.Exclusion> artifactExclusions) {
+            // combine artifact exclusions with banned dependencies
+            return Stream.concat(artifactExclusions.stream(), globalExclusions.stream())
+                    .distinct()
+                    .map(e -> new Exclusion(e.getGroupId(), e.getArtifactId(), "*", "*"))
+                    .collect(toSet());
+        }
+    }
+
     private static final Logger LOG = UnifiedLogger.getLogger();
 
     private static String toReadableString(Duration duration) {
@@ -306,10 +555,18 @@ public class StarlarkDependenciesResolver {
 
     private final MavenDependenciesCollection mavenDependenciesCollection;
 
+    private final MetricsCollector metrics;
+
     public StarlarkDependenciesResolver(MavenDependenciesCollection mavenDependenciesCollection,
             MavenDepsRepoSys repoSys) throws IOException {
+        this(mavenDependenciesCollection, repoSys, repoSys.getMetricsCollector());
+    }
+
+    public StarlarkDependenciesResolver(MavenDependenciesCollection mavenDependenciesCollection,
+            MavenDepsRepoSys repoSys, MetricsCollector metrics) throws IOException {
         this.mavenDependenciesCollection = mavenDependenciesCollection;
         this.repoSys = repoSys;
+        this.metrics = requireNonNull(metrics, "metrics collector must not be null");
     }
 
     private Artifact getPom(Artifact artifact) {
@@ -355,21 +612,24 @@ public class StarlarkDependenciesResolver {
      *            dependencies allowed to resolve
      * @param managedDependencies
      *            manages versions of dependencies
-     *
+     * @return the exclusions shared by the dependencies of the resolution scope
      * @throws Exception
      */
-    private void prepareResolutionScope(
+    private SharedExclusions prepareResolutionScope(
             MessagePrinter out,
             final List<Dependency> dependencies,
             final List<Dependency> managedDependencies) throws Exception {
         LOG.debug("Preparing resolution scope.");
 
+        final var sharedExclusions = new SharedExclusions(mavenDependenciesCollection.getGlobalExclusions());
+
         // collect the managed dependencies from all imported BOMs
         final var importedBomsDependencies = mavenDependenciesCollection.getImportedBoms();
-        try (var monitor = out.progressMonitor("Analyzing imported BOMs")) {
+        try (var monitor = out.progressMonitor("Analyzing imported BOMs");
+                var phase = metrics.phase("bom-analysis")) {
             monitor.maxHint(importedBomsDependencies.size());
             for (final MavenArtifact a : importedBomsDependencies) {
-                final var importBomDependency = toDependency(a, "import");
+                final var importBomDependency = toDependency(a, "import", sharedExclusions);
 
                 // add the BOM to the list of managed dependencies
                 managedDependencies.add(importBomDependency);
@@ -443,10 +703,12 @@ public class StarlarkDependenciesResolver {
             monitor.progressBy(1);
         }
 
+        metrics.add("boms.imported", importedBomsDependencies.size());
+
         // add all defined dependencies
         final var definedDependencies = mavenDependenciesCollection.getAllDependencies();
         for (final MavenArtifact a : definedDependencies) {
-            final var dependency = toDependency(a, "compile");
+            final var dependency = toDependency(a, "compile", sharedExclusions);
             dependencies.add(dependency);
             managedDependencies.add(dependency);
             if (LOG.isDebugEnabled()) {
@@ -456,9 +718,128 @@ public class StarlarkDependenciesResolver {
                     a.getVersion());
             }
         }
+
+        return sharedExclusions;
+    }
+
+    /**
+     * Prepares the resolution scope of the underlying Maven dependencies collection.
+     * <p>
+     * This will resolve imported BOMs and add their content to the resolution scope.
+     * </p>
+     *
+     * @param out
+     *            progress reporting
+     * @return the resolution scope
+     * @throws Exception
+     */
+    public ResolutionScope prepareResolutionScope(MessagePrinter out) throws Exception {
+        final List<Dependency> dependencies = new ArrayList<>();
+        final List<Dependency> managedDependencies = new ArrayList<>();
+        prepareResolutionScope(out, dependencies, managedDependencies);
+        return new ResolutionScope(dependencies, managedDependencies);
+    }
+
+    /**
+     * Resolves a subset of the roots of a resolution scope.
+     * <p>
+     * This performs the same two phases as {@link #resolveAndDownload(MessagePrinter)} but only for the given roots.
+     * All dependencies of the scope remain managed. Sources and poms are not downloaded. The result is suitable for
+     * analyzing the impact of changes affecting only a few roots without resolving the whole collection.
+     * </p>
+     *
+     * @param out
+     *            progress reporting
+     * @param scope
+     *            the resolution scope (see {@link #prepareResolutionScope(MessagePrinter)})
+     * @param roots
+     *            the roots to resolve (typically a subset of {@link ResolutionScope#getDependencies()})
+     * @return the result
+     * @throws Exception
+     */
+    public ResolveAndDownloadResult resolveRoots(MessagePrinter out, ResolutionScope scope, List<Dependency> roots)
+            throws Exception {
+        final var start = Instant.now();
+        final ConcurrentMap<String, DependencyNode> resolveResultByCoordinates = new ConcurrentHashMap<>();
+        final List<TransferEvent> transferFailures = new CopyOnWriteArrayList<>();
+        final List<Exception> collectedExceptions = new CopyOnWriteArrayList<>();
+        DependencyResult resolveResult;
+        try (var monitor = out.progressMonitor("Resolving affected dependencies")) {
+            monitor.maxHint(-1);
+            final var calculations = resolveIndividually(
+                roots,
+                scope.getManagedDependencies(),
+                monitor,
+                resolveResultByCoordinates,
+                transferFailures,
+                collectedExceptions);
+
+            final var resolveResultWithFailures =
+                    repoSys.resolveDependencies(roots, scope.getManagedDependencies(), monitor);
+            resolveResult = resolveResultWithFailures.getDependencyResult();
+            transferFailures.addAll(resolveResultWithFailures.getTransferFailures());
+
+            calculations.shutdown();
+            calculations.awaitTermination(10, TimeUnit.MINUTES);
+        }
+        if (!collectedExceptions.isEmpty()) {
+            var exception = new IllegalStateException(
+                    format(
+                        "Unable to resolved the dependency graph properly. The following problems occured:%n%s",
+                        collectedExceptions.stream().map(Exception::toString).collect(joining("\n - ", " - ", "\n"))));
+            collectedExceptions.forEach(exception::addSuppressed);
+            throw exception;
+        }
+        out.important(
+            format(
+                "Resolved %d affected dependencies (%s)",
+                roots.size(),
+                toReadableString(Duration.between(start, Instant.now()))));
+
+        final var nodeListGenerator = new MavenDepsNodeListGenerator();
+        resolveResult.getRoot().accept(nodeListGenerator);
+        return new ResolveAndDownloadResult(
+                resolveResult,
+                nodeListGenerator.getArtifacts(false, MavenDepsNodeListGenerator.skipReplacedNodes()),
+                List.of(),
+                resolveResultByCoordinates,
+                scope.getManagedDependencies(),
+                transferFailures);
     }
 
     public ResolveAndDownloadResult resolveAndDownload(MessagePrinter out) throws Exception {
+        return resolveAndDownload(out, 1, null);
+    }
+
+    /**
+     * Resolves all dependencies and downloads sources and poms.
+     * <p>
+     * When more then one shard is requested the individual resolution of each root is delegated to separate worker
+     * processes launched using the given {@link ShardWorkerLauncher}. Each worker resolves a deterministic slice of the
+     * roots and writes its result into a file, which is merged by this process. The single root resolution is always
+     * performed by this process (in parallel to the workers).
+     * </p>
+     *
+     * @param out
+     *            progress reporting
+     * @param shardCount
+     *            number of worker processes to use for individual resolution (<code>1</code> to resolve in-process)
+     * @param shardWorkerLauncher
+     *            the launcher for worker processes (must not be <code>null</code> if shardCount is greater then one)
+     * @return the result
+     * @throws Exception
+     */
+    public ResolveAndDownloadResult resolveAndDownload(
+            MessagePrinter out,
+            int shardCount,
+            ShardWorkerLauncher shardWorkerLauncher) throws Exception {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException(format("Invalid number of shards: %d", shardCount));
+        }
+        if ((shardCount > 1) && (shardWorkerLauncher == null)) {
+            throw new IllegalArgumentException("A shard worker launcher is required for sharded resolution!");
+        }
+
         final List<Dependency> dependencies = new ArrayList<>();
         final List<Dependency> managedDependencies = new ArrayList<>();
 
@@ -476,55 +857,64 @@ public class StarlarkDependenciesResolver {
             final List<Exception> collectedExceptions = new CopyOnWriteArrayList<>();
 
             // 1st pass is a bit involved because we want all the individual trees
-            final var calculations =
-                    Executors.newWorkStealingPool(Math.min(8, Runtime.getRuntime().availableProcessors()));
-            for (final Dependency dependency : dependencies) {
-                calculations.submit(() -> {
-                    try {
-                        final var result =
-                                repoSys.resolveDependencies(List.of(dependency), managedDependencies, monitor);
-                        final var children = result.getDependencyResult().getRoot().getChildren();
-                        if (children.size() != 1) {
-                            collectedExceptions.add(
-                                new IllegalStateException(
-                                        format(
-                                            "Unexpected resolution result for '%s':%n%s",
-                                            dependency,
-                                            children.stream()
-                                                    .map(DependencyNode::toString)
-                                                    .collect(joining("\n - ", " - ", "\n")))));
-                        }
-                        final var node = children.get(0);
-                        resolveResultByCoordinates.put(ArtifactIdUtils.toId(node.getArtifact()), node);
-                        collectedExceptions.addAll(result.getDependencyResult().getCollectExceptions());
-                        transferFailures.addAll(result.getTransferFailures());
-                    } catch (final DependencyResolutionException e) {
-                        LOG.error("Resolution error for '{}': {}", dependency, e.getMessage(), e);
-                        collectedExceptions.add(e);
+            metrics.add("roots", dependencies.size());
+            final var shards = shardCount > 1 ? startShardWorkers(dependencies, shardCount, shardWorkerLauncher)
+                    : null;
+            final var calculations = shards == null ? resolveIndividually(
+                dependencies,
+                managedDependencies,
+                monitor,
+                resolveResultByCoordinates,
+                transferFailures,
+                collectedExceptions) : null;
+            try {
+                // last is a full pass of the whole graph at once
+                // (for resolving all version conflicts)
+                DependencyResultWithTransferInfo resolveResultWithFailures;
+                try (var phase = metrics.phase("merged-resolution")) {
+                    resolveResultWithFailures = repoSys.resolveDependencies(dependencies, managedDependencies, monitor);
+                }
+                resolveResult = resolveResultWithFailures.getDependencyResult();
+                transferFailures.addAll(resolveResultWithFailures.getTransferFailures());
+
+                // wait for all resolutions to finish
+                // (individual resolution runs in parallel to the merged resolution, only the remaining wait is timed)
+                try (var phase = metrics.phase("individual-resolution")) {
+                    if (shards != null) {
+                        shards.awaitAndMerge(
+                            monitor,
+                            metrics,
+                            resolveResultByCoordinates,
+                            transferFailures,
+                            collectedExceptions);
+                    } else {
+                        calculations.shutdown();
+                        calculations.awaitTermination(10, TimeUnit.MINUTES);
                     }
-                });
-            }
-
-            // last is a full pass of the whole graph at once
-            // (for resolving all version conflicts)
-            var resolveResultWithFailures = repoSys.resolveDependencies(dependencies, managedDependencies, monitor);
-            resolveResult = resolveResultWithFailures.getDependencyResult();
-            transferFailures.addAll(resolveResultWithFailures.getTransferFailures());
+                }
 
-            // wait for all resolutions to finish
-            calculations.shutdown();
-            calculations.awaitTermination(10, TimeUnit.MINUTES);
+                // ensure there were no exceptions
+                if (!collectedExceptions.isEmpty()) {
+                    var exception = new IllegalStateException(
+                            format(
+                                "Unable to resolved the dependency graph properly. The following problems occured:%n%s",
+                                collectedExceptions.stream()
+                                        .map(Exception::toString)
+                                        .collect(joining("\n - ", " - ", "\n"))));
+                    collectedExceptions.forEach(exception::addSuppressed);
+                    throw exception;
+                }
+            } finally {
+                // never leave anything running behind (no-op when everything finished)
+                if (shards != null) {
+                    shards.destroyAll();
+                } else {
+                    calculations.shutdownNow();
+                }
+            }
 
-            // ensure there were no exceptions
-            if (!collectedExceptions.isEmpty()) {
-                var exception = new IllegalStateException(
-                        format(
-                            "Unable to resolved the dependency graph properly. The following problems occured:%n%s",
-                            collectedExceptions.stream()
-                                    .map(Exception::toString)
-                                    .collect(joining("\n - ", " - ", "\n"))));
-                collectedExceptions.forEach(exception::addSuppressed);
-                throw exception;
+            if (shards != null) {
+                shards.cleanup();
             }
         }
         out.important(
@@ -551,7 +941,8 @@ public class StarlarkDependenciesResolver {
             }
         }
         List<ArtifactResult> optionalSourceAndPomDownloadResults;
-        try (var monitor = out.progressMonitor("Downloading sources")) {
+        try (var monitor = out.progressMonitor("Downloading sources");
+                var phase = metrics.phase("sources-download")) {
             monitor.maxHint(optionalSourcesAndPomArtifacts.size());
             try {
                 optionalSourceAndPomDownloadResults =
@@ -561,6 +952,10 @@ public class StarlarkDependenciesResolver {
                 optionalSourceAndPomDownloadResults = e.getResults();
             }
         }
+        metrics.add("artifacts.merged", resolvedArtifacts.size());
+        metrics.add(
+            "artifacts.optional.downloaded",
+            optionalSourceAndPomDownloadResults.stream().filter(ArtifactResult::isResolved).count());
 
         // now build the final list for the catalog
         return new ResolveAndDownloadResult(
@@ -572,6 +967,151 @@ public class StarlarkDependenciesResolver {
                 transferFailures);
     }
 
+    /**
+     * Resolves each of the given roots individually using a thread pool.
+     *
+     * @return the thread pool (caller must shut it down and wait for termination)
+     */
+    private ExecutorService resolveIndividually(
+            List<Dependency> roots,
+            List<Dependency> managedDependencies,
+            ProgressMonitor monitor,
+            Map<String, DependencyNode> resolveResultByCoordinates,
+            List<TransferEvent> transferFailures,
+            List<Exception> collectedExceptions) {
+        final var calculations = Executors.newWorkStealingPool(Math.min(8, Runtime.getRuntime().availableProcessors()));
+        for (final Dependency dependency : roots) {
+            calculations.submit(() -> {
+                final var rootStart = System.nanoTime();
+                final var event = new RootResolutionEvent();
+                event.begin();
+                var failed = true;
+                try {
+                    final var result = repoSys.resolveDependencies(List.of(dependency), managedDependencies, monitor);
+                    final var children = result.getDependencyResult().getRoot().getChildren();
+                    if (children.size() != 1) {
+                        collectedExceptions.add(
+                            new IllegalStateException(
+                                    format(
+                                        "Unexpected resolution result for '%s':%n%s",
+                                        dependency,
+                                        children.stream()
+                                                .map(DependencyNode::toString)
+                                                .collect(joining("\n - ", " - ", "\n")))));
+                    }
+                    final var node = children.get(0);
+                    resolveResultByCoordinates.put(ArtifactIdUtils.toId(node.getArtifact()), node);
+                    collectedExceptions.addAll(result.getDependencyResult().getCollectExceptions());
+                    transferFailures.addAll(result.getTransferFailures());
+                    failed = false;
+                } catch (final DependencyResolutionException e) {
+                    LOG.error("Resolution error for '{}': {}", dependency, e.getMessage(), e);
+                    collectedExceptions.add(e);
+                } finally {
+                    metrics.recordRootResolution(
+                        ArtifactIdUtils.toId(dependency.getArtifact()),
+                        System.nanoTime() - rootStart);
+                    if (event.shouldCommit()) {
+                        event.coordinates = ArtifactIdUtils.toId(dependency.getArtifact());
+                        event.failed = failed;
+                        event.commit();
+                    }
+                }
+            });
+        }
+        return calculations;
+    }
+
+    /**
+     * Resolves a slice of the individual roots and writes the result into a file.
+     * <p>
+     * This is the entry point for worker processes launched by
+     * {@link #resolveAndDownload(MessagePrinter, int, ShardWorkerLauncher)}. Any resolution problems are recorded in
+     * the result file and reported by the coordinating process.
+     * </p>
+     *
+     * @param out
+     *            progress reporting
+     * @param shardIndex
+     *            the shard index (zero based)
+     * @param shardCount
+     *            the total number of shards
+     * @param resultFile
+     *            the file to write the result to
+     * @throws Exception
+     */
+    public void resolveShard(MessagePrinter out, int shardIndex, int shardCount, Path resultFile) throws Exception {
+        final List<Dependency> dependencies = new ArrayList<>();
+        final List<Dependency> managedDependencies = new ArrayList<>();
+
+        prepareResolutionScope(out, dependencies, managedDependencies);
+
+        final var roots = ResolutionShardFile.selectRoots(dependencies, shardIndex, shardCount);
+
+        final var start = Instant.now();
+        final Map<String, DependencyNode> resolveResultByCoordinates = new ConcurrentHashMap<>();
+        final List<TransferEvent> transferFailures = new CopyOnWriteArrayList<>();
+        final List<Exception> collectedExceptions = new CopyOnWriteArrayList<>();
+        try (var monitor = out.progressMonitor(format("Resolving shard %d of %d", shardIndex + 1, shardCount))) {
+            monitor.maxHint(-1);
+            final var calculations = resolveIndividually(
+                roots,
+                managedDependencies,
+                monitor,
+                resolveResultByCoordinates,
+                transferFailures,
+                collectedExceptions);
+            calculations.shutdown();
+            if (!calculations.awaitTermination(10, TimeUnit.MINUTES)) {
+                collectedExceptions.add(new IllegalStateException("Timeout waiting for shard resolution to finish"));
+            }
+        }
+
+        ResolutionShardFile.write(
+            resultFile,
+            shardIndex,
+            shardCount,
+            roots.size(),
+            resolveResultByCoordinates,
+            transferFailures,
+            collectedExceptions.stream().map(Exception::toString).collect(toList()),
+            metrics.getRootResolutionNanos(),
+            metrics.getCounters());
+
+        out.important(
+            format(
+                "Resolved %d dependencies in shard %d of %d (%s)",
+                roots.size(),
+                shardIndex + 1,
+                shardCount,
+                toReadableString(Duration.between(start, Instant.now()))));
+    }
+
+    private ShardWorkers startShardWorkers(
+            List<Dependency> dependencies,
+            int shardCount,
+            ShardWorkerLauncher shardWorkerLauncher) throws IOException {
+        final var workDirectory = createTempDirectory("bazel-maven-deps-shards");
+        final var shards = new ShardWorkers(workDirectory);
+        try {
+            for (var shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+                final var resultFile = workDirectory.resolve(format("shard-%d.result", shardIndex));
+                final var logFile = workDirectory.resolve(format("shard-%d.log", shardIndex));
+                final var expectedRoots = ResolutionShardFile.selectRoots(dependencies, shardIndex, shardCount).size();
+                final var processBuilder = shardWorkerLauncher.newWorkerProcess(shardIndex, shardCount, resultFile)
+                        .redirectErrorStream(true)
+                        .redirectOutput(logFile.toFile());
+                LOG.debug("Starting shard worker {}: {}", shardIndex, processBuilder.command());
+                shards.add(shardIndex, expectedRoots, resultFile, logFile, processBuilder.start());
+            }
+        } catch (IOException | RuntimeException e) {
+            // don't leave already started workers behind
+            shards.destroyAll();
+            throw e;
+        }
+        return shards;
+    }
+
     /**
      * Resolves a single dependency based on the underlying collection
      *
@@ -586,14 +1126,14 @@ public class StarlarkDependenciesResolver {
         final List<Dependency> dependencies = new ArrayList<>();
         final List<Dependency> managedDependencies = new ArrayList<>();
 
-        prepareResolutionScope(out, dependencies, managedDependencies);
+        final var sharedExclusions = prepareResolutionScope(out, dependencies, managedDependencies);
 
         // resolve
         final var start = Instant.now();
         DependencyResultWithTransferInfo resolveResult;
         try (var monitor = out.progressMonitor("Resolving dependency")) {
             monitor.maxHint(-1);
-            resolveResult = repoSys.resolveDependency(toDependency(a, null), managedDependencies, monitor);
+            resolveResult = repoSys.resolveDependency(toDependency(a, null, sharedExclusions), managedDependencies, monitor);
         }
         out.important(
             format(
@@ -604,23 +1144,14 @@ public class StarlarkDependenciesResolver {
         return resolveResult;
     }
 
-    private Dependency toDependency(MavenArtifact a, String scope) {
+    private Dependency toDependency(MavenArtifact a, String scope, SharedExclusions sharedExclusions) {
         final var version = mavenDependenciesCollection.hasVersionVariable(a.getVersion())
                 ? mavenDependenciesCollection.getVersionVariableValue(a.getVersion()) : a.getVersion();
 
-        // combine artifact exclusions with banned dependencies
-        var allExclusions = a.getExclusions() != null
-                ? Stream.concat(a.getExclusions().stream(), mavenDependenciesCollection.getGlobalExclusions())
-                        .distinct()
-                : mavenDependenciesCollection.getGlobalExclusions();
-
-        final var exclusions =
-                allExclusions.map(e -> new Exclusion(e.getGroupId(), e.getArtifactId(), "*", "*")).collect(toSet());
-        return new Dependency(
-                new DefaultArtifact(a.getGroupId(), a.getArtifactId(), a.getClassifier(), a.getPackaging(), version),
-                scope,
-                null,
-                exclusions);
+        return sharedExclusions.newDependency(
+            new DefaultArtifact(a.getGroupId(), a.getArtifactId(), a.getClassifier(), a.getPackaging(), version),
+            scope,
+            a.getExclusions());
     }
 
 }
@@ -2,8 +2,10 @@ package com.salesforce.tools.bazel.mavendependencies.tool.cli;
 
 import static com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection.getRecommendedPreamble;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.SortedSet;
@@ -11,6 +13,7 @@ import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 import com.salesforce.tools.bazel.cli.BaseCommandWithWorkspaceRoot;
 import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
 import com.salesforce.tools.bazel.cli.scm.NaiveScmTool;
@@ -18,6 +21,8 @@ import com.salesforce.tools.bazel.mavendependencies.collection.CollectionSaveRes
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
 import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsRepoSys;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.ResidentWorkspaceState;
 import com.salesforce.tools.bazel.mavendependencies.vulnerabilities.NoOpVulnerabilityScanner;
 import com.salesforce.tools.bazel.mavendependencies.vulnerabilities.VulnerabilityScanner;
 import com.salesforce.tools.bazel.mavendependencies.vulnerabilities.VulnerabilityScannerFactory;
@@ -79,9 +84,17 @@ public abstract class BaseCommandUsingDependencyCollection extends BaseCommandWi
 
     @Override
     protected final int executeCommand(MessagePrinter out) throws Exception {
-        // load dependencies
-        mavenDependenciesCollection = new MavenDependenciesCollection(workspaceRoot);
-        mavenDependenciesCollection.load();
+        // load dependencies (re-use when running within the daemon)
+        final var residentState = ResidentWorkspaceState.getActive(workspaceRoot);
+        if (residentState != null) {
+            mavenDependenciesCollection = residentState.getCollection();
+        } else if (isLazyCollectionLoadingSupported()) {
+            mavenDependenciesCollection = new MavenDependenciesCollection(workspaceRoot);
+            mavenDependenciesCollection.loadLazily(getWorkspaceCacheDirectory().resolve("version-variables.idx"));
+        } else {
+            mavenDependenciesCollection = new MavenDependenciesCollection(workspaceRoot);
+            mavenDependenciesCollection.load();
+        }
 
         // execute
         return doExecuteCommand(out);
@@ -91,9 +104,47 @@ public abstract class BaseCommandUsingDependencyCollection extends BaseCommandWi
         if (mavenRepositorySystem != null) {
             return mavenRepositorySystem;
         }
+
+        final var residentState = ResidentWorkspaceState.getActive(workspaceRoot);
+        if (residentState != null) {
+            return mavenRepositorySystem = residentState.getRepoSys(getRepoSysConfigurationKey(), this::newRepoSys);
+        }
+
         return mavenRepositorySystem = newRepoSys();
     }
 
+    /**
+     * @return a key identifying the configuration used by {@link #newRepoSys()}
+     */
+    private String getRepoSysConfigurationKey() {
+        return String.join(
+            "\n",
+            String.valueOf(downloaderConfig),
+            mavenCenteralUrl,
+            String.valueOf(mavenRepositories),
+            String.valueOf(localMavenRepository));
+    }
+
+    /**
+     * Returns a directory for caching information about the workspace outside of the workspace.
+     * <p>
+     * The directory is located in <code>$XDG_CACHE_HOME</code> (defaults to <code>~/.cache</code>). It's not
+     * guaranteed to exist. Anything stored in there must be safe to delete at any time.
+     * </p>
+     *
+     * @return the cache directory for the workspace
+     */
+    protected Path getWorkspaceCacheDirectory() {
+        final var xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+        final var cacheHome = (xdgCacheHome != null) && !xdgCacheHome.isBlank() ? Path.of(xdgCacheHome)
+                : Path.of(System.getProperty("user.home"), ".cache");
+        final var workspaceKey = Hashing.sha256()
+                .hashString(workspaceRoot.toAbsolutePath().normalize().toString(), UTF_8)
+                .toString()
+                .substring(0, 16);
+        return cacheHome.resolve("bazel-maven-deps").resolve(workspaceKey);
+    }
+
     @Override
     protected NaiveScmTool getScmTool() {
         // overridden so it becomes visible to our tests
@@ -112,6 +163,62 @@ public abstract class BaseCommandUsingDependencyCollection extends BaseCommandWi
         return vulnerabilityScanner = new NoOpVulnerabilityScanner(out);
     }
 
+    /**
+     * Indicates if the command only needs the part of the collection related to a single artifact or version
+     * variable.
+     * <p>
+     * If <code>true</code> the collection will be {@link MavenDependenciesCollection#loadLazily(Path) loaded lazily},
+     * i.e. group files are parsed on demand. The default is <code>false</code>.
+     * </p>
+     *
+     * @return <code>true</code> if lazy loading of the collection is sufficient for the command
+     */
+    protected boolean isLazyCollectionLoadingSupported() {
+        return false;
+    }
+
+    /**
+     * Indicates if the command only looks up single imports in the catalog by Maven coordinates.
+     * <p>
+     * If <code>true</code> {@link #loadCatalog()} will {@link BazelDependenciesCatalog#loadLazily(Path) load the
+     * catalog lazily}, i.e. group files are parsed on demand. The default is <code>false</code>.
+     * </p>
+     *
+     * @return <code>true</code> if lazy loading of the catalog is sufficient for the command
+     */
+    protected boolean isLazyCatalogLoadingSupported() {
+        return false;
+    }
+
+    /**
+     * Loads the {@link BazelDependenciesCatalog} of the workspace.
+     * <p>
+     * When running within the daemon the resident catalog is returned. Callers may modify and save it. Otherwise the
+     * catalog is loaded using an index in the {@link #getWorkspaceCacheDirectory() workspace cache directory}, which
+     * avoids parsing unchanged catalog files. The catalog is loaded lazily if the command
+     * {@link #isLazyCatalogLoadingSupported() supports it}.
+     * </p>
+     *
+     * @return the loaded catalog
+     * @throws IOException
+     *             in case of errors loading the catalog
+     */
+    protected BazelDependenciesCatalog loadCatalog() throws IOException {
+        final var residentState = ResidentWorkspaceState.getActive(workspaceRoot);
+        if (residentState != null) {
+            return residentState.getCatalog();
+        }
+
+        final var catalog = new BazelDependenciesCatalog(workspaceRoot);
+        final var importIndexFile = getWorkspaceCacheDirectory().resolve("pinned-catalog.idx");
+        if (isLazyCatalogLoadingSupported()) {
+            catalog.loadLazily(importIndexFile);
+        } else {
+            catalog.loadUsingIndex(importIndexFile);
+        }
+        return catalog;
+    }
+
     /**
      * Creates a new {@link MavenDepsRepoSys} instance when needed. This is called by {@link #getRepoSys()} and should
      * not be called by someone else.
@@ -0,0 +1,401 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact.Exclusion;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.starlark.BazelConventions;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Applies many modifications to the dependencies collection in a single load/save cycle.
+ * <p>
+ * The script contains one operation per line. Empty lines and lines starting with <code>#</code> are ignored.
+ *
+ * <pre>
+ * add &lt;groupId&gt;:&lt;artifactId&gt;[:&lt;packaging&gt;[:&lt;classifier&gt;]]:&lt;version&gt;
+ * remove &lt;groupId&gt;:&lt;artifactId&gt;[:&lt;packaging&gt;[:&lt;classifier&gt;]]
+ * set-version &lt;groupId&gt;:&lt;artifactId&gt;[:&lt;packaging&gt;[:&lt;classifier&gt;]] &lt;version&gt;
+ * set-variable &lt;version variable&gt; &lt;value&gt;
+ * add-exclusion &lt;groupId&gt;:&lt;artifactId&gt;
+ * remove-exclusion &lt;groupId&gt;:&lt;artifactId&gt;
+ * </pre>
+ * </p>
+ * <p>
+ * All operations are applied as a {@link MavenDependenciesCollection#beginBatchModification() batch modification},
+ * i.e. the collection is validated once after the last operation. Failed operations are reported with their line
+ * number and leave the collection unchanged. Nothing is saved if any operation failed (unless
+ * <code>--ignore-failed-lines</code> is set).
+ * </p>
+ */
+@Command(
+        name = "batch",
+        description = "Apply a script of add/remove/set-version/set-variable/add-exclusion/remove-exclusion operations to //third_party/dependencies/*.bzl files in one go.")
+public class BatchCommand extends BaseCommandUsingDependencyCollection {
+
+    /**
+     * A failed line of the script
+     */
+    static final class Failure {
+        final int lineNumber;
+        final String line;
+        final String message;
+
+        Failure(int lineNumber, String line, String message) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            if (line == null) {
+                return format("After line %d: %s", lineNumber, message);
+            }
+            return format("Line %d: %s%n  > %s", lineNumber, message, line);
+        }
+    }
+
+    static final String OP_ADD = "add";
+    static final String OP_REMOVE = "remove";
+    static final String OP_SET_VERSION = "set-version";
+    static final String OP_SET_VARIABLE = "set-variable";
+    static final String OP_ADD_EXCLUSION = "add-exclusion";
+    static final String OP_REMOVE_EXCLUSION = "remove-exclusion";
+
+    private static void expectArguments(String[] tokens, int count, String syntax) {
+        if (tokens.length != (count + 1)) {
+            throw new IllegalArgumentException(format("Invalid syntax. Expected '%s %s'", tokens[0], syntax));
+        }
+    }
+
+    public static void main(String[] args) {
+        execute(new BatchCommand(), args);
+    }
+
+    /**
+     * Parses coordinates without version into {@link MavenArtifact#toCoordinatesStringWithoutVersion()} format.
+     */
+    private static String toCoordinatesWithoutVersion(String coordinates) {
+        // parse with a dummy version so defaults (eg., packaging) are applied consistently
+        return MavenArtifact.fromCoordinatesString(coordinates + ":0").toCoordinatesStringWithoutVersion();
+    }
+
+    @Option(
+            names = "--script",
+            description = "file with the operations to apply (use '-' to read from standard input, default: ${DEFAULT-VALUE})",
+            defaultValue = "-")
+    private String script;
+
+    @Option(
+            names = "--ignore-failed-lines",
+            description = "save the collection even if some operations failed")
+    private boolean ignoreFailedLines;
+
+    /** version variables which may no longer be used after removing/updating artifacts */
+    private final SortedSet<String> possiblyUnusedVersionVariables = new TreeSet<>();
+
+    private String add(MavenDependenciesCollection collection, String coordinates) {
+        final var input = MavenArtifact.fromCoordinatesString(coordinates);
+        final var coordinatesWithoutVersion = input.toCoordinatesStringWithoutVersion();
+        if (collection.findArtifact(coordinatesWithoutVersion) != null) {
+            throw new IllegalStateException(
+                    format(
+                        "Artifact '%s' is already defined in the dependencies collection. Use 'set-version' to update it.",
+                        coordinatesWithoutVersion));
+        }
+
+        // same version variable logic as add-dependency
+        final String versionName, versionValue;
+        if (collection.hasVersionVariable(input.getVersion())) {
+            versionName = input.getVersion();
+            versionValue = collection.getVersionVariableValue(versionName);
+        } else {
+            versionName =
+                    "_" + BazelConventions.toTargetName(input.getArtifactId()).toUpperCase(Locale.US) + "_VERSION";
+            versionValue = input.getVersion();
+            final var existingVersion = collection.getVersionVariableValue(versionName);
+            if ((existingVersion != null) && !existingVersion.equals(versionValue)) {
+                throw new IllegalStateException(
+                        format("There is already an existing version: '%s' = '%s'", versionName, existingVersion));
+            }
+        }
+
+        final var artifact = new MavenArtifact(
+                input.getGroupId(),
+                input.getArtifactId(),
+                versionName,
+                input.getPackaging(),
+                input.getClassifier());
+        collection.addDependencyWithManagedVersion(artifact, versionName, versionValue);
+        return format("Added dependency '%s' (%s = %s)", coordinatesWithoutVersion, versionName, versionValue);
+    }
+
+    /**
+     * Applies a single operation.
+     *
+     * @param collection
+     *            the collection to modify
+     * @param line
+     *            the script line (must not be empty or a comment)
+     * @return message describing the modification
+     * @throws RuntimeException
+     *             if the operation failed
+     */
+    String applyOperation(MavenDependenciesCollection collection, String line) {
+        final var tokens = line.trim().split("\\s+");
+        switch (tokens[0]) {
+            case OP_ADD:
+                expectArguments(tokens, 1, "<groupId>:<artifactId>[:<packaging>[:<classifier>]]:<version>");
+                return add(collection, tokens[1]);
+
+            case OP_REMOVE:
+                expectArguments(tokens, 1, "<groupId>:<artifactId>[:<packaging>[:<classifier>]]");
+                return remove(collection, tokens[1]);
+
+            case OP_SET_VERSION:
+                expectArguments(tokens, 2, "<groupId>:<artifactId>[:<packaging>[:<classifier>]] <version>");
+                return setVersion(collection, tokens[1], tokens[2]);
+
+            case OP_SET_VARIABLE: {
+                expectArguments(tokens, 2, "<version variable> <value>");
+                if (!collection.hasVersionVariable(tokens[1])) {
+                    throw new IllegalStateException(
+                            format("Version variable '%s' not found in dependencies collection!", tokens[1]));
+                }
+                final var oldValue = collection.updateVersionVariable(tokens[1], tokens[2]);
+                return format("Updated version variable '%s': '%s' -> '%s'", tokens[1], oldValue, tokens[2]);
+            }
+
+            case OP_ADD_EXCLUSION: {
+                expectArguments(tokens, 1, "<groupId>:<artifactId>");
+                final var exclusion = Exclusion.fromCoordinatesString(tokens[1]);
+                collection.addExclusion(exclusion);
+                return format("Added exclusion '%s'", exclusion);
+            }
+
+            case OP_REMOVE_EXCLUSION: {
+                expectArguments(tokens, 1, "<groupId>:<artifactId>");
+                final var exclusion = Exclusion.fromCoordinatesString(tokens[1]);
+                if (!collection.removeExclusion(exclusion)) {
+                    throw new IllegalStateException(
+                            format("Unable to remove exclusion '%s'. Does it exist?", exclusion));
+                }
+                return format("Removed exclusion '%s'", exclusion);
+            }
+
+            default:
+                throw new IllegalArgumentException(
+                        format(
+                            "Unknown operation '%s'. Supported operations are: %s",
+                            tokens[0],
+                            List.of(
+                                OP_ADD,
+                                OP_REMOVE,
+                                OP_SET_VERSION,
+                                OP_SET_VARIABLE,
+                                OP_ADD_EXCLUSION,
+                                OP_REMOVE_EXCLUSION)));
+        }
+    }
+
+    /**
+     * Applies all operations of a script to the collection.
+     *
+     * @param collection
+     *            the collection to modify
+     * @param script
+     *            the script
+     * @param out
+     *            for reporting applied operations (when verbose)
+     * @return list of failed lines (never <code>null</code>)
+     * @throws IOException
+     *             in case of errors reading the script
+     */
+    List<Failure> applyScript(MavenDependenciesCollection collection, BufferedReader script, MessagePrinter out)
+            throws IOException {
+        final List<Failure> failures = new ArrayList<>();
+        var lineNumber = 0;
+        String line;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            final var trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                final var message = applyOperation(collection, trimmed);
+                if (verbose) {
+                    out.info(format("%d: %s", lineNumber, message));
+                }
+            } catch (RuntimeException e) {
+                failures.add(new Failure(lineNumber, trimmed, String.valueOf(e.getMessage())));
+            }
+        }
+
+        try {
+            removeUnusedVersionVariables(collection, out);
+        } catch (RuntimeException e) {
+            failures.add(
+                new Failure(
+                        lineNumber,
+                        null,
+                        format("Unable to remove unused version variables: %s", e.getMessage())));
+        }
+        return failures;
+    }
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        List<Failure> failures;
+        mavenDependenciesCollection.beginBatchModification();
+        try (var reader = openScript()) {
+            failures = applyScript(mavenDependenciesCollection, reader, out);
+        }
+
+        try {
+            mavenDependenciesCollection.endBatchModification();
+        } catch (IllegalStateException e) {
+            out.error(format("The dependencies collection is invalid after applying the script:%n%s", e.getMessage()));
+            return 1;
+        }
+
+        if (!failures.isEmpty()) {
+            out.error(
+                format(
+                    "%d operation(s) failed:%n%s",
+                    failures.size(),
+                    failures.stream().map(Failure::toString).collect(joining(System.lineSeparator()))));
+            if (!ignoreFailedLines) {
+                out.error("Nothing was saved. Fix the script or use '--ignore-failed-lines' to save anyway.");
+                return 1;
+            }
+        }
+
+        final var saveResult = saveStarlarkDependenciesFile(out);
+        printSaveResult(out, saveResult, null);
+
+        return failures.isEmpty() ? 0 : 1;
+    }
+
+    private BufferedReader openScript() throws IOException {
+        if ("-".equals(script)) {
+            return new BufferedReader(new InputStreamReader(System.in, UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(script), UTF_8);
+    }
+
+    private String remove(MavenDependenciesCollection collection, String coordinates) {
+        final var coordinatesWithoutVersion = toCoordinatesWithoutVersion(coordinates);
+        final var artifact = collection.findArtifact(coordinatesWithoutVersion);
+        if (artifact == null) {
+            throw new IllegalArgumentException(
+                    format(
+                        "Artifact with coordinates '%s' not defined in the dependencies collection!",
+                        coordinatesWithoutVersion));
+        }
+
+        if (!collection.removeDependency(artifact) && !collection.removeImportedBom(artifact)) {
+            throw new IllegalStateException(
+                    format(
+                        "Unable to remove '%s' from either dependencies or imported BOM list. Something is wrong!",
+                        artifact));
+        }
+        possiblyUnusedVersionVariables.add(artifact.getVersion());
+        return format("Removed '%s'", coordinatesWithoutVersion);
+    }
+
+    /**
+     * Removes version variables no longer used after the script was applied.
+     * <p>
+     * This is done once at the end of the script because it requires looking at the whole collection. Nothing is
+     * removed if looking at the whole collection fails.
+     * </p>
+     */
+    private void removeUnusedVersionVariables(MavenDependenciesCollection collection, MessagePrinter out) {
+        if (possiblyUnusedVersionVariables.isEmpty()) {
+            return;
+        }
+
+        final SortedSet<String> versionVariables = new TreeSet<>(possiblyUnusedVersionVariables);
+        possiblyUnusedVersionVariables.clear();
+
+        final SortedSet<String> usedVersions = new TreeSet<>();
+        collection.getAllArtifacts().forEach(a -> usedVersions.add(a.getVersion()));
+        for (String versionVariable : versionVariables) {
+            if (collection.hasVersionVariable(versionVariable) && !usedVersions.contains(versionVariable)) {
+                collection.removeVersionVariable(versionVariable);
+                if (verbose) {
+                    out.info(format("Removed version variable '%s'", versionVariable));
+                }
+            }
+        }
+    }
+
+    private String setVersion(MavenDependenciesCollection collection, String coordinates, String newVersion) {
+        final var coordinatesWithoutVersion = toCoordinatesWithoutVersion(coordinates);
+        final var artifact = collection.findArtifact(coordinatesWithoutVersion);
+        if (artifact == null) {
+            throw new IllegalArgumentException(
+                    format(
+                        "Artifact with coordinates '%s' not defined in the dependencies collection!",
+                        coordinatesWithoutVersion));
+        }
+
+        final var version = artifact.getVersion();
+        if (collection.hasVersionVariable(version)) {
+            final var oldValue = collection.updateVersionVariable(version, newVersion);
+            return format("Updated version variable '%s': '%s' -> '%s'", version, oldValue, newVersion);
+        }
+
+        final var newArtifact = new MavenArtifact(
+                artifact.getGroupId(),
+                artifact.getArtifactId(),
+                newVersion,
+                artifact.getPackaging(),
+                artifact.getClassifier(),
+                artifact.getExclusions(),
+                artifact.isNeverlink(),
+                artifact.isTestonly());
+        // restore the artifact if the new one can't be added (failed lines must not modify the collection)
+        if (collection.removeDependency(artifact)) {
+            try {
+                collection.addDependency(newArtifact);
+            } catch (RuntimeException e) {
+                collection.addDependency(artifact);
+                throw e;
+            }
+        } else if (collection.removeImportedBom(artifact)) {
+            try {
+                collection.addImportedBom(newArtifact);
+            } catch (RuntimeException e) {
+                collection.addImportedBom(artifact);
+                throw e;
+            }
+        } else {
+            throw new IllegalStateException(
+                    format(
+                        "Unable to remove '%s' from either dependencies or imported BOM list. Something is wrong!",
+                        artifact));
+        }
+        return format("Updated dependency version '%s': '%s' -> '%s'", coordinatesWithoutVersion, version, newVersion);
+    }
+}
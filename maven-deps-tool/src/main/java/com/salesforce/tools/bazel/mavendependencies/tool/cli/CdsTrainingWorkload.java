@@ -0,0 +1,117 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.salesforce.tools.bazel.cli.BaseCommand;
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.cli.helper.ScmSupport;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+
+/**
+ * Workload executed at build time for training the AppCDS archive of the CLI (see <code>//:cli_cds_archive</code>).
+ * <p>
+ * Runs the help of all commands as well as the simple (offline) commands against a small generated workspace, so
+ * that the classes loaded on the typical startup path end up in the archive. Output is discarded.
+ * </p>
+ */
+public class CdsTrainingWorkload {
+
+    /**
+     * {@link ScmSupport} writing directly to the file system
+     */
+    private static final class FileSystemOnly implements ScmSupport {
+
+        @Override
+        public boolean removeFile(Path obsoletePath) throws IOException {
+            return Files.deleteIfExists(obsoletePath);
+        }
+
+        @Override
+        public boolean writeFile(Path path, CharSequence content, Charset charset) throws IOException {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content, charset);
+            return true;
+        }
+    }
+
+    private static final String VERSION_VARIABLE = "_EXAMPLE_VERSION";
+
+    private static void createWorkspace(Path workspaceRoot) throws IOException {
+        Files.createFile(workspaceRoot.resolve("WORKSPACE"));
+
+        final var collection = new MavenDependenciesCollection(workspaceRoot);
+        collection.addDependencyWithManagedVersion(
+            new MavenArtifact("com.example", "example", VERSION_VARIABLE, "jar", null),
+            VERSION_VARIABLE,
+            "1.0.0");
+        collection.save(
+            "@bazel_maven_deps//bazel:defs.bzl",
+            null,
+            false,
+            false,
+            new NullProgressMonitor(),
+            new FileSystemOnly());
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final var workspaceRoot = Files.createTempDirectory("bazel-maven-deps-cds-training");
+        final var originalOut = System.out;
+        final var originalErr = System.err;
+        try {
+            createWorkspace(workspaceRoot);
+
+            final List<String[]> commandLines = new ArrayList<>();
+            commandLines.add(new String[] { "--help" });
+            for (final String name : DependenciesToolCli.COMMAND_NAMES) {
+                commandLines.add(new String[] { name, "--help" });
+            }
+            final var workspaceRootArg = "--workspace-root=" + workspaceRoot;
+            commandLines.add(
+                new String[] { "get-version-variable", "--variable-name=" + VERSION_VARIABLE, workspaceRootArg,
+                        "--batch-mode" });
+            commandLines.add(
+                new String[] { "set-version-variable", "--variable-name=" + VERSION_VARIABLE, "--new-version=1.0.1",
+                        workspaceRootArg, "--batch-mode" });
+            commandLines.add(new String[] { "print-dependency-catalog", workspaceRootArg, "--batch-mode" });
+            commandLines.add(new String[] { "lint-dependency-collection", workspaceRootArg, "--batch-mode" });
+
+            try (var discard = new PrintStream(OutputStream.nullOutputStream())) {
+                System.setOut(discard);
+                System.setErr(discard);
+                for (final String[] commandLine : commandLines) {
+                    try {
+                        BaseCommand.executeWithoutExit(DependenciesToolCli.newCommandLine(commandLine), commandLine);
+                    } catch (final RuntimeException e) {
+                        // training continues; the archive just contains fewer classes
+                        originalErr.println(format("Training command '%s' failed: %s", commandLine[0], e));
+                    }
+                }
+            }
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+            deleteRecursively(workspaceRoot);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+
+import java.time.Duration;
+
+import com.salesforce.tools.bazel.cli.BaseCommand;
+import com.salesforce.tools.bazel.cli.BaseCommandWithWorkspaceRoot;
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonClient;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonServer;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.ResidentWorkspaceState;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Runs a resident daemon for a workspace.
+ * <p>
+ * While the daemon is running, all other commands for the same workspace are forwarded to it by
+ * {@link DependenciesToolCli#main(String...)} and execute against the already parsed collection and catalog.
+ * </p>
+ */
+@Command(
+        name = "daemon",
+        description = "Runs a resident daemon keeping the parsed workspace and resolver state warm. Other commands for the workspace are forwarded to it automatically (set BAZEL_MAVEN_DEPS_NO_DAEMON to disable).")
+public class DaemonCommand extends BaseCommandWithWorkspaceRoot {
+
+    private static int executeForwardedCommand(String[] args) {
+        return BaseCommand.executeWithoutExit(DependenciesToolCli.newCommandLine(args), args);
+    }
+
+    public static void main(String[] args) {
+        execute(new DaemonCommand(), args);
+    }
+
+    @Option(
+            names = "--idle-timeout",
+            description = "minutes without any request after which the daemon shuts down (default: ${DEFAULT-VALUE})",
+            defaultValue = "180")
+    private int idleTimeoutMinutes;
+
+    @Option(
+            names = "--stop",
+            description = "stop a running daemon for the workspace")
+    private boolean stop;
+
+    @Override
+    protected int executeCommand(MessagePrinter out) throws Exception {
+        printFeedbackNotice = false;
+
+        if (stop) {
+            if (DaemonClient.shutdown(workspaceRoot)) {
+                out.important("Daemon stopped.");
+            } else {
+                out.info("No daemon running for the workspace.");
+            }
+            return 0;
+        }
+
+        final var socketPath = DaemonProtocol.getDefaultSocketPath(workspaceRoot);
+        try (var state = new ResidentWorkspaceState(workspaceRoot);
+                var server = new DaemonServer(socketPath, state, DaemonCommand::executeForwardedCommand)) {
+            // warm up
+            try (var monitor = out.progressMonitor("Loading workspace")) {
+                monitor.maxHint(2);
+                state.getCollection();
+                monitor.progressBy(1);
+                state.getCatalog();
+                monitor.progressBy(1);
+            }
+
+            out.important(
+                format(
+                    "Daemon for workspace '%s' listening at '%s' (stop with 'daemon --stop').",
+                    workspaceRoot,
+                    socketPath));
+            server.serve(Duration.ofMinutes(idleTimeoutMinutes));
+        }
+
+        out.info("Daemon stopped.");
+        return 0;
+    }
+}
@@ -1,9 +1,12 @@
 package com.salesforce.tools.bazel.mavendependencies.tool.cli;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import com.salesforce.tools.bazel.cli.BaseCommand;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonClient;
 
+import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
@@ -12,29 +15,131 @@ import picocli.CommandLine.Spec;
 
 /**
  * Uber command for the Core Build Graph tool CLI
+ * <p>
+ * Commands are not registered using <code>@Command(subcommands = ...)</code> because picocli would reflectively
+ * inspect all command classes on every start. Instead {@link #COMMAND_NAMES} and {@link #newCommand(String)} form a
+ * static command model. When the command to execute is known from the arguments only this command is inspected.
+ * </p>
  */
-@Command(name = "dependencies-tool", synopsisSubcommandLabel = "COMMAND", subcommands = { //@formatter:off
-        LintDependencyCollectionCommand.class,
+@Command(name = "dependencies-tool", synopsisSubcommandLabel = "COMMAND")
+public class DependenciesToolCli implements Callable<Integer> {
 
-        PinDependenciesCommand.class,
-        PrintDependencyCatalogCommand.class,
+    /** names of all commands in the order displayed in the help */
+    static final List<String> COMMAND_NAMES = List.of( //@formatter:off
+        "lint-dependency-collection",
 
-        GetVersionVariableValueCommand.class,
-        SetDependencyVersionCommand.class,
-        SetVersionVariableCommand.class,
-        AddDependencyCommand.class,
-        RemoveDependencyCommand.class,
+        "pin-dependencies",
+        "print-dependency-catalog",
+        "query",
+        "impact",
+        "outdated",
+        "prefill-bazel-cache",
 
-        AddExclusionCommand.class,
-        RemoveExclusionCommand.class,
+        "get-version-variable",
+        "set-dependency-version",
+        "set-version-variable",
+        "add-dependency",
+        "remove-dependency",
 
-        DependencyInfoCommand.class,
-}) //@formatter:on
+        "add-exclusion",
+        "remove-exclusion",
 
-public class DependenciesToolCli implements Callable<Integer> {
+        "batch",
+
+        "dependency-info",
+
+        "resolve-shard",
+        "daemon"
+    ); //@formatter:on
 
     public static void main(final String... args) {
-        BaseCommand.execute(new DependenciesToolCli(), args);
+        // forward to a running daemon if possible
+        final var daemonExitCode = DaemonClient.tryForward(args);
+        if (daemonExitCode.isPresent()) {
+            System.exit(daemonExitCode.getAsInt());
+        }
+
+        BaseCommand.execute(newCommandLine(args), args);
+    }
+
+    /**
+     * Creates a new instance of a command.
+     * <p>
+     * A switch is used so that only the class of the requested command is loaded.
+     * </p>
+     *
+     * @param name
+     *            the command name
+     * @return the command instance or <code>null</code> if no command with that name exists
+     */
+    static Callable<Integer> newCommand(String name) {
+        switch (name) {
+            case "lint-dependency-collection":
+                return new LintDependencyCollectionCommand();
+            case "pin-dependencies":
+                return new PinDependenciesCommand();
+            case "print-dependency-catalog":
+                return new PrintDependencyCatalogCommand();
+            case "query":
+                return new QueryCommand();
+            case "impact":
+                return new ImpactCommand();
+            case "outdated":
+                return new OutdatedCommand();
+            case "prefill-bazel-cache":
+                return new PrefillBazelCacheCommand();
+            case "get-version-variable":
+                return new GetVersionVariableValueCommand();
+            case "set-dependency-version":
+                return new SetDependencyVersionCommand();
+            case "set-version-variable":
+                return new SetVersionVariableCommand();
+            case "add-dependency":
+                return new AddDependencyCommand();
+            case "remove-dependency":
+                return new RemoveDependencyCommand();
+            case "add-exclusion":
+                return new AddExclusionCommand();
+            case "remove-exclusion":
+                return new RemoveExclusionCommand();
+            case "batch":
+                return new BatchCommand();
+            case "dependency-info":
+                return new DependencyInfoCommand();
+            case "resolve-shard":
+                return new ResolveShardCommand();
+            case "daemon":
+                return new DaemonCommand();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Creates the command line for executing the given arguments.
+     * <p>
+     * If the first argument is a command name only this command is registered. Otherwise (e.g., <code>--help</code>
+     * or unknown commands) all commands are registered.
+     * </p>
+     *
+     * @param args
+     *            the arguments
+     * @return the configured command line
+     */
+    public static CommandLine newCommandLine(String... args) {
+        final var commandLine = new CommandLine(new DependenciesToolCli());
+
+        final var command = args.length > 0 ? newCommand(args[0]) : null;
+        if (command != null) {
+            commandLine.addSubcommand(args[0], command);
+        } else {
+            for (final String name : COMMAND_NAMES) {
+                commandLine.addSubcommand(name, newCommand(name));
+            }
+        }
+
+        // must be set after adding sub commands
+        return commandLine.setUnmatchedArgumentsAllowed(true);
     }
 
     @Option(names = { "-h", "--help" }, usageHelp = true, description = "Prints this help text")
@@ -40,8 +40,7 @@ public class DependencyInfoCommand extends BaseDependencyCommand {
     @Override
     protected int doExecuteCommand(MessagePrinter out) throws Exception {
         // load catalog first so it can be searched
-        dependenciesCatalog = new BazelDependenciesCatalog(workspaceRoot);
-        dependenciesCatalog.load();
+        dependenciesCatalog = loadCatalog();
 
         final var mavenArtifact = getArtifactFromArguments(out);
 
@@ -192,6 +191,11 @@ public class DependencyInfoCommand extends BaseDependencyCommand {
         }
     }
 
+    @Override
+    protected boolean isLazyCatalogLoadingSupported() {
+        return true;
+    }
+
     private void renderSummary(
             MavenArtifact collectionArtifact,
             BazelJavaDependencyImport catalogEntry,
@@ -37,4 +37,9 @@ public class GetVersionVariableValueCommand extends BaseCommandUsingDependencyCo
 
         return 0;
     }
+
+    @Override
+    protected boolean isLazyCollectionLoadingSupported() {
+        return true;
+    }
 }
@@ -0,0 +1,293 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static com.salesforce.tools.bazel.mavendependencies.tool.cli.PinDependenciesCommand.collectAllArtifactIdCoordinates;
+import static com.salesforce.tools.bazel.mavendependencies.tool.cli.PinDependenciesCommand.createNewFromExistingAndReplacingArtifact;
+import static com.salesforce.tools.bazel.mavendependencies.tool.cli.PinDependenciesCommand.toArtifact;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.collection.CollectionDelta.Modification;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.CatalogDependencyGraph;
+import com.salesforce.tools.bazel.mavendependencies.resolver.StarlarkDependenciesResolver;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+/**
+ * Shows the impact of proposed changes to the collection on the pinned catalog.
+ * <p>
+ * The changes are applied to a copy of the collection in memory. Only the roots affected by a changed managed version
+ * (directly or through their pinned dependencies) are resolved again. All other entries of the pinned catalog are kept
+ * as they are. No files are written.
+ * </p>
+ */
+@Command(
+        name = "impact",
+        description = "Shows how proposed version changes would modify the pinned catalog (without modifying any file).")
+public class ImpactCommand extends BaseCommandUsingDependencyCollection {
+
+    public static void main(String[] args) {
+        execute(new ImpactCommand(), args);
+    }
+
+    /**
+     * Computes the versionless ids of all managed versions which differ between the current and the proposed scope.
+     */
+    static SortedSet<String> findChangedManagedVersions(
+            Map<String, String> currentManagedVersions,
+            Map<String, String> proposedManagedVersions) {
+        final SortedSet<String> result = new TreeSet<>();
+        final Set<String> ids = new HashSet<>(currentManagedVersions.keySet());
+        ids.addAll(proposedManagedVersions.keySet());
+        for (String id : ids) {
+            if (!Objects.equals(currentManagedVersions.get(id), proposedManagedVersions.get(id))) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    @Parameters(
+            arity = "0..*",
+            paramLabel = "<change>",
+            description = "proposed version change as NAME=VERSION, where NAME is a version variable (eg., _JACKSON_VERSION) or groupId:artifactId of a dependency or imported BOM")
+    private List<String> changes = new ArrayList<>();
+
+    @Option(
+            names = "--add",
+            paramLabel = "<coordinates>",
+            description = "coordinates of a dependency to add (groupId:artifactId[:packaging[:classifier]]:version)")
+    private List<String> additions = new ArrayList<>();
+
+    @Option(
+            names = "--remove",
+            paramLabel = "<groupId:artifactId>",
+            description = "a dependency or imported BOM to remove")
+    private List<String> removals = new ArrayList<>();
+
+    private void applyChanges(MavenDependenciesCollection proposed, MessagePrinter out) {
+        for (String change : changes) {
+            final var separator = change.indexOf('=');
+            if ((separator <= 0) || (separator == (change.length() - 1))) {
+                throw new IllegalArgumentException(format("Invalid change '%s'. Please use NAME=VERSION.", change));
+            }
+            final var name = change.substring(0, separator).trim();
+            final var version = change.substring(separator + 1).trim();
+
+            if (proposed.hasVersionVariable(name)) {
+                proposed.updateVersionVariable(name, version);
+                out.info(format("Proposed: %s = %s", name, version));
+                continue;
+            }
+
+            final var artifact = findArtifact(proposed, name);
+            if (proposed.hasVersionVariable(artifact.getVersion())) {
+                proposed.updateVersionVariable(artifact.getVersion(), version);
+                out.info(format("Proposed: %s = %s (used by %s)", artifact.getVersion(), version, name));
+                continue;
+            }
+
+            final var newArtifact = new MavenArtifact(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    version,
+                    artifact.getPackaging(),
+                    artifact.getClassifier(),
+                    artifact.getExclusions(),
+                    artifact.isNeverlink(),
+                    artifact.isTestonly());
+            if (proposed.removeDependency(artifact)) {
+                proposed.addDependency(newArtifact);
+            } else if (proposed.removeImportedBom(artifact)) {
+                proposed.addImportedBom(newArtifact);
+            }
+            out.info(format("Proposed: %s %s -> %s", name, artifact.getVersion(), version));
+        }
+
+        for (String coordinates : additions) {
+            final var artifact = MavenArtifact.fromCoordinatesString(coordinates);
+            proposed.addDependency(artifact);
+            out.info(format("Proposed: add %s", artifact.toCoordinatesString()));
+        }
+
+        for (String coordinates : removals) {
+            final var artifact = findArtifact(proposed, coordinates);
+            if (!proposed.removeDependency(artifact)) {
+                proposed.removeImportedBom(artifact);
+            }
+            out.info(format("Proposed: remove %s", artifact.toCoordinatesStringWithoutVersion()));
+        }
+    }
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        if (changes.isEmpty() && additions.isEmpty() && removals.isEmpty()) {
+            throw new IllegalArgumentException("No changes proposed. Please specify at least one change.");
+        }
+
+        // work on private copies only; nothing is ever saved
+        final var catalog = new BazelDependenciesCatalog(workspaceRoot);
+        catalog.loadUsingIndex(getWorkspaceCacheDirectory().resolve("pinned-catalog.idx"));
+        final var proposed = new MavenDependenciesCollection(workspaceRoot);
+        proposed.load();
+        applyChanges(proposed, out);
+
+        // compare the effective managed versions (covers version variables as well as imported BOMs)
+        final var currentScope = new StarlarkDependenciesResolver(mavenDependenciesCollection, getRepoSys())
+                .prepareResolutionScope(out);
+        final var resolver = new StarlarkDependenciesResolver(proposed, getRepoSys());
+        final var proposedScope = resolver.prepareResolutionScope(out);
+        final var changedIds =
+                findChangedManagedVersions(currentScope.getManagedVersions(), proposedScope.getManagedVersions());
+        if (verbose) {
+            out.info(
+                format(
+                    "%nChanged managed versions:%n%s%n",
+                    changedIds.stream().collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+
+        // a root is affected when it changed or any of its pinned dependencies changed
+        final var graph = CatalogDependencyGraph.create(catalog);
+        final Set<BazelJavaDependencyImport> affectedImports = new HashSet<>(
+                graph.rdeps(
+                    changedIds.stream()
+                            .map(catalog::findImportByCoordinatesWithoutVersion)
+                            .filter(Objects::nonNull)
+                            .collect(toList()),
+                    -1));
+        final List<Dependency> affectedRoots = new ArrayList<>();
+        final List<BazelJavaDependencyImport> unaffectedRootImports = new ArrayList<>();
+        for (Dependency root : proposedScope.getDependencies()) {
+            final var id = ArtifactIdUtils.toVersionlessId(root.getArtifact());
+            final var rootImport = catalog.findImportByCoordinatesWithoutVersion(id);
+            if (changedIds.contains(id) || (rootImport == null) || affectedImports.contains(rootImport)) {
+                affectedRoots.add(root);
+            } else {
+                unaffectedRootImports.add(rootImport);
+            }
+        }
+        out.info(
+            format(
+                "%d of %d dependencies are affected by %d changed managed versions",
+                affectedRoots.size(),
+                proposedScope.getDependencies().size(),
+                changedIds.size()));
+
+        // keep everything needed by unaffected roots as is
+        final Map<String, BazelJavaDependencyImport> newContent = new HashMap<>();
+        for (BazelJavaDependencyImport keptImport : graph.deps(unaffectedRootImports, -1)) {
+            newContent.put(keptImport.getArtifact().toCoordinatesStringWithoutVersion(), keptImport);
+        }
+
+        // re-resolve the affected roots
+        final SortedMap<String, String> conflicts = new TreeMap<>();
+        SortedSet<String> unbalanced = new TreeSet<>();
+        if (!affectedRoots.isEmpty()) {
+            final var result = resolver.resolveRoots(out, proposedScope, affectedRoots);
+
+            // same sanity check as pinning: individual and merged resolution must agree
+            final var individual =
+                    collectAllArtifactIdCoordinates(result.getDependencyNodeByIndividuallyResolvedCoordinates().values());
+            final var merged = collectAllArtifactIdCoordinates(List.of(result.getResolveResult().getRoot()));
+            unbalanced = individual.stream().filter(id -> !merged.contains(id)).collect(toCollection(TreeSet::new));
+            merged.stream().filter(id -> !individual.contains(id)).forEach(unbalanced::add);
+
+            final Map<String, BazelJavaDependencyImport> keptImports = new HashMap<>(newContent);
+            for (Artifact artifact : result.getResolvedArtifacts()) {
+                final var id = ArtifactIdUtils.toVersionlessId(artifact);
+                final var keptImport = keptImports.get(id);
+                if ((keptImport != null) && !keptImport.getArtifact().getVersion().equals(artifact.getVersion())) {
+                    // unaffected dependencies still use the pinned version
+                    conflicts.put(
+                        id,
+                        format(
+                            "%s (affected) <> %s (unaffected)",
+                            artifact.getVersion(),
+                            keptImport.getArtifact().getVersion()));
+                }
+                final var existingImport = catalog.findImportByCoordinatesWithoutVersion(id);
+                if (existingImport != null) {
+                    newContent.put(
+                        id,
+                        createNewFromExistingAndReplacingArtifact(
+                            existingImport,
+                            toArtifact(artifact),
+                            existingImport.getArtifact().getVersion().equals(artifact.getVersion())).build());
+                } else {
+                    newContent.put(id, createForArtifact(toArtifact(artifact)).build());
+                }
+            }
+        }
+
+        final var delta = catalog.replaceContent(newContent.values().stream(), verbose);
+        if (delta.modifications.isEmpty()) {
+            out.important("The proposed changes do not modify the pinned catalog.");
+        } else {
+            out.info(
+                format(
+                    "%nThe proposed changes would modify the pinned catalog:%n%s%n",
+                    delta.modifications.stream()
+                            .map(Modification::toString)
+                            .collect(joining(System.lineSeparator() + " ", " ", ""))));
+        }
+
+        if (!unbalanced.isEmpty()) {
+            out.warning(
+                format(
+                    "%nThe dependency graph would be unbalanced. Individual and merged resolution differ for:%n%s%n",
+                    unbalanced.stream().collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+        if (!conflicts.isEmpty()) {
+            out.warning(
+                format(
+                    "%nThe following versions conflict with the pinned dependencies of unaffected entries:%n%s%n",
+                    conflicts.entrySet()
+                            .stream()
+                            .map(e -> e.getKey() + ": " + e.getValue())
+                            .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+
+        return unbalanced.isEmpty() && conflicts.isEmpty() ? 0 : 1;
+    }
+
+    private MavenArtifact findArtifact(MavenDependenciesCollection collection, String coordinates) {
+        final var artifact = collection.getAllArtifacts()
+                .filter(
+                    a -> coordinates.equals(a.toCoordinatesStringWithoutVersion())
+                            || coordinates.equals(a.getGroupId() + ":" + a.getArtifactId()))
+                .findFirst()
+                .orElse(null);
+        if (artifact == null) {
+            throw new IllegalArgumentException(
+                    format(
+                        "Neither a version variable nor an artifact with coordinates '%s' is defined in the dependencies collection!",
+                        coordinates));
+        }
+        return artifact;
+    }
+}
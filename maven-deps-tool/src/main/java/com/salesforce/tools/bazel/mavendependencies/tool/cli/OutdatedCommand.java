@@ -0,0 +1,405 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+import com.salesforce.tools.bazel.cli.helper.JsonStrings;
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.maven.MavenMetadataClient;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+        name = "outdated",
+        description = "Reports dependencies and BOMs in the collection with newer versions available.")
+public class OutdatedCommand extends BaseCommandUsingDependencyCollection {
+
+    public enum OutputFormat {
+        text, json
+    }
+
+    public enum UpdateType {
+        major, minor, patch
+    }
+
+    /**
+     * A version variable (or an artifact with a literal version) with newer versions available.
+     */
+    static final class OutdatedEntry {
+
+        final String name;
+        final boolean versionVariable;
+        final String currentVersion;
+        final String latestVersion;
+        final UpdateType updateType;
+        final SortedMap<String, String> latestVersionByArtifact;
+
+        OutdatedEntry(String name, boolean versionVariable, String currentVersion, String latestVersion,
+                SortedMap<String, String> latestVersionByArtifact) {
+            this.name = name;
+            this.versionVariable = versionVariable;
+            this.currentVersion = currentVersion;
+            this.latestVersion = latestVersion;
+            this.latestVersionByArtifact = latestVersionByArtifact;
+            updateType = classify(
+                currentVersion,
+                latestVersion != null ? latestVersion
+                        : latestVersionByArtifact.values()
+                                .stream()
+                                .max(OutdatedCommand::compareVersions)
+                                .get());
+        }
+    }
+
+    private static final Pattern PRERELEASE = Pattern.compile(
+        "(?i).*[.\\-_\\d](alpha|beta|rc|cr|m|milestone|preview|pr|ea|dev|snapshot)\\d*([.\\-_].*)?");
+
+    private static final Pattern FLAVOR = Pattern.compile(".*-([a-zA-Z]+)$");
+
+    public static void main(String[] args) {
+        execute(new OutdatedCommand(), args);
+    }
+
+    /**
+     * Classifies an update by the first differing part of the versions.
+     */
+    static UpdateType classify(String currentVersion, String newVersion) {
+        final var current = new DefaultArtifactVersion(currentVersion);
+        final var latest = new DefaultArtifactVersion(newVersion);
+        if (current.getMajorVersion() != latest.getMajorVersion()) {
+            return UpdateType.major;
+        }
+        if (current.getMinorVersion() != latest.getMinorVersion()) {
+            return UpdateType.minor;
+        }
+        return UpdateType.patch;
+    }
+
+    /**
+     * Computes the outdated entries.
+     *
+     * @param currentVersionByName
+     *            the current version of each version variable or artifact with a literal version
+     * @param artifactsByName
+     *            the artifacts (<code>groupId:artifactId</code>) using each version variable or literal version
+     * @param versionsByArtifact
+     *            the available versions of each artifact
+     * @param includePrereleases
+     *            <code>true</code> to consider pre-release versions
+     * @return the outdated entries sorted by name
+     */
+    static List<OutdatedEntry> computeOutdated(
+            Map<String, String> currentVersionByName,
+            Map<String, ? extends Collection<String>> artifactsByName,
+            Map<String, ? extends Collection<String>> versionsByArtifact,
+            boolean includePrereleases) {
+        final List<OutdatedEntry> result = new ArrayList<>();
+        for (String name : new TreeSet<>(currentVersionByName.keySet())) {
+            final var currentVersion = currentVersionByName.get(name);
+            final SortedMap<String, String> latestVersionByArtifact = new TreeMap<>();
+            Set<String> commonNewerVersions = null;
+            for (String artifact : artifactsByName.get(name)) {
+                final Collection<String> availableVersions = versionsByArtifact.get(artifact);
+                final var newerVersions = findNewerVersions(
+                    currentVersion,
+                    availableVersions != null ? availableVersions : List.of(),
+                    includePrereleases);
+                if (commonNewerVersions == null) {
+                    commonNewerVersions = new HashSet<>(newerVersions);
+                } else {
+                    commonNewerVersions.retainAll(newerVersions);
+                }
+                newerVersions.stream()
+                        .max(OutdatedCommand::compareVersions)
+                        .ifPresent(v -> latestVersionByArtifact.put(artifact, v));
+            }
+            if (latestVersionByArtifact.isEmpty()) {
+                continue;
+            }
+
+            // the latest version is the newest one available for all artifacts using it
+            final var latestVersion = commonNewerVersions.stream().max(OutdatedCommand::compareVersions).orElse(null);
+            result.add(
+                new OutdatedEntry(
+                        name,
+                        !artifactsByName.get(name).contains(name), // literal versions are keyed by artifact
+                        currentVersion,
+                        latestVersion,
+                        latestVersionByArtifact));
+        }
+        return result;
+    }
+
+    private static int compareVersions(String a, String b) {
+        return new ComparableVersion(a).compareTo(new ComparableVersion(b));
+    }
+
+    /**
+     * Returns the available versions newer than the current one.
+     * <p>
+     * Pre-releases are ignored unless requested or the current version is a pre-release. If the current version has
+     * a flavor suffix (eg., <code>-jre</code> or <code>-android</code>) only versions with the same flavor are
+     * considered.
+     * </p>
+     */
+    static Set<String> findNewerVersions(
+            String currentVersion,
+            Collection<String> availableVersions,
+            boolean includePrereleases) {
+        final var current = new ComparableVersion(currentVersion);
+        final var allowPrereleases = includePrereleases || isPrerelease(currentVersion);
+        final var flavor = getFlavor(currentVersion);
+
+        final Set<String> result = new HashSet<>();
+        for (String version : availableVersions) {
+            if ((allowPrereleases || !isPrerelease(version))
+                    && ((flavor == null) || flavor.equals(getFlavor(version)))
+                    && (new ComparableVersion(version).compareTo(current) > 0)) {
+                result.add(version);
+            }
+        }
+        return result;
+    }
+
+    private static String getFlavor(String version) {
+        final var matcher = FLAVOR.matcher(version);
+        if (!matcher.matches() || isPrerelease(version)) {
+            return null;
+        }
+        return matcher.group(1).toLowerCase(Locale.ROOT);
+    }
+
+    static boolean isPrerelease(String version) {
+        return PRERELEASE.matcher(version).matches();
+    }
+
+    static String toJson(List<OutdatedEntry> outdated) {
+        final var json = new StringBuilder();
+        json.append("[");
+        for (var i = 0; i < outdated.size(); i++) {
+            final var entry = outdated.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("  {\"name\": \"").append(JsonStrings.escape(entry.name)).append("\", ");
+            json.append("\"version_variable\": ").append(entry.versionVariable).append(", ");
+            json.append("\"current\": \"").append(JsonStrings.escape(entry.currentVersion)).append("\", ");
+            json.append("\"latest\": ");
+            if (entry.latestVersion != null) {
+                json.append('"').append(JsonStrings.escape(entry.latestVersion)).append('"');
+            } else {
+                json.append("null");
+            }
+            json.append(", \"update\": \"").append(entry.updateType).append("\", ");
+            json.append("\"artifacts\": {");
+            var first = true;
+            for (Map.Entry<String, String> artifact : entry.latestVersionByArtifact.entrySet()) {
+                json.append(first ? "" : ", ")
+                        .append('"')
+                        .append(JsonStrings.escape(artifact.getKey()))
+                        .append("\": \"")
+                        .append(JsonStrings.escape(artifact.getValue()))
+                        .append('"');
+                first = false;
+            }
+            json.append("}}");
+        }
+        json.append(outdated.isEmpty() ? "]" : "\n]");
+        return json.toString();
+    }
+
+    static String toText(List<OutdatedEntry> outdated, boolean listArtifacts) {
+        final var text = new StringBuilder();
+        for (UpdateType updateType : UpdateType.values()) {
+            for (OutdatedEntry entry : outdated) {
+                if (entry.updateType != updateType) {
+                    continue;
+                }
+                if (text.length() > 0) {
+                    text.append(System.lineSeparator());
+                }
+                text.append(
+                    format(
+                        "%-6s %s: %s -> %s",
+                        entry.updateType,
+                        entry.name,
+                        entry.currentVersion,
+                        entry.latestVersion != null ? entry.latestVersion : "(no common version)"));
+                if (listArtifacts || (entry.latestVersion == null)) {
+                    for (Map.Entry<String, String> artifact : entry.latestVersionByArtifact.entrySet()) {
+                        text.append(System.lineSeparator())
+                                .append("         ")
+                                .append(artifact.getKey())
+                                .append(" -> ")
+                                .append(artifact.getValue());
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    @Option(
+            names = "--output",
+            description = "output format (${COMPLETION-CANDIDATES}, defaults to ${DEFAULT-VALUE})",
+            defaultValue = "text")
+    private OutputFormat outputFormat;
+
+    @Option(
+            names = "--include-prereleases",
+            description = "consider alpha, beta, milestone and release candidate versions (default is ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean includePrereleases;
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        final var start = System.nanoTime();
+
+        // group artifacts by version variable (or by artifact for literal versions)
+        final Map<String, String> currentVersionByName = new TreeMap<>();
+        final Map<String, SortedSet<String>> artifactsByName = new TreeMap<>();
+        mavenDependenciesCollection.getAllArtifacts().forEach(artifact -> {
+            final var version = artifact.getVersion();
+            if ((version == null) || version.isBlank()) {
+                return;
+            }
+            final var artifactKey = toArtifactKey(artifact);
+            if (mavenDependenciesCollection.hasVersionVariable(version)) {
+                currentVersionByName.put(version, mavenDependenciesCollection.getVersionVariableValue(version));
+                artifactsByName.computeIfAbsent(version, k -> new TreeSet<>()).add(artifactKey);
+            } else {
+                currentVersionByName.put(artifactKey, version);
+                artifactsByName.computeIfAbsent(artifactKey, k -> new TreeSet<>()).add(artifactKey);
+            }
+        });
+        final SortedSet<String> artifacts = new TreeSet<>();
+        artifactsByName.values().forEach(artifacts::addAll);
+
+        final List<MavenMetadataClient.Repository> repositories = new ArrayList<>();
+        for (MavenMetadataClient.Repository repository : getRepoSys().getMetadataRepositories()) {
+            if (repository.isSupported()) {
+                repositories.add(repository);
+            } else {
+                out.warning(format("Skipping repository %s: only http(s) and file URLs are supported.", repository));
+            }
+        }
+        if (verbose) {
+            out.info(
+                format(
+                    "Fetching metadata of %d artifacts from:%n%s%n",
+                    artifacts.size(),
+                    repositories.stream()
+                            .map(MavenMetadataClient.Repository::toString)
+                            .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+
+        // the work is I/O bound, use more threads than processors
+        final var executor = Executors.newFixedThreadPool(Math.max(16, Runtime.getRuntime().availableProcessors()));
+        final Map<String, Collection<String>> versionsByArtifact = new ConcurrentHashMap<>();
+        final SortedMap<String, String> failures = new ConcurrentSkipListMap<>();
+        final MavenMetadataClient client;
+        try {
+            client = new MavenMetadataClient(
+                    repositories,
+                    getWorkspaceCacheDirectory().resolve("maven-metadata"),
+                    HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(Duration.ofSeconds(30)));
+
+            try (var monitor = out.progressMonitor("Fetching Maven metadata")) {
+                monitor.maxHint(artifacts.size());
+                final List<Future<?>> futures = new ArrayList<>(artifacts.size());
+                for (String artifact : artifacts) {
+                    futures.add(executor.submit(() -> {
+                        final var separator = artifact.indexOf(':');
+                        try {
+                            versionsByArtifact.put(
+                                artifact,
+                                client.fetchVersions(
+                                    artifact.substring(0, separator),
+                                    artifact.substring(separator + 1)));
+                        } catch (IOException e) {
+                            failures.put(artifact, String.valueOf(e.getMessage()));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        monitor.progressBy(1);
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException(
+                                format("Error fetching Maven metadata: %s", e.getCause().getMessage()),
+                                e.getCause());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final var outdated =
+                computeOutdated(currentVersionByName, artifactsByName, versionsByArtifact, includePrereleases);
+
+        if (verbose) {
+            out.notice(
+                format(
+                    "Checked %d artifacts in %dms (%d requests, %d not modified)",
+                    artifacts.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    client.getRequestCount(),
+                    client.getNotModifiedCount()));
+        }
+        if (!failures.isEmpty()) {
+            out.warning(
+                format(
+                    "%nUnable to fetch Maven metadata for the following artifacts:%n%s%n",
+                    failures.entrySet()
+                            .stream()
+                            .map(e -> e.getKey() + ": " + e.getValue())
+                            .collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+
+        if (outputFormat == OutputFormat.json) {
+            printFeedbackNotice = false;
+            out.info(toJson(outdated));
+        } else if (outdated.isEmpty()) {
+            out.important("All dependencies are up to date.");
+        } else {
+            out.info(toText(outdated, verbose));
+        }
+
+        return failures.isEmpty() ? 0 : 1;
+    }
+
+    private String toArtifactKey(MavenArtifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId();
+    }
+}
@@ -15,7 +15,9 @@ import static java.util.stream.Collectors.toSet;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -55,6 +57,8 @@ import com.salesforce.tools.bazel.mavendependencies.maven.MavenShaComputer;
 import com.salesforce.tools.bazel.mavendependencies.maven.MavenShaComputer.Algorithm;
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.ConsoleDependencyGraphDumper;
 import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsNodeListGenerator;
+import com.salesforce.tools.bazel.mavendependencies.metrics.ChromeTraceRecorder;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
 import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
 import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
 import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.BazelJavaDependencyImportBuilder;
@@ -177,6 +181,11 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
             scope = ScopeType.INHERIT)
     protected String catalogPreamble;
 
+    @Option(
+            names = "--json-lockfile",
+            description = "also write the pinned catalog as JSON lockfile (catalog.json) to be read by the module extension in '@bazel_maven_deps//bazel:lockfile.bzl' (an existing lockfile is always updated)")
+    private boolean jsonLockfile;
+
     @Option(
             names = "--fail-on-changes",
             description = "fail command if changes are detected between on-disk catalog and resolved model")
@@ -187,7 +196,26 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
             description = "set visibility of transient dependency to \"//visibility:private\" (will be ignored if a custom visibility extension is used)",
             negatable = true)
     private boolean strictDeps;
-    private final MavenShaComputer shaComputer = new MavenShaComputer();
+
+    @Option(
+            names = "--resolution-shards",
+            description = "number of worker processes to fork for resolving the individual dependency trees (default is 1, which resolves everything within this process)",
+            defaultValue = "1")
+    private int resolutionShards;
+
+    @Option(
+            names = "--metrics-out",
+            description = "write a JSON file with performance metrics (phase timings, counters, cache hit ratios, slowest roots) to the specified location")
+    private Path metricsOut;
+
+    @Option(
+            names = "--trace-out",
+            description = "record descriptor reads, transfers, root resolutions, hash computations and catalog writes and write them as Chrome trace-event JSON (viewable in Perfetto) to the specified location")
+    private Path traceOut;
+
+    private MetricsCollector metrics = MetricsCollector.NO_OP;
+
+    private MavenShaComputer shaComputer = new MavenShaComputer();
     private StarlarkDependenciesResolver starlarkDependenciesResolver;
 
     private ResolveAndDownloadResult resolveAndDownloadResult;
@@ -425,7 +453,7 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
      *            the list of nodes to visit
      * @return a sorted set of {@link ArtifactIdUtils#toId(Artifact) artifact ids}.
      */
-    private SortedSet<String> collectAllArtifactIdCoordinates(Collection<DependencyNode> nodes) {
+    static SortedSet<String> collectAllArtifactIdCoordinates(Collection<DependencyNode> nodes) {
         var generator = new MavenDepsNodeListGenerator();
         for (final DependencyNode node : nodes) {
             node.accept(generator);
@@ -477,14 +505,45 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
 
     @Override
     protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        if ((metricsOut == null) && (traceOut == null)) {
+            return pinDependencies(out);
+        }
+
+        if (metricsOut != null) {
+            metrics = new MetricsCollector();
+            getRepoSys().setMetricsCollector(metrics);
+            shaComputer = new MavenShaComputer(metrics);
+        }
+        final var traceRecorder = traceOut != null ? ChromeTraceRecorder.start() : null;
+        try {
+            return pinDependencies(out);
+        } finally {
+            // always write (also in case of failures)
+            if (metricsOut != null) {
+                metrics.writeJson(metricsOut, "pin-dependencies", 25);
+                out.notice(format("Wrote metrics to '%s'", metricsOut));
+            }
+            if (traceRecorder != null) {
+                try (traceRecorder) {
+                    final var events = traceRecorder.stopAndWrite(traceOut);
+                    out.notice(format("Wrote %d trace events to '%s'", events, traceOut));
+                }
+            }
+        }
+    }
+
+    private int pinDependencies(MessagePrinter out) throws Exception {
         // load existing catalog
-        catalog = new BazelDependenciesCatalog(workspaceRoot);
-        catalog.load();
+        try (var phase = metrics.phase("catalog-load")) {
+            catalog = loadCatalog();
+        }
 
-        starlarkDependenciesResolver = new StarlarkDependenciesResolver(mavenDependenciesCollection, getRepoSys());
+        starlarkDependenciesResolver =
+                new StarlarkDependenciesResolver(mavenDependenciesCollection, getRepoSys(), metrics);
 
         // resolve and download all missing artifacts
-        resolveAndDownloadResult = starlarkDependenciesResolver.resolveAndDownload(out);
+        resolveAndDownloadResult = starlarkDependenciesResolver
+                .resolveAndDownload(out, resolutionShards, resolutionShards > 1 ? this::newShardWorkerProcess : null);
 
         // dump a list of all remote repos
         if (verbose) {
@@ -693,13 +752,18 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
             monitor.maxHint(
                 workForDependencyResolution.size() + work.size()
                         + newCatalogEntriesByVersionlessCoordinates.size() /* to be created visibility updates */);
+            metrics.add("catalog.entries", newCatalogEntriesByVersionlessCoordinates.size());
 
             // start dependency resolution first
+            var dependencyGraphPhase = metrics.phase("dependency-graph");
             var dependencyResolutionFuture =
-                    runAllAsyncAndReportProgress(workForDependencyResolution, calculations, monitor);
+                    runAllAsyncAndReportProgress(workForDependencyResolution, calculations, monitor)
+                            .whenComplete((v, e) -> dependencyGraphPhase.close());
 
             // all other updates
-            var otherWorkFuture = runAllAsyncAndReportProgress(work, calculations, monitor);
+            var hashingPhase = metrics.phase("hashing");
+            var otherWorkFuture = runAllAsyncAndReportProgress(work, calculations, monitor)
+                    .whenComplete((v, e) -> hashingPhase.close());
 
             // visibility updates based on dependency graph
             Graph<String> dependencyGraph = dependencyResolutionFuture.thenApplyAsync(v -> {
@@ -716,6 +780,7 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
                 }
                 return builder.build();
             }, calculations).join();
+            var visibilityPhase = metrics.phase("visibility");
             var visibilityWorkFuture = runAllAsyncAndReportProgress(
                 newCatalogEntriesByVersionlessCoordinates.values()
                         .parallelStream()
@@ -726,7 +791,7 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
                                 getVisibilityProvider(out)))
                         .toList(),
                 calculations,
-                monitor);
+                monitor).whenComplete((v, e) -> visibilityPhase.close());
 
             // wait for all work to be completed
             calculations.shutdown();
@@ -779,9 +844,15 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
             out.notice(format("Wrote '%s'", fullDependencyList));
         }
 
-        final var delta = catalog.replaceContent(
-            newCatalogEntriesByVersionlessCoordinates.values().stream().map(BazelJavaDependencyImportBuilder::build),
-            verbose);
+        CollectionDelta delta;
+        try (var phase = metrics.phase("catalog-diff")) {
+            delta = catalog.replaceContent(
+                newCatalogEntriesByVersionlessCoordinates.values()
+                        .stream()
+                        .map(BazelJavaDependencyImportBuilder::build),
+                verbose);
+        }
+        metrics.add("catalog.modifications", delta.modifications.size());
 
         if (delta.modifications.isEmpty()) {
             out.important("No changes detected to calatog.");
@@ -797,8 +868,8 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
         CollectionSaveResult saveResult = null;
         if (dryRun) {
             out.info("Skip saving catalog because '--dry-run' was specified.");
-        } else if ((force || !delta.modifications.isEmpty())) {
-            try (var monitor = out.progressMonitor("Saving catalog")) {
+        } else if ((force || !delta.modifications.isEmpty() || (jsonLockfile && !catalog.hasJsonLockfile()))) {
+            try (var monitor = out.progressMonitor("Saving catalog"); var phase = metrics.phase("save")) {
                 final SortedSet<String> mavenServers = new TreeSet<>();
                 if (overrideMavenServers != null) {
                     // use explicitly declared servers
@@ -812,6 +883,12 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
                     }
                 }
 
+                if (force) {
+                    // rewrite everything, not just the modified groups
+                    catalog.markAllGroupsDirty();
+                }
+                catalog.setJsonLockfileEnabled(jsonLockfile);
+
                 saveResult = catalog.save(
                     mavenServers,
                     labelForLoadingJvmMavenExternalSymbol,
@@ -914,13 +991,51 @@ public class PinDependenciesCommand extends BaseCommandUsingDependencyCollection
         }
     }
 
+    /**
+     * Creates a process builder launching a {@link ResolveShardCommand} in a new JVM using the same class path and
+     * Maven repository configuration as this command.
+     */
+    private ProcessBuilder newShardWorkerProcess(int shardIndex, int shardCount, Path resultFile) {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+
+        // forward system properties and memory settings (but nothing else, eg. debug agents)
+        ManagementFactory.getRuntimeMXBean()
+                .getInputArguments()
+                .stream()
+                .filter(a -> a.startsWith("-D") || a.startsWith("-X"))
+                .forEach(command::add);
+
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DependenciesToolCli.class.getName());
+        command.add("resolve-shard");
+        command.add("--batch-mode");
+        command.add("--workspace-root=" + workspaceRoot);
+        command.add("--maven-central=" + mavenCenteralUrl);
+        if (mavenRepositories != null) {
+            mavenRepositories.forEach(r -> command.add("--maven-repository=" + r));
+        }
+        if (downloaderConfig != null) {
+            command.add("--downloader-config=" + downloaderConfig);
+        }
+        if (localMavenRepository != null) {
+            command.add("--local-maven-repository=" + localMavenRepository);
+        }
+        command.add("--shard-index=" + shardIndex);
+        command.add("--shard-count=" + shardCount);
+        command.add("--shard-result-file=" + resultFile);
+
+        return new ProcessBuilder(newCommandLineWithVerbosity(command.toArray(new String[command.size()])));
+    }
+
     private void renderTree(DependencyNode node, StringBuilder sb) {
         final var os = new ByteArrayOutputStream(1024);
         node.accept(new ConsoleDependencyGraphDumper(new PrintStream(os)));
         sb.append(os.toString());
     }
 
-    private MavenArtifact toArtifact(Artifact a) {
+    static MavenArtifact toArtifact(Artifact a) {
         return new MavenArtifact(
                 a.getGroupId(),
                 a.getArtifactId(),
@@ -0,0 +1,170 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.maven.BazelRepositoryCache;
+import com.salesforce.tools.bazel.mavendependencies.maven.BazelRepositoryCache.Outcome;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+        name = "prefill-bazel-cache",
+        description = "Copies the artifacts of the pinned catalog from the local Maven repository into Bazel's repository cache.")
+public class PrefillBazelCacheCommand extends BaseCommandUsingDependencyCollection {
+
+    public static void main(String[] args) {
+        execute(new PrefillBazelCacheCommand(), args);
+    }
+
+    @Option(
+            names = "--repository-cache",
+            description = "Bazel's repository cache directory (defaults to the output of 'bazel info repository_cache' in the workspace)")
+    private Path repositoryCache;
+
+    @Option(
+            names = "--hard-link",
+            description = "hard-link files into the repository cache instead of copying them where possible (default is ${DEFAULT-VALUE})",
+            defaultValue = "true",
+            negatable = true)
+    private boolean hardLink;
+
+    private void addToCache(
+            BazelRepositoryCache cache,
+            Path localRepository,
+            MavenArtifact artifact,
+            String sha256,
+            Map<Outcome, AtomicLong> outcomes,
+            SortedSet<String> mismatches) {
+        try {
+            final var outcome = cache.add(localRepository.resolve(artifact.toRelativePath()), sha256);
+            outcomes.get(outcome).incrementAndGet();
+            if (outcome == Outcome.CHECKSUM_MISMATCH) {
+                mismatches.add(artifact.toCoordinatesString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Error adding '%s' to the repository cache", artifact), e);
+        }
+    }
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        final var catalog = loadCatalog();
+        final var cacheDirectory = repositoryCache != null ? repositoryCache : queryRepositoryCache();
+        final var localRepository = getRepoSys().getLocalRepository();
+        if (verbose) {
+            out.info(format("Copying from '%s' into '%s'", localRepository, cacheDirectory));
+        }
+
+        final var cache = new BazelRepositoryCache(cacheDirectory, hardLink);
+        final Map<Outcome, AtomicLong> outcomes = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+        final SortedSet<String> mismatches = new ConcurrentSkipListSet<>();
+
+        final List<Runnable> work = new ArrayList<>();
+        catalog.getAllImports().forEach(javaImport -> {
+            if (javaImport.getArtifactSha256() != null) {
+                work.add(
+                    () -> addToCache(
+                        cache,
+                        localRepository,
+                        javaImport.getArtifact(),
+                        javaImport.getArtifactSha256(),
+                        outcomes,
+                        mismatches));
+            }
+            if ((javaImport.getSourcesArtifact() != null) && (javaImport.getSourcesArtifactSha256() != null)) {
+                work.add(
+                    () -> addToCache(
+                        cache,
+                        localRepository,
+                        javaImport.getSourcesArtifact(),
+                        javaImport.getSourcesArtifactSha256(),
+                        outcomes,
+                        mismatches));
+            }
+        });
+
+        // the work is I/O bound, use more threads than processors
+        final var executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors()));
+        try (var monitor = out.progressMonitor("Prefilling repository cache")) {
+            monitor.maxHint(work.size());
+            final List<Future<?>> futures = new ArrayList<>(work.size());
+            for (Runnable task : work) {
+                futures.add(executor.submit(() -> {
+                    task.run();
+                    monitor.progressBy(1);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof UncheckedIOException ? ((UncheckedIOException) e.getCause()).getCause()
+                            : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        out.important(
+            format(
+                "Added %d files to the repository cache (%d already present, %d not found in the local Maven repository, %d with checksum mismatch)",
+                outcomes.get(Outcome.ADDED).get(),
+                outcomes.get(Outcome.ALREADY_PRESENT).get(),
+                outcomes.get(Outcome.MISSING).get(),
+                outcomes.get(Outcome.CHECKSUM_MISMATCH).get()));
+        if (!mismatches.isEmpty()) {
+            out.warning(
+                format(
+                    "%nThe following artifacts in the local Maven repository do not match the checksum in the pinned catalog:%n%s%n",
+                    mismatches.stream().collect(joining(System.lineSeparator() + " - ", " - ", ""))));
+        }
+
+        return 0;
+    }
+
+    @Override
+    protected boolean isLazyCollectionLoadingSupported() {
+        // the collection is not used
+        return true;
+    }
+
+    /**
+     * Asks Bazel for the location of the repository cache of the workspace.
+     */
+    private Path queryRepositoryCache() throws IOException, InterruptedException {
+        final var process = new ProcessBuilder("bazel", "info", "repository_cache").directory(workspaceRoot.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        final var output = new String(process.getInputStream().readAllBytes(), UTF_8).trim();
+        if (!process.waitFor(5, TimeUnit.MINUTES) || (process.exitValue() != 0) || output.isEmpty()) {
+            process.destroyForcibly();
+            throw new IllegalStateException(
+                    "Unable to obtain the repository cache location from 'bazel info repository_cache'. Please specify it using '--repository-cache'.");
+        }
+        return Path.of(output);
+    }
+}
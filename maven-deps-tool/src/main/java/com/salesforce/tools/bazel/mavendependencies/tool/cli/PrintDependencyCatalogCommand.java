@@ -30,8 +30,7 @@ public class PrintDependencyCatalogCommand extends BaseCommandUsingDependencyCol
         printFeedbackNotice = false; // do not print a notice by default
 
         // load existing catalog
-        catalog = new BazelDependenciesCatalog(workspaceRoot);
-        catalog.load();
+        catalog = loadCatalog();
 
         final var content = new StringBuilder();
 
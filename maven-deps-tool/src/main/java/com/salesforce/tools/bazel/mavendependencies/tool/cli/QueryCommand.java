@@ -0,0 +1,120 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.salesforce.tools.bazel.cli.helper.JsonStrings;
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.CatalogDependencyGraph;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.CatalogQuery;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+        name = "query",
+        description = "Queries the dependency graph of the pinned catalog.")
+public class QueryCommand extends BaseCommandUsingDependencyCollection {
+
+    public enum OutputFormat {
+        text, json
+    }
+
+    public static void main(String[] args) {
+        execute(new QueryCommand(), args);
+    }
+
+    private static void appendJsonArray(StringBuilder json, Collection<String> values) {
+        json.append('[');
+        if (values != null) {
+            var first = true;
+            for (String value : values) {
+                if (!first) {
+                    json.append(", ");
+                }
+                json.append('"').append(JsonStrings.escape(value)).append('"');
+                first = false;
+            }
+        }
+        json.append(']');
+    }
+
+    static String toJson(List<BazelJavaDependencyImport> result) {
+        final var json = new StringBuilder();
+        json.append("[");
+        for (var i = 0; i < result.size(); i++) {
+            final var dependencyImport = result.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("  {\"name\": \"").append(JsonStrings.escape(dependencyImport.getName())).append("\", ");
+            json.append("\"coordinates\": \"")
+                    .append(JsonStrings.escape(dependencyImport.getArtifact().toCoordinatesString()))
+                    .append("\", ");
+            json.append("\"tags\": ");
+            appendJsonArray(json, dependencyImport.getTags());
+            json.append(", \"testonly\": ").append(dependencyImport.isTestonly());
+            json.append(", \"neverlink\": ").append(dependencyImport.isNeverlink()).append("}");
+        }
+        json.append(result.isEmpty() ? "]" : "\n]");
+        return json.toString();
+    }
+
+    static String toText(List<BazelJavaDependencyImport> result) {
+        final var text = new StringBuilder();
+        for (BazelJavaDependencyImport dependencyImport : result) {
+            if (text.length() > 0) {
+                text.append(System.lineSeparator());
+            }
+            text.append('@')
+                    .append(dependencyImport.getName())
+                    .append(' ')
+                    .append(dependencyImport.getArtifact().toCoordinatesString());
+        }
+        return text.toString();
+    }
+
+    @Parameters(index = "0", description = "the query expression (name, @name, groupId:artifactId[:packaging:classifier], all, deps(x[, depth]), rdeps(x[, depth]), somepath(a, b), allpaths(a, b), tagged(tag, x), testonly(x), neverlink(x), x + y, x - y, x ^ y)", paramLabel = "<expression>")
+    private String expression;
+
+    @Option(
+            names = "--output",
+            description = "output format (${COMPLETION-CANDIDATES}, defaults to ${DEFAULT-VALUE})",
+            defaultValue = "text")
+    private OutputFormat outputFormat;
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        // this is most likely used in scripts, turn of any noise
+        printFeedbackNotice = false;
+
+        final var start = System.nanoTime();
+        final var graph = CatalogDependencyGraph.create(loadCatalog());
+        final var result = new CatalogQuery(graph).evaluate(expression);
+        if (verbose) {
+            out.notice(
+                format(
+                    "Evaluated query over %d imports in %dms (%d results)",
+                    graph.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    result.size()));
+        }
+
+        if (outputFormat == OutputFormat.json) {
+            out.info(toJson(result));
+        } else if (!result.isEmpty()) {
+            out.info(toText(result));
+        }
+
+        return 0;
+    }
+
+    @Override
+    protected boolean isLazyCollectionLoadingSupported() {
+        // the collection is not used
+        return true;
+    }
+}
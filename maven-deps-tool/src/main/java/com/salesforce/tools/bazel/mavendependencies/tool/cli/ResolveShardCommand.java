@@ -0,0 +1,57 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import java.nio.file.Path;
+
+import com.salesforce.tools.bazel.cli.helper.MessagePrinter;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
+import com.salesforce.tools.bazel.mavendependencies.resolver.StarlarkDependenciesResolver;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Worker command for sharded resolution launched by {@link PinDependenciesCommand} (not intended for direct use).
+ */
+@Command(
+        name = "resolve-shard",
+        description = "Resolves a shard of the dependencies from the collection individually (used internally by pin-dependencies).",
+        hidden = true)
+public class ResolveShardCommand extends BaseCommandUsingDependencyCollection {
+
+    public static void main(String[] args) {
+        execute(new ResolveShardCommand(), args);
+    }
+
+    @Option(
+            names = "--shard-index",
+            description = "index of the shard to resolve (zero based)",
+            required = true)
+    private int shardIndex;
+
+    @Option(
+            names = "--shard-count",
+            description = "total number of shards",
+            required = true)
+    private int shardCount;
+
+    @Option(
+            names = "--shard-result-file",
+            description = "file to write the resolution result to",
+            required = true)
+    private Path shardResultFile;
+
+    @Override
+    protected int doExecuteCommand(MessagePrinter out) throws Exception {
+        // this is used by the coordinating process, turn of any noise
+        printFeedbackNotice = false;
+
+        // always collect metrics; they are reported back to the coordinating process
+        final var metrics = new MetricsCollector();
+        getRepoSys().setMetricsCollector(metrics);
+
+        new StarlarkDependenciesResolver(mavenDependenciesCollection, getRepoSys(), metrics)
+                .resolveShard(out, shardIndex, shardCount, shardResultFile);
+
+        return 0;
+    }
+}
@@ -83,4 +83,9 @@ public class SetDependencyVersionCommand extends BaseDependencyCommand {
 
         return 0;
     }
+
+    @Override
+    protected boolean isLazyCollectionLoadingSupported() {
+        return true;
+    }
 }
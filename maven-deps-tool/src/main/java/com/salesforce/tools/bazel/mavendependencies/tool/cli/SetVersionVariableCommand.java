@@ -44,4 +44,9 @@ public class SetVersionVariableCommand extends BaseCommandUsingDependencyCollect
 
         return 0;
     }
+
+    @Override
+    protected boolean isLazyCollectionLoadingSupported() {
+        return true;
+    }
 }
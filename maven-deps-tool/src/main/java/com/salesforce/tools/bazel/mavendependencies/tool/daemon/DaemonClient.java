@@ -0,0 +1,213 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_EXIT;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_REJECTED;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_STDERR;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_STDOUT;
+import static java.lang.String.format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.Request;
+
+/**
+ * Forwards command executions to a running daemon (see {@link DaemonServer}).
+ * <p>
+ * Forwarding is transparent. When no daemon is listening for the workspace (or the daemon runs a different build of
+ * the tool) the command is executed in-process as usual. The working directory and the relevant environment (see
+ * {@link DaemonProtocol#RELEVANT_ENVIRONMENT_VARIABLES}) are sent along with the command. The daemon only executes
+ * commands for clients with the same working directory and environment because relative paths and environment
+ * dependent configuration would otherwise resolve differently. Set the environment variable
+ * <code>BAZEL_MAVEN_DEPS_NO_DAEMON</code> to never forward.
+ * </p>
+ * <p>
+ * Commands are only sent to sockets owned by the current user.
+ * </p>
+ */
+public final class DaemonClient {
+
+    /**
+     * commands which must never be forwarded (batch may read its script from stdin)
+     * <p>
+     * The command is always the first argument (see
+     * {@link com.salesforce.tools.bazel.mavendependencies.tool.cli.DependenciesToolCli#newCommandLine(String...)}).
+     * </p>
+     */
+    private static final Set<String> LOCAL_ONLY_COMMANDS = Set.of("batch", "daemon", "resolve-shard");
+
+    private static final String WORKSPACE_ROOT_OPTION = "--workspace-root";
+
+    private static Path findWorkspaceRoot(String[] args) {
+        for (var i = 0; i < args.length; i++) {
+            if (args[i].startsWith(WORKSPACE_ROOT_OPTION + "=")) {
+                return Path.of(args[i].substring(WORKSPACE_ROOT_OPTION.length() + 1));
+            }
+            if (args[i].equals(WORKSPACE_ROOT_OPTION) && ((i + 1) < args.length)) {
+                return Path.of(args[i + 1]);
+            }
+        }
+        final var buildWorkspaceDirectory = System.getenv("BUILD_WORKSPACE_DIRECTORY");
+        return buildWorkspaceDirectory != null ? Path.of(buildWorkspaceDirectory) : null;
+    }
+
+    /**
+     * Checks whether a daemon is accepting connections at the given socket.
+     *
+     * @param socketPath
+     *            the socket location
+     * @return <code>true</code> if a daemon accepted a connection, <code>false</code> otherwise
+     */
+    public static boolean isDaemonRunning(Path socketPath) {
+        if (!Files.exists(socketPath)) {
+            return false;
+        }
+        try (var channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a command line may be forwarded.
+     *
+     * @param args
+     *            the command line arguments
+     * @return <code>true</code> if the first argument is a command which may be executed by a daemon,
+     *         <code>false</code> otherwise (eg., no command, help or a local only command)
+     */
+    static boolean shouldForward(String[] args) {
+        return (args.length > 0) && !args[0].startsWith("-") && !LOCAL_ONLY_COMMANDS.contains(args[0]);
+    }
+
+    static OptionalInt send(Path socketPath, Request request, PrintStream stdout, PrintStream stderr)
+            throws IOException {
+        // the request carries environment (eg., proxies and .netrc location) and the result is trusted
+        if (!DaemonProtocol.isOwnedByCurrentUser(socketPath)) {
+            stderr.println(format("Not using daemon: '%s' is not owned by the current user.", socketPath));
+            return OptionalInt.empty();
+        }
+
+        try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+
+            final var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            DaemonProtocol.writeRequest(out, request);
+
+            final var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (true) {
+                final var frameType = in.readByte();
+                switch (frameType) {
+                    case FRAME_STDOUT:
+                    case FRAME_STDERR:
+                        final var chunk = new byte[in.readInt()];
+                        in.readFully(chunk);
+                        final var target = frameType == FRAME_STDOUT ? stdout : stderr;
+                        target.write(chunk);
+                        target.flush();
+                        break;
+                    case FRAME_EXIT:
+                        return OptionalInt.of(in.readInt());
+                    case FRAME_REJECTED:
+                        stderr.println(format("Not using daemon: %s", in.readUTF()));
+                        return OptionalInt.empty();
+                    default:
+                        throw new IOException(format("Unexpected frame type '%s'", (char) frameType));
+                }
+            }
+        }
+    }
+
+    private static Request newRequest(Path workspaceRoot, String[] args) {
+        return new Request(
+                DaemonProtocol.computeClassPathFingerprint(),
+                workspaceRoot.toAbsolutePath().normalize(),
+                DaemonProtocol.getCurrentWorkingDirectory(),
+                DaemonProtocol.getRelevantEnvironment(System.getenv()),
+                args);
+    }
+
+    /**
+     * Asks the daemon serving the given workspace to shut down.
+     *
+     * @param workspaceRoot
+     *            the workspace root
+     * @return <code>true</code> if a daemon was running and acknowledged the shutdown, <code>false</code> otherwise
+     */
+    public static boolean shutdown(Path workspaceRoot) {
+        final var socketPath = DaemonProtocol.getDefaultSocketPath(workspaceRoot);
+        if (!Files.exists(socketPath)) {
+            return false;
+        }
+        try {
+            return send(socketPath, newRequest(workspaceRoot, new String[0]), System.out, System.err).isPresent();
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Forwards the command to a daemon if one is running for the workspace.
+     * <p>
+     * Forwarded commands always run in batch mode (no progress bars or colors) because the daemon does not own a
+     * terminal.
+     * </p>
+     *
+     * @param args
+     *            the command line arguments
+     * @return the exit code of the command if it was executed by a daemon, empty if it needs to be executed in-process
+     */
+    public static OptionalInt tryForward(String[] args) {
+        if ((System.getenv("BAZEL_MAVEN_DEPS_NO_DAEMON") != null) || !shouldForward(args)) {
+            return OptionalInt.empty();
+        }
+
+        final var workspaceRoot = findWorkspaceRoot(args);
+        if (workspaceRoot == null) {
+            return OptionalInt.empty();
+        }
+        final var socketPath = DaemonProtocol.getDefaultSocketPath(workspaceRoot);
+        if (!Files.exists(socketPath)) {
+            return OptionalInt.empty();
+        }
+
+        final List<String> forwardedArgs = new ArrayList<>(List.of(args));
+        if (forwardedArgs.stream()
+                .noneMatch(a -> a.equals(WORKSPACE_ROOT_OPTION) || a.startsWith(WORKSPACE_ROOT_OPTION + "="))) {
+            forwardedArgs.add(WORKSPACE_ROOT_OPTION + "=" + workspaceRoot.toAbsolutePath().normalize());
+        }
+        if (!forwardedArgs.contains("-b") && !forwardedArgs.contains("--batch-mode")) {
+            forwardedArgs.add("--batch-mode");
+        }
+
+        try {
+            return send(
+                socketPath,
+                newRequest(workspaceRoot, forwardedArgs.toArray(new String[forwardedArgs.size()])),
+                System.out,
+                System.err);
+        } catch (final IOException e) {
+            // stale socket or daemon died; execute in-process
+            return OptionalInt.empty();
+        }
+    }
+
+    private DaemonClient() {
+        // empty
+    }
+}
@@ -0,0 +1,356 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Wire protocol between {@link DaemonClient} and {@link DaemonServer}.
+ * <p>
+ * A request consists of the protocol version, the class path fingerprint of the client, the workspace root, the
+ * working directory and relevant environment of the client and the command line arguments. The server answers with a
+ * sequence of frames: chunks of standard out/error and finally the exit code. A server running a different build of
+ * the tool (or in a different working directory or environment) rejects the request so that the client can fall back
+ * to in-process execution.
+ * </p>
+ * <p>
+ * A request without arguments asks the daemon to shut down.
+ * </p>
+ */
+public final class DaemonProtocol {
+
+    /**
+     * An {@link OutputStream} writing everything as frames of a given type.
+     */
+    static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte frameType;
+
+        FrameOutputStream(DataOutputStream out, byte frameType) {
+            this.out = out;
+            this.frameType = frameType;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (out) {
+                out.writeByte(frameType);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+    }
+
+    /**
+     * A request to execute a command.
+     */
+    static final class Request {
+        final String fingerprint;
+        final Path workspaceRoot;
+        final Path workingDirectory;
+        final SortedMap<String, String> environment;
+        final String[] args;
+
+        Request(String fingerprint, Path workspaceRoot, Path workingDirectory, SortedMap<String, String> environment,
+                String[] args) {
+            this.fingerprint = fingerprint;
+            this.workspaceRoot = workspaceRoot;
+            this.workingDirectory = workingDirectory;
+            this.environment = environment;
+            this.args = args;
+        }
+
+        boolean isShutdown() {
+            return args.length == 0;
+        }
+    }
+
+    static final int VERSION = 2;
+
+    /**
+     * Environment variables influencing command execution (workspace detection, <code>.netrc</code> lookup, caches and
+     * proxies).
+     */
+    static final Set<String> RELEVANT_ENVIRONMENT_VARIABLES = Set.of(
+        "BUILD_WORKSPACE_DIRECTORY",
+        "BUILD_WORKING_DIRECTORY",
+        "HOME",
+        "USERPROFILE",
+        "NETRC",
+        "XDG_CACHE_HOME",
+        "http_proxy",
+        "https_proxy",
+        "no_proxy",
+        "HTTP_PROXY",
+        "HTTPS_PROXY",
+        "NO_PROXY");
+
+    static final byte FRAME_STDOUT = 'O';
+    static final byte FRAME_STDERR = 'E';
+    static final byte FRAME_EXIT = 'X';
+    static final byte FRAME_REJECTED = 'R';
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY_PERMISSIONS =
+            PosixFilePermissions.fromString("rwx------");
+
+    /**
+     * Computes a fingerprint of the running tool build.
+     * <p>
+     * The fingerprint covers all class path entries including their size and modification time, so a rebuilt tool
+     * never talks to a daemon running stale code.
+     * </p>
+     *
+     * @return the fingerprint
+     */
+    public static String computeClassPathFingerprint() {
+        final var classPath = System.getProperty("java.class.path", "");
+        final var fingerprint = new StringBuilder(classPath.length() * 2);
+        for (final String entry : classPath.split(File.pathSeparator)) {
+            fingerprint.append(entry);
+            try {
+                final var path = Path.of(entry);
+                if (Files.isRegularFile(path)) {
+                    fingerprint.append('@')
+                            .append(Files.size(path))
+                            .append('/')
+                            .append(Files.getLastModifiedTime(path).toMillis());
+                }
+            } catch (final IOException | RuntimeException e) {
+                // ignore, the entry itself is part of the fingerprint
+            }
+            fingerprint.append(File.pathSeparatorChar);
+        }
+        return sha256(fingerprint.toString());
+    }
+
+    /**
+     * Creates a directory only accessible by the current user (if it does not exist) and verifies it.
+     * <p>
+     * An existing directory is only accepted if it is owned by the current user and not accessible by anyone else.
+     * This prevents other local users from placing or replacing sockets in it.
+     * </p>
+     *
+     * @param directory
+     *            the directory
+     * @throws IOException
+     *             if the directory cannot be created or is not private to the current user
+     */
+    static void createPrivateDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(directory.toAbsolutePath().getParent());
+            try {
+                Files.createDirectory(
+                    directory,
+                    PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY_PERMISSIONS));
+            } catch (final UnsupportedOperationException e) {
+                Files.createDirectory(directory);
+            } catch (final FileAlreadyExistsException e) {
+                // created concurrently, verified below
+            }
+        }
+
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(format("'%s' is not a directory.", directory));
+        }
+        if (!isOwnedByCurrentUser(directory)) {
+            throw new IOException(format("Directory '%s' is not owned by the current user.", directory));
+        }
+        try {
+            final var permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+            if (!OWNER_ONLY_DIRECTORY_PERMISSIONS.containsAll(permissions)) {
+                throw new IOException(
+                        format(
+                            "Directory '%s' must only be accessible by the current user (permissions are %s).",
+                            directory,
+                            PosixFilePermissions.toString(permissions)));
+            }
+        } catch (final UnsupportedOperationException e) {
+            // not a POSIX file system, rely on the owner check
+        }
+    }
+
+    /**
+     * Returns the working directory of the current process.
+     *
+     * @return the working directory (absolute and normalized)
+     */
+    static Path getCurrentWorkingDirectory() {
+        return Path.of(System.getProperty("user.dir")).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns the environment variables relevant for command execution.
+     *
+     * @param environment
+     *            the full environment (eg., {@link System#getenv()})
+     * @return the {@link #RELEVANT_ENVIRONMENT_VARIABLES relevant variables} which are set (sorted by name)
+     */
+    static SortedMap<String, String> getRelevantEnvironment(Map<String, String> environment) {
+        final SortedMap<String, String> result = new TreeMap<>();
+        for (final String name : RELEVANT_ENVIRONMENT_VARIABLES) {
+            final var value = environment.get(name);
+            if (value != null) {
+                result.put(name, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the default location of the daemon socket for a workspace.
+     * <p>
+     * The socket is placed in a per-user directory (see {@link #getSocketDirectory(Map)}) and not in the workspace
+     * because Unix domain socket paths are limited in length (typically ~100 characters), which workspace paths easily
+     * exceed.
+     * </p>
+     *
+     * @param workspaceRoot
+     *            the workspace root
+     * @return the socket location
+     */
+    public static Path getDefaultSocketPath(Path workspaceRoot) {
+        final var key = sha256(workspaceRoot.toAbsolutePath().normalize().toString()).substring(0, 16);
+        return getSocketDirectory(System.getenv()).resolve(format("%s.sock", key));
+    }
+
+    /**
+     * Returns the directory for daemon sockets of the current user.
+     * <p>
+     * This is a directory in <code>XDG_RUNTIME_DIR</code> if set, otherwise a directory named after the user in the
+     * temp directory. The server creates it using {@link #createPrivateDirectory(Path)}.
+     * </p>
+     *
+     * @param environment
+     *            the environment (eg., {@link System#getenv()})
+     * @return the socket directory
+     */
+    static Path getSocketDirectory(Map<String, String> environment) {
+        final var runtimeDirectory = environment.get("XDG_RUNTIME_DIR");
+        if ((runtimeDirectory != null) && !runtimeDirectory.isBlank()) {
+            return Path.of(runtimeDirectory, "bazel-maven-deps");
+        }
+        return Path.of(
+            System.getProperty("java.io.tmpdir"),
+            format("bazel-maven-deps-%s", System.getProperty("user.name")));
+    }
+
+    /**
+     * Checks whether a file is owned by the user running this JVM.
+     *
+     * @param path
+     *            the file (symbolic links are not followed)
+     * @return <code>true</code> if the file is owned by the current user, <code>false</code> otherwise
+     * @throws IOException
+     *             if the file does not exist or the owner cannot be determined
+     */
+    static boolean isOwnedByCurrentUser(Path path) throws IOException {
+        final UserPrincipal currentUser = path.getFileSystem()
+                .getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        return currentUser.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS));
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        final var version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(format("Unsupported daemon protocol version %d (expected %d)", version, VERSION));
+        }
+        final var fingerprint = in.readUTF();
+        final var workspaceRoot = in.readUTF();
+        final var workingDirectory = readString(in);
+        final var environmentSize = in.readInt();
+        final SortedMap<String, String> environment = new TreeMap<>();
+        for (var i = 0; i < environmentSize; i++) {
+            environment.put(readString(in), readString(in));
+        }
+        final var argc = in.readInt();
+        final List<String> args = new ArrayList<>(argc);
+        for (var i = 0; i < argc; i++) {
+            args.add(readString(in));
+        }
+        return new Request(
+                fingerprint,
+                Path.of(workspaceRoot),
+                Path.of(workingDirectory),
+                environment,
+                args.toArray(new String[args.size()]));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        out.writeInt(VERSION);
+        out.writeUTF(request.fingerprint);
+        out.writeUTF(request.workspaceRoot.toString());
+        writeString(out, request.workingDirectory.toString());
+        out.writeInt(request.environment.size());
+        for (final Map.Entry<String, String> variable : request.environment.entrySet()) {
+            writeString(out, variable.getKey());
+            writeString(out, variable.getValue());
+        }
+        out.writeInt(request.args.length);
+        for (final String arg : request.args) {
+            writeString(out, arg);
+        }
+        out.flush();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final var bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private DaemonProtocol() {
+        // empty
+    }
+}
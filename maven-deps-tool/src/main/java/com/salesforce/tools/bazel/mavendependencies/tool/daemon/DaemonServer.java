@@ -0,0 +1,255 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_EXIT;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_REJECTED;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_STDERR;
+import static com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FRAME_STDOUT;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.FrameOutputStream;
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.Request;
+
+/**
+ * Serves command executions forwarded by {@link DaemonClient} over a Unix domain socket.
+ * <p>
+ * Commands are executed one at a time within this JVM. During execution {@link System#out} and {@link System#err}
+ * are redirected to the client and the {@link ResidentWorkspaceState} is active, so commands re-use the parsed
+ * workspace and resolver state.
+ * </p>
+ * <p>
+ * The daemon cannot change its working directory or environment per command. Requests from clients with a different
+ * working directory or relevant environment are therefore rejected (the client executes the command in-process).
+ * </p>
+ */
+public class DaemonServer implements Closeable {
+
+    /**
+     * Executes a single command line within the daemon.
+     */
+    @FunctionalInterface
+    public interface CommandExecutor {
+        /**
+         * @param args
+         *            the command line arguments
+         * @return the exit code
+         */
+        int execute(String[] args);
+    }
+
+    private static final Logger LOG = UnifiedLogger.getLogger();
+
+    private final Path socketPath;
+    private final ResidentWorkspaceState state;
+    private final CommandExecutor executor;
+    private final String fingerprint = DaemonProtocol.computeClassPathFingerprint();
+    private final Path workingDirectory = DaemonProtocol.getCurrentWorkingDirectory();
+    private final SortedMap<String, String> environment = DaemonProtocol.getRelevantEnvironment(System.getenv());
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Creates the server and binds the socket.
+     *
+     * @param socketPath
+     *            the socket location (an existing file will be replaced); the parent directory is created if
+     *            necessary and must only be accessible by the current user
+     * @param state
+     *            the resident state to use
+     * @param executor
+     *            the executor for commands
+     * @throws IOException
+     *             in case of errors binding the socket
+     */
+    public DaemonServer(Path socketPath, ResidentWorkspaceState state, CommandExecutor executor) throws IOException {
+        this.socketPath = socketPath;
+        this.state = state;
+        this.executor = executor;
+
+        if (DaemonClient.isDaemonRunning(socketPath)) {
+            throw new IllegalStateException(format("A daemon is already listening at '%s'.", socketPath));
+        }
+        // a private directory leaves no window in which others could connect or replace the socket
+        DaemonProtocol.createPrivateDirectory(socketPath.toAbsolutePath().getParent());
+        Files.deleteIfExists(socketPath);
+        serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+        try {
+            // only the current user may talk to the daemon
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (final UnsupportedOperationException e) {
+            LOG.debug("Unable to restrict permissions of '{}'", socketPath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        Files.deleteIfExists(socketPath);
+    }
+
+    private int executeCommand(String[] args, DataOutputStream out) throws IOException {
+        final var originalOut = System.out;
+        final var originalErr = System.err;
+        try (var commandOut = new PrintStream(new FrameOutputStream(out, FRAME_STDOUT), true, UTF_8);
+                var commandErr = new PrintStream(new FrameOutputStream(out, FRAME_STDERR), true, UTF_8)) {
+            System.setOut(commandOut);
+            System.setErr(commandErr);
+            UnifiedLogger.disableDebugLogging();
+
+            var exitCode = -1;
+            state.beforeCommand();
+            state.activate();
+            try {
+                exitCode = executor.execute(args);
+            } catch (final RuntimeException e) {
+                e.printStackTrace(commandErr);
+            } finally {
+                state.afterCommand(exitCode == 0);
+            }
+            return exitCode;
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    /**
+     * Serves requests until a shutdown request is received or no request was received within the idle timeout.
+     *
+     * @param idleTimeout
+     *            the idle timeout
+     * @throws IOException
+     *             in case of errors accepting connections
+     */
+    public void serve(Duration idleTimeout) throws IOException {
+        final ScheduledExecutorService idleTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "bazel-maven-deps-daemon-idle-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            var idleShutdown = scheduleIdleShutdown(idleTimer, idleTimeout);
+            while (serverChannel.isOpen()) {
+                SocketChannel channel;
+                try {
+                    channel = serverChannel.accept();
+                } catch (final IOException e) {
+                    if (!serverChannel.isOpen()) {
+                        break; // closed by idle timer
+                    }
+                    throw e;
+                }
+
+                idleShutdown.cancel(false);
+                try (channel) {
+                    if (!serveRequest(channel)) {
+                        return;
+                    }
+                } catch (final IOException e) {
+                    // client went away; keep serving others
+                    LOG.debug("Error serving daemon request: {}", e.getMessage(), e);
+                }
+                idleShutdown = scheduleIdleShutdown(idleTimer, idleTimeout);
+            }
+        } finally {
+            idleTimer.shutdownNow();
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the daemon should shut down
+     */
+    private boolean serveRequest(SocketChannel channel) throws IOException {
+        final var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        final var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+        final Request request = DaemonProtocol.readRequest(in);
+        if (!fingerprint.equals(request.fingerprint)) {
+            reject(out, "The daemon is running a different build of the tool. Please restart it.");
+            return true;
+        }
+        if (!state.getWorkspaceRoot().equals(request.workspaceRoot.toAbsolutePath().normalize())) {
+            reject(out, format("The daemon is serving workspace '%s'.", state.getWorkspaceRoot()));
+            return true;
+        }
+
+        if (request.isShutdown()) {
+            out.writeByte(FRAME_EXIT);
+            out.writeInt(0);
+            out.flush();
+            return false;
+        }
+
+        if (!workingDirectory.equals(request.workingDirectory)) {
+            reject(out, format("The daemon is running in directory '%s'.", workingDirectory));
+            return true;
+        }
+        if (!environment.equals(request.environment)) {
+            final var differences = new TreeSet<>(environment.keySet());
+            differences.addAll(request.environment.keySet());
+            differences.removeIf(name -> Objects.equals(environment.get(name), request.environment.get(name)));
+            reject(
+                out,
+                format("The daemon is running with a different environment (%s).", String.join(", ", differences)));
+            return true;
+        }
+
+        final var start = System.nanoTime();
+        final var exitCode = executeCommand(request.args, out);
+        synchronized (out) {
+            out.writeByte(FRAME_EXIT);
+            out.writeInt(exitCode);
+            out.flush();
+        }
+        LOG.info(
+            "{} -> {} ({} ms)",
+            String.join(" ", request.args),
+            exitCode,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    private void reject(DataOutputStream out, String reason) throws IOException {
+        out.writeByte(FRAME_REJECTED);
+        out.writeUTF(reason);
+        out.flush();
+    }
+
+    private ScheduledFuture<?> scheduleIdleShutdown(ScheduledExecutorService idleTimer, Duration idleTimeout) {
+        return idleTimer.schedule(() -> {
+            LOG.info("No requests within {}. Shutting down.", idleTimeout);
+            try {
+                serverChannel.close();
+            } catch (final IOException e) {
+                LOG.debug("Error closing daemon socket: {}", e.getMessage(), e);
+            }
+        }, idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
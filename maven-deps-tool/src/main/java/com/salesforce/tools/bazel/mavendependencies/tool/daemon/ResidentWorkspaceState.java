@@ -0,0 +1,282 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+
+import com.salesforce.tools.bazel.cli.helper.UnifiedLogger;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsRepoSys;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+
+/**
+ * State kept resident by the daemon between command executions for a single workspace.
+ * <p>
+ * Holds the parsed {@link MavenDependenciesCollection}, the {@link BazelDependenciesCatalog} and
+ * {@link MavenDepsRepoSys} instances (with a shared repository cache). Before every command the files of the
+ * collection directory (which includes the pinned catalog) are compared against a snapshot taken after the last
+ * successful command. Only if they differ (i.e. someone else modified the files) the parsed collection and catalog
+ * are dropped. A failed command always drops them because the in-memory model might be partially modified.
+ * </p>
+ * <p>
+ * The directory is also watched for changes, but watch events are only used as a hint for logging. Some
+ * {@link WatchService} implementations (eg., the polling one on macOS) report changes seconds late, so relying on them
+ * would execute commands on stale state.
+ * </p>
+ * <p>
+ * This class is not thread-safe. The daemon executes one command at a time.
+ * </p>
+ */
+public class ResidentWorkspaceState implements Closeable {
+
+    /**
+     * Last modified time and size of a file
+     */
+    private static final class FileStamp {
+        final long lastModified;
+        final long size;
+
+        FileStamp(BasicFileAttributes attributes) {
+            lastModified = attributes.lastModifiedTime().toMillis();
+            size = attributes.size();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if ((obj == null) || (getClass() != obj.getClass())) {
+                return false;
+            }
+            final var other = (FileStamp) obj;
+            return (lastModified == other.lastModified) && (size == other.size);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastModified, size);
+        }
+    }
+
+    private static final Logger LOG = UnifiedLogger.getLogger();
+
+    private static volatile ResidentWorkspaceState active;
+
+    /**
+     * Returns the resident state for the given workspace if a command is currently executed by the daemon.
+     *
+     * @param workspaceRoot
+     *            the workspace root of the command
+     * @return the resident state or <code>null</code> when not running within the daemon (or the daemon is serving a
+     *         different workspace)
+     */
+    public static ResidentWorkspaceState getActive(Path workspaceRoot) {
+        final var state = active;
+        if ((state == null) || (workspaceRoot == null)) {
+            return null;
+        }
+        return state.workspaceRoot.equals(workspaceRoot.toAbsolutePath().normalize()) ? state : null;
+    }
+
+    private final Path workspaceRoot;
+    private final Path watchedDirectory;
+    private final WatchService watchService;
+    private final Map<String, MavenDepsRepoSys> repoSysByConfiguration = new HashMap<>();
+
+    private MavenDependenciesCollection collection;
+    private BazelDependenciesCatalog catalog;
+    private Map<Path, FileStamp> snapshot;
+
+    public ResidentWorkspaceState(Path workspaceRoot) throws IOException {
+        this.workspaceRoot = workspaceRoot.toAbsolutePath().normalize();
+        watchedDirectory = new MavenDependenciesCollection(this.workspaceRoot).getDirectory();
+        watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Marks this state as active for the current command execution.
+     */
+    void activate() {
+        active = this;
+    }
+
+    /**
+     * Called after a command was executed.
+     *
+     * @param successful
+     *            <code>true</code> if the command returned successfully, <code>false</code> otherwise
+     * @throws IOException
+     */
+    void afterCommand(boolean successful) throws IOException {
+        active = null;
+
+        // consume any events caused by the command itself; the new snapshot covers them
+        drainWatchEvents();
+
+        if (!successful) {
+            invalidate();
+            return;
+        }
+
+        if ((collection != null) || (catalog != null)) {
+            snapshot = scanWatchedFiles();
+        }
+    }
+
+    /**
+     * Called before a command is executed to drop any state which was modified outside of the daemon.
+     *
+     * @throws IOException
+     */
+    void beforeCommand() throws IOException {
+        // metrics are per command; commands set their own collector if needed
+        for (final MavenDepsRepoSys repoSys : repoSysByConfiguration.values()) {
+            repoSys.setMetricsCollector(MetricsCollector.NO_OP);
+        }
+
+        final var changeReported = drainWatchEvents();
+        if ((snapshot != null) && !snapshot.equals(scanWatchedFiles())) {
+            LOG.debug("Workspace files changed. Dropping resident collection and catalog.");
+            invalidate();
+        } else if (changeReported) {
+            LOG.debug("Workspace files reported as changed but content stamps are unchanged.");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        invalidate();
+        repoSysByConfiguration.clear();
+        watchService.close();
+    }
+
+    /**
+     * @return <code>true</code> if any event was pending
+     */
+    private boolean drainWatchEvents() {
+        var changed = false;
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            changed |= !key.pollEvents().isEmpty();
+            if (!key.reset()) {
+                // directory was deleted
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the resident catalog, loading it if necessary.
+     *
+     * @return the catalog (never <code>null</code>)
+     * @throws IOException
+     *             in case of errors loading the catalog
+     */
+    public BazelDependenciesCatalog getCatalog() throws IOException {
+        if (catalog == null) {
+            final var loaded = new BazelDependenciesCatalog(workspaceRoot);
+            loaded.load();
+            catalog = loaded;
+            snapshotIfNecessary();
+        }
+        return catalog;
+    }
+
+    /**
+     * Returns the resident collection, loading it if necessary.
+     *
+     * @return the collection (never <code>null</code>)
+     * @throws IOException
+     *             in case of errors loading the collection
+     */
+    public MavenDependenciesCollection getCollection() throws IOException {
+        if (collection == null) {
+            final var loaded = new MavenDependenciesCollection(workspaceRoot);
+            loaded.load();
+            collection = loaded;
+            snapshotIfNecessary();
+        }
+        return collection;
+    }
+
+    /**
+     * Returns a resident {@link MavenDepsRepoSys} for the given configuration, creating one if necessary.
+     *
+     * @param configurationKey
+     *            a key uniquely identifying the repository system configuration
+     * @param factory
+     *            factory for creating a new instance
+     * @return the repository system
+     */
+    public MavenDepsRepoSys getRepoSys(String configurationKey, Supplier<MavenDepsRepoSys> factory) {
+        return repoSysByConfiguration.computeIfAbsent(configurationKey, k -> {
+            final var repoSys = factory.get();
+            repoSys.setShareRepositoryCache(true);
+            return repoSys;
+        });
+    }
+
+    public Path getWorkspaceRoot() {
+        return workspaceRoot;
+    }
+
+    private void invalidate() {
+        collection = null;
+        catalog = null;
+        snapshot = null;
+    }
+
+    private Map<Path, FileStamp> scanWatchedFiles() throws IOException {
+        final Map<Path, FileStamp> result = new HashMap<>();
+        if (!Files.isDirectory(watchedDirectory)) {
+            // watch the closest existing parent so the creation is reported (registered when it appears)
+            var parent = watchedDirectory.getParent();
+            while ((parent != null) && !Files.isDirectory(parent)) {
+                parent = parent.getParent();
+            }
+            if (parent != null) {
+                parent.register(watchService, ENTRY_CREATE);
+            }
+            return result;
+        }
+
+        try (Stream<Path> stream = Files.walk(watchedDirectory)) {
+            for (final Path path : (Iterable<Path>) stream::iterator) {
+                final var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isDirectory()) {
+                    // (re-)registering is a no-op for already watched directories
+                    path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                } else {
+                    result.put(path, new FileStamp(attributes));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void snapshotIfNecessary() throws IOException {
+        if (snapshot == null) {
+            drainWatchEvents();
+            snapshot = scanWatchedFiles();
+        }
+    }
+}
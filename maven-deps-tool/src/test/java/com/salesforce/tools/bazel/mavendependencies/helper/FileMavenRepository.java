@@ -0,0 +1,141 @@
+package com.salesforce.tools.bazel.mavendependencies.helper;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+
+/**
+ * A Maven repository in a local directory for tests (accessed using a <code>file://</code> URL).
+ * <p>
+ * Every artifact gets a pom (with its dependencies), a jar and <code>maven-metadata.xml</code>. Checksums are written
+ * for all files because resolution is configured to fail on missing checksums.
+ * </p>
+ */
+public final class FileMavenRepository {
+
+    private static void writeWithChecksums(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        for (String algorithm : new String[] { "SHA-1", "MD5" }) {
+            try {
+                var checksum = HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(content));
+                var extension = algorithm.equals("SHA-1") ? ".sha1" : ".md5";
+                Files.writeString(file.resolveSibling(file.getFileName() + extension), checksum, UTF_8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final Path directory;
+
+    private final Map<String, SortedSet<ComparableVersion>> versionsByGroupAndArtifactId = new TreeMap<>();
+
+    public FileMavenRepository(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds a jar artifact.
+     *
+     * @param coordinates
+     *            <code>groupId:artifactId:version</code>
+     * @param dependencies
+     *            coordinates (<code>groupId:artifactId:version</code>) of compile dependencies
+     * @return this repository for convenience
+     * @throws IOException
+     *             in case of errors writing files
+     */
+    public FileMavenRepository addArtifact(String coordinates, String... dependencies) throws IOException {
+        var parts = coordinates.split(":");
+        var groupId = parts[0];
+        var artifactId = parts[1];
+        var version = parts[2];
+
+        var pom = new StringBuilder();
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        pom.append(format("  <groupId>%s</groupId>%n", groupId));
+        pom.append(format("  <artifactId>%s</artifactId>%n", artifactId));
+        pom.append(format("  <version>%s</version>%n", version));
+        pom.append("  <dependencies>\n");
+        for (String dependency : dependencies) {
+            var dependencyParts = dependency.split(":");
+            pom.append("    <dependency>\n");
+            pom.append(format("      <groupId>%s</groupId>%n", dependencyParts[0]));
+            pom.append(format("      <artifactId>%s</artifactId>%n", dependencyParts[1]));
+            pom.append(format("      <version>%s</version>%n", dependencyParts[2]));
+            pom.append("    </dependency>\n");
+        }
+        pom.append("  </dependencies>\n");
+        pom.append("</project>\n");
+
+        var jar = new ByteArrayOutputStream();
+        try (var zip = new ZipOutputStream(jar)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write(format("Manifest-Version: 1.0%nImplementation-Title: %s%n", coordinates).getBytes(UTF_8));
+            zip.closeEntry();
+        }
+
+        var artifactDirectory = getArtifactDirectory(groupId, artifactId);
+        var versionDirectory = artifactDirectory.resolve(version);
+        writeWithChecksums(
+            versionDirectory.resolve(format("%s-%s.pom", artifactId, version)),
+            pom.toString().getBytes(UTF_8));
+        writeWithChecksums(versionDirectory.resolve(format("%s-%s.jar", artifactId, version)), jar.toByteArray());
+
+        var versions = versionsByGroupAndArtifactId.computeIfAbsent(groupId + ":" + artifactId, k -> new TreeSet<>());
+        versions.add(new ComparableVersion(version));
+        writeMetadata(groupId, artifactId, versions);
+        return this;
+    }
+
+    private Path getArtifactDirectory(String groupId, String artifactId) {
+        return directory.resolve(groupId.replace('.', '/')).resolve(artifactId);
+    }
+
+    /**
+     * @return the <code>file://</code> URL of this repository (with a trailing slash)
+     */
+    public String getUrl() {
+        return directory.toUri().toString();
+    }
+
+    private void writeMetadata(String groupId, String artifactId, SortedSet<ComparableVersion> versions)
+            throws IOException {
+        var metadata = new StringBuilder();
+        metadata.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        metadata.append("<metadata>\n");
+        metadata.append(format("  <groupId>%s</groupId>%n", groupId));
+        metadata.append(format("  <artifactId>%s</artifactId>%n", artifactId));
+        metadata.append("  <versioning>\n");
+        metadata.append(format("    <latest>%s</latest>%n", versions.last()));
+        metadata.append(format("    <release>%s</release>%n", versions.last()));
+        metadata.append("    <versions>\n");
+        for (ComparableVersion version : versions) {
+            metadata.append(format("      <version>%s</version>%n", version));
+        }
+        metadata.append("    </versions>\n");
+        metadata.append("    <lastUpdated>20240101000000</lastUpdated>\n");
+        metadata.append("  </versioning>\n");
+        metadata.append("</metadata>\n");
+        writeWithChecksums(
+            getArtifactDirectory(groupId, artifactId).resolve("maven-metadata.xml"),
+            metadata.toString().getBytes(UTF_8));
+    }
+}
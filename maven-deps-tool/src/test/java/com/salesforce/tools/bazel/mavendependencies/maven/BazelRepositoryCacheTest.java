@@ -0,0 +1,70 @@
+package com.salesforce.tools.bazel.mavendependencies.maven;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.mavendependencies.maven.BazelRepositoryCache.Outcome;
+
+public class BazelRepositoryCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeArtifact(String name, String content) throws Exception {
+        var file = tempDir.resolve("m2").resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content, UTF_8);
+    }
+
+    @Test
+    public void add_verifies_checksum_and_is_idempotent() throws Exception {
+        var artifact = writeArtifact("lib-a-1.0.jar", "lib-a");
+        var sha256 = BazelRepositoryCache.sha256(artifact);
+        var cache = new BazelRepositoryCache(tempDir.resolve("cache"), false);
+
+        assertEquals(Outcome.ADDED, cache.add(artifact, sha256));
+        var entry = tempDir.resolve("cache/content_addressable/sha256").resolve(sha256).resolve("file");
+        assertEquals(entry, cache.getCacheEntry(sha256));
+        assertEquals("lib-a", Files.readString(entry, UTF_8));
+        assertFalse(Files.isSameFile(artifact, entry), "must be a copy");
+
+        assertEquals(Outcome.ALREADY_PRESENT, cache.add(artifact, sha256));
+        assertEquals(Outcome.ALREADY_PRESENT, cache.add(artifact, sha256.toUpperCase()));
+        try (var files = Files.list(entry.getParent())) {
+            assertEquals(1, files.count(), "no temporary files must be left behind");
+        }
+    }
+
+    @Test
+    public void add_rejects_mismatches_and_missing_files() throws Exception {
+        var artifact = writeArtifact("lib-b-1.0.jar", "lib-b");
+        var otherSha256 = BazelRepositoryCache.sha256(writeArtifact("lib-c-1.0.jar", "lib-c"));
+        var cache = new BazelRepositoryCache(tempDir.resolve("cache"), true);
+
+        assertEquals(Outcome.CHECKSUM_MISMATCH, cache.add(artifact, otherSha256));
+        assertFalse(Files.exists(cache.getCacheEntry(otherSha256)));
+
+        assertEquals(Outcome.MISSING, cache.add(tempDir.resolve("m2/missing.jar"), otherSha256));
+
+        assertThrows(IllegalArgumentException.class, () -> cache.add(artifact, "abc"));
+    }
+
+    @Test
+    public void add_hard_links_if_possible() throws Exception {
+        var artifact = writeArtifact("lib-d-1.0.jar", "lib-d");
+        var sha256 = BazelRepositoryCache.sha256(artifact);
+        var cache = new BazelRepositoryCache(tempDir.resolve("cache"), true);
+
+        assertEquals(Outcome.ADDED, cache.add(artifact, sha256));
+        assertTrue(Files.isSameFile(artifact, cache.getCacheEntry(sha256)));
+    }
+}
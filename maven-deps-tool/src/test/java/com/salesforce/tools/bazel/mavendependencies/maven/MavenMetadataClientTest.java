@@ -0,0 +1,146 @@
+package com.salesforce.tools.bazel.mavendependencies.maven;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class MavenMetadataClientTest {
+
+    private static final String METADATA = "<metadata><groupId>com.example</groupId><artifactId>lib-a</artifactId>"
+            + "<versioning><versions><version>1.0</version><version>1.1</version></versions></versioning></metadata>";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final List<String> conditionalHeaders = new ArrayList<>();
+    private final List<String> hostHeaders = new ArrayList<>();
+    private final List<String> proxyAuthorizationHeaders = new ArrayList<>();
+
+    private MavenMetadataClient newClient() {
+        return new MavenMetadataClient(
+                List.of(
+                    new MavenMetadataClient.Repository(
+                            "test",
+                            "http://localhost:" + server.getAddress().getPort() + "/repo",
+                            "Basic dXNlcjpwYXNz")),
+                tempDir,
+                HttpClient.newBuilder());
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/repo/", exchange -> {
+            final var path = exchange.getRequestURI().getPath();
+            final var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditionalHeaders.add(String.valueOf(ifNoneMatch));
+            hostHeaders.add(exchange.getRequestHeaders().getFirst("Host"));
+            proxyAuthorizationHeaders.add(exchange.getRequestHeaders().getFirst("Proxy-Authorization"));
+            if (!"Basic dXNlcjpwYXNz".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                exchange.sendResponseHeaders(401, -1);
+            } else if (path.equals("/repo/com/example/lib-a/maven-metadata.xml")) {
+                if ("\"v1\"".equals(ifNoneMatch)) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    final var body = METADATA.getBytes(UTF_8);
+                    exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+            } else if (path.equals("/repo/com/example/broken/maven-metadata.xml")) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void repeated_requests_are_conditional() throws Exception {
+        var client = newClient();
+        assertEquals(Set.of("1.0", "1.1"), client.fetchVersions("com.example", "lib-a"));
+        assertEquals(0, client.getNotModifiedCount());
+
+        // a new client (eg., the next run) re-uses the stored response
+        client = newClient();
+        assertEquals(Set.of("1.0", "1.1"), client.fetchVersions("com.example", "lib-a"));
+        assertEquals(1, client.getRequestCount());
+        assertEquals(1, client.getNotModifiedCount());
+        assertEquals(List.of("null", "\"v1\""), conditionalHeaders);
+    }
+
+    @Test
+    public void file_repositories_are_read_from_disk() throws Exception {
+        var repositoryDirectory = tempDir.resolve("file-repository");
+        Files.createDirectories(repositoryDirectory.resolve("com/example/lib-a"));
+        Files.writeString(repositoryDirectory.resolve("com/example/lib-a/maven-metadata.xml"), METADATA, UTF_8);
+
+        var repository = new MavenMetadataClient.Repository("local", repositoryDirectory.toUri().toString(), null);
+        assertTrue(repository.isSupported());
+
+        var client = new MavenMetadataClient(List.of(repository), tempDir.resolve("state"), HttpClient.newBuilder());
+        assertEquals(Set.of("1.0", "1.1"), client.fetchVersions("com.example", "lib-a"));
+        assertTrue(client.fetchVersions("com.example", "unknown").isEmpty());
+        assertEquals(0, client.getRequestCount());
+    }
+
+    @Test
+    public void requests_are_sent_through_the_repository_proxy() throws Exception {
+        // the host does not resolve, i.e. the request only succeeds when sent to the proxy
+        var client = new MavenMetadataClient(
+                List.of(
+                    new MavenMetadataClient.Repository(
+                            "proxied",
+                            "http://repository.invalid/repo",
+                            "Basic dXNlcjpwYXNz",
+                            server.getAddress(),
+                            "Basic cHJveHk6c2VjcmV0")),
+                tempDir,
+                HttpClient.newBuilder());
+        assertEquals(Set.of("1.0", "1.1"), client.fetchVersions("com.example", "lib-a"));
+        assertEquals(List.of("repository.invalid"), hostHeaders);
+        assertEquals(List.of("Basic cHJveHk6c2VjcmV0"), proxyAuthorizationHeaders);
+    }
+
+    @Test
+    public void unsupported_repositories() throws Exception {
+        assertTrue(new MavenMetadataClient.Repository("http", "http://localhost/repo", null).isSupported());
+        assertTrue(new MavenMetadataClient.Repository("https", "HTTPS://localhost/repo", null).isSupported());
+        assertFalse(new MavenMetadataClient.Repository("ftp", "ftp://localhost/repo", null).isSupported());
+        assertFalse(new MavenMetadataClient.Repository("relative", "repo", null).isSupported());
+        assertFalse(new MavenMetadataClient.Repository("invalid", "http://local host/repo", null).isSupported());
+    }
+
+    @Test
+    public void unknown_artifacts_and_errors() throws Exception {
+        var client = newClient();
+        assertTrue(client.fetchVersions("com.example", "unknown").isEmpty());
+        assertThrows(IOException.class, () -> client.fetchVersions("com.example", "broken"));
+    }
+}
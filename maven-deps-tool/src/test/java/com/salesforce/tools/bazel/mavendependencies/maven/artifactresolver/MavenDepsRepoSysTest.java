@@ -0,0 +1,48 @@
+package com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.InetSocketAddress;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.Proxy;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.repository.AuthenticationBuilder;
+import org.junit.jupiter.api.Test;
+
+public class MavenDepsRepoSysTest {
+
+    @Test
+    public void metadata_repository_uses_proxy_and_credentials_of_remote_repository() {
+        var repository = new RemoteRepository.Builder("central", "default", "https://repo.example.com/maven2/")
+                .setAuthentication(new AuthenticationBuilder().addUsername("user").addPassword("pass").build())
+                .setProxy(
+                    new Proxy(
+                            Proxy.TYPE_HTTP,
+                            "proxy.example.com",
+                            3128,
+                            new AuthenticationBuilder().addUsername("proxy-user")
+                                    .addPassword("proxy-pass")
+                                    .build()))
+                .build();
+
+        var metadataRepository =
+                MavenDepsRepoSys.toMetadataRepository(new DefaultRepositorySystemSession(), repository);
+
+        assertEquals("central (https://repo.example.com/maven2/)", metadataRepository.toString());
+        assertEquals(InetSocketAddress.createUnresolved("proxy.example.com", 3128), metadataRepository.getProxy());
+        assertEquals("Basic cHJveHktdXNlcjpwcm94eS1wYXNz", metadataRepository.getProxyAuthorization());
+    }
+
+    @Test
+    public void metadata_repository_without_proxy() {
+        var repository = new RemoteRepository.Builder("local", "default", "file:///tmp/repository/").build();
+
+        var metadataRepository =
+                MavenDepsRepoSys.toMetadataRepository(new DefaultRepositorySystemSession(), repository);
+
+        assertNull(metadataRepository.getProxy());
+        assertNull(metadataRepository.getProxyAuthorization());
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChromeTraceRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void stopAndWrite_converts_recorded_events() throws Exception {
+        var traceFile = tempDir.resolve("trace/trace.json");
+        try (var recorder = ChromeTraceRecorder.start()) {
+            var hashing = new HashComputationEvent();
+            hashing.begin();
+            hashing.file = "lib-a-1.0.jar";
+            hashing.algorithm = "SHA-256";
+            hashing.bytes = 4096;
+            hashing.commit();
+
+            var transfer = new ArtifactTransferEvent();
+            transfer.begin();
+            transfer.repository = "central";
+            transfer.url = "https://repo.example.com/com/example/lib-a/1.0/lib-a-1.0.pom";
+            transfer.status = "succeeded";
+            transfer.commit();
+
+            assertEquals(2, recorder.stopAndWrite(traceFile));
+        }
+
+        var json = Files.readString(traceFile, UTF_8);
+        assertTrue(json.contains("\"traceEvents\""), json);
+        assertTrue(json.contains("{ \"name\": \"lib-a-1.0.jar\", \"cat\": \"Hash Computation\", \"ph\": \"X\""), json);
+        assertTrue(json.contains("\"algorithm\": \"SHA-256\""), json);
+        assertTrue(json.contains("\"bytes\": 4096"), json);
+        assertTrue(json.contains("\"name\": \"lib-a-1.0.pom\""), json);
+        assertTrue(json.contains("\"name\": \"thread_name\""), json);
+        assertFalse(json.contains("\"startTime\""), json);
+    }
+}
@@ -0,0 +1,79 @@
+package com.salesforce.tools.bazel.mavendependencies.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MetricsCollectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void no_op_collector_records_nothing() throws Exception {
+        var metrics = MetricsCollector.NO_OP;
+        metrics.increment("something");
+        metrics.recordCacheLookup("artifacts", true);
+        metrics.recordRootResolution("com.example:lib:jar:1.0", 10L);
+        metrics.phase("phase").close();
+
+        assertFalse(metrics.isEnabled());
+        assertTrue(metrics.getCounters().isEmpty());
+        assertTrue(metrics.getRootResolutionNanos().isEmpty());
+    }
+
+    @Test
+    public void writeJson_reports_cpu_time_and_heap_usage_of_this_command() throws Exception {
+        var metrics = new MetricsCollector();
+        metrics.phase("work").close();
+        assertTrue(metrics.getPeakHeapBytes() > 0);
+        var peakHeapBytes = metrics.getPeakHeapBytes();
+
+        var file = tempDir.resolve("metrics.json");
+        metrics.writeJson(file, "pin-dependencies", 0);
+
+        var json = Files.readString(file, UTF_8);
+        assertTrue(json.contains("\"commandThreadCpuTimeMillis\": "), json);
+        assertFalse(json.contains("\"peakHeapBytes\""), json);
+        var processCpuTime = Long.parseLong(json.replaceAll("(?s).*\"processCpuTimeMillis\": (-?\\d+),.*", "$1"));
+        var wallTime = Long.parseLong(json.replaceAll("(?s).*\"wallTimeMillis\": (\\d+),.*", "$1"));
+        var availableProcessors = Runtime.getRuntime().availableProcessors();
+        // measured since the collector was created, not since the JVM started
+        assertTrue(processCpuTime <= ((wallTime + 1000L) * availableProcessors), json);
+        var sampledPeak = Long.parseLong(json.replaceAll("(?s).*\"sampledPeakHeapBytes\": (\\d+),.*", "$1"));
+        assertTrue(sampledPeak >= peakHeapBytes, json);
+    }
+
+    @Test
+    public void writeJson_contains_phases_counters_ratios_and_slowest_roots() throws Exception {
+        var metrics = new MetricsCollector();
+        try (var phase = metrics.phase("resolution")) {
+            metrics.add("transfers.bytes", 2048L);
+        }
+        metrics.recordCacheLookup("artifacts", true);
+        metrics.recordCacheLookup("artifacts", true);
+        metrics.recordCacheLookup("artifacts", true);
+        metrics.recordCacheLookup("artifacts", false);
+        metrics.recordRootResolution("com.example:fast:jar:1.0", 1_000_000L);
+        metrics.recordRootResolution("com.example:slow:jar:1.0", 9_000_000L);
+        metrics.recordRootResolution("com.example:medium:jar:1.0", 5_000_000L);
+
+        var file = tempDir.resolve("out/metrics.json");
+        metrics.writeJson(file, "pin-dependencies", 2);
+
+        var json = Files.readString(file, UTF_8);
+        assertTrue(json.contains("\"command\": \"pin-dependencies\""), json);
+        assertTrue(json.contains("\"resolution\": { \"count\": 1,"), json);
+        assertTrue(json.contains("\"transfers.bytes\": 2048"), json);
+        assertTrue(json.contains("\"artifacts\": 0.7500"), json);
+        assertTrue(json.contains("\"resolvedRoots\": 3"), json);
+        assertTrue(json.indexOf("com.example:slow:jar:1.0") < json.indexOf("com.example:medium:jar:1.0"), json);
+        assertFalse(json.contains("com.example:fast:jar:1.0"), json);
+    }
+}
@@ -0,0 +1,112 @@
+package com.salesforce.tools.bazel.mavendependencies.resolver;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ResolutionShardFileTest {
+
+    private static DefaultDependencyNode node(String coordinates, String scope, DependencyNode... children) {
+        var node = new DefaultDependencyNode(new Dependency(new DefaultArtifact(coordinates), scope));
+        node.setChildren(new ArrayList<>(List.of(children)));
+        return node;
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void roundtrip_preserves_trees_and_messages() throws Exception {
+        var loser = node("com.example:lib-c:jar:1.0", "compile");
+        loser.setData(ConflictResolver.NODE_DATA_WINNER, node("com.example:lib-c:jar:2.0", "compile"));
+        var managed = node("com.example:lib-d:jar:tests:3.0", "runtime");
+        managed.setData(DependencyManagerUtils.NODE_DATA_PREMANAGED_VERSION, "2.9");
+        managed.setManagedBits(DependencyNode.MANAGED_VERSION);
+        var withFile = new DefaultDependencyNode(
+                new Dependency(
+                        new DefaultArtifact("com.example:lib-b:jar:1.0").setFile(new File("/tmp/repo/lib b.jar")),
+                        "compile",
+                        true));
+        withFile.setChildren(new ArrayList<>(List.of(loser)));
+        var root = node("com.example:lib-a:jar:1.0", "compile", withFile, managed);
+
+        var file = tempDir.resolve("shard.result");
+        ResolutionShardFile.write(
+            file,
+            0,
+            2,
+            3,
+            Map.of(ArtifactIdUtils.toId(root.getArtifact()), root),
+            Collections.emptyList(),
+            List.of("first problem\twith tab", "second\nproblem"),
+            Map.of("com.example:lib-a:jar:1.0", 42L),
+            Map.of("transfers.bytes", 1024L));
+
+        var shard = ResolutionShardFile.read(file);
+        assertEquals(3, shard.getNumberOfRoots());
+        assertEquals(List.of("first problem\twith tab", "second\nproblem"), shard.getProblems());
+        assertTrue(shard.getTransferFailures().isEmpty());
+        assertEquals(Map.of("com.example:lib-a:jar:1.0", 42L), shard.getRootResolutionNanos());
+        assertEquals(Map.of("transfers.bytes", 1024L), shard.getCounters());
+
+        var readRoot = shard.getDependencyNodeByResolvedCoordinates().get("com.example:lib-a:jar:1.0");
+        assertEquals(2, readRoot.getChildren().size());
+
+        var readWithFile = readRoot.getChildren().get(0);
+        assertEquals("com.example:lib-b:jar:1.0", ArtifactIdUtils.toId(readWithFile.getArtifact()));
+        assertEquals(new File("/tmp/repo/lib b.jar").getAbsoluteFile(), readWithFile.getArtifact().getFile());
+        assertTrue(readWithFile.getDependency().isOptional());
+
+        var readLoser = readWithFile.getChildren().get(0);
+        var winner = (DependencyNode) readLoser.getData().get(ConflictResolver.NODE_DATA_WINNER);
+        assertEquals("com.example:lib-c:jar:2.0", ArtifactIdUtils.toId(winner.getArtifact()));
+        assertNull(readLoser.getArtifact().getFile());
+
+        var readManaged = readRoot.getChildren().get(1);
+        assertEquals("com.example:lib-d:jar:tests:3.0", ArtifactIdUtils.toId(readManaged.getArtifact()));
+        assertEquals("runtime", readManaged.getDependency().getScope());
+        assertEquals("2.9", DependencyManagerUtils.getPremanagedVersion(readManaged));
+        assertFalse(readManaged.getData().containsKey(ConflictResolver.NODE_DATA_WINNER));
+    }
+
+    @Test
+    public void selectRoots_is_deterministic_and_complete() throws Exception {
+        List<Dependency> roots = IntStream.range(0, 17)
+                .mapToObj(i -> new Dependency(new DefaultArtifact("com.example:lib-" + i + ":1.0"), "compile"))
+                .collect(toList());
+        List<Dependency> shuffled = new ArrayList<>(roots);
+        Collections.shuffle(shuffled);
+
+        var seen = new HashSet<String>();
+        for (var shardIndex = 0; shardIndex < 4; shardIndex++) {
+            var slice = ResolutionShardFile.selectRoots(roots, shardIndex, 4);
+            assertEquals(slice, ResolutionShardFile.selectRoots(shuffled, shardIndex, 4));
+            for (Dependency d : slice) {
+                assertTrue(seen.add(ArtifactIdUtils.toId(d.getArtifact())));
+            }
+        }
+        assertEquals(roots.stream().map(d -> ArtifactIdUtils.toId(d.getArtifact())).collect(toSet()), seen);
+    }
+}
@@ -0,0 +1,161 @@
+package com.salesforce.tools.bazel.mavendependencies.resolver;
+
+import static java.util.stream.Collectors.toCollection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.cli.helper.NullProgressMonitor;
+import com.salesforce.tools.bazel.cli.scm.NaiveScmToolConverter;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.helper.FileMavenRepository;
+import com.salesforce.tools.bazel.mavendependencies.maven.artifactresolver.MavenDepsRepoSys;
+import com.salesforce.tools.bazel.mavendependencies.metrics.MetricsCollector;
+import com.salesforce.tools.bazel.mavendependencies.resolver.StarlarkDependenciesResolver.ResolveAndDownloadResult;
+import com.salesforce.tools.bazel.mavendependencies.tool.cli.DependenciesToolCli;
+import com.salesforce.tools.bazel.mavendependencies.tool.cli.MessageCollector;
+
+public class StarlarkDependenciesResolverTest {
+
+    private static void collectTree(DependencyNode node, String prefix, List<String> lines) {
+        lines.add(prefix + ArtifactIdUtils.toId(node.getArtifact()));
+        for (DependencyNode child : node.getChildren()) {
+            collectTree(child, prefix + "  ", lines);
+        }
+    }
+
+    private static SortedSet<String> toIds(List<Artifact> artifacts) {
+        return artifacts.stream().map(ArtifactIdUtils::toId).collect(toCollection(TreeSet::new));
+    }
+
+    private static SortedMap<String, List<String>> toTrees(ResolveAndDownloadResult result) {
+        SortedMap<String, List<String>> trees = new TreeMap<>();
+        for (Map.Entry<String, DependencyNode> entry : result.getDependencyNodeByIndividuallyResolvedCoordinates()
+                .entrySet()) {
+            List<String> lines = new ArrayList<>();
+            collectTree(entry.getValue(), "", lines);
+            trees.put(entry.getKey(), lines);
+        }
+        return trees;
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private Path workspace;
+
+    private FileMavenRepository repository;
+
+    private ProcessBuilder newResolveShardProcess(int shardIndex, int shardCount, Path resultFile) {
+        return new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp",
+                System.getProperty("java.class.path"),
+                DependenciesToolCli.class.getName(),
+                "resolve-shard",
+                "--batch-mode",
+                "--workspace-root=" + workspace,
+                "--maven-central=" + repository.getUrl(),
+                "--local-maven-repository=" + tempDir.resolve("shards-m2"),
+                "--shard-index=" + shardIndex,
+                "--shard-count=" + shardCount,
+                "--shard-result-file=" + resultFile);
+    }
+
+    private ResolveAndDownloadResult resolve(int shardCount, StarlarkDependenciesResolver.ShardWorkerLauncher launcher)
+            throws Exception {
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        var repoSys = new MavenDepsRepoSys(
+                null,
+                repository.getUrl(),
+                null,
+                tempDir.resolve(shardCount > 1 ? "sharded-m2" : "unsharded-m2"));
+        return new StarlarkDependenciesResolver(collection, repoSys, MetricsCollector.NO_OP)
+                .resolveAndDownload(new MessageCollector(), shardCount, launcher);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository = new FileMavenRepository(tempDir.resolve("repository"));
+        repository.addArtifact("com.example:b:1.0")
+                .addArtifact("com.example:b:1.1")
+                .addArtifact("com.example:d:1.0", "com.example:b:1.1")
+                .addArtifact("com.example:a:1.0", "com.example:b:1.0")
+                .addArtifact("com.example:c:1.0", "com.example:d:1.0")
+                .addArtifact("com.example:e:1.0")
+                .addArtifact("com.example:f:1.0", "com.example:e:1.0", "com.example:d:1.0");
+
+        workspace = tempDir.resolve("workspace");
+        var collection = new MavenDependenciesCollection(workspace);
+        collection.load();
+        for (String artifactId : List.of("a", "c", "e", "f")) {
+            collection.addDependency(new MavenArtifact("com.example", artifactId, "1.0", "jar", null));
+        }
+        collection.save(
+            "@bazel_maven_deps//bazel:defs.bzl",
+            null /* no preamble */,
+            false,
+            false,
+            new NullProgressMonitor(),
+            new NaiveScmToolConverter().convert("noop"));
+    }
+
+    @Test
+    public void sharded_resolution_matches_unsharded_resolution() throws Exception {
+        var unsharded = resolve(1, null);
+        var sharded = resolve(3, this::newResolveShardProcess);
+
+        assertEquals(
+            new TreeSet<>(
+                    List.of(
+                        "com.example:a:jar:1.0",
+                        "com.example:c:jar:1.0",
+                        "com.example:e:jar:1.0",
+                        "com.example:f:jar:1.0")),
+            new TreeSet<>(unsharded.getDependencyNodeByIndividuallyResolvedCoordinates().keySet()));
+        assertEquals(toTrees(unsharded), toTrees(sharded));
+        assertEquals(toIds(unsharded.getResolvedArtifacts()), toIds(sharded.getResolvedArtifacts()));
+        assertTrue(unsharded.getTransferFailures().isEmpty(), () -> unsharded.getTransferFailures().toString());
+        assertTrue(sharded.getTransferFailures().isEmpty(), () -> sharded.getTransferFailures().toString());
+    }
+
+    @Test
+    public void started_workers_are_destroyed_when_launching_fails() throws Exception {
+        // a worker which would run for a long time (argument is used to identify it)
+        var marker = String.valueOf(600 + (System.nanoTime() % 1000));
+        var failure = assertThrows(IllegalStateException.class, () -> resolve(2, (shardIndex, shardCount, resultFile) -> {
+            if (shardIndex > 0) {
+                throw new IllegalStateException("launch failed");
+            }
+            return new ProcessBuilder("sleep", marker);
+        }));
+        assertEquals("launch failed", failure.getMessage());
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (ProcessHandle.current()
+                .children()
+                .anyMatch(p -> p.info().arguments().map(a -> List.of(a).contains(marker)).orElse(false))) {
+            assertTrue(System.nanoTime() < deadline, "worker is still running");
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.spy;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+
+public class BatchCommandTest extends IntegrationTestForCommands<BatchCommand> {
+
+    public BatchCommandTest() {
+        super(BatchCommand.class);
+    }
+
+    private MavenDependenciesCollection loadCollectionForBatch() throws Exception {
+        var collection = new MavenDependenciesCollection(tempDir);
+        collection.load();
+        collection = spy(collection);
+        collection.beginBatchModification();
+        return collection;
+    }
+
+    private BufferedReader script(String... lines) {
+        return new BufferedReader(new StringReader(join(System.lineSeparator(), lines)));
+    }
+
+    private String writeScript(String... lines) throws Exception {
+        var script = tempDir.resolve("batch.txt");
+        Files.writeString(script, join(System.lineSeparator(), lines), UTF_8);
+        return script.toString();
+    }
+
+    @Test
+    public final void all_operations_applied_and_saved_once() throws Exception {
+        executeCommand(
+            "--script",
+            writeScript(
+                "# update bot",
+                "set-variable _TEST_VERSION 1.0.1",
+                "",
+                "add org.example:added:2.0.0",
+                "set-version other:without-variable 3.1.0",
+                "remove other:to-remove",
+                "add-exclusion org.excluded:excluded"));
+
+        assertCollectionSaveResult();
+        assertCollectionContainsVariable("_TEST_VERSION", "1.0.1");
+        assertCollectionContainsVariable("_ADDED_VERSION", "2.0.0");
+        assertCollectionContainsArtifact(new MavenArtifact("org.example", "added", "_ADDED_VERSION", "jar", null));
+        assertCollectionContainsArtifact(new MavenArtifact("other", "without-variable", "3.1.0", "jar", null));
+        assertNull(assertCollection().findArtifact("other:to-remove:jar"));
+        assertFalse(assertCollection().hasVersionVariable("_TO_REMOVE_VERSION"));
+        assertTrue(
+            assertCollection()
+                    .isExcludedByGlobalExclusions(new MavenArtifact("org.excluded", "excluded", "1", "jar", null)));
+    }
+
+    @Test
+    public final void failed_lines_are_reported_and_nothing_is_saved() throws Exception {
+        executeCommand(
+            "--script",
+            writeScript(
+                "set-variable _TEST_VERSION 1.0.1",
+                "set-version does.not:exist 1.0",
+                "set-variable _UNKNOWN_VERSION 1.0",
+                "frobnicate foo"));
+
+        assertNoCollectionSaveResult();
+        assertMessageCollector().assertError("3 operation(s) failed");
+        assertMessageCollector().assertError("Line 2: Artifact with coordinates 'does.not:exist:jar' not defined");
+        assertMessageCollector().assertError("Line 3: Version variable '_UNKNOWN_VERSION' not found");
+        assertMessageCollector().assertError("Line 4: Unknown operation 'frobnicate'");
+        assertCollectionContainsVariable("_TEST_VERSION", "1.0.0");
+    }
+
+    @Test
+    public final void failed_lines_can_be_ignored() throws Exception {
+        executeCommand(
+            "--ignore-failed-lines",
+            "--script",
+            writeScript("set-variable _TEST_VERSION 1.0.1", "remove does.not:exist"));
+
+        assertCollectionSaveResult();
+        assertMessageCollector().assertError("Line 2:");
+        assertCollectionContainsVariable("_TEST_VERSION", "1.0.1");
+    }
+
+    @Test
+    public final void failed_set_version_leaves_collection_unchanged() throws Exception {
+        var collection = loadCollectionForBatch();
+        lenient().doThrow(new IllegalStateException("add failed"))
+                .when(collection)
+                .addDependency(argThat(a -> "3.1.0".equals(a.getVersion())));
+
+        var failures = new BatchCommand()
+                .applyScript(collection, script("set-version other:without-variable 3.1.0"), new MessageCollector());
+
+        assertEquals(1, failures.size());
+        assertEquals(
+            format("Line 1: add failed%n  > set-version other:without-variable 3.1.0"),
+            failures.get(0).toString());
+        assertEquals("3.0.0", collection.findArtifact("other:without-variable:jar").getVersion());
+        collection.endBatchModification();
+    }
+
+    @Test
+    public final void failure_removing_unused_version_variables_is_reported() throws Exception {
+        var collection = loadCollectionForBatch();
+        doThrow(new IllegalStateException("invalid collection")).when(collection).getAllArtifacts();
+
+        var failures = new BatchCommand().applyScript(
+            collection,
+            script("set-variable _TEST_VERSION 1.0.1", "remove other:to-remove"),
+            new MessageCollector());
+
+        assertEquals(1, failures.size());
+        assertEquals(
+            "After line 2: Unable to remove unused version variables: invalid collection",
+            failures.get(0).toString());
+        assertNull(collection.findArtifact("other:to-remove:jar"));
+        assertTrue(collection.hasVersionVariable("_TO_REMOVE_VERSION"));
+        assertEquals("1.0.1", collection.getVersionVariableValue("_TEST_VERSION"));
+    }
+
+    @Override
+    protected void setupNewCollection(MavenDependenciesCollection dependenciesCollection) {
+        dependenciesCollection.addDependencyWithManagedVersion(
+            new MavenArtifact("test", "artifact-with-variable", "_TEST_VERSION", "jar", null),
+            "_TEST_VERSION",
+            "1.0.0");
+        dependenciesCollection.addDependency(new MavenArtifact("other", "without-variable", "3.0.0", "jar", null));
+        dependenciesCollection.addDependencyWithManagedVersion(
+            new MavenArtifact("other", "to-remove", "_TO_REMOVE_VERSION", "jar", null),
+            "_TO_REMOVE_VERSION",
+            "1.0.0");
+    }
+}
@@ -0,0 +1,32 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import picocli.CommandLine.Command;
+
+public class DependenciesToolCliTest {
+
+    @Test
+    public void command_model_matches_command_annotations() throws Exception {
+        var classes = new HashSet<Class<?>>();
+        for (String name : DependenciesToolCli.COMMAND_NAMES) {
+            var command = DependenciesToolCli.newCommand(name);
+            assertNotNull(command, name);
+            assertEquals(name, command.getClass().getAnnotation(Command.class).name());
+            classes.add(command.getClass());
+        }
+        assertEquals(DependenciesToolCli.COMMAND_NAMES.size(), classes.size());
+    }
+
+    @Test
+    public void unknown_command() throws Exception {
+        assertNull(DependenciesToolCli.newCommand("--help"));
+        assertNull(DependenciesToolCli.newCommand("no-such-command"));
+    }
+}
@@ -0,0 +1,198 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport.createForArtifact;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.helper.FileMavenRepository;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelDependenciesCatalog;
+import com.salesforce.tools.bazel.mavendependencies.pinnedcatalog.BazelJavaDependencyImport;
+
+/**
+ * Runs the impact command on a small workspace resolving from a <code>file://</code> repository.
+ * <p>
+ * The collection has the roots <code>a</code>, <code>e</code>, <code>c</code>, <code>v</code> (using
+ * <code>_V_VERSION</code>) and <code>lib</code>. The pinned catalog matches the collection: <code>a</code> depends on
+ * <code>lib</code> and <code>t</code>, <code>e</code> depends on <code>t</code>.
+ * </p>
+ */
+public class ImpactCommandIntegrationTest extends IntegrationTestForCommands<ImpactCommand> {
+
+    private static MavenArtifact jar(String groupId, String artifactId, String version) {
+        return new MavenArtifact(groupId, artifactId, version, "jar", null);
+    }
+
+    private static String label(MavenArtifact artifact) {
+        return "@" + createForArtifact(artifact).build().getName();
+    }
+
+    private FileMavenRepository repository;
+
+    private SortedMap<Path, List<Object>> workspaceFiles;
+
+    public ImpactCommandIntegrationTest() {
+        super(ImpactCommand.class);
+    }
+
+    private void assertWorkspaceUnchanged() throws IOException {
+        assertEquals(workspaceFiles, snapshotWorkspaceFiles(), "the impact command must not modify any file");
+    }
+
+    private int executeImpact(String... args) throws Exception {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--maven-central=" + repository.getUrl());
+        arguments.add("--local-maven-repository=" + tempDir.resolve(".m2"));
+        arguments.addAll(List.of(args));
+        return executeCommand(arguments.toArray(new String[arguments.size()]));
+    }
+
+    @Override
+    @BeforeEach
+    protected void setUp() throws Exception {
+        repository = new FileMavenRepository(tempDir.resolve(".repository"));
+        repository.addArtifact("org.lib:lib:1.0")
+                .addArtifact("org.lib:lib:1.1")
+                .addArtifact("com.example:t:1.0")
+                .addArtifact("com.example:t:1.1")
+                .addArtifact("com.example:a:1.0", "org.lib:lib:1.0", "com.example:t:1.0")
+                .addArtifact("com.example:e:1.0", "com.example:t:1.0")
+                .addArtifact("com.example:e:1.1", "com.example:t:1.1")
+                .addArtifact("com.example:c:1.0")
+                .addArtifact("com.example:c:1.1")
+                .addArtifact("com.example:v:1.0")
+                .addArtifact("com.example:v:1.1")
+                .addArtifact("com.example:n:1.0");
+
+        super.setUp();
+
+        var lib = jar("org.lib", "lib", "1.0");
+        var t = jar("com.example", "t", "1.0");
+        List<BazelJavaDependencyImport> imports = List.of(
+            createForArtifact(lib).build(),
+            createForArtifact(t).build(),
+            createForArtifact(jar("com.example", "a", "1.0")).setDeps(List.of(label(lib), label(t))).build(),
+            createForArtifact(jar("com.example", "e", "1.0")).setDeps(List.of(label(t))).build(),
+            createForArtifact(jar("com.example", "c", "1.0")).build(),
+            createForArtifact(jar("com.example", "v", "1.0")).build());
+        var catalog = new BazelDependenciesCatalog(tempDir);
+        catalog.load();
+        catalog.replaceContent(imports.stream(), false);
+        catalog.save(
+            new TreeSet<>(List.of(repository.getUrl())),
+            "@bazel_maven_deps//bazel:jvm.bzl",
+            null /* no preamble */,
+            noopProgressMonitor(),
+            noopScmTool());
+
+        workspaceFiles = snapshotWorkspaceFiles();
+    }
+
+    @Override
+    protected void setupNewCollection(MavenDependenciesCollection dependenciesCollection) {
+        dependenciesCollection.addDependency(jar("com.example", "a", "1.0"));
+        dependenciesCollection.addDependency(jar("com.example", "e", "1.0"));
+        dependenciesCollection.addDependency(jar("com.example", "c", "1.0"));
+        dependenciesCollection.addDependency(jar("org.lib", "lib", "1.0"));
+        dependenciesCollection
+                .addDependencyWithManagedVersion(jar("com.example", "v", "_V_VERSION"), "_V_VERSION", "1.0");
+    }
+
+    /**
+     * @return content and modification time of all files of the collection and the pinned catalog
+     */
+    private SortedMap<Path, List<Object>> snapshotWorkspaceFiles() throws IOException {
+        SortedMap<Path, List<Object>> files = new TreeMap<>();
+        try (Stream<Path> stream = Files.walk(tempDir.resolve("third_party"))) {
+            for (Path file : stream.filter(Files::isRegularFile).toList()) {
+                files.put(file, List.of(Files.readString(file), Files.getLastModifiedTime(file)));
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public final void add_and_remove() throws Exception {
+        assertEquals(0, executeImpact("--add", "com.example:n:1.0", "--remove", "com.example:c"));
+
+        assertInfoMessageContains("Proposed: add com.example:n:jar:1.0");
+        assertInfoMessageContains("Proposed: remove com.example:c:jar");
+        assertInfoMessageContains("1 of 5 dependencies are affected by 2 changed managed versions");
+        assertInfoMessageContains("+ com.example:n:jar:1.0");
+        assertInfoMessageContains("- com.example:c:jar:1.0");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void artifact_change_re_resolves_reverse_dependencies_only() throws Exception {
+        assertEquals(0, executeImpact("org.lib:lib=1.1"));
+
+        assertInfoMessageContains("Proposed: org.lib:lib 1.0 -> 1.1");
+        assertInfoMessageContains("2 of 5 dependencies are affected by 1 changed managed versions");
+        assertInfoMessageContains("* org.lib:lib:jar (1.0 -> 1.1");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void artifact_with_version_variable_is_routed_to_the_variable() throws Exception {
+        assertEquals(0, executeImpact("com.example:v=1.1"));
+
+        assertInfoMessageContains("Proposed: _V_VERSION = 1.1 (used by com.example:v)");
+        assertInfoMessageContains("1 of 5 dependencies are affected by 1 changed managed versions");
+        assertInfoMessageContains("* com.example:v:jar (1.0 -> 1.1");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void conflict_with_unaffected_dependencies_fails() throws Exception {
+        assertEquals(1, executeImpact("com.example:e=1.1"));
+
+        assertInfoMessageContains("Proposed: com.example:e 1.0 -> 1.1");
+        assertInfoMessageContains("1 of 5 dependencies are affected by 1 changed managed versions");
+        assertMessageCollector().assertWarning("com.example:t:jar: 1.1 (affected) <> 1.0 (unaffected)");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void no_modification_of_the_pinned_catalog() throws Exception {
+        assertEquals(0, executeImpact("com.example:c=1.0"));
+
+        assertInfoMessageContains("0 of 5 dependencies are affected by 0 changed managed versions");
+        assertMessageCollector().assertImportant("The proposed changes do not modify the pinned catalog.");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void unbalanced_graph_fails() throws Exception {
+        // a (through lib) and e become affected and need different versions of t
+        assertEquals(1, executeImpact("org.lib:lib=1.1", "com.example:e=1.1"));
+
+        assertInfoMessageContains("3 of 5 dependencies are affected by 2 changed managed versions");
+        assertMessageCollector().assertWarning("The dependency graph would be unbalanced");
+        assertMessageCollector().assertWarning("com.example:t:jar:1.");
+        assertWorkspaceUnchanged();
+    }
+
+    @Test
+    public final void version_variable_change() throws Exception {
+        assertEquals(0, executeImpact("_V_VERSION=1.1"));
+
+        assertInfoMessageContains("Proposed: _V_VERSION = 1.1");
+        assertInfoMessageContains("1 of 5 dependencies are affected by 1 changed managed versions");
+        assertInfoMessageContains("* com.example:v:jar (1.0 -> 1.1");
+        assertWorkspaceUnchanged();
+    }
+}
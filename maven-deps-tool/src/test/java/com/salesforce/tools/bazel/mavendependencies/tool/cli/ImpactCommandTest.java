@@ -0,0 +1,28 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ImpactCommandTest {
+
+    @Test
+    public void findChangedManagedVersions_reports_updated_added_and_removed() {
+        final var current = Map.of("g:a:jar", "1.0", "g:b:jar", "2.0", "g:c:jar", "3.0");
+        final var proposed = Map.of("g:a:jar", "1.0", "g:b:jar", "2.1", "g:d:jar", "4.0");
+
+        assertEquals(
+            List.of("g:b:jar", "g:c:jar", "g:d:jar"),
+            List.copyOf(ImpactCommand.findChangedManagedVersions(current, proposed)));
+    }
+
+    @Test
+    public void findChangedManagedVersions_empty_when_equal() {
+        final var versions = Map.of("g:a:jar", "1.0");
+        assertTrue(ImpactCommand.findChangedManagedVersions(versions, Map.copyOf(versions)).isEmpty());
+    }
+}
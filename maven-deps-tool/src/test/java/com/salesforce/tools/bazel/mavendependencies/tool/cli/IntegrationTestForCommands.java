@@ -135,7 +135,12 @@ public abstract class IntegrationTestForCommands<T extends BaseCommandUsingDepen
         assertThat(saveResult.deletedFiles, hasSize(0));
     }
 
-    protected void executeCommand(String... args) throws Exception {
+    /**
+     * Executes the command with the given arguments (in addition to <code>--workspace-root</code>).
+     *
+     * @return the exit code of the command
+     */
+    protected int executeCommand(String... args) throws Exception {
         List<String> arguments = new ArrayList<>(args.length + 1);
 
         arguments.add("--workspace-root=" + tempDir.toString());
@@ -148,8 +153,9 @@ public abstract class IntegrationTestForCommands<T extends BaseCommandUsingDepen
         // parse & execute manually (instead of using #execute) because we don't want to swallow any exceptions!
         var parseResult = commandLine.parseArgs(arguments.toArray(new String[arguments.size()]));
 
+        int exitCode;
         try {
-            commandLine.getExecutionStrategy().execute(parseResult);
+            exitCode = commandLine.getExecutionStrategy().execute(parseResult);
         } catch (ExecutionException e) {
             // re-throw cause if possible (it's easier for writing tests)
             if (e.getCause() instanceof Exception) {
@@ -159,6 +165,7 @@ public abstract class IntegrationTestForCommands<T extends BaseCommandUsingDepen
         }
 
         collectionAfterExecution = loadCollection();
+        return exitCode;
     }
 
     private MavenDependenciesCollection loadCollection() throws IOException {
@@ -207,6 +214,9 @@ public abstract class IntegrationTestForCommands<T extends BaseCommandUsingDepen
         // use a no-op scm tool
         doReturn(noopScmTool()).when(command).getScmTool();
 
+        // keep caches out of the user's home
+        doReturn(tempDir.resolve(".cache")).when(command).getWorkspaceCacheDirectory();
+
         // use no-op
         doReturn(noopVulnerabilityScanner()).when(command).getVulnerabilityScanner(any());
 
@@ -31,6 +31,18 @@ public final class MessageCollector extends MessagePrinter {
 
     private final List<Message> messages = new ArrayList<>();
 
+    public void assertError(String text) {
+        assertTrue(
+            messages.parallelStream().anyMatch(m -> (m.level == Level.ERROR) && m.text.contains(text)),
+            () -> format("Expected ERROR message not found in command output: %s", text));
+    }
+
+    public void assertImportant(String text) {
+        assertTrue(
+            messages.parallelStream().anyMatch(m -> (m.level == Level.IMPORTANT) && m.text.contains(text)),
+            () -> format("Expected IMPORTANT message not found in command output: %s", text));
+    }
+
     public void assertInfo(String text) {
         assertTrue(
             messages.parallelStream().anyMatch(m -> (m.level == Level.INFO) && m.text.contains(text)),
@@ -38,6 +50,12 @@ public final class MessageCollector extends MessagePrinter {
 
     }
 
+    public void assertWarning(String text) {
+        assertTrue(
+            messages.parallelStream().anyMatch(m -> (m.level == Level.WARNING) && m.text.contains(text)),
+            () -> format("Expected WARNING message not found in command output: %s", text));
+    }
+
     @Override
     public void close() {
         // no-op
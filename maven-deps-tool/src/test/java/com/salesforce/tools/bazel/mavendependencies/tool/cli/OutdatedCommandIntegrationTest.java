@@ -0,0 +1,36 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenArtifact;
+import com.salesforce.tools.bazel.mavendependencies.collection.MavenDependenciesCollection;
+import com.salesforce.tools.bazel.mavendependencies.helper.FileMavenRepository;
+
+public class OutdatedCommandIntegrationTest extends IntegrationTestForCommands<OutdatedCommand> {
+
+    public OutdatedCommandIntegrationTest() {
+        super(OutdatedCommand.class);
+    }
+
+    @Test
+    public final void file_repository_is_read_and_unsupported_repository_is_skipped() throws Exception {
+        var repository = new FileMavenRepository(tempDir.resolve("repository"));
+        repository.addArtifact("com.example:lib:1.0").addArtifact("com.example:lib:1.1");
+
+        var exitCode = executeCommand(
+            "--maven-central=" + repository.getUrl(),
+            "--maven-repository=ftp://repository.invalid/maven2/",
+            "--local-maven-repository=" + tempDir.resolve("m2"));
+
+        assertEquals(0, exitCode);
+        assertMessageCollector().assertWarning("only http(s) and file URLs are supported");
+        assertMessageCollector().assertInfo("minor  com.example:lib: 1.0 -> 1.1");
+    }
+
+    @Override
+    protected void setupNewCollection(MavenDependenciesCollection dependenciesCollection) {
+        dependenciesCollection.addDependency(new MavenArtifact("com.example", "lib", "1.0", "jar", null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.salesforce.tools.bazel.mavendependencies.tool.cli.OutdatedCommand.UpdateType;
+
+public class OutdatedCommandTest {
+
+    @Test
+    public void classify_by_first_differing_part() {
+        assertEquals(UpdateType.major, OutdatedCommand.classify("1.2.3", "2.0.0"));
+        assertEquals(UpdateType.minor, OutdatedCommand.classify("1.2.3", "1.3.0"));
+        assertEquals(UpdateType.patch, OutdatedCommand.classify("1.2.3", "1.2.4"));
+        assertEquals(UpdateType.major, OutdatedCommand.classify("32.1.0-jre", "33.0.0-jre"));
+    }
+
+    @Test
+    public void findNewerVersions_skips_prereleases_and_other_flavors() {
+        assertTrue(OutdatedCommand.isPrerelease("2.0.0-M1"));
+        assertTrue(OutdatedCommand.isPrerelease("2.0.0.Beta2"));
+        assertTrue(OutdatedCommand.isPrerelease("2.0.0rc1"));
+        assertFalse(OutdatedCommand.isPrerelease("33.0.0-jre"));
+        assertFalse(OutdatedCommand.isPrerelease("1.0-platform"));
+
+        assertEquals(
+            Set.of("1.1.0"),
+            OutdatedCommand.findNewerVersions("1.0.0", List.of("0.9.0", "1.0.0", "1.1.0", "2.0.0-M1"), false));
+        assertEquals(
+            Set.of("1.1.0", "2.0.0-M1"),
+            OutdatedCommand.findNewerVersions("1.0.0", List.of("0.9.0", "1.0.0", "1.1.0", "2.0.0-M1"), true));
+        assertEquals(
+            Set.of("33.0.0-jre"),
+            OutdatedCommand.findNewerVersions("32.1.0-jre", List.of("33.0.0-android", "33.0.0-jre"), false));
+    }
+
+    @Test
+    public void computeOutdated_groups_by_version_variable() {
+        var outdated = OutdatedCommand.computeOutdated(
+            Map.of("_NETTY_VERSION", "4.1.0", "org.example:lib", "1.0.0", "org.example:current", "3.0.0"),
+            Map.of(
+                "_NETTY_VERSION",
+                Set.of("io.netty:netty-buffer", "io.netty:netty-common"),
+                "org.example:lib",
+                Set.of("org.example:lib"),
+                "org.example:current",
+                Set.of("org.example:current")),
+            Map.of(
+                "io.netty:netty-buffer",
+                List.of("4.1.0", "4.1.1", "4.2.0"),
+                "io.netty:netty-common",
+                List.of("4.1.0", "4.1.1"),
+                "org.example:lib",
+                List.of("1.0.0", "1.0.1"),
+                "org.example:current",
+                List.of("3.0.0")),
+            false);
+
+        assertEquals(2, outdated.size());
+
+        var netty = outdated.get(0);
+        assertEquals("_NETTY_VERSION", netty.name);
+        assertTrue(netty.versionVariable);
+        assertEquals("4.1.1", netty.latestVersion, "latest version must be available for all artifacts");
+        assertEquals(UpdateType.patch, netty.updateType);
+        assertEquals(
+            Map.of("io.netty:netty-buffer", "4.2.0", "io.netty:netty-common", "4.1.1"),
+            netty.latestVersionByArtifact);
+
+        var lib = outdated.get(1);
+        assertEquals("org.example:lib", lib.name);
+        assertFalse(lib.versionVariable);
+        assertEquals("1.0.1", lib.latestVersion);
+
+        var noCommonVersion = OutdatedCommand.computeOutdated(
+            Map.of("_V", "1.0"),
+            Map.of("_V", Set.of("g:a", "g:b")),
+            Map.of("g:a", List.of("1.1"), "g:b", List.of("1.2")),
+            false);
+        assertNull(noCommonVersion.get(0).latestVersion);
+        assertEquals(UpdateType.minor, noCommonVersion.get(0).updateType);
+        assertTrue(OutdatedCommand.toJson(noCommonVersion).contains("\"latest\": null"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.salesforce.tools.bazel.mavendependencies.tool.daemon.DaemonProtocol.Request;
+
+public class DaemonServerTest {
+
+    private static Request newRequest(String fingerprint, Path workspaceRoot, String... args) {
+        return new Request(
+                fingerprint,
+                workspaceRoot,
+                DaemonProtocol.getCurrentWorkingDirectory(),
+                DaemonProtocol.getRelevantEnvironment(System.getenv()),
+                args);
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void only_the_command_position_is_checked_for_local_commands() throws Exception {
+        assertTrue(DaemonClient.shouldForward(new String[] { "dependency-info", "batch" }));
+        assertTrue(DaemonClient.shouldForward(new String[] { "query", "--format", "daemon" }));
+        assertFalse(DaemonClient.shouldForward(new String[] { "batch", "--script", "-" }));
+        assertFalse(DaemonClient.shouldForward(new String[] { "daemon" }));
+        assertFalse(DaemonClient.shouldForward(new String[] { "--help" }));
+        assertFalse(DaemonClient.shouldForward(new String[0]));
+    }
+
+    @Test
+    public void forwards_output_and_exit_code() throws Exception {
+        var workspaceRoot = tempDir.resolve("workspace");
+        var socketPath = tempDir.resolve("sockets").resolve("daemon.sock");
+        var collections = new ArrayList<Object>();
+
+        try (var state = new ResidentWorkspaceState(workspaceRoot);
+                var server = new DaemonServer(socketPath, state, args -> {
+                    try {
+                        var active = ResidentWorkspaceState.getActive(workspaceRoot);
+                        collections.add(active.getCollection());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    System.out.println("hello " + String.join(" ", args));
+                    System.err.println("oops");
+                    return 3;
+                })) {
+            assertEquals(
+                "rwx------",
+                PosixFilePermissions.toString(Files.getPosixFilePermissions(socketPath.getParent())));
+
+            var serving = CompletableFuture.runAsync(() -> {
+                try {
+                    server.serve(Duration.ofMinutes(1));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            var fingerprint = DaemonProtocol.computeClassPathFingerprint();
+            for (var i = 0; i < 2; i++) {
+                var stdout = new ByteArrayOutputStream();
+                var stderr = new ByteArrayOutputStream();
+                var exitCode = DaemonClient.send(
+                    socketPath,
+                    newRequest(fingerprint, workspaceRoot, "dependency-info", "--batch-mode"),
+                    new PrintStream(stdout, true, UTF_8),
+                    new PrintStream(stderr, true, UTF_8));
+                assertEquals(3, exitCode.getAsInt());
+                assertEquals("hello dependency-info --batch-mode" + System.lineSeparator(), stdout.toString(UTF_8));
+                assertEquals("oops" + System.lineSeparator(), stderr.toString(UTF_8));
+            }
+
+            // a failing command (exit code 3) drops the resident collection
+            assertEquals(2, collections.size());
+            assertFalse(collections.get(0) == collections.get(1));
+
+            // different build is rejected
+            var stderr = new ByteArrayOutputStream();
+            var rejected = DaemonClient.send(
+                socketPath,
+                newRequest("other-build", workspaceRoot, "dependency-info"),
+                System.out,
+                new PrintStream(stderr, true, UTF_8));
+            assertFalse(rejected.isPresent());
+            assertTrue(stderr.toString(UTF_8).contains("different build"));
+
+            // different working directory is rejected (relative paths would resolve differently)
+            stderr = new ByteArrayOutputStream();
+            rejected = DaemonClient.send(
+                socketPath,
+                new Request(
+                        fingerprint,
+                        workspaceRoot,
+                        tempDir.resolve("elsewhere"),
+                        DaemonProtocol.getRelevantEnvironment(System.getenv()),
+                        new String[] { "dependency-info" }),
+                System.out,
+                new PrintStream(stderr, true, UTF_8));
+            assertFalse(rejected.isPresent());
+            assertTrue(stderr.toString(UTF_8).contains("running in directory"), stderr.toString(UTF_8));
+
+            // different environment is rejected
+            var environment = new TreeMap<>(DaemonProtocol.getRelevantEnvironment(System.getenv()));
+            environment.put("NETRC", tempDir.resolve("other.netrc").toString());
+            stderr = new ByteArrayOutputStream();
+            rejected = DaemonClient.send(
+                socketPath,
+                new Request(
+                        fingerprint,
+                        workspaceRoot,
+                        DaemonProtocol.getCurrentWorkingDirectory(),
+                        environment,
+                        new String[] { "dependency-info" }),
+                System.out,
+                new PrintStream(stderr, true, UTF_8));
+            assertFalse(rejected.isPresent());
+            assertTrue(stderr.toString(UTF_8).contains("different environment (NETRC)"), stderr.toString(UTF_8));
+            assertEquals(2, collections.size(), "rejected commands must not be executed");
+
+            // shutdown
+            var shutdown = DaemonClient
+                    .send(socketPath, newRequest(fingerprint, workspaceRoot), System.out, System.err);
+            assertEquals(0, shutdown.getAsInt());
+            serving.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void socket_directory_is_per_user() throws Exception {
+        assertEquals(
+            Path.of("/run/user/1000", "bazel-maven-deps"),
+            DaemonProtocol.getSocketDirectory(Map.of("XDG_RUNTIME_DIR", "/run/user/1000")));
+        assertEquals(
+            Path.of(System.getProperty("java.io.tmpdir"), "bazel-maven-deps-" + System.getProperty("user.name")),
+            DaemonProtocol.getSocketDirectory(Map.of()));
+    }
+
+    @Test
+    public void socket_in_shared_directory_is_refused() throws Exception {
+        var sharedDirectory = Files.createDirectory(tempDir.resolve("shared"));
+        Files.setPosixFilePermissions(sharedDirectory, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        try (var state = new ResidentWorkspaceState(tempDir.resolve("workspace"))) {
+            var e = assertThrows(
+                IOException.class,
+                () -> new DaemonServer(sharedDirectory.resolve("daemon.sock"), state, args -> 0));
+            assertTrue(e.getMessage().contains("must only be accessible by the current user"), e.getMessage());
+        }
+    }
+}
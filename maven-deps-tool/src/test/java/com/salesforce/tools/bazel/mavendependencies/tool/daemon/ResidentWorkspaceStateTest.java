@@ -0,0 +1,120 @@
+package com.salesforce.tools.bazel.mavendependencies.tool.daemon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ResidentWorkspaceStateTest {
+
+    @TempDir
+    Path workspaceRoot;
+
+    @Test
+    public void external_modification_drops_collection() throws Exception {
+        var collectionDirectory = Files.createDirectories(workspaceRoot.resolve("third_party/dependencies"));
+        var someFile = Files.writeString(collectionDirectory.resolve("README.md"), "a", UTF_8);
+
+        try (var state = new ResidentWorkspaceState(workspaceRoot)) {
+            state.beforeCommand();
+            var collection = state.getCollection();
+            state.afterCommand(true);
+
+            state.beforeCommand();
+            assertSame(collection, state.getCollection());
+            state.afterCommand(true);
+
+            // modify outside of a command
+            Files.writeString(someFile, "changed", UTF_8);
+
+            // file events are delivered asynchronously
+            var deadline = System.currentTimeMillis() + 10_000L;
+            var reloaded = collection;
+            while ((reloaded == collection) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(50L);
+                state.beforeCommand();
+                reloaded = state.getCollection();
+                state.afterCommand(true);
+            }
+            assertNotSame(collection, reloaded);
+        }
+    }
+
+    @Test
+    public void external_modification_is_detected_without_waiting_for_watch_events() throws Exception {
+        var collectionDirectory = Files.createDirectories(workspaceRoot.resolve("third_party/dependencies"));
+        var someFile = Files.writeString(collectionDirectory.resolve("README.md"), "a", UTF_8);
+
+        try (var state = new ResidentWorkspaceState(workspaceRoot)) {
+            state.beforeCommand();
+            var collection = state.getCollection();
+            state.afterCommand(true);
+
+            Files.writeString(someFile, "changed", UTF_8);
+
+            state.beforeCommand();
+            assertNotSame(collection, state.getCollection());
+            state.afterCommand(true);
+        }
+    }
+
+    @Test
+    public void files_in_directory_created_later_are_detected() throws Exception {
+        try (var state = new ResidentWorkspaceState(workspaceRoot)) {
+            state.beforeCommand();
+            var collection = state.getCollection();
+            state.afterCommand(true);
+
+            var collectionDirectory = Files.createDirectories(workspaceRoot.resolve("third_party/dependencies"));
+            Files.writeString(collectionDirectory.resolve("README.md"), "a", UTF_8);
+
+            state.beforeCommand();
+            var reloaded = state.getCollection();
+            assertNotSame(collection, reloaded);
+            state.afterCommand(true);
+
+            state.beforeCommand();
+            assertSame(reloaded, state.getCollection());
+            state.afterCommand(true);
+        }
+    }
+
+    @Test
+    public void getActive_only_during_command_for_same_workspace() throws Exception {
+        try (var state = new ResidentWorkspaceState(workspaceRoot)) {
+            assertNull(ResidentWorkspaceState.getActive(workspaceRoot));
+
+            state.beforeCommand();
+            state.activate();
+            assertSame(state, ResidentWorkspaceState.getActive(workspaceRoot.resolve(".")));
+            assertNull(ResidentWorkspaceState.getActive(workspaceRoot.resolve("other")));
+            state.afterCommand(true);
+
+            assertNull(ResidentWorkspaceState.getActive(workspaceRoot));
+        }
+    }
+
+    @Test
+    public void successful_commands_keep_state_resident() throws Exception {
+        List<Object> collections = new ArrayList<>();
+        try (var state = new ResidentWorkspaceState(workspaceRoot)) {
+            for (var i = 0; i < 3; i++) {
+                state.beforeCommand();
+                state.activate();
+                collections.add(ResidentWorkspaceState.getActive(workspaceRoot).getCollection());
+                state.afterCommand(true);
+            }
+        }
+        assertSame(collections.get(0), collections.get(1));
+        assertSame(collections.get(1), collections.get(2));
+        assertNull(ResidentWorkspaceState.getActive(workspaceRoot));
+    }
+}
@@ -14,18 +14,34 @@ import java.util.stream.Stream;
  * For example, intercepts line breaks (LF) (dropping CRs) and inserts an indention with spaces based on the current
  * indention level.
  * </p>
+ * <p>
+ * Text is appended in runs between line breaks, i.e. indention handling only happens at line breaks and not for every
+ * character. Use {@link #StarlarkStringBuilder(int, int)} when the approximate size of the output is known upfront
+ * (eg., for large files).
+ * </p>
  */
 public class StarlarkStringBuilder implements Appendable {
 
     private static final char DOUBLE_QUOTE = '"';
-    private final StringBuilder stringBuilder = new StringBuilder();
+    private final StringBuilder stringBuilder;
     private final int numberOfSpacesPerIndentionLevel;
 
     private int currentIndentionLevel = 0;
     private boolean appendIndentionBeforeNextChar;
 
     public StarlarkStringBuilder(int numberOfSpacesPerIndentionLevel) {
+        this(numberOfSpacesPerIndentionLevel, 16);
+    }
+
+    /**
+     * @param numberOfSpacesPerIndentionLevel
+     *            number of spaces per indention level
+     * @param expectedLength
+     *            the expected number of characters (used for sizing the internal buffer upfront)
+     */
+    public StarlarkStringBuilder(int numberOfSpacesPerIndentionLevel, int expectedLength) {
         this.numberOfSpacesPerIndentionLevel = numberOfSpacesPerIndentionLevel;
+        stringBuilder = new StringBuilder(Math.max(16, expectedLength));
 
         // on a fresh instance, the first char will trigger an indention
         appendIndentionBeforeNextChar = true;
@@ -33,45 +49,70 @@ public class StarlarkStringBuilder implements Appendable {
 
     @Override
     public StarlarkStringBuilder append(char c) {
-        append((int) c);
+        switch (c) {
+            case '\n':
+                appendLineBreak();
+                break;
+
+            case '\r':
+                // we will skip those
+                break;
+
+            default:
+                appendIndentionIfNecessary();
+                stringBuilder.append(c);
+                break;
+        }
         return this;
     }
 
     @Override
     public StarlarkStringBuilder append(CharSequence csq) {
-        csq.chars().forEachOrdered(this::append);
-        return this;
+        return append(csq, 0, csq.length());
     }
 
     @Override
     public StarlarkStringBuilder append(CharSequence csq, int start, int end) {
-        csq.subSequence(start, end).chars().forEachOrdered(this::append);
+        var runStart = start;
+        for (var i = start; i < end; i++) {
+            var c = csq.charAt(i);
+            if ((c == '\n') || (c == '\r')) {
+                appendRun(csq, runStart, i);
+                if (c == '\n') {
+                    appendLineBreak();
+                }
+                runStart = i + 1;
+            }
+        }
+        appendRun(csq, runStart, end);
         return this;
     }
 
-    private void append(int codePoint) {
+    private void appendIndentionIfNecessary() {
         if (appendIndentionBeforeNextChar) {
-            if (((stringBuilder.length() == 0) || (stringBuilder.charAt(stringBuilder.length() - 1) == '\n'))
-                    && (codePoint != '\n')) {
+            if ((stringBuilder.length() == 0) || (stringBuilder.charAt(stringBuilder.length() - 1) == '\n')) {
                 // only indent when we are not writing an empty line
-                stringBuilder.append(" ".repeat(currentIndentionLevel * numberOfSpacesPerIndentionLevel));
+                for (var i = currentIndentionLevel * numberOfSpacesPerIndentionLevel; i > 0; i--) {
+                    stringBuilder.append(' ');
+                }
             }
             appendIndentionBeforeNextChar = false;
         }
+    }
 
-        switch (codePoint) {
-            case '\n':
-                stringBuilder.append(System.lineSeparator());
-                appendIndentionBeforeNextChar = true;
-                break;
-
-            case '\r':
-                // we will skip those
-                break;
+    private void appendLineBreak() {
+        // no indention for empty lines
+        stringBuilder.append(System.lineSeparator());
+        appendIndentionBeforeNextChar = true;
+    }
 
-            default:
-                stringBuilder.appendCodePoint(codePoint);
-                break;
+    /**
+     * Appends a sequence of characters without any line breaks.
+     */
+    private void appendRun(CharSequence csq, int start, int end) {
+        if (start < end) {
+            appendIndentionIfNecessary();
+            stringBuilder.append(csq, start, end);
         }
     }
 
@@ -123,14 +164,12 @@ public class StarlarkStringBuilder implements Appendable {
     }
 
     private StarlarkStringBuilder appendEscaped(String text) {
-        text.chars().forEach(c -> {
-            if (DOUBLE_QUOTE == (char) c) {
-                append('\\').append(DOUBLE_QUOTE);
-            } else {
-                append(c);
-            }
-        });
-        return this;
+        var runStart = 0;
+        for (var quote = text.indexOf(DOUBLE_QUOTE); quote != -1; quote = text.indexOf(DOUBLE_QUOTE, runStart)) {
+            append(text, runStart, quote).append('\\').append(DOUBLE_QUOTE);
+            runStart = quote + 1;
+        }
+        return append(text, runStart, text.length());
     }
 
     public StarlarkStringBuilder appendGlobAttribute(String attributeName, Collection<String> globPatterns) {
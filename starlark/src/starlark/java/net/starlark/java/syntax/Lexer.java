@@ -33,6 +33,9 @@ final class Lexer {
   // benefit to any further internment. See discussion on Google-internal cl/385193833 for details.
   private static final Interner<String> identInterner = Interners.newWeakInterner();
 
+  // Number of slots (a power of two) of the per-file identifier cache.
+  private static final int IDENT_CACHE_SIZE = 1024;
+
   // --- These fields are accessed directly by the parser: ---
 
   // Mapping from file offsets to Locations.
@@ -62,6 +65,10 @@ final class Lexer {
 
   private final ImmutableList.Builder<Comment> comments = ImmutableList.builder();
 
+  // Interned identifiers (and keywords) by hash of their text. Identifiers are repeated throughout
+  // a file (e.g. keyword argument names), so most of them are found here without allocating.
+  private final String[] identCache = new String[IDENT_CACHE_SIZE];
+
   // The number of unclosed open-parens ("(", '{', '[') at the current point in
   // the stream. Whitespace is handled differently when this is nonzero.
   private int openParenStackDepth = 0;
@@ -529,7 +536,7 @@ final class Lexer {
    */
   private void identifierOrKeyword() {
     int oldPos = pos - 1;
-    String id = identInterner.intern(scanIdentifier());
+    String id = scanIdentifier();
     TokenKind kind = keywordMap.get(id);
     if (kind == null) {
       setToken(TokenKind.IDENTIFIER, oldPos, pos);
@@ -545,6 +552,7 @@ final class Lexer {
     // Keep consistent with Identifier.isValid.
     // TODO(laurentlb): Handle Unicode letters.
     int oldPos = pos - 1;
+    int hash = buffer[oldPos];
     while (pos < buffer.length) {
       switch (buffer[pos]) {
         case '_':
@@ -560,13 +568,32 @@ final class Lexer {
         case 'Y': case 'Z':
         case '0': case '1': case '2': case '3': case '4': case '5':
         case '6': case '7': case '8': case '9':
+          hash = 31 * hash + buffer[pos];
           pos++;
           break;
        default:
-          return bufferSlice(oldPos, pos);
+          return internIdentifier(oldPos, pos, hash);
+      }
+    }
+    return internIdentifier(oldPos, pos, hash);
+  }
+
+  /** Returns the interned identifier at the given offsets, using the per-file cache if possible. */
+  private String internIdentifier(int start, int end, int hash) {
+    int slot = (hash ^ (hash >>> 16)) & (IDENT_CACHE_SIZE - 1);
+    String cached = identCache[slot];
+    if (cached != null && cached.length() == end - start) {
+      int i = 0;
+      while (i < cached.length() && cached.charAt(i) == buffer[start + i]) {
+        i++;
+      }
+      if (i == cached.length()) {
+        return cached;
       }
     }
-    return bufferSlice(oldPos, pos);
+    String id = identInterner.intern(bufferSlice(start, end));
+    identCache[slot] = id;
+    return id;
   }
 
   /**
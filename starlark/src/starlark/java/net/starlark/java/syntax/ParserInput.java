@@ -20,8 +20,9 @@ import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * The apparent name and contents of a source file, for consumption by the parser. The file name
@@ -36,6 +37,12 @@ import java.nio.file.Paths;
  */
 public final class ParserInput {
 
+  // Buffers for reading files are reused per thread. Files are read one after another and the
+  // generated files read by the dependency tool are large. Larger buffers are not retained.
+  private static final int MAX_POOLED_READ_BUFFER_SIZE = 16 << 20;
+  private static final ThreadLocal<ByteBuffer> readBuffers =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocate(64 << 10));
+
   private final String file;
   private final char[] content;
 
@@ -57,10 +64,37 @@ public final class ParserInput {
   /**
    * Returns an input source that uses the name and content of the specified UTF-8-encoded text
    * file.
+   *
+   * <p>The file is read into a buffer reused by the calling thread. ASCII content is widened
+   * directly; anything else is decoded as UTF-8.
    */
   public static ParserInput readFile(String file) throws IOException {
-    byte[] utf8 = Files.readAllBytes(Paths.get(file));
-    return fromUTF8(utf8, file);
+    try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size >= Integer.MAX_VALUE - 8) {
+        throw new OutOfMemoryError("Required array size too large: " + file);
+      }
+
+      // one more byte than the size so that reaching EOF does not require growing the buffer
+      ByteBuffer buffer = readBuffers.get();
+      if (buffer.capacity() <= size) {
+        buffer = ByteBuffer.allocate((int) size + 1);
+      }
+      buffer.clear();
+      while (channel.read(buffer) >= 0) {
+        if (!buffer.hasRemaining()) {
+          // the file grew while reading
+          ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+          buffer.flip();
+          larger.put(buffer);
+          buffer = larger;
+        }
+      }
+      if (buffer.capacity() <= MAX_POOLED_READ_BUFFER_SIZE) {
+        readBuffers.set(buffer);
+      }
+      return fromUTF8(buffer.array(), buffer.position(), file);
+    }
   }
 
   /** Returns an unnamed input source that reads from a list of strings, joined by newlines. */
@@ -73,10 +107,23 @@ public final class ParserInput {
    * subsequently mutate the array.
    */
   public static ParserInput fromUTF8(byte[] bytes, String file) {
-    CharBuffer cb = UTF_8.decode(ByteBuffer.wrap(bytes));
-    char[] utf16 = new char[cb.length()];
-    cb.get(utf16);
-    return fromCharArray(utf16, file);
+    return fromUTF8(bytes, bytes.length, file);
+  }
+
+  private static ParserInput fromUTF8(byte[] bytes, int length, String file) {
+    // Fast path: ASCII is a subset of UTF-8 and can be widened without a decoder.
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      byte b = bytes[i];
+      if (b < 0) {
+        CharBuffer cb = UTF_8.decode(ByteBuffer.wrap(bytes, 0, length));
+        char[] utf16 = new char[cb.length()];
+        cb.get(utf16);
+        return fromCharArray(utf16, file);
+      }
+      chars[i] = (char) b;
+    }
+    return fromCharArray(chars, file);
   }
 
   /**
@@ -3,6 +3,9 @@ package com.salesforce.tools.bazel.mavendependencies.starlark;
 import static java.nio.file.Files.writeString;
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
@@ -83,6 +86,29 @@ public class StarlarkFileParserTest {
 
 	}
 
+	@Test
+	public void parse_non_ascii_and_repeated_identifiers() throws IOException {
+		TestableStarlarkFileParser parser = createParser("name = \"äöü €\"\nname = \"plain\"\nother = name\n");
+
+		List<AssignmentStatement> assignments = parser.starlarkFile.getStatements()
+				.stream()
+				.filter(AssignmentStatement.class::isInstance)
+				.map(AssignmentStatement.class::cast)
+				.collect(toList());
+		assertEquals(3, assignments.size());
+		assertEquals("äöü €", parser.parseStringLiteralOrMultilineStringExpression(assignments.get(0).getRHS()));
+		assertEquals("plain", parser.parseStringLiteralOrMultilineStringExpression(assignments.get(1).getRHS()));
+		assertSame(((Identifier) assignments.get(0).getLHS()).getName(),
+				((Identifier) assignments.get(2).getRHS()).getName());
+	}
+
+	@Test
+	public void syntax_error_reports_location() throws IOException {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> createParser("a = 1\nb = ]\n"));
+		assertTrue(e.getMessage().contains(":2:5)"), e.getMessage());
+	}
+
 	private TestableStarlarkFileParser createParser(String content) throws IOException {
 		Path starlarkFile = tempDir.resolve("test_" + System.nanoTime() + ".bzl");
 		writeString(starlarkFile, content);
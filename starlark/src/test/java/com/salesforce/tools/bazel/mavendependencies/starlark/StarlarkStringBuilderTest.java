@@ -109,4 +109,19 @@ public class StarlarkStringBuilderTest {
                    stringBuilder.toString()); // @formatter:on
     }
 
+    @Test
+    public void testIndention_multiple_lines_in_one_append() throws Exception {
+        StarlarkStringBuilder stringBuilder = new StarlarkStringBuilder(2);
+
+        stringBuilder.increaseIndention();
+        stringBuilder.append("a\r\n\nb \"c\"\n");
+        stringBuilder.appendQuoted("say \"hi\"");
+
+        assertEquals( // @formatter:off
+                      "  a" + System.lineSeparator() +
+                      System.lineSeparator() +
+                      "  b \"c\"" + System.lineSeparator() +
+                      "  \"say \\\"hi\\\"\"",
+                   stringBuilder.toString()); // @formatter:on
+    }
 }